@@ -2,8 +2,10 @@ package com.persou.prontosus;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProntosusApplication {
     public static void main(String[] args) {
         SpringApplication.run(ProntosusApplication.class, args);
@@ -11,8 +11,11 @@ import com.persou.prontosus.application.UpdateAppointmentUseCase;
 import com.persou.prontosus.config.mapper.AppointmentMapper;
 import com.persou.prontosus.domain.Appointment;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -139,6 +142,30 @@ public class AppointmentController {
         }
     }
 
+    @GetMapping("/professional/{professionalId}/agenda")
+    @ResponseStatus(OK)
+    public Map<LocalDate, List<AppointmentResponse>> getProfessionalAgenda(
+        @PathVariable String professionalId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+        @RequestParam(required = false) Integer days) {
+
+        try {
+            log.info("Buscando agenda do profissional {} a partir de {}", professionalId, start);
+
+            Map<LocalDate, List<AppointmentResponse>> agenda = new LinkedHashMap<>();
+            findAppointmentUseCase.findAgenda(professionalId, start, days)
+                .forEach((day, appointments) -> agenda.put(day, appointments.stream()
+                    .map(appointmentMapper::toResponse)
+                    .toList()));
+
+            return agenda;
+
+        } catch (Exception e) {
+            log.error("Erro ao buscar agenda do profissional {}: {}", professionalId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @GetMapping("/patient/{patientId}/status/{status}")
     @ResponseStatus(OK)
     public List<AppointmentResponse> getPatientAppointmentsByStatus(
@@ -9,7 +9,11 @@ import com.persou.prontosus.application.AuthenticateUserUseCase;
 import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.config.mapper.UserMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.LoginThrottle;
+import com.persou.prontosus.domain.User;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -25,13 +29,26 @@ public class AuthController {
     private final AuthenticateUserUseCase authenticateUserUseCase;
     private final JwtService jwtService;
     private final UserMapper userMapper;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/login")
     @ResponseStatus(OK)
-    public LoginResponse login(@Valid @RequestBody LoginRequest request) {
-        return authenticateUserUseCase.execute(request.username(), request.password())
+    public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Rejeita antes de qualquer consulta ou BCrypt. O IP vem do proxy confiável (server.forward-headers-strategy)
+        LoginThrottle.Reservation reservation = loginThrottle.reserve(request.username(), httpRequest.getRemoteAddr());
+
+        Optional<User> authenticated;
+        try {
+            authenticated = authenticateUserUseCase.execute(request.username(), request.password());
+        } catch (RuntimeException e) {
+            loginThrottle.release(reservation);
+            throw e;
+        }
+
+        return authenticated
             .map(user -> {
-                String token = jwtService.generateToken(user.username());
+                loginThrottle.recordSuccess(reservation);
+                String token = jwtService.generateToken(user);
 
                 return LoginResponse.builder()
                     .token(token)
@@ -47,7 +64,10 @@ public class AuthController {
                         .build())
                     .build();
             })
-            .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_AUTHORIZED));
+            .orElseThrow(() -> {
+                loginThrottle.recordFailure(reservation);
+                return new ResourceNotFoundException(USER_NOT_AUTHORIZED);
+            });
     }
 
 }
\ No newline at end of file
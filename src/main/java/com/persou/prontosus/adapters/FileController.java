@@ -1,28 +1,57 @@
 package com.persou.prontosus.adapters;
 
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
+import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
+import com.persou.prontosus.adapters.download.FileRegionWriter;
+import com.persou.prontosus.adapters.request.UploadSessionRequest;
 import com.persou.prontosus.adapters.response.FileAttachmentResponse;
+import com.persou.prontosus.adapters.response.UploadDeduplicationResponse;
+import com.persou.prontosus.adapters.response.UploadSessionResponse;
+import com.persou.prontosus.application.ChunkedUploadUseCase;
+import com.persou.prontosus.application.DeduplicateUploadsUseCase;
+import com.persou.prontosus.application.DownloadAttachmentUseCase;
 import com.persou.prontosus.application.UploadExamFileUseCase;
+import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.config.mapper.FileAttachmentMapper;
 import com.persou.prontosus.domain.FileAttachment;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.domain.valueobject.AttachmentContent;
+import com.persou.prontosus.domain.valueobject.UploadSession;
 import com.persou.prontosus.gateway.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @Slf4j
@@ -31,7 +60,14 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/files")
 public class FileController {
 
+    private static final Set<String> INLINE_CONTENT_TYPES = Set.of(
+        "image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp", "application/pdf"
+    );
+
     private final UploadExamFileUseCase uploadExamFileUseCase;
+    private final ChunkedUploadUseCase chunkedUploadUseCase;
+    private final DeduplicateUploadsUseCase deduplicateUploadsUseCase;
+    private final DownloadAttachmentUseCase downloadAttachmentUseCase;
     private final FileAttachmentMapper fileAttachmentMapper;
     private final UserRepository userRepository;
 
@@ -86,6 +122,47 @@ public class FileController {
         }
     }
 
+    // Upload em partes, para arquivos acima do limite do multipart: abre a sessão, recebe as partes em ordem
+    // (PUT com Upload-Offset e X-Chunk-Sha256) e anexa no commit. GET da sessão informa de onde retomar.
+    @PostMapping("/medical-record/{medicalRecordId}/uploads")
+    @ResponseStatus(CREATED)
+    public UploadSessionResponse startUpload(@PathVariable String medicalRecordId,
+                                             @Valid @RequestBody UploadSessionRequest request) {
+        return toResponse(chunkedUploadUseCase.start(medicalRecordId, request.fileName(), request.contentType(),
+            request.totalSize(), request.description(), currentUser()));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @ResponseStatus(OK)
+    public UploadSessionResponse uploadStatus(@PathVariable String uploadId) {
+        return toResponse(chunkedUploadUseCase.status(uploadId, currentUser()));
+    }
+
+    // Corpo cru (application/octet-stream), lido direto da requisição sem passar pelo multipart
+    @PutMapping("/uploads/{uploadId}/chunks/{index}")
+    @ResponseStatus(OK)
+    public UploadSessionResponse uploadChunk(@PathVariable String uploadId, @PathVariable int index,
+                                             @RequestHeader("Upload-Offset") long offset,
+                                             @RequestHeader("X-Chunk-Sha256") String sha256,
+                                             HttpServletRequest request) throws IOException {
+        return toResponse(chunkedUploadUseCase.appendChunk(uploadId, index, offset, sha256,
+            request.getInputStream(), currentUser()));
+    }
+
+    @PostMapping("/uploads/{uploadId}/commit")
+    @ResponseStatus(CREATED)
+    public FileAttachmentResponse commitUpload(@PathVariable String uploadId,
+                                               @RequestParam(value = "sha256", required = false) String sha256)
+        throws IOException {
+        return fileAttachmentMapper.toResponse(chunkedUploadUseCase.commit(uploadId, sha256, currentUser()));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @ResponseStatus(NO_CONTENT)
+    public void cancelUpload(@PathVariable String uploadId) {
+        chunkedUploadUseCase.cancel(uploadId, currentUser());
+    }
+
     @GetMapping("/patient/{patientId}")
     @ResponseStatus(OK)
     public List<FileAttachmentResponse> getPatientFiles(@PathVariable String patientId) {
@@ -105,4 +182,123 @@ public class FileController {
             throw new RuntimeException("Erro ao buscar arquivos: " + e.getMessage(), e);
         }
     }
+
+    // Migração dos arquivos antigos para o armazenamento por conteúdo (somente ADMIN, ver SecurityConfig)
+    @PostMapping("/maintenance/deduplicate")
+    @ResponseStatus(OK)
+    public UploadDeduplicationResponse deduplicateUploads() {
+        return UploadDeduplicationResponse.from(deduplicateUploadsUseCase.execute());
+    }
+
+    // Download com Range (trechos de imagens grandes) e ETag: If-None-Match com o mesmo ETag responde 304
+    // sem corpo. Cache só no navegador (private) e sempre revalidado (no-cache), por ser dado de paciente.
+    @GetMapping("/{attachmentId}/download")
+    public void download(@PathVariable String attachmentId, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        serve(downloadAttachmentUseCase.execute(attachmentId), request, response);
+    }
+
+    // Miniatura JPEG de anexos do tipo IMAGE, para galerias; 404 enquanto não tiver sido gerada
+    @GetMapping("/{attachmentId}/thumbnail")
+    public void thumbnail(@PathVariable String attachmentId, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        serve(downloadAttachmentUseCase.thumbnail(attachmentId), request, response);
+    }
+
+    private User currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userRepository.findByUsername(auth.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + auth.getName()));
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session) {
+        return UploadSessionResponse.from(session, chunkedUploadUseCase.maxChunkSize());
+    }
+
+    private void serve(AttachmentContent content, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(content.etag())) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(content).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Conteúdo enviado pelo usuário nunca roda script nem herda a origem da API, mesmo aberto direto
+        response.setHeader("Content-Security-Policy", "sandbox");
+        response.setContentType(content.contentType());
+
+        long size = content.size();
+        List<HttpRange> ranges;
+        try {
+            ranges = requestedRanges(request, content.etag());
+        } catch (IllegalArgumentException e) {
+            // Range malformado é ignorado (RFC 9110): 416 só para trecho bem formado fora do arquivo
+            ranges = List.of();
+        }
+
+        // Vários trechos (multipart/byteranges) não são atendidos: o arquivo vai inteiro, como a RFC permite
+        if (ranges.size() != 1) {
+            response.setStatus(OK.value());
+            writeRegion(request, response, content, 0, size);
+            return;
+        }
+
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(size);
+            end = ranges.get(0).getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            rangeNotSatisfiable(response, size);
+            return;
+        }
+        // O Spring não valida o início contra o tamanho: bytes=20-30 num arquivo de 10 bytes vira start > end
+        if (start >= size || start > end) {
+            rangeNotSatisfiable(response, size);
+            return;
+        }
+        response.setStatus(PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        writeRegion(request, response, content, start, end - start + 1);
+    }
+
+    private void writeRegion(HttpServletRequest request, HttpServletResponse response, AttachmentContent content,
+                             long start, long length) throws IOException {
+        if (content.codec() == StorageCodec.NONE) {
+            FileRegionWriter.write(request, response, content.path(), start, length);
+            return;
+        }
+        try (InputStream decoded = downloadAttachmentUseCase.open(content)) {
+            FileRegionWriter.write(response, decoded, start, length);
+        }
+    }
+
+    // If-Range com ETag diferente (ou ETag fraco) invalida o Range: o cliente recebe o arquivo atual inteiro
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && (etag.startsWith("W/") || !ifRange.equals(etag))) {
+            return List.of();
+        }
+        return HttpRange.parseRanges(range);
+    }
+
+    private static void rangeNotSatisfiable(HttpServletResponse response, long size) {
+        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+    }
+
+    // Só imagem rasterizada e PDF abrem no navegador; o resto (text/html, image/svg+xml com script) é baixado
+    private static ContentDisposition contentDisposition(AttachmentContent content) {
+        String contentType = content.contentType().split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        boolean inline = INLINE_CONTENT_TYPES.contains(contentType);
+        return (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+            .filename(content.fileName(), StandardCharsets.UTF_8)
+            .build();
+    }
 }
\ No newline at end of file
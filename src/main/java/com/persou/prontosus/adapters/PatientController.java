@@ -4,29 +4,42 @@ import static com.persou.prontosus.config.MessagesErrorException.DOCUMENT_NOT_FO
 import static com.persou.prontosus.config.MessagesErrorException.ENTITY_NOT_FOUND;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persou.prontosus.adapters.importer.PatientImportReader;
 import com.persou.prontosus.adapters.request.PatientRequest;
+import com.persou.prontosus.adapters.response.PatientImportResponse;
 import com.persou.prontosus.adapters.response.PatientResponse;
 import com.persou.prontosus.application.FindPatientUseCase;
+import com.persou.prontosus.application.ImportPatientsUseCase;
 import com.persou.prontosus.application.RegisterPatientUseCase;
 import com.persou.prontosus.application.UpdatePatientUseCase;
 import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.domain.Patient;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -34,18 +47,44 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/patients")
 public class PatientController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FindPatientUseCase findPatientUseCase;
     private final RegisterPatientUseCase registerPatientUseCase;
     private final UpdatePatientUseCase updatePatientUseCase;
+    private final ImportPatientsUseCase importPatientsUseCase;
+    private final PatientImportReader patientImportReader;
     private final PatientMapper patientMapper;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @ResponseStatus(OK)
-    public List<PatientResponse> findAll() {
-        return findPatientUseCase.findAll()
+    public ResponseEntity<List<PatientResponse>> findAll(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size) {
+
+        var page = findPatientUseCase.findPage(cursor, size);
+        var patients = page.content()
             .stream()
             .map(patientMapper::toResponse)
             .toList();
+
+        var response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().encode());
+        }
+        return response.body(patients);
+    }
+
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAll() {
+        return outputStream -> findPatientUseCase.streamAll(patient -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(patientMapper.toResponse(patient)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @GetMapping("/{id}")
@@ -66,8 +105,9 @@ public class PatientController {
 
     @GetMapping("/search")
     @ResponseStatus(OK)
-    public List<PatientResponse> findByName(@RequestParam String name) {
-        return findPatientUseCase.findByName(name)
+    public List<PatientResponse> findByName(@RequestParam String name,
+                                            @RequestParam(required = false) Integer limit) {
+        return findPatientUseCase.searchByName(name, limit)
             .stream()
             .map(patientMapper::toResponse)
             .toList();
@@ -106,6 +146,16 @@ public class PatientController {
         }
     }
 
+    // Corpo lido direto do request (sem multipart) para que arquivos grandes sejam processados em streaming
+    @PostMapping(value = "/import", consumes = {PatientImportReader.TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(OK)
+    public PatientImportResponse importPatients(@RequestHeader(CONTENT_TYPE) String contentType,
+                                                InputStream body) throws IOException {
+        log.info("Importando pacientes ({})", contentType);
+        var rows = patientImportReader.read(body, MediaType.parseMediaType(contentType));
+        return PatientImportResponse.from(importPatientsUseCase.execute(rows));
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(OK)
     public PatientResponse update(@PathVariable String id, @Valid @RequestBody PatientRequest request) {
@@ -0,0 +1,79 @@
+package com.persou.prontosus.adapters.download;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Envia um trecho de arquivo sem passar os bytes pelo heap. No Tomcat com NIO o próprio conector faz o
+// sendfile depois que o controller retorna (atributos org.apache.tomcat.sendfile.*); fora dele, o trecho vai
+// por FileChannel.transferTo para o canal da resposta. Só vale para conteúdo gravado sem compressão.
+public final class FileRegionWriter {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FileRegionWriter() {
+    }
+
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file, long start,
+                             long length) throws IOException {
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, length, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    // Conteúdo comprimido em disco não tem como ir por sendfile: o stream já descomprimido é descartado até o
+    // início do trecho e o resto é copiado por um buffer
+    public static void write(HttpServletResponse response, InputStream content, long start, long length)
+        throws IOException {
+        response.setContentLengthLong(length);
+        content.skipNBytes(start);
+        copy(content, length, response.getOutputStream());
+    }
+
+    static long copy(InputStream content, long length, OutputStream target) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new IOException("Conteúdo menor que o trecho pedido: faltaram " + remaining + " bytes");
+            }
+            target.write(buffer, 0, read);
+            remaining -= read;
+        }
+        return length;
+    }
+
+    // transferTo pode enviar menos que o pedido: repete até completar o trecho
+    static long transfer(FileChannel channel, long start, long length, WritableByteChannel target)
+        throws IOException {
+        long position = start;
+        long end = start + length;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, target);
+            if (sent <= 0 && position >= channel.size()) {
+                throw new IOException("Arquivo menor que o trecho pedido: " + position + " de " + end);
+            }
+            position += sent;
+        }
+        return position - start;
+    }
+}
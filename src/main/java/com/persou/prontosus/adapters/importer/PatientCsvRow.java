@@ -0,0 +1,30 @@
+package com.persou.prontosus.adapters.importer;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Linha do CSV de importação: todas as colunas são lidas como texto e convertidas em PatientImportReader,
+// para que um valor inválido vire erro da linha em vez de interromper a leitura do arquivo
+@JsonPropertyOrder({"cpf", "fullName", "birthDate", "gender", "phoneNumber", "email", "zipCode", "street",
+    "number", "complement", "neighborhood", "city", "state", "emergencyContactName", "emergencyContactPhone",
+    "knownAllergies", "currentMedications", "chronicConditions"})
+public record PatientCsvRow(
+    String cpf,
+    String fullName,
+    String birthDate,
+    String gender,
+    String phoneNumber,
+    String email,
+    String zipCode,
+    String street,
+    String number,
+    String complement,
+    String neighborhood,
+    String city,
+    String state,
+    String emergencyContactName,
+    String emergencyContactPhone,
+    String knownAllergies,
+    String currentMedications,
+    String chronicConditions
+) {
+}
@@ -0,0 +1,215 @@
+package com.persou.prontosus.adapters.importer;
+
+import static com.persou.prontosus.config.MessagesErrorException.INVALID_BIRTH_DATE;
+import static com.persou.prontosus.config.MessagesErrorException.INVALID_GENDER;
+import static com.persou.prontosus.config.MessagesErrorException.INVALID_IMPORT_ROW;
+import static com.persou.prontosus.config.MessagesErrorException.UNSUPPORTED_IMPORT_FORMAT;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.persou.prontosus.adapters.request.PatientRequest;
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.enums.Gender;
+import com.persou.prontosus.domain.valueobject.Address;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+// Converte o corpo de POST /patients/import em registros sob demanda: o arquivo nunca é carregado inteiro
+// em memória e cada registro inválido vira um PatientImportRow com erro em vez de abortar a importação
+@Component
+@RequiredArgsConstructor
+public class PatientImportReader {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+        .readerFor(PatientCsvRow.class)
+        .with(CsvSchema.emptySchema().withHeader());
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public Iterator<PatientImportRow> read(InputStream input, MediaType contentType) throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return readCsv(input);
+        }
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return readNdjson(input);
+        }
+        throw new IllegalArgumentException(UNSUPPORTED_IMPORT_FORMAT + ": " + contentType);
+    }
+
+    private Iterator<PatientImportRow> readCsv(InputStream input) throws IOException {
+        MappingIterator<PatientCsvRow> csvRows = CSV_READER.readValues(input);
+        return new Iterator<>() {
+            private long row;
+
+            @Override
+            public boolean hasNext() {
+                return csvRows.hasNext();
+            }
+
+            @Override
+            public PatientImportRow next() {
+                row++;
+                PatientCsvRow csvRow;
+                try {
+                    csvRow = csvRows.nextValue();
+                } catch (JsonProcessingException e) {
+                    return PatientImportRow.invalid(row, null, INVALID_IMPORT_ROW + ": " + e.getOriginalMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                try {
+                    return toImportRow(row, toRequest(csvRow));
+                } catch (DateTimeParseException e) {
+                    return PatientImportRow.invalid(row, csvRow.cpf(), INVALID_BIRTH_DATE + ": " + e.getParsedString());
+                } catch (IllegalArgumentException e) {
+                    return PatientImportRow.invalid(row, csvRow.cpf(), e.getMessage());
+                }
+            }
+        };
+    }
+
+    private Iterator<PatientImportRow> readNdjson(InputStream input) {
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private long row;
+            private String nextLine = readNonBlankLine(reader);
+
+            @Override
+            public boolean hasNext() {
+                return nextLine != null;
+            }
+
+            @Override
+            public PatientImportRow next() {
+                if (nextLine == null) {
+                    throw new NoSuchElementException();
+                }
+                String line = nextLine;
+                nextLine = readNonBlankLine(reader);
+                row++;
+                try {
+                    return toImportRow(row, objectMapper.readValue(line, PatientRequest.class));
+                } catch (JsonProcessingException e) {
+                    return PatientImportRow.invalid(row, null, INVALID_IMPORT_ROW + ": " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    private static String readNonBlankLine(BufferedReader reader) {
+        try {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PatientImportRow toImportRow(long row, PatientRequest request) {
+        if (request == null) {
+            return PatientImportRow.invalid(row, null, INVALID_IMPORT_ROW);
+        }
+        Set<ConstraintViolation<PatientRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return PatientImportRow.invalid(row, request.cpf(), violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; ")));
+        }
+        if (!isValidGender(request.gender())) {
+            return PatientImportRow.invalid(row, request.cpf(), INVALID_GENDER + ": " + request.gender());
+        }
+
+        return PatientImportRow.valid(row, Patient.builder()
+            .cpf(request.cpf())
+            .fullName(request.fullName())
+            .birthDate(request.birthDate())
+            .gender(request.gender().toUpperCase())
+            .phoneNumber(request.phoneNumber())
+            .email(request.email())
+            .address(request.address())
+            .emergencyContactName(request.emergencyContactName())
+            .emergencyContactPhone(request.emergencyContactPhone())
+            .knownAllergies(request.knownAllergies())
+            .currentMedications(request.currentMedications())
+            .chronicConditions(request.chronicConditions())
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build());
+    }
+
+    private static boolean isValidGender(String gender) {
+        return Arrays.stream(Gender.values())
+            .anyMatch(value -> value.name().equalsIgnoreCase(gender));
+    }
+
+    private static PatientRequest toRequest(PatientCsvRow csvRow) {
+        String birthDate = blankToNull(csvRow.birthDate());
+        return PatientRequest.builder()
+            .cpf(blankToNull(csvRow.cpf()))
+            .fullName(blankToNull(csvRow.fullName()))
+            .birthDate(birthDate != null ? LocalDate.parse(birthDate) : null)
+            .gender(blankToNull(csvRow.gender()))
+            .phoneNumber(blankToNull(csvRow.phoneNumber()))
+            .email(blankToNull(csvRow.email()))
+            .address(toAddress(csvRow))
+            .emergencyContactName(blankToNull(csvRow.emergencyContactName()))
+            .emergencyContactPhone(blankToNull(csvRow.emergencyContactPhone()))
+            .knownAllergies(blankToNull(csvRow.knownAllergies()))
+            .currentMedications(blankToNull(csvRow.currentMedications()))
+            .chronicConditions(blankToNull(csvRow.chronicConditions()))
+            .build();
+    }
+
+    private static Address toAddress(PatientCsvRow csvRow) {
+        String zipCode = blankToNull(csvRow.zipCode());
+        String street = blankToNull(csvRow.street());
+        String number = blankToNull(csvRow.number());
+        String complement = blankToNull(csvRow.complement());
+        String neighborhood = blankToNull(csvRow.neighborhood());
+        String city = blankToNull(csvRow.city());
+        String state = blankToNull(csvRow.state());
+
+        if (zipCode == null && street == null && number == null && complement == null
+            && neighborhood == null && city == null && state == null) {
+            return null;
+        }
+        return new Address(zipCode, street, number, complement, neighborhood, city, state);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,24 @@
+package com.persou.prontosus.adapters.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder(toBuilder = true)
+public record UploadSessionRequest(
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    String fileName,
+
+    @NotBlank(message = "Tipo do arquivo é obrigatório")
+    String contentType,
+
+    @NotNull(message = "Tamanho do arquivo é obrigatório")
+    @Positive(message = "Tamanho do arquivo deve ser positivo")
+    Long totalSize,
+
+    String description
+) {
+}
@@ -18,6 +18,7 @@ public record FileAttachmentResponse(
     String fileType,
     String description,
     LocalDateTime uploadedAt,
-    User uploadedBy
+    User uploadedBy,
+    String thumbnailUrl
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.persou.prontosus.adapters.response;
+
+import com.persou.prontosus.domain.valueobject.PatientImportResult;
+import java.util.List;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder(toBuilder = true)
+public record PatientImportResponse(
+    long totalRows,
+    long importedRows,
+    long rejectedRows,
+    long elapsedMillis,
+    double rowsPerSecond,
+    List<PatientImportResult.RowError> errors
+) {
+    public static PatientImportResponse from(PatientImportResult result) {
+        return PatientImportResponse.builder()
+            .totalRows(result.totalRows())
+            .importedRows(result.importedRows())
+            .rejectedRows(result.rejectedRows())
+            .elapsedMillis(result.elapsed().toMillis())
+            .rowsPerSecond(Math.round(result.rowsPerSecond() * 10) / 10.0)
+            .errors(result.errors())
+            .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.persou.prontosus.adapters.response;
+
+import com.persou.prontosus.domain.valueobject.UploadDeduplicationResult;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder(toBuilder = true)
+public record UploadDeduplicationResponse(
+    long attachmentsScanned,
+    long attachmentsMigrated,
+    long duplicatesRemoved,
+    long missingFiles,
+    long failures,
+    long bytesSaved,
+    long elapsedMillis
+) {
+    public static UploadDeduplicationResponse from(UploadDeduplicationResult result) {
+        return UploadDeduplicationResponse.builder()
+            .attachmentsScanned(result.attachmentsScanned())
+            .attachmentsMigrated(result.attachmentsMigrated())
+            .duplicatesRemoved(result.duplicatesRemoved())
+            .missingFiles(result.missingFiles())
+            .failures(result.failures())
+            .bytesSaved(result.bytesSaved())
+            .elapsedMillis(result.elapsed().toMillis())
+            .build();
+    }
+}
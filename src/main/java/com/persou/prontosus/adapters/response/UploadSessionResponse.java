@@ -0,0 +1,34 @@
+package com.persou.prontosus.adapters.response;
+
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder(toBuilder = true)
+public record UploadSessionResponse(
+    String id,
+    String medicalRecordId,
+    String fileName,
+    String contentType,
+    long totalSize,
+    long receivedSize,
+    int nextChunk,
+    long maxChunkSize,
+    LocalDateTime expiresAt
+) {
+    public static UploadSessionResponse from(UploadSession session, long maxChunkSize) {
+        return UploadSessionResponse.builder()
+            .id(session.id())
+            .medicalRecordId(session.medicalRecordId())
+            .fileName(session.fileName())
+            .contentType(session.contentType())
+            .totalSize(session.totalSize())
+            .receivedSize(session.receivedSize())
+            .nextChunk(session.nextChunk())
+            .maxChunkSize(maxChunkSize)
+            .expiresAt(session.expiresAt())
+            .build();
+    }
+}
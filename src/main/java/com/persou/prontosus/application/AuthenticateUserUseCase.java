@@ -1,21 +1,26 @@
 package com.persou.prontosus.application;
 
+import com.persou.prontosus.config.exceptions.ServiceUnavailableException;
+import com.persou.prontosus.config.security.PasswordHasher;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.LastLoginWriter;
 import com.persou.prontosus.gateway.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+// Sem transação em volta: a verificação BCrypt espera no PasswordHasher e não deve segurar conexão do pool.
+// O último login vai para o LastLoginWriter; o único UPDATE síncrono é o rehash eventual da senha.
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AuthenticateUserUseCase {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LastLoginWriter lastLoginWriter;
 
     public Optional<User> execute(String username, String password) {
         Optional<User> userOpt = userRepository.findByUsername(username);
@@ -23,13 +28,29 @@ public class AuthenticateUserUseCase {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
 
-            if (user.active() && passwordEncoder.matches(password, user.password())) {
-                User updatedUser = user.withLastLoginAt(LocalDateTime.now());
-                User savedUser = userRepository.save(updatedUser);
-                return Optional.of(savedUser);
+            if (user.active() && passwordHasher.matches(password, user.password())) {
+                LocalDateTime now = LocalDateTime.now();
+                lastLoginWriter.record(user.id(), now);
+                return Optional.of(rehashIfNeeded(user, password).withLastLoginAt(now));
             }
         }
 
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    // Com a senha em claro disponível após o login, hashes gravados com custo menor que o configurado são
+    // refeitos: o custo do BCrypt pode subir sem invalidar senhas. Pool cheio só adia para o próximo login.
+    // O usuário foi lido antes da espera pelo BCrypt: só a senha é gravada, e só se ainda for a mesma
+    private User rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.password())) {
+            return user;
+        }
+        try {
+            String rehashed = passwordHasher.encode(password);
+            return userRepository.updatePassword(user, rehashed) ? user.withPassword(rehashed) : user;
+        } catch (ServiceUnavailableException e) {
+            log.debug("Rehash da senha de {} adiado: {}", user.username(), e.getMessage());
+            return user;
+        }
+    }
+}
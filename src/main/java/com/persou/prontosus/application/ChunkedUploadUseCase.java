@@ -0,0 +1,325 @@
+package com.persou.prontosus.application;
+
+import static com.persou.prontosus.config.MessagesErrorException.CHUNK_CHECKSUM_MISMATCH;
+import static com.persou.prontosus.config.MessagesErrorException.CHUNK_TOO_LARGE;
+import static com.persou.prontosus.config.MessagesErrorException.ENTITY_NOT_FOUND;
+import static com.persou.prontosus.config.MessagesErrorException.FILE_NOT_SUPPORTED;
+import static com.persou.prontosus.config.MessagesErrorException.FILE_TOO_LARGE;
+import static com.persou.prontosus.config.MessagesErrorException.UPLOAD_BUSY;
+import static com.persou.prontosus.config.MessagesErrorException.UPLOAD_CHECKSUM_MISMATCH;
+import static com.persou.prontosus.config.MessagesErrorException.UPLOAD_INCOMPLETE;
+import static com.persou.prontosus.config.MessagesErrorException.UPLOAD_NOT_FOUND;
+import static com.persou.prontosus.config.MessagesErrorException.UPLOAD_OFFSET_CONFLICT;
+
+import com.persou.prontosus.config.exceptions.BusinessValidationException;
+import com.persou.prontosus.config.exceptions.ConflictException;
+import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.FileAttachment;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.FileStorage.StagedContent;
+import com.persou.prontosus.gateway.StorageCodecSelector;
+import com.persou.prontosus.gateway.UploadSessionRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepository;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Upload retomável em partes para arquivos acima do limite do multipart (exames de imagem, prontuários
+// digitalizados). O cliente abre uma sessão com o tamanho total, manda as partes em ordem com o offset e o
+// SHA-256 de cada uma e, no fim, faz o commit. Cada parte é gravada direto no arquivo parcial da sessão, sem
+// passar pelo multipart; numa conexão que cai, o cliente consulta a sessão e retoma do offset recebido.
+// O commit reaproveita a segunda fase do upload comum (UploadExamFileUseCase.attach).
+@Slf4j
+@Service
+public class ChunkedUploadUseCase {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MedicalRecordJpaRepository medicalRecordJpaRepository;
+    private final UploadExamFileUseCase uploadExamFileUseCase;
+    private final FileStorage fileStorage;
+    private final StorageCodecSelector storageCodecSelector;
+    private final FileUploadConfig.Chunked config;
+
+    public ChunkedUploadUseCase(UploadSessionRepository uploadSessionRepository,
+                                MedicalRecordJpaRepository medicalRecordJpaRepository,
+                                UploadExamFileUseCase uploadExamFileUseCase,
+                                FileStorage fileStorage,
+                                StorageCodecSelector storageCodecSelector,
+                                FileUploadConfig fileUploadConfig) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.medicalRecordJpaRepository = medicalRecordJpaRepository;
+        this.uploadExamFileUseCase = uploadExamFileUseCase;
+        this.fileStorage = fileStorage;
+        this.storageCodecSelector = storageCodecSelector;
+        this.config = fileUploadConfig.getUpload().getChunked();
+    }
+
+    public UploadSession start(String medicalRecordId, String fileName, String contentType, long totalSize,
+                               String description, User uploadedBy) {
+        if (totalSize <= 0) {
+            throw new BusinessValidationException("Arquivo não pode estar vazio");
+        }
+        if (totalSize > config.getMaxFileSize().toBytes()) {
+            throw new BusinessValidationException(FILE_TOO_LARGE + ": " + config.getMaxFileSize());
+        }
+        if (!UploadExamFileUseCase.isAllowedContentType(contentType)) {
+            throw new BusinessValidationException(FILE_NOT_SUPPORTED + ": " + contentType);
+        }
+        if (!medicalRecordJpaRepository.existsById(medicalRecordId)) {
+            throw new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Registro médico: " + medicalRecordId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = uploadSessionRepository.create(UploadSession.builder()
+            .medicalRecordId(medicalRecordId)
+            .uploadedBy(uploadedBy.id())
+            .fileName(fileName)
+            .contentType(contentType)
+            .description(description)
+            .totalSize(totalSize)
+            .createdAt(now)
+            .expiresAt(now.plus(config.getSessionTtl()))
+            .build());
+        log.info("Upload em partes {} iniciado para registro médico {}: {} ({} bytes)", session.id(),
+            medicalRecordId, fileName, totalSize);
+        return session;
+    }
+
+    public long maxChunkSize() {
+        return config.getChunkSize().toBytes();
+    }
+
+    public UploadSession status(String uploadId, User user) {
+        return findOwned(uploadId, user);
+    }
+
+    // A parte só conta depois de gravada, conferida e com fsync; se a conexão cair no meio, o arquivo parcial
+    // volta ao offset anterior e o cliente reenvia a mesma parte
+    public UploadSession appendChunk(String uploadId, int index, long offset, String sha256, InputStream body,
+                                     User user) throws IOException {
+        UploadSession current = findOwned(uploadId, user);
+        checkPosition(current, index, offset);
+
+        // Caminho montado a partir do id lido do banco (sempre um UUID), nunca do valor vindo da URL
+        Path part = fileStorage.uploadSessionPath(current.id());
+        Files.createDirectories(part.getParent());
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lock(channel)) {
+            // Relida com o lock: outra requisição pode ter gravado esta parte entre a primeira consulta e o lock
+            UploadSession session = findOwned(uploadId, user);
+            checkPosition(session, index, offset);
+            if (channel.size() < offset) {
+                throw new ConflictException(UPLOAD_OFFSET_CONFLICT + ": arquivo parcial com " + channel.size()
+                    + " bytes, esperado " + offset);
+            }
+
+            long limit = Math.min(config.getChunkSize().toBytes(), session.totalSize() - offset);
+            MessageDigest digest = sha256();
+            long written;
+            channel.truncate(offset);
+            try {
+                written = copy(body, channel, offset, limit, digest);
+            } catch (IOException | RuntimeException e) {
+                channel.truncate(offset);
+                throw e;
+            }
+            if (written < 0) {
+                channel.truncate(offset);
+                throw new BusinessValidationException(CHUNK_TOO_LARGE + ": até " + limit + " bytes a partir do offset "
+                    + offset);
+            }
+            if (written == 0) {
+                throw new BusinessValidationException("Parte não pode estar vazia");
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equalsIgnoreCase(sha256)) {
+                channel.truncate(offset);
+                throw new BusinessValidationException(CHUNK_CHECKSUM_MISMATCH + ": recebido " + actual);
+            }
+            channel.force(false);
+
+            long received = offset + written;
+            LocalDateTime expiresAt = LocalDateTime.now().plus(config.getSessionTtl());
+            if (!uploadSessionRepository.advance(uploadId, offset, received, expiresAt)) {
+                throw new ConflictException(UPLOAD_OFFSET_CONFLICT + ": sessão alterada durante a gravação");
+            }
+            log.debug("Upload {}: parte {} gravada ({} de {} bytes)", uploadId, index, received,
+                session.totalSize());
+            return session.withReceivedSize(received).withNextChunk(index + 1).withExpiresAt(expiresAt);
+        }
+    }
+
+    // O arquivo parcial é lido uma vez, como o multipart no upload comum: calcula o hash do conteúdo, reconhece
+    // o tipo real e grava o staging no codec escolhido. A sessão só é removida depois do anexo comitado; um
+    // commit que falhe pode ser repetido
+    public FileAttachment commit(String uploadId, String sha256, User user) throws IOException {
+        Path part = fileStorage.uploadSessionPath(findOwned(uploadId, user).id());
+
+        FileAttachment attachment;
+        StagedContent staged = null;
+        try (FileChannel channel = openExisting(part);
+             FileLock ignored = lock(channel)) {
+            UploadSession session = findOwned(uploadId, user);
+            if (!session.isComplete() || channel.size() != session.totalSize()) {
+                throw new ConflictException(UPLOAD_INCOMPLETE + ": " + session.receivedSize() + " de "
+                    + session.totalSize() + " bytes");
+            }
+
+            try (InputStream content = unclosable(channel)) {
+                staged = fileStorage.stage(content, session.totalSize(), storageCodecSelector);
+            }
+            if (sha256 != null && !staged.sha256().equalsIgnoreCase(sha256)) {
+                throw new BusinessValidationException(UPLOAD_CHECKSUM_MISMATCH + ": recebido " + staged.sha256());
+            }
+
+            attachment = uploadExamFileUseCase.attach(session.medicalRecordId(), session.fileName(),
+                session.contentType(), session.description(), user, staged);
+            if (!uploadSessionRepository.delete(uploadId)) {
+                log.warn("Upload {} já tinha sido removido ao final do commit", uploadId);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (staged != null) {
+                fileStorage.deleteQuietly(staged.path());
+            }
+        }
+        fileStorage.deleteQuietly(part);
+        log.info("Upload em partes {} concluído: anexo {}", uploadId, attachment.id());
+        return attachment;
+    }
+
+    // Uma parte em gravação falha no advance e responde 409; o arquivo parcial é apagado de qualquer forma
+    public void cancel(String uploadId, User user) {
+        UploadSession session = findOwned(uploadId, user);
+        uploadSessionRepository.delete(session.id());
+        fileStorage.deleteQuietly(fileStorage.uploadSessionPath(session.id()));
+        log.info("Upload em partes {} cancelado", uploadId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.file.upload.chunked.cleanup-interval:10m}")
+    public void expireAbandonedSessions() {
+        List<String> expired = uploadSessionRepository.deleteExpired(LocalDateTime.now());
+        expired.forEach(id -> fileStorage.deleteQuietly(fileStorage.uploadSessionPath(id)));
+
+        // Arquivo parcial sem parte nova há mais que o TTL é de sessão vencida, mesmo que a remoção acima tenha
+        // falhado (ou a aplicação tenha caído entre o DELETE e a remoção)
+        int orphans = 0;
+        Path dir = fileStorage.uploadSessionsDir();
+        if (Files.isDirectory(dir)) {
+            FileTime cutoff = FileTime.from(Instant.now().minus(config.getSessionTtl()));
+            try (DirectoryStream<Path> parts = Files.newDirectoryStream(dir, "*.part")) {
+                for (Path part : parts) {
+                    if (Files.getLastModifiedTime(part).compareTo(cutoff) < 0) {
+                        fileStorage.deleteQuietly(part);
+                        orphans++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Falha ao limpar arquivos parciais de upload: {}", e.getMessage());
+            }
+        }
+        if (!expired.isEmpty() || orphans > 0) {
+            log.info("Uploads em partes expirados: {} sessões, {} arquivos parciais órfãos", expired.size(),
+                orphans);
+        }
+    }
+
+    // Sessão de outro usuário responde como inexistente
+    private UploadSession findOwned(String uploadId, User user) {
+        return uploadSessionRepository.findById(uploadId)
+            .filter(session -> session.uploadedBy().equals(user.id()))
+            .filter(session -> session.expiresAt().isAfter(LocalDateTime.now()))
+            .orElseThrow(() -> new ResourceNotFoundException(UPLOAD_NOT_FOUND + ": " + uploadId));
+    }
+
+    private static void checkPosition(UploadSession session, int index, long offset) {
+        if (index != session.nextChunk() || offset != session.receivedSize()) {
+            throw new ConflictException(UPLOAD_OFFSET_CONFLICT + ": esperada parte " + session.nextChunk()
+                + " no offset " + session.receivedSize());
+        }
+    }
+
+    private static FileChannel openExisting(Path part) throws IOException {
+        try {
+            return FileChannel.open(part, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            throw new ConflictException(UPLOAD_INCOMPLETE + ": nenhuma parte recebida");
+        }
+    }
+
+    // Lock exclusivo no arquivo parcial: uma parte por vez por sessão, também entre instâncias no mesmo disco
+    private static FileLock lock(FileChannel channel) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new ConflictException(UPLOAD_BUSY);
+            }
+            return lock;
+        } catch (OverlappingFileLockException e) {
+            throw new ConflictException(UPLOAD_BUSY);
+        }
+    }
+
+    // Grava até limit bytes a partir de position; -1 se o corpo tiver mais que isso
+    private static long copy(InputStream body, FileChannel channel, long position, long limit, MessageDigest digest)
+        throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (written + read > limit) {
+                return -1;
+            }
+            digest.update(buffer, 0, read);
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+            while (chunk.hasRemaining()) {
+                written += channel.write(chunk, position + written);
+            }
+        }
+        return written;
+    }
+
+    // Fechar outro descritor do arquivo soltaria o lock (semântica POSIX), então a leitura usa o próprio canal
+    private static InputStream unclosable(FileChannel channel) throws IOException {
+        return new FilterInputStream(Channels.newInputStream(channel.position(0))) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.persou.prontosus.application;
+
+import com.persou.prontosus.domain.valueobject.UploadDeduplicationResult;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.FileContentRepository;
+import com.persou.prontosus.gateway.FileContentRepository.AcquiredContent;
+import com.persou.prontosus.gateway.FileContentRepository.LegacyAttachment;
+import com.persou.prontosus.gateway.FileStorage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Migra os anexos gravados antes do armazenamento por conteúdo (uploads/<uuid>.<ext>): calcula o SHA-256 de
+// cada arquivo, aponta o anexo para o hash e move o arquivo para o endereço do conteúdo; se o conteúdo já
+// existir, o arquivo antigo é apagado. Pode rodar com a aplicação no ar e ser repetido: só pega anexos cujo
+// file_path ainda não é um hash, e cada arquivo é migrado na própria transação curta.
+@Slf4j
+@Service
+public class DeduplicateUploadsUseCase {
+
+    static final int BATCH_SIZE = 100;
+
+    private final FileContentRepository fileContentRepository;
+    private final FileStorage fileStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeduplicateUploadsUseCase(FileContentRepository fileContentRepository, FileStorage fileStorage,
+                                     PlatformTransactionManager transactionManager) {
+        this.fileContentRepository = fileContentRepository;
+        this.fileStorage = fileStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public UploadDeduplicationResult execute() {
+        long start = System.nanoTime();
+        var totals = new Totals();
+        String afterId = null;
+        List<LegacyAttachment> batch;
+        do {
+            batch = fileContentRepository.findLegacyAttachments(afterId, BATCH_SIZE);
+            for (LegacyAttachment attachment : batch) {
+                totals.scanned++;
+                migrate(attachment, totals);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == BATCH_SIZE);
+
+        var result = new UploadDeduplicationResult(totals.scanned, totals.migrated, totals.duplicates,
+            totals.missing, totals.failures, totals.bytesSaved, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Deduplicação de uploads: {} anexos, {} migrados, {} duplicados removidos ({} MB liberados), "
+                + "{} arquivos ausentes, {} falhas em {} ms", result.attachmentsScanned(), result.attachmentsMigrated(),
+            result.duplicatesRemoved(), result.bytesSaved() / (1024 * 1024), result.missingFiles(), result.failures(),
+            result.elapsed().toMillis());
+        return result;
+    }
+
+    private void migrate(LegacyAttachment attachment, Totals totals) {
+        Path legacy = fileStorage.resolve(attachment.filePath());
+        if (!Files.isRegularFile(legacy)) {
+            log.warn("Arquivo do anexo {} não encontrado: {}", attachment.id(), legacy);
+            totals.missing++;
+            return;
+        }
+
+        // Hash do conteúdo movido para o endereço definitivo, para devolver o arquivo se o commit falhar
+        AtomicReference<String> promoted = new AtomicReference<>();
+        try {
+            long size = Files.size(legacy);
+            String sha256 = FileStorage.sha256Of(legacy);
+            Path contentPath = fileStorage.contentPath(sha256);
+
+            Outcome outcome = transactionTemplate.execute(status -> {
+                // O arquivo antigo está sem compressão; se o conteúdo já existir, o anexo passa a usar o codec
+                // da cópia existente. Anexo já migrado por outra execução: rollback, sem registrar nada
+                AcquiredContent content = fileContentRepository.acquire(sha256, size, StorageCodec.NONE, size);
+                boolean store = content.created() || !fileStorage.hasContent(sha256);
+                StorageCodec codec = store ? StorageCodec.NONE : content.codec();
+                if (!fileContentRepository.repointAttachment(attachment.id(), attachment.filePath(), sha256, codec)) {
+                    status.setRollbackOnly();
+                    return Outcome.SKIPPED;
+                }
+                if (store) {
+                    if (!content.created() && content.codec() != StorageCodec.NONE) {
+                        fileContentRepository.replaceStoredContent(sha256, StorageCodec.NONE, size);
+                    }
+                    try {
+                        fileStorage.promote(legacy, contentPath);
+                        promoted.set(sha256);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return Outcome.MOVED;
+                }
+                return Outcome.DUPLICATE;
+            });
+            if (outcome == Outcome.DUPLICATE) {
+                fileStorage.deleteQuietly(legacy);
+                totals.duplicates++;
+                totals.bytesSaved += size;
+            }
+            if (outcome != Outcome.SKIPPED) {
+                totals.migrated++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Commit falhou depois do move: o anexo continua apontando para o caminho antigo
+            if (promoted.get() != null) {
+                restore(promoted.get(), legacy);
+            }
+            log.error("Falha ao migrar o anexo {} ({}): {}", attachment.id(), legacy, e.getMessage(), e);
+            totals.failures++;
+        }
+    }
+
+    // Depois do nosso rollback, outro upload do mesmo conteúdo pode ter registrado o hash e passado a usar o
+    // arquivo promovido: o antigo volta como cópia, e o promovido só é apagado com o hash travado e sem registro
+    private void restore(String sha256, Path legacy) {
+        Path target = fileStorage.contentPath(sha256);
+        try {
+            Files.copy(target, legacy);
+        } catch (IOException e) {
+            log.error("Não foi possível devolver {} para {}: {}", target, legacy, e.getMessage());
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (fileContentRepository.lockUnregistered(sha256)) {
+                    fileStorage.deleteQuietly(target);
+                }
+                status.setRollbackOnly();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível remover a cópia promovida {}: {}", target, e.getMessage(), e);
+        }
+    }
+
+    private enum Outcome { MOVED, DUPLICATE, SKIPPED }
+
+    private static final class Totals {
+        long scanned;
+        long migrated;
+        long duplicates;
+        long missing;
+        long failures;
+        long bytesSaved;
+    }
+}
@@ -0,0 +1,91 @@
+package com.persou.prontosus.application;
+
+import static com.persou.prontosus.config.MessagesErrorException.ENTITY_NOT_FOUND;
+
+import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.domain.valueobject.AttachmentContent;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.ThumbnailQueue;
+import com.persou.prontosus.gateway.database.jpa.FileAttachmentEntity;
+import com.persou.prontosus.gateway.database.jpa.repository.FileAttachmentJpaRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DownloadAttachmentUseCase {
+
+    private final FileAttachmentJpaRepository fileAttachmentJpaRepository;
+    private final FileStorage fileStorage;
+    private final ThumbnailQueue thumbnailQueue;
+
+    // Só os metadados passam pela transação; o conteúdo é enviado depois, direto do disco
+    @Transactional(readOnly = true)
+    public AttachmentContent execute(String attachmentId) throws IOException {
+        var entity = findAttachment(attachmentId);
+
+        Path path = fileStorage.resolve(entity.getFilePath());
+        if (!Files.isRegularFile(path)) {
+            log.error("Arquivo do anexo {} não encontrado em disco: {}", attachmentId, path);
+            throw new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Conteúdo do arquivo: " + attachmentId);
+        }
+
+        // Comprimido em disco: o tamanho servido (e a base dos Ranges) é o do conteúdo original
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        StorageCodec codec = entity.getStorageCodec();
+        long size = codec == StorageCodec.NONE ? attributes.size() : entity.getFileSize();
+        return new AttachmentContent(entity.getFileName(), entity.getContentType(), path, size,
+            etag(entity.getFilePath(), attributes), codec);
+    }
+
+    // Miniatura JPEG gerada pela ThumbnailQueue. Se ainda não existir (fila atrasada, pedido descartado ou
+    // imagem enviada antes da geração automática), a geração é pedida de novo e a resposta é 404; imagem
+    // marcada como sem miniatura responde 404 sem voltar para a fila
+    @Transactional(readOnly = true)
+    public AttachmentContent thumbnail(String attachmentId) throws IOException {
+        var entity = findAttachment(attachmentId);
+        String sha256 = entity.getFilePath();
+        if (entity.getFileType() != FileType.IMAGE || !FileStorage.isContentKey(sha256)) {
+            throw new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Miniatura: " + attachmentId);
+        }
+
+        if (Files.exists(fileStorage.thumbnailFailedPath(sha256))) {
+            throw new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Miniatura indisponível: " + attachmentId);
+        }
+        Path path = fileStorage.thumbnailPath(sha256);
+        if (!Files.isRegularFile(path)) {
+            thumbnailQueue.submit(sha256, entity.getStorageCodec());
+            throw new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Miniatura ainda não gerada: " + attachmentId);
+        }
+        return new AttachmentContent("miniatura-" + entity.getFileName() + ".jpg", "image/jpeg", path,
+            Files.size(path), "\"" + sha256 + "-thumb\"", StorageCodec.NONE);
+    }
+
+    public InputStream open(AttachmentContent content) throws IOException {
+        return fileStorage.open(content.path(), content.codec());
+    }
+
+    private FileAttachmentEntity findAttachment(String attachmentId) {
+        return fileAttachmentJpaRepository.findById(attachmentId)
+            .orElseThrow(() -> new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Arquivo: " + attachmentId));
+    }
+
+    // Conteúdo endereçado por hash: o próprio SHA-256 é um ETag forte. Arquivos ainda não migrados
+    // (DeduplicateUploadsUseCase) ficam com um ETag fraco de tamanho + data de modificação.
+    private static String etag(String filePath, BasicFileAttributes attributes) {
+        if (FileStorage.isContentKey(filePath)) {
+            return "\"" + filePath + "\"";
+        }
+        return "W/\"" + attributes.size() + "-" + attributes.lastModifiedTime().toMillis() + "\"";
+    }
+}
@@ -1,14 +1,16 @@
 package com.persou.prontosus.application;
 
 import com.persou.prontosus.domain.Appointment;
-import com.persou.prontosus.domain.Patient;
-import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.AppointmentStatus;
-import com.persou.prontosus.gateway.AppointmentRepository;
+import com.persou.prontosus.gateway.AppointmentQueryRepository;
 import com.persou.prontosus.gateway.PatientRepository;
 import com.persou.prontosus.gateway.UserRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,17 +20,20 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class FindAppointmentUseCase {
 
-    private final AppointmentRepository appointmentRepository;
+    public static final int DEFAULT_AGENDA_DAYS = 7;
+    public static final int MAX_AGENDA_DAYS = 31;
+
+    private final AppointmentQueryRepository appointmentQueryRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
 
     public List<Appointment> findByPatientId(String patientId) {
         log.info("Buscando agendamentos do paciente: {}", patientId);
 
-        Patient patient = patientRepository.findById(patientId)
+        patientRepository.findById(patientId)
             .orElseThrow(() -> new RuntimeException("Paciente não encontrado: " + patientId));
 
-        List<Appointment> appointments = appointmentRepository.findByPatientOrderByScheduledDateTimeDesc(patient);
+        List<Appointment> appointments = appointmentQueryRepository.findByPatientId(patientId);
         log.info("Encontrados {} agendamentos para o paciente {}", appointments.size(), patientId);
 
         return appointments;
@@ -37,11 +42,11 @@ public class FindAppointmentUseCase {
     public List<Appointment> findByProfessionalId(String professionalId) {
         log.info("Buscando agendamentos do profissional: {}", professionalId);
 
-        User professional = userRepository.findById(professionalId)
+        userRepository.findById(professionalId)
             .orElseThrow(() -> new RuntimeException("Profissional não encontrado: " + professionalId));
 
-        return appointmentRepository.findAppointmentsByProfessionalAndDateRange(
-            professional,
+        return appointmentQueryRepository.findByProfessionalAndDateRange(
+            professionalId,
             LocalDateTime.now().minusYears(1),
             LocalDateTime.now().plusYears(1)
         );
@@ -50,10 +55,10 @@ public class FindAppointmentUseCase {
     public List<Appointment> findByProfessionalAndDateRange(String professionalId, LocalDateTime start, LocalDateTime end) {
         log.info("Buscando agendamentos do profissional {} entre {} e {}", professionalId, start, end);
 
-        User professional = userRepository.findById(professionalId)
+        userRepository.findById(professionalId)
             .orElseThrow(() -> new RuntimeException("Profissional não encontrado: " + professionalId));
 
-        return appointmentRepository.findAppointmentsByProfessionalAndDateRange(professional, start, end);
+        return appointmentQueryRepository.findByProfessionalAndDateRange(professionalId, start, end);
     }
 
     public List<Appointment> findByStatusAndDateRange(String status, LocalDateTime start, LocalDateTime end) {
@@ -66,7 +71,7 @@ public class FindAppointmentUseCase {
             throw new IllegalArgumentException("Status inválido: " + status);
         }
 
-        return appointmentRepository.findAppointmentsByStatusAndDateRange(appointmentStatus, start, end);
+        return appointmentQueryRepository.findByStatusAndDateRange(appointmentStatus.name(), start, end);
     }
 
     public List<Appointment> findByPatientIdAndStatus(String patientId, String status) {
@@ -79,12 +84,31 @@ public class FindAppointmentUseCase {
             throw new IllegalArgumentException("Status inválido: " + status);
         }
 
-        return appointmentRepository.findByPatientIdAndStatus(patientId, appointmentStatus);
+        return appointmentQueryRepository.findByPatientIdAndStatus(patientId, appointmentStatus.name());
     }
 
     public List<Appointment> findByProfessionalAndDate(String professionalId, LocalDateTime date) {
         log.info("Buscando agendamentos do profissional {} para a data {}", professionalId, date);
 
-        return appointmentRepository.findByProfessionalAndDate(professionalId, date);
+        LocalDate day = date.toLocalDate();
+        return appointmentQueryRepository.findByProfessionalAndPeriod(professionalId, day, day.plusDays(1));
+    }
+
+    public Map<LocalDate, List<Appointment>> findAgenda(String professionalId, LocalDate startDate, Integer days) {
+        int agendaDays = days == null ? DEFAULT_AGENDA_DAYS : days;
+        if (agendaDays < 1 || agendaDays > MAX_AGENDA_DAYS) {
+            throw new IllegalArgumentException("Quantidade de dias da agenda deve estar entre 1 e " + MAX_AGENDA_DAYS);
+        }
+        LocalDate endDate = startDate.plusDays(agendaDays);
+        log.info("Buscando agenda do profissional {} de {} a {}", professionalId, startDate, endDate.minusDays(1));
+
+        Map<LocalDate, List<Appointment>> agenda = new LinkedHashMap<>();
+        for (LocalDate day = startDate; day.isBefore(endDate); day = day.plusDays(1)) {
+            agenda.put(day, new ArrayList<>());
+        }
+        appointmentQueryRepository.findByProfessionalAndPeriod(professionalId, startDate, endDate)
+            .forEach(appointment -> agenda.get(appointment.scheduledDateTime().toLocalDate()).add(appointment));
+
+        return agenda;
     }
-}
\ No newline at end of file
+}
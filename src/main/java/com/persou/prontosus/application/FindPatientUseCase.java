@@ -2,9 +2,13 @@ package com.persou.prontosus.application;
 
 import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import com.persou.prontosus.gateway.PatientQueryRepository;
 import com.persou.prontosus.gateway.PatientRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -12,7 +16,13 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class FindPatientUseCase {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 50;
+
     private final PatientRepository patientRepository;
+    private final PatientQueryRepository patientQueryRepository;
     private final PatientMapper patientMapper;
 
     public Optional<Patient> findById(String id) {
@@ -27,7 +37,24 @@ public class FindPatientUseCase {
         return patientRepository.findByFullNameContainingIgnoreCase(name);
     }
 
+    public List<Patient> searchByName(String name, Integer limit) {
+        if (name == null || name.isBlank()) {
+            return List.of();
+        }
+        int searchLimit = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        return patientQueryRepository.searchByName(name, searchLimit);
+    }
+
     public List<Patient> findAll() {
         return patientRepository.findAll();
     }
+
+    public KeysetPage<Patient> findPage(String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return patientQueryRepository.findPage(PageCursor.decode(cursor), pageSize);
+    }
+
+    public void streamAll(Consumer<Patient> consumer) {
+        patientRepository.streamAll(consumer);
+    }
 }
@@ -0,0 +1,123 @@
+package com.persou.prontosus.application;
+
+import static com.persou.prontosus.config.MessagesErrorException.DOCUMENT_ALREADY_EXISTS;
+import static com.persou.prontosus.config.MessagesErrorException.DOCUMENT_DUPLICATED_IN_FILE;
+import static com.persou.prontosus.config.MessagesErrorException.IMPORT_ROW_REJECTED;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.PatientImportResult;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import com.persou.prontosus.gateway.PatientRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportPatientsUseCase {
+
+    static final int BATCH_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+
+    // Sem @Transactional: cada lote é gravado na própria transação para que um arquivo grande não segure
+    // uma única transação longa nem perca as linhas já importadas se um lote falhar
+    public PatientImportResult execute(Iterator<PatientImportRow> rows) {
+        long start = System.nanoTime();
+        Set<String> cpfsInFile = new HashSet<>();
+        List<PatientImportResult.RowError> errors = new ArrayList<>();
+        List<PatientImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        long totalRows = 0;
+        long importedRows = 0;
+
+        while (rows.hasNext()) {
+            PatientImportRow row = rows.next();
+            totalRows++;
+
+            if (!row.isValid()) {
+                errors.add(rowError(row, row.error()));
+            } else if (!cpfsInFile.add(row.cpf())) {
+                errors.add(rowError(row, DOCUMENT_DUPLICATED_IN_FILE));
+            } else {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    importedRows += importBatch(batch, errors);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            importedRows += importBatch(batch, errors);
+        }
+        errors.sort(Comparator.comparingLong(PatientImportResult.RowError::row));
+
+        var result = new PatientImportResult(totalRows, importedRows, errors,
+            Duration.ofNanos(System.nanoTime() - start));
+        log.info("Importação de pacientes concluída: {} registros, {} importados, {} rejeitados em {} ms ({} registros/s)",
+            result.totalRows(), result.importedRows(), result.rejectedRows(), result.elapsed().toMillis(),
+            Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private long importBatch(List<PatientImportRow> batch, List<PatientImportResult.RowError> errors) {
+        Set<String> existingCpfs = patientRepository.findExistingCpfs(
+            batch.stream().map(PatientImportRow::cpf).toList());
+
+        List<PatientImportRow> accepted = new ArrayList<>(batch.size());
+        for (PatientImportRow row : batch) {
+            if (existingCpfs.contains(row.cpf())) {
+                errors.add(rowError(row, DOCUMENT_ALREADY_EXISTS));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            patientRepository.saveAll(accepted.stream().map(PatientImportRow::patient).toList());
+            return accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // Um cadastro concorrente pode ter gravado um CPF entre a consulta e o insert: o lote inteiro
+            // sofreu rollback, então regrava linha a linha para rejeitar só quem conflitou
+            log.warn("Lote de importação rejeitado pelo banco, gravando registro a registro: {}",
+                e.getMostSpecificCause().getMessage());
+            return importRowByRow(accepted, errors);
+        }
+    }
+
+    private long importRowByRow(List<PatientImportRow> rows, List<PatientImportResult.RowError> errors) {
+        long imported = 0;
+        for (PatientImportRow row : rows) {
+            Patient patient = row.patient();
+            try {
+                patientRepository.save(patient);
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                if (patientRepository.existsByCpf(patient.cpf())) {
+                    errors.add(rowError(row, DOCUMENT_ALREADY_EXISTS));
+                } else {
+                    // A mensagem do banco expõe constraint e colunas: fica no log, o cliente recebe só a constante
+                    log.warn("Registro {} da importação rejeitado pelo banco: {}", row.row(),
+                        e.getMostSpecificCause().getMessage());
+                    errors.add(rowError(row, IMPORT_ROW_REJECTED));
+                }
+            }
+        }
+        return imported;
+    }
+
+    private static PatientImportResult.RowError rowError(PatientImportRow row, String message) {
+        return new PatientImportResult.RowError(row.row(), row.cpf(), message);
+    }
+}
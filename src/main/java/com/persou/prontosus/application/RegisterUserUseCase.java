@@ -5,12 +5,12 @@ import static com.persou.prontosus.config.MessagesErrorException.EMAIL_ALREADY_E
 import static com.persou.prontosus.config.MessagesErrorException.USER_ALREADY_EXISTS;
 
 import com.persou.prontosus.config.exceptions.ResourceAlreadyExistsException;
+import com.persou.prontosus.config.security.PasswordHasher;
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.ProfessionalRole;
 import com.persou.prontosus.gateway.UserRepository;
 import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,12 +18,12 @@ import org.springframework.stereotype.Service;
 public class RegisterUserUseCase {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     public User execute(User user) {
         validateUser(user);
 
-        String encodedPassword = passwordEncoder.encode(user.password());
+        String encodedPassword = passwordHasher.encode(user.password());
 
         ProfessionalRole roleEnum = mapStringToRole(user.role());
 
@@ -12,42 +12,74 @@ import com.persou.prontosus.config.exceptions.BusinessValidationException;
 import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.domain.FileAttachment;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.enums.ContentSignature;
 import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.gateway.AttachmentStoredEvent;
+import com.persou.prontosus.gateway.FileContentRepository;
+import com.persou.prontosus.gateway.FileContentRepository.AcquiredContent;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.FileStorage.StagedContent;
+import com.persou.prontosus.gateway.StorageCodecSelector;
 import com.persou.prontosus.gateway.database.jpa.FileAttachmentEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.FileAttachmentJpaRepository;
 import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepository;
 import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UploadExamFileUseCase {
 
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final String SVG = "image/svg+xml";
+
     private final FileAttachmentJpaRepository fileAttachmentJpaRepository;
     private final MedicalRecordJpaRepository medicalRecordJpaRepository;
     private final UserJpaRepository userJpaRepository;
+    private final FileContentRepository fileContentRepository;
+    private final FileStorage fileStorage;
+    private final StorageCodecSelector storageCodecSelector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public UploadExamFileUseCase(FileAttachmentJpaRepository fileAttachmentJpaRepository,
+                                 MedicalRecordJpaRepository medicalRecordJpaRepository,
+                                 UserJpaRepository userJpaRepository,
+                                 FileContentRepository fileContentRepository,
+                                 FileStorage fileStorage,
+                                 StorageCodecSelector storageCodecSelector,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.fileAttachmentJpaRepository = fileAttachmentJpaRepository;
+        this.medicalRecordJpaRepository = medicalRecordJpaRepository;
+        this.userJpaRepository = userJpaRepository;
+        this.fileContentRepository = fileContentRepository;
+        this.fileStorage = fileStorage;
+        this.storageCodecSelector = storageCodecSelector;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
-    @Value("${app.file.upload.dir:uploads}")
-    private String uploadDir;
-
-    @Transactional
+    // Sem @Transactional: a cópia para o disco (até 10 MB) e o SHA-256 acontecem antes de qualquer conexão ser
+    // pedida ao pool. A transação só cobre as consultas, os INSERTs e o rename do staging para o nome definitivo.
     public FileAttachment execute(String medicalRecordId, MultipartFile file, String description, User uploadedBy)
         throws IOException {
 
+        StagedContent staged = null;
         try {
             log.info("Iniciando upload de arquivo para registro médico: {}", medicalRecordId);
             log.info("Arquivo: {}, Tamanho: {} bytes", file.getOriginalFilename(), file.getSize());
@@ -57,16 +89,6 @@ public class UploadExamFileUseCase {
                 throw new BusinessValidationException("Arquivo não pode estar vazio");
             }
 
-            var medicalRecordEntity = medicalRecordJpaRepository.findById(medicalRecordId)
-                .orElseThrow(() -> {
-                    log.error("Registro médico não encontrado: {}", medicalRecordId);
-                    return new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Registro médico: " + medicalRecordId);
-                });
-
-            log.info("Registro médico encontrado: {}, Paciente: {}",
-                medicalRecordEntity.getId(),
-                medicalRecordEntity.getPatient().getFullName());
-
             validateFile(file);
 
             String originalFileName = file.getOriginalFilename();
@@ -74,73 +96,63 @@ public class UploadExamFileUseCase {
                 originalFileName = "arquivo_sem_nome";
             }
 
-            String fileName = generateUniqueFileName(originalFileName);
-            String filePath = saveFile(file, fileName);
-
-            log.info("Arquivo salvo em: {}", filePath);
-
-            var userEntity = userJpaRepository.findByUsername(uploadedBy.username())
-                .orElseThrow(() -> {
-                    log.error("Usuário não encontrado: {}", uploadedBy.username());
-                    return new ResourceNotFoundException("Usuário não encontrado: " + uploadedBy.username());
-                });
-
-            log.info("Usuário encontrado: {}", userEntity.getFullName());
-
-            FileAttachmentEntity entity = FileAttachmentEntity.builder()
-                .medicalRecord(medicalRecordEntity)
-                .fileName(originalFileName)
-                .filePath(filePath)
-                .contentType(file.getContentType() != null ? file.getContentType() : "application/octet-stream")
-                .fileSize(file.getSize())
-                .fileType(determineFileType(file.getContentType()))
-                .description(description != null ? description : "")
-                .uploadedAt(LocalDateTime.now())
-                .uploadedBy(userEntity)
-                .build();
-
-            log.info("Salvando entity do arquivo...");
-            FileAttachmentEntity savedEntity = fileAttachmentJpaRepository.save(entity);
-            log.info("Arquivo salvo com sucesso: {}", savedEntity.getId());
-
-            return FileAttachment.builder()
-                .id(savedEntity.getId())
-                .fileName(savedEntity.getFileName())
-                .filePath(savedEntity.getFilePath())
-                .contentType(savedEntity.getContentType())
-                .fileSize(savedEntity.getFileSize())
-                .fileType(savedEntity.getFileType().name())
-                .description(savedEntity.getDescription())
-                .uploadedAt(savedEntity.getUploadedAt())
-                .build();
-
-        } catch (IOException e) {
+            // O limite vale para os bytes de fato recebidos, não só para o tamanho declarado em validateFile
+            try (InputStream content = file.getInputStream()) {
+                staged = fileStorage.stage(content, MAX_FILE_SIZE, storageCodecSelector);
+            }
+            log.debug("Arquivo em staging: {} (sha256 {}, {}, {} de {} bytes em disco)", staged.path(),
+                staged.sha256(), staged.codec(), staged.storedSize(), staged.size());
+
+            return attach(medicalRecordId, originalFileName, file.getContentType(), description, uploadedBy, staged);
+
+        } catch (IOException | UncheckedIOException e) {
             log.error("Erro de I/O no upload do arquivo: {}", e.getMessage(), e);
-            throw e;
+            throw e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
         } catch (BusinessValidationException | ResourceNotFoundException e) {
             log.error("Erro de validação no upload: {}", e.getMessage(), e);
             throw e;
         } catch (Exception e) {
             log.error("Erro geral no upload do arquivo para registro {}: {}", medicalRecordId, e.getMessage(), e);
             throw new RuntimeException("Erro interno no upload: " + e.getMessage(), e);
+        } finally {
+            if (staged != null) {
+                fileStorage.deleteQuietly(staged.path());
+            }
         }
     }
 
+    // Segunda fase, comum ao upload multipart e ao upload em partes (ChunkedUploadUseCase): registra o anexo numa
+    // transação curta e move o staging para o endereço do conteúdo. Apagar o staging continua com quem chamou.
+    public FileAttachment attach(String medicalRecordId, String fileName, String declaredContentType,
+                                 String description, User uploadedBy, StagedContent staged) {
+        String contentType = resolveContentType(declaredContentType, staged.signature());
+        if (!contentType.equals(declaredContentType)) {
+            log.warn("Tipo declarado {} substituído por {} pelos bytes do arquivo {}", declaredContentType,
+                contentType, fileName);
+        }
+        // Só o upload que moveu o conteúdo para o lugar pode apagá-lo numa falha: conteúdo já existente é
+        // compartilhado com outros anexos
+        AtomicReference<Path> promoted = new AtomicReference<>();
+        FileAttachmentEntity savedEntity;
+        try {
+            savedEntity = transactionTemplate.execute(status -> saveAttachment(medicalRecordId, fileName,
+                contentType, description, uploadedBy, staged, promoted));
+        } catch (RuntimeException e) {
+            compensate(staged.sha256(), promoted.get());
+            throw e;
+        }
+        log.info("Arquivo salvo com sucesso: {} (conteúdo {}, {})", savedEntity.getId(), staged.sha256(),
+            promoted.get() != null ? "novo" : "já existente");
+        publishStored(savedEntity);
+        return toDomain(savedEntity);
+    }
+
     public List<FileAttachment> getPatientFiles(String patientId) {
         try {
             log.info("Buscando arquivos do paciente: {}", patientId);
             List<FileAttachment> files = fileAttachmentJpaRepository.findByPatientId(patientId)
                 .stream()
-                .map(entity -> FileAttachment.builder()
-                    .id(entity.getId())
-                    .fileName(entity.getFileName())
-                    .filePath(entity.getFilePath())
-                    .contentType(entity.getContentType())
-                    .fileSize(entity.getFileSize())
-                    .fileType(entity.getFileType().name())
-                    .description(entity.getDescription())
-                    .uploadedAt(entity.getUploadedAt())
-                    .build())
+                .map(UploadExamFileUseCase::toDomain)
                 .toList();
             log.info("Encontrados {} arquivos para o paciente {}", files.size(), patientId);
             return files;
@@ -150,10 +162,112 @@ public class UploadExamFileUseCase {
         }
     }
 
+    // O INSERT vai com flush antes do rename: erro de constraint aparece antes de o arquivo ir para o lugar.
+    // Se o commit falhar depois do rename, compensate remove o arquivo definitivo.
+    private FileAttachmentEntity saveAttachment(String medicalRecordId, String fileName, String contentType,
+                                                String description, User uploadedBy, StagedContent staged,
+                                                AtomicReference<Path> promoted) {
+        var medicalRecordEntity = medicalRecordJpaRepository.findById(medicalRecordId)
+            .orElseThrow(() -> {
+                log.error("Registro médico não encontrado: {}", medicalRecordId);
+                return new ResourceNotFoundException(ENTITY_NOT_FOUND + " - Registro médico: " + medicalRecordId);
+            });
+
+        log.info("Registro médico encontrado: {}, Paciente: {}",
+            medicalRecordEntity.getId(),
+            medicalRecordEntity.getPatient().getFullName());
+
+        var userEntity = userJpaRepository.findByUsername(uploadedBy.username())
+            .orElseThrow(() -> {
+                log.error("Usuário não encontrado: {}", uploadedBy.username());
+                return new ResourceNotFoundException("Usuário não encontrado: " + uploadedBy.username());
+            });
+
+        log.info("Usuário encontrado: {}", userEntity.getFullName());
+
+        FileAttachmentEntity entity = FileAttachmentEntity.builder()
+            .medicalRecord(medicalRecordEntity)
+            .fileName(fileName)
+            .filePath(staged.sha256())
+            .contentType(contentType)
+            .fileSize(staged.size())
+            .fileType(determineFileType(contentType))
+            .description(description != null ? description : "")
+            .uploadedAt(LocalDateTime.now())
+            .uploadedBy(userEntity)
+            .build();
+
+        log.info("Salvando entity do arquivo...");
+        AcquiredContent content = fileContentRepository.acquire(staged.sha256(), staged.size(), staged.codec(),
+            staged.storedSize());
+        // Conteúdo repetido: o staging é descartado e o anexo usa o codec da cópia que já está em disco. A
+        // checagem do arquivo cobre um conteúdo registrado cujo arquivo sumiu do disco
+        boolean store = content.created() || !fileStorage.hasContent(staged.sha256());
+        entity.setStorageCodec(store ? staged.codec() : content.codec());
+        FileAttachmentEntity savedEntity = fileAttachmentJpaRepository.saveAndFlush(entity);
+
+        Path target = fileStorage.contentPath(staged.sha256());
+        if (store) {
+            if (!content.created() && content.codec() != staged.codec()) {
+                fileContentRepository.replaceStoredContent(staged.sha256(), staged.codec(), staged.storedSize());
+            }
+            try {
+                fileStorage.promote(staged.path(), target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            promoted.set(target);
+        }
+        return savedEntity;
+    }
+
+    // Já comitado: erro de quem escuta o evento (miniatura, por exemplo) não pode desfazer o upload
+    private void publishStored(FileAttachmentEntity entity) {
+        try {
+            eventPublisher.publishEvent(new AttachmentStoredEvent(entity.getId(), entity.getFilePath(),
+                entity.getStorageCodec(), entity.getFileType()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao notificar o upload do anexo {}: {}", entity.getId(), e.getMessage(), e);
+        }
+    }
+
+    private static FileAttachment toDomain(FileAttachmentEntity entity) {
+        return FileAttachment.builder()
+            .id(entity.getId())
+            .fileName(entity.getFileName())
+            .filePath(entity.getFilePath())
+            .contentType(entity.getContentType())
+            .fileSize(entity.getFileSize())
+            .fileType(entity.getFileType().name())
+            .storageCodec(entity.getStorageCodec().name())
+            .description(entity.getDescription())
+            .uploadedAt(entity.getUploadedAt())
+            .build();
+    }
+
+    // Depois do nosso rollback, outro upload do mesmo conteúdo pode ter registrado o hash e gravado o arquivo no
+    // mesmo endereço: só apaga com o hash travado e sem registro. Sem banco, o arquivo fica para o
+    // OrphanFileReconciler
+    private void compensate(String sha256, Path target) {
+        if (target == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (fileContentRepository.lockUnregistered(sha256)) {
+                    fileStorage.deleteQuietly(target);
+                }
+                status.setRollbackOnly();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível compensar o conteúdo {}: {}", sha256, e.getMessage(), e);
+        }
+    }
+
     private void validateFile(MultipartFile file) {
         log.debug("Validando arquivo...");
 
-        if (file.getSize() > 10 * 1024 * 1024) { // 10MB
+        if (file.getSize() > MAX_FILE_SIZE) {
             throw new BusinessValidationException(FILE_LARGER_THAN_10MB);
         }
 
@@ -165,42 +279,38 @@ public class UploadExamFileUseCase {
         log.debug("Arquivo validado com sucesso");
     }
 
-    private boolean isAllowedContentType(String contentType) {
+    // O tipo declarado pelo cliente só vale quando os bytes não o contradizem: assinatura conhecida prevalece,
+    // e um tipo que promete assinatura (image/png, application/pdf...) sem ela vira application/octet-stream.
+    // SVG é XML que carrega script: guardado como application/octet-stream, nunca exibido como imagem.
+    static String resolveContentType(String declared, ContentSignature signature) {
+        if (signature == null) {
+            return declared == null || ContentSignature.isSignedType(declared) || isSvg(declared)
+                ? OCTET_STREAM : declared;
+        }
+        if (signature.isExecutable()) {
+            throw new BusinessValidationException(FILE_NOT_SUPPORTED + ": " + signature.mediaType());
+        }
+        String contentType = signature.accepts(declared) ? declared : signature.mediaType();
+        if (!isAllowedContentType(contentType)) {
+            throw new BusinessValidationException(FILE_NOT_SUPPORTED + ": " + contentType);
+        }
+        return contentType;
+    }
+
+    private static boolean isSvg(String contentType) {
+        return contentType.toLowerCase(Locale.ROOT).startsWith(SVG);
+    }
+
+    static boolean isAllowedContentType(String contentType) {
         return contentType.startsWith("image/") ||
             contentType.equals("application/pdf") ||
+            contentType.equals("application/dicom") ||
             contentType.startsWith("text/") ||
             contentType.contains("document") ||
             contentType.contains("spreadsheet") ||
             contentType.equals("application/octet-stream");
     }
 
-    private String generateUniqueFileName(String originalFileName) {
-        String extension = "";
-        if (originalFileName != null && originalFileName.contains(".")) {
-            int dotIndex = originalFileName.lastIndexOf('.');
-            if (dotIndex > 0 && dotIndex < originalFileName.length() - 1) {
-                extension = originalFileName.substring(dotIndex);
-            }
-        }
-        return UUID.randomUUID() + extension;
-    }
-
-    private String saveFile(MultipartFile file, String fileName) throws IOException {
-        log.debug("Salvando arquivo fisicamente: {}", fileName);
-
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            log.info("Criando diretório de upload: {}", uploadPath);
-            Files.createDirectories(uploadPath);
-        }
-
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        log.debug("Arquivo salvo em: {}", filePath);
-        return filePath.toString();
-    }
-
     private FileType determineFileType(String contentType) {
         if (contentType == null) {
             return OTHER;
@@ -208,7 +318,7 @@ public class UploadExamFileUseCase {
 
         if (contentType.startsWith("image/")) {
             return IMAGE;
-        } else if (contentType.equals("application/pdf")) {
+        } else if (contentType.equals("application/pdf") || contentType.equals("application/dicom")) {
             return EXAM_RESULT;
         } else if (contentType.contains("document")) {
             return MEDICAL_REPORT;
@@ -1,7 +1,7 @@
 package com.persou.prontosus.application;
 
 import com.persou.prontosus.domain.MedicalRecord;
-import com.persou.prontosus.gateway.MedicalRecordRepository;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +13,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ViewMedicalHistoryUseCase {
 
-    private final MedicalRecordRepository medicalRecordRepository;
+    private final MedicalRecordQueryRepository medicalRecordQueryRepository;
 
     public List<MedicalRecord> getPatientHistory(String patientId) {
         log.info("Buscando histórico médico para paciente ID: {}", patientId);
-        List<MedicalRecord> records = medicalRecordRepository.findByPatientIdOrderByConsultationDateDesc(patientId);
+        List<MedicalRecord> records = medicalRecordQueryRepository.findByPatientId(patientId);
         log.info("Encontrados {} registros para o paciente {}", records.size(), patientId);
 
         if (records.isEmpty()) {
@@ -30,13 +30,13 @@ public class ViewMedicalHistoryUseCase {
     public List<MedicalRecord> getPatientHistoryByDateRange(String patientId, LocalDateTime startDate,
                                                             LocalDateTime endDate) {
         log.info("Buscando histórico médico para paciente {} entre {} e {}", patientId, startDate, endDate);
-        return medicalRecordRepository.findByPatientAndDateRange(patientId, startDate, endDate);
+        return medicalRecordQueryRepository.findByPatientIdAndDateRange(patientId, startDate, endDate);
     }
 
     public List<MedicalRecord> getProfessionalRecords(String professionalId) {
         log.info("Buscando registros do profissional ID: {}", professionalId);
         List<MedicalRecord> records =
-            medicalRecordRepository.findByHealthcareProfessionalIdOrderByConsultationDateDesc(professionalId);
+            medicalRecordQueryRepository.findByProfessionalId(professionalId);
         log.info("Encontrados {} registros para o profissional {}", records.size(), professionalId);
         return records;
     }
@@ -10,8 +10,25 @@ public class MessagesErrorException {
     public static final String USER_NOT_AUTHORIZED = "Usuário não autorizado";
     public static final String FILE_LARGER_THAN_10MB = "Arquivo não pode ser maior que 10MB";
     public static final String FILE_NOT_SUPPORTED = "Tipo de arquivo não permitido";
+    public static final String FILE_SIZE_LIMIT_EXCEEDED = "Arquivo maior que o limite";
     public static final String DOCUMENT_NOT_FOUND = "Documento não encontrado";
     public static final String HEALTHCARE_PROFESSIONAL_NOT_FOUND = "Profissional de saúde não encontrado";
     public static final String INVALID_ZIP_CODE = "CEP deve conter 8 dígitos";
+    public static final String INVALID_GENDER = "Gênero inválido";
+    public static final String INVALID_BIRTH_DATE = "Data de nascimento inválida";
+    public static final String INVALID_IMPORT_ROW = "Registro inválido";
+    public static final String DOCUMENT_DUPLICATED_IN_FILE = "Documento repetido no arquivo";
+    public static final String IMPORT_ROW_REJECTED = "Registro rejeitado pelas regras do cadastro";
+    public static final String UNSUPPORTED_IMPORT_FORMAT = "Formato de importação não suportado";
+    public static final String LOGIN_ATTEMPTS_EXCEEDED = "Muitas tentativas de login, tente novamente mais tarde";
+    public static final String AUTHENTICATION_BUSY = "Autenticação sobrecarregada, tente novamente em instantes";
+    public static final String FILE_TOO_LARGE = "Arquivo maior que o limite do upload em partes";
+    public static final String UPLOAD_NOT_FOUND = "Upload não encontrado ou expirado";
+    public static final String UPLOAD_OFFSET_CONFLICT = "Parte fora de ordem";
+    public static final String UPLOAD_BUSY = "Upload recebendo outra parte, tente novamente em instantes";
+    public static final String UPLOAD_INCOMPLETE = "Upload incompleto";
+    public static final String CHUNK_TOO_LARGE = "Parte maior que o permitido";
+    public static final String CHUNK_CHECKSUM_MISMATCH = "SHA-256 da parte não confere";
+    public static final String UPLOAD_CHECKSUM_MISMATCH = "SHA-256 do arquivo não confere";
 
 }
\ No newline at end of file
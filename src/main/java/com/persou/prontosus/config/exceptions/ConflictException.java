@@ -0,0 +1,11 @@
+package com.persou.prontosus.config.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends ApiException {
+
+    public ConflictException(String message) {
+        super(HttpStatus.CONFLICT, ErrorType.CONFLICT, message);
+    }
+
+}
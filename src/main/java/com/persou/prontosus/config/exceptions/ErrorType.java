@@ -9,6 +9,9 @@ public enum ErrorType {
     VALIDATION("ValidationError"),
     RESOURCE_NOT_FOUND("ResourceNotFound"),
     RESOURCE_ALREADY_EXISTS("ResourceAlreadyExists"),
+    CONFLICT("Conflict"),
+    SERVICE_UNAVAILABLE("ServiceUnavailable"),
+    TOO_MANY_REQUESTS("TooManyRequests"),
     INTERNAL_SERVER_ERROR("InternalError");
 
     private final String description;
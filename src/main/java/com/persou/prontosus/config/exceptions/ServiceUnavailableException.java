@@ -0,0 +1,15 @@
+package com.persou.prontosus.config.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, ErrorType.SERVICE_UNAVAILABLE, message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable throwable) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message, ErrorType.SERVICE_UNAVAILABLE, null, throwable);
+    }
+
+}
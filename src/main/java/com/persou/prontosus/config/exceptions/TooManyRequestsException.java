@@ -0,0 +1,21 @@
+package com.persou.prontosus.config.exceptions;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class TooManyRequestsException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message) {
+        this(message, null);
+    }
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, ErrorType.TOO_MANY_REQUESTS, message);
+        this.retryAfter = retryAfter;
+    }
+
+}
@@ -5,9 +5,11 @@ import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 
 import com.persou.prontosus.config.exceptions.ApiException;
 import com.persou.prontosus.config.exceptions.ErrorType;
+import com.persou.prontosus.config.exceptions.TooManyRequestsException;
 import com.persou.prontosus.config.exceptions.ValidationErrorDetail;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -34,6 +36,19 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(response, ex.getStatus());
     }
 
+    // Retry-After em segundos inteiros, arredondado para cima: voltar antes disso seria rejeitado de novo
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ResponseEntity<ApiErrorResponse> response = handleApiException(ex);
+        if (ex.getRetryAfter() == null) {
+            return response;
+        }
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(response.getStatusCode())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+            .body(response.getBody());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         log.info("Validation error: {}", ex.getMessage());
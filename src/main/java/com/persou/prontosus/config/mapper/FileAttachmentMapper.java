@@ -17,8 +17,17 @@ public interface FileAttachmentMapper {
     @Mapping(target = "medicalRecord", ignore = true)
     FileAttachment toDomain(FileAttachmentEntity fileAttachment);
 
+    @Mapping(target = "thumbnailUrl", expression = "java(thumbnailUrl(fileAttachment))")
     FileAttachmentResponse toResponse(FileAttachment fileAttachment);
 
+    // Só imagens têm miniatura: a galeria usa esta URL em vez de baixar o original
+    default String thumbnailUrl(FileAttachment fileAttachment) {
+        if (fileAttachment.id() == null || !FileType.IMAGE.name().equals(fileAttachment.fileType())) {
+            return null;
+        }
+        return "/files/" + fileAttachment.id() + "/thumbnail";
+    }
+
     default FileType mapFileType(String fileType) {
         if (fileType == null) {
             return null;
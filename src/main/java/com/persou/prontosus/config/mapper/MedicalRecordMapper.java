@@ -89,6 +89,7 @@ public interface MedicalRecordMapper {
             .contentType(entity.getContentType())
             .fileSize(entity.getFileSize())
             .fileType(entity.getFileType().name())
+            .storageCodec(entity.getStorageCodec().name())
             .description(entity.getDescription())
             .uploadedAt(entity.getUploadedAt())
             .build();
@@ -105,6 +106,9 @@ public interface MedicalRecordMapper {
             .contentType(attachment.contentType())
             .fileSize(attachment.fileSize())
             .fileType(com.persou.prontosus.domain.enums.FileType.valueOf(attachment.fileType()))
+            .storageCodec(attachment.storageCodec() != null
+                ? com.persou.prontosus.domain.enums.StorageCodec.valueOf(attachment.storageCodec())
+                : com.persou.prontosus.domain.enums.StorageCodec.NONE)
             .description(attachment.description())
             .uploadedAt(attachment.uploadedAt())
             .build();
@@ -22,11 +22,11 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
             .map(user -> {
-                log.info("Carregando usuário: {} com role: {}", username, user.role());
+                log.debug("Carregando usuário: {} com role: {}", username, user.role());
 
                 var authority = new SimpleGrantedAuthority("ROLE_" + user.role());
 
-                log.info("Authority criada: {}", authority.getAuthority());
+                log.debug("Authority criada: {}", authority.getAuthority());
 
                 return User.builder()
                     .username(user.username())
@@ -5,12 +5,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,7 +22,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    // true: tokens com role/uid/ver autenticam sem consultar o usuário; false: sempre resolve pelo UserDetailsCache
+    @Value("${security.jwt.claims-only:true}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(
@@ -29,21 +36,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Assinatura e expiração verificadas uma única vez; token inválido segue sem autenticação
+        Optional<VerifiedToken> verifiedToken = jwtService.verify(authHeader.substring(7));
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (verifiedToken.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            VerifiedToken token = verifiedToken.get();
+            UserDetails userDetails;
+            if (claimsOnly && token.hasUserClaims()) {
+                // Autorização só pelas claims assinadas; revogação pela versão de token em memória
+                userDetails = tokenVersionRegistry.isCurrent(token.userId(), token.tokenVersion())
+                    ? fromClaims(token)
+                    : null;
+            } else {
+                userDetails = userDetailsCache.get(token.username());
+            }
 
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
@@ -55,4 +69,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private static UserDetails fromClaims(VerifiedToken token) {
+        return User.withUsername(token.username())
+            .password("")
+            .roles(token.role())
+            .build();
+    }
 }
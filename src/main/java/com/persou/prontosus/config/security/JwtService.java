@@ -1,25 +1,96 @@
 package com.persou.prontosus.config.security;
 
+import com.persou.prontosus.domain.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import javax.crypto.SecretKey;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
-    private String secretKey;
+    static final String ROLE_CLAIM = "role";
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${jwt.expiration:86400000}")
-    private Long jwtExpiration;
+    private final long jwtExpiration;
+    // Chave e parser são imutáveis e thread-safe: montados uma vez, não a cada token
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
+
+    // Tokens já verificados, pela digest SHA-256, até expirarem. Um token repetido (o mesmo cliente fazendo
+    // várias requisições) não repete HMAC + decodificação + parse do JSON. max-size 0 desliga o cache.
+    private final int verifiedCacheMaxSize;
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    public JwtService(
+        @Value("${jwt.secret:mySecretKey123456789012345678901234567890}") String secretKey,
+        @Value("${jwt.expiration:86400000}") long jwtExpiration,
+        @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize
+    ) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+            .verifyWith(signInKey)
+            .build();
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+    }
+
+    // Verifica assinatura e expiração com um único parse. Token inválido, expirado ou sem subject/expiração
+    // resulta em vazio, nunca em exceção.
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String digest = verifiedCacheMaxSize > 0 ? digest(token) : null;
+        if (digest != null) {
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (!cached.isExpiredAt(now)) {
+                    return Optional.of(cached);
+                }
+                verifiedTokens.remove(digest, cached);
+                return Optional.empty();
+            }
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token JWT rejeitado: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims, claims.getExpiration().toInstant());
+        if (digest != null) {
+            remember(digest, verified, now);
+        }
+        return Optional.of(verified);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -30,6 +101,15 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    // Token autocontido: role, id e versão de token assinados, suficientes para autorizar sem consultar o usuário
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, user.role());
+        claims.put(USER_ID_CLAIM, user.id());
+        claims.put(TOKEN_VERSION_CLAIM, user.tokenVersion() != null ? user.tokenVersion() : 0);
+        return generateToken(claims, user.username());
+    }
+
     public String generateToken(String username) {
         return generateToken(new HashMap<>(), username);
     }
@@ -39,38 +119,49 @@ public class JwtService {
     }
 
     private String buildToken(Map<String, Object> extraClaims, String username, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-            .setClaims(extraClaims)
-            .setSubject(username)
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+            .claims(extraClaims)
+            .subject(username)
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + expiration))
+            .signWith(signInKey, Jwts.SIG.HS256)
             .compact();
     }
 
     public boolean isTokenValid(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username)) && !isTokenExpired(token);
+        return verify(token)
+            .map(verified -> verified.username().equals(username))
+            .orElse(false);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return verify(token)
+            .map(VerifiedToken::claims)
+            .orElseGet(() -> jwtParser.parseSignedClaims(token).getPayload());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    private void remember(String digest, VerifiedToken verified, Instant now) {
+        verifiedTokens.put(digest, verified);
+        if (verifiedTokens.size() <= verifiedCacheMaxSize) {
+            return;
+        }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .setSigningKey(getSignInKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        verifiedTokens.values().removeIf(candidate -> candidate.isExpiredAt(now));
+        // Ainda cheio só com tokens válidos: descarta entradas quaisquer, que no pior caso são parseadas de novo
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > verifiedCacheMaxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
-}
\ No newline at end of file
+}
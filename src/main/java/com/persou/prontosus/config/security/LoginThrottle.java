@@ -0,0 +1,178 @@
+package com.persou.prontosus.config.security;
+
+import static com.persou.prontosus.config.MessagesErrorException.LOGIN_ATTEMPTS_EXCEEDED;
+
+import com.persou.prontosus.config.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Limite de falhas de login por janela deslizante, checado antes de qualquer consulta ou BCrypt. Duas chaves:
+// usuário + IP (força bruta numa conta, sem permitir que um terceiro bloqueie o usuário de outro IP) e IP sozinho
+// (password spraying, muitos usuários a partir da mesma origem).
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final LongSupplier clock;
+
+    private final Map<String, SlidingWindowCounter> userFailures = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowCounter> ipFailures = new ConcurrentHashMap<>();
+
+    private final Counter userRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginThrottle(
+        MeterRegistry meterRegistry,
+        @Value("${security.login-throttle.window:5m}") Duration window,
+        @Value("${security.login-throttle.buckets:10}") int buckets,
+        @Value("${security.login-throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+        @Value("${security.login-throttle.max-failures-per-ip:30}") int maxFailuresPerIp
+    ) {
+        this(meterRegistry, window, buckets, maxFailuresPerUser, maxFailuresPerIp, System::currentTimeMillis);
+    }
+
+    LoginThrottle(
+        MeterRegistry meterRegistry,
+        Duration window,
+        int buckets,
+        int maxFailuresPerUser,
+        int maxFailuresPerIp,
+        LongSupplier clock
+    ) {
+        if (buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Janela do limite de login deve ter ao menos 1 ms por bucket");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.clock = clock;
+
+        this.userRejections = Counter.builder("auth.login.throttled").tag("key", "user")
+            .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", this, LoginThrottle::trackedKeys)
+            .register(meterRegistry);
+    }
+
+    // Na chave usuário + IP a checagem e a contagem são uma única operação: a tentativa já entra como falha antes
+    // do BCrypt, então uma rajada paralela contra a conta não passa do limite. No IP só contam as falhas já
+    // confirmadas; reservar ali também faria os logins em andamento de um NAT (inclusive os parados na fila do
+    // BCrypt) ocuparem o limite de falhas e darem 429 a quem acertou a senha. Uma rajada de spraying passa do
+    // limite do IP no máximo pelas tentativas em andamento, que o pool do BCrypt já limita.
+    public Reservation reserve(String username, String clientIp) {
+        long bucket = currentBucket();
+        String userKey = userKey(username, clientIp);
+        if (sum(ipFailures, clientIp, bucket) >= maxFailuresPerIp) {
+            ipRejections.increment();
+            log.warn("Login bloqueado por excesso de falhas do IP {}", clientIp);
+            throw new TooManyRequestsException(LOGIN_ATTEMPTS_EXCEEDED,
+                retryAfter(ipFailures, clientIp, bucket, maxFailuresPerIp));
+        }
+        if (!tryIncrement(userFailures, userKey, bucket, maxFailuresPerUser)) {
+            userRejections.increment();
+            log.warn("Login bloqueado por excesso de falhas do usuário {} a partir de {}", username, clientIp);
+            throw new TooManyRequestsException(LOGIN_ATTEMPTS_EXCEEDED,
+                retryAfter(userFailures, userKey, bucket, maxFailuresPerUser));
+        }
+        return new Reservation(userKey, clientIp, bucket);
+    }
+
+    // Senha errada: a vaga reservada na chave usuário + IP fica como a falha, e o IP ganha a sua
+    public void recordFailure(Reservation reservation) {
+        long bucket = currentBucket();
+        ipFailures.compute(reservation.clientIp(), (key, counter) -> {
+            SlidingWindowCounter current = counter != null ? counter : new SlidingWindowCounter(buckets);
+            current.increment(bucket);
+            return current;
+        });
+    }
+
+    // Login certo zera a chave usuário + IP; as falhas do IP continuam contando para outras contas
+    public void recordSuccess(Reservation reservation) {
+        userFailures.remove(reservation.userKey());
+    }
+
+    // Erro que não diz nada sobre a senha (pool do BCrypt cheio, banco fora) não conta como falha
+    public void release(Reservation reservation) {
+        decrement(userFailures, reservation.userKey(), reservation.bucket());
+    }
+
+    // Chaves sem falhas dentro da janela são descartadas; sem isso o mapa cresceria com cada usuário tentado
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval:1m}")
+    public void sweep() {
+        long bucket = currentBucket();
+        // Remove pelo compute da própria chave para não descartar um contador que acabou de receber uma reserva
+        userFailures.keySet().forEach(key -> userFailures.computeIfPresent(key, idleToNull(bucket)));
+        ipFailures.keySet().forEach(key -> ipFailures.computeIfPresent(key, idleToNull(bucket)));
+    }
+
+    int trackedKeys() {
+        return userFailures.size() + ipFailures.size();
+    }
+
+    private boolean tryIncrement(Map<String, SlidingWindowCounter> failures, String key, long bucket, int max) {
+        boolean[] reserved = new boolean[1];
+        failures.compute(key, (k, counter) -> {
+            SlidingWindowCounter current = counter != null ? counter : new SlidingWindowCounter(buckets);
+            if (current.sum(bucket) < max) {
+                current.increment(bucket);
+                reserved[0] = true;
+            }
+            return current;
+        });
+        return reserved[0];
+    }
+
+    private static long sum(Map<String, SlidingWindowCounter> failures, String key, long bucket) {
+        SlidingWindowCounter counter = failures.get(key);
+        return counter != null ? counter.sum(bucket) : 0;
+    }
+
+    private static void decrement(Map<String, SlidingWindowCounter> failures, String key, long bucket) {
+        failures.computeIfPresent(key, (k, counter) -> {
+            counter.decrement(bucket);
+            return counter;
+        });
+    }
+
+    private static BiFunction<String, SlidingWindowCounter, SlidingWindowCounter> idleToNull(long bucket) {
+        return (key, counter) -> counter.isIdle(bucket) ? null : counter;
+    }
+
+    // Até o bucket mais antigo que ainda mantém a soma no limite sair da janela
+    private Duration retryAfter(Map<String, SlidingWindowCounter> failures, String key, long bucket, int max) {
+        SlidingWindowCounter counter = failures.get(key);
+        long bucketsToWait = counter != null ? counter.bucketsUntilBelow(bucket, max) : 0;
+        return Duration.ofMillis(Math.max(0, (bucket + bucketsToWait) * bucketMillis - clock.getAsLong()));
+    }
+
+    private long currentBucket() {
+        return clock.getAsLong() / bucketMillis;
+    }
+
+    private static String userKey(String username, String clientIp) {
+        return username.trim().toLowerCase(Locale.ROOT) + '|' + clientIp;
+    }
+
+    public record Reservation(String userKey, String clientIp, long bucket) {
+    }
+}
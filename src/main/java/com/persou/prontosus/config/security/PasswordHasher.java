@@ -0,0 +1,120 @@
+package com.persou.prontosus.config.security;
+
+import static com.persou.prontosus.config.MessagesErrorException.AUTHENTICATION_BUSY;
+
+import com.persou.prontosus.config.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+// BCrypt custa ~100 ms de CPU por chamada. Em vez de rodar nas threads do Tomcat, hash e verificação passam por
+// um pool próprio, limitado em threads e em fila: numa troca de plantão com centenas de logins simultâneos os
+// demais endpoints continuam com CPU, e o excedente recebe 503 na hora em vez de esperar indefinidamente.
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    public PasswordHasher(
+        PasswordEncoder passwordEncoder,
+        MeterRegistry meterRegistry,
+        @Value("${security.password-hashing.threads:0}") int threads,
+        @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+        @Value("${security.password-hashing.timeout:5s}") Duration timeout
+    ) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hashing").tag("operation", "encode")
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hashing").tag("operation", "matches")
+            .register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.hashing.rejected")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue.size", queue, BlockingQueue::size)
+            .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+        log.info("Pool de hash de senha: {} threads, fila de {}", poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Só lê o custo gravado no hash; não passa pelo pool
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Timer timer, Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceUnavailableException(AUTHENTICATION_BUSY, e);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new ServiceUnavailableException(AUTHENTICATION_BUSY, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(AUTHENTICATION_BUSY, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    int queueSize() {
+        return executor.getQueue().size();
+    }
+}
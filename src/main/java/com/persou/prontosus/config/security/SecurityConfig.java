@@ -3,6 +3,7 @@ package com.persou.prontosus.config.security;
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -29,13 +30,16 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/actuator/**").permitAll()
+                // Health fica aberto para o balanceador; métricas expõem contadores internos e ficam com o ADMIN
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/users/register").permitAll()
                 .requestMatchers("/auth/login").permitAll()
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**").permitAll()
                 .requestMatchers("/users/**").hasRole("ADMIN")
                 .requestMatchers("/patients/**").hasAnyRole("DOCTOR", "NURSE", "ADMIN")
                 .requestMatchers("/medical-records/**").hasAnyRole("DOCTOR", "ADMIN")
+                .requestMatchers("/files/maintenance/**").hasRole("ADMIN")
                 .requestMatchers("/files/**").hasAnyRole("DOCTOR", "NURSE", "ADMIN")
                 .anyRequest().authenticated()
             )
@@ -44,9 +48,10 @@ public class SecurityConfig {
             .build();
     }
 
+    // Subir o custo é seguro: hashes antigos continuam válidos e são refeitos no próximo login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
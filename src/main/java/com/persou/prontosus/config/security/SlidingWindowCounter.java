@@ -0,0 +1,92 @@
+package com.persou.prontosus.config.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Contador de janela deslizante sem locks: a janela é dividida em buckets de tempo e cada slot guarda, num único
+// long, o índice do bucket (bits altos) e a contagem (24 bits baixos). Incremento por CAS; um slot com índice
+// antigo é reaproveitado zerando a contagem, então buckets vencidos saem da soma sem varredura.
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    SlidingWindowCounter(int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    void increment(long bucket) {
+        int index = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            long next = bucketOf(current) == bucket
+                ? Math.min(current + 1, pack(bucket, COUNT_MASK))
+                : pack(bucket, 1);
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    // Só desconta se o bucket ainda ocupa o slot; se já foi reaproveitado a contagem saiu da janela
+    void decrement(long bucket) {
+        int index = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            if (bucketOf(current) != bucket || (current & COUNT_MASK) == 0) {
+                return;
+            }
+            if (slots.compareAndSet(index, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    long sum(long bucket) {
+        long oldest = bucket - slots.length() + 1;
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long slotBucket = bucketOf(slot);
+            if (slotBucket >= oldest && slotBucket <= bucket) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    // Quantos buckets precisam sair da janela, do mais antigo para o mais novo, até a soma ficar abaixo de max
+    long bucketsUntilBelow(long bucket, long max) {
+        long oldest = bucket - slots.length() + 1;
+        long[] countsByAge = new long[slots.length()];
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long slotBucket = bucketOf(slot);
+            if (slotBucket >= oldest && slotBucket <= bucket) {
+                countsByAge[(int) (slotBucket - oldest)] += slot & COUNT_MASK;
+                total += slot & COUNT_MASK;
+            }
+        }
+        for (int age = 0; age < countsByAge.length; age++) {
+            if (total < max) {
+                return age;
+            }
+            total -= countsByAge[age];
+        }
+        return countsByAge.length;
+    }
+
+    boolean isIdle(long bucket) {
+        return sum(bucket) == 0;
+    }
+
+    private static long pack(long bucket, long count) {
+        return (bucket << COUNT_BITS) | count;
+    }
+
+    private static long bucketOf(long slot) {
+        return slot >>> COUNT_BITS;
+    }
+}
@@ -0,0 +1,61 @@
+package com.persou.prontosus.config.security;
+
+import com.persou.prontosus.gateway.UserChangedEvent;
+import com.persou.prontosus.gateway.UserRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Versão atual dos tokens de cada usuário (users.token_version), em memória. O filtro JWT compara a claim "ver"
+// com este mapa em vez de consultar o banco. O mapa inteiro é recarregado em segundo plano, o que cobre
+// alterações feitas por outras instâncias ou direto no banco; gravações desta instância invalidam na hora.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(String userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            // Usuário criado depois da última recarga: uma consulta e o valor passa a vir do mapa
+            current = userRepository.findTokenVersionById(userId).orElse(null);
+            if (current == null) {
+                return false;
+            }
+            versions.putIfAbsent(userId, current);
+        }
+        return current == tokenVersion;
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-versions.refresh-interval:30s}")
+    public void refresh() {
+        try {
+            Map<String, Integer> loaded = userRepository.findTokenVersions();
+            versions.putAll(loaded);
+            versions.keySet().retainAll(loaded.keySet());
+            log.debug("Versões de token recarregadas: {} usuários", loaded.size());
+        } catch (DataAccessException e) {
+            // Mantém o último estado conhecido; a próxima execução tenta de novo
+            log.warn("Falha ao recarregar versões de token: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            TransactionalEviction.evictNowAndAfterCommit(() -> versions.remove(event.userId()));
+        }
+    }
+
+    int size() {
+        return versions.size();
+    }
+}
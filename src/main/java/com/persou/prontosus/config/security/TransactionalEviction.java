@@ -0,0 +1,24 @@
+package com.persou.prontosus.config.security;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Remove dados derivados do usuário na hora e, dentro de uma transação, de novo após o commit: entre a gravação
+// e o commit outra requisição pode recarregar a linha antiga e repopular a entrada.
+final class TransactionalEviction {
+
+    private TransactionalEviction() {
+    }
+
+    static void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.persou.prontosus.config.security;
+
+import com.persou.prontosus.gateway.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+// Cache em memória dos UserDetails usados pelo JwtAuthenticationFilter: evita uma consulta ao banco por
+// requisição autenticada. Limitado em tamanho e com TTL, que também limita o tempo que uma alteração feita
+// fora da aplicação leva para valer. Gravações feitas pela aplicação (desativação, troca de role) chegam por
+// UserChangedEvent e invalidam a entrada na hora.
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    static final String CACHE_NAME = "userDetails";
+
+    private final UserDetailsService userDetailsService;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public UserDetailsCache(
+        UserDetailsService userDetailsService,
+        MeterRegistry meterRegistry,
+        @Value("${security.user-details-cache.ttl:5m}") Duration ttl,
+        @Value("${security.user-details-cache.max-size:10000}") int maxSize
+    ) {
+        this(userDetailsService, meterRegistry, ttl, maxSize, System::nanoTime);
+    }
+
+    UserDetailsCache(
+        UserDetailsService userDetailsService,
+        MeterRegistry meterRegistry,
+        Duration ttl,
+        int maxSize,
+        LongSupplier nanoClock
+    ) {
+        if (ttl.isNegative() || ttl.isZero() || maxSize <= 0) {
+            throw new IllegalArgumentException("TTL e tamanho máximo do cache de usuários devem ser positivos");
+        }
+        this.userDetailsService = userDetailsService;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.nanoClock = nanoClock;
+
+        // Mesmos nomes e tags do binder de caches do Micrometer: aparecem em /actuator/metrics/cache.gets etc.
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+            .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    public UserDetails get(String username) throws UsernameNotFoundException {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(username);
+        if (entry != null && !entry.isExpiredAt(now)) {
+            hits.increment();
+            return entry.userDetails();
+        }
+        misses.increment();
+
+        // Usuário inexistente não é cacheado: a exceção sobe como antes
+        UserDetails loaded = withoutPassword(userDetailsService.loadUserByUsername(username));
+        if (entries.put(username, new Entry(loaded, now + ttlNanos)) == null && entries.size() > maxSize) {
+            evictOverflow(now);
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        TransactionalEviction.evictNowAndAfterCommit(() -> {
+            if (entries.remove(username) != null) {
+                evictions.increment();
+            }
+        });
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Só roda quando o cache está cheio: primeiro descarta as expiradas, depois as que expiram antes
+    private void evictOverflow(long now) {
+        entries.entrySet().removeIf(candidate -> {
+            boolean expired = candidate.getValue().isExpiredAt(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        while (entries.size() > maxSize) {
+            entries.entrySet().stream()
+                .min(Comparator.comparingLong(candidate -> candidate.getValue().expiresAt()))
+                .ifPresent(oldest -> {
+                    if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                        evictions.increment();
+                    }
+                });
+        }
+        log.debug("Cache de usuários cheio, tamanho após remoção: {}", entries.size());
+    }
+
+    // O filtro JWT não usa a senha; o hash não precisa ficar retido no heap enquanto a entrada viver
+    private static UserDetails withoutPassword(UserDetails userDetails) {
+        return User.withUserDetails(userDetails)
+            .password("")
+            .build();
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+
+        boolean isExpiredAt(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.persou.prontosus.config.security;
+
+import io.jsonwebtoken.Claims;
+import java.time.Instant;
+
+// Resultado de uma única verificação (assinatura + expiração) do token; as claims já vêm parseadas
+public record VerifiedToken(String username, Claims claims, Instant expiresAt) {
+
+    public String role() {
+        return claims.get(JwtService.ROLE_CLAIM, String.class);
+    }
+
+    public String userId() {
+        return claims.get(JwtService.USER_ID_CLAIM, String.class);
+    }
+
+    public Integer tokenVersion() {
+        return claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+    }
+
+    // Tokens emitidos antes das claims de usuário não têm role/uid/ver e seguem pela consulta do usuário
+    public boolean hasUserClaims() {
+        return role() != null && userId() != null && tokenVersion() != null;
+    }
+
+    public boolean isExpiredAt(Instant instant) {
+        return !expiresAt.isAfter(instant);
+    }
+}
@@ -1,7 +1,10 @@
 package com.persou.prontosus.config.util;
 
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "app.file")
@@ -19,6 +22,13 @@ public class FileUploadConfig {
 
     public static class Upload {
         private String dir = "uploads";
+        // Subdiretórios por prefixo do hash: 2 níveis de 2 caracteres = uploads/ab/cd/<sha256>, 65.536 pastas
+        private int shardLevels = 2;
+        private int shardWidth = 2;
+        private ShardMigration shardMigration = new ShardMigration();
+        private Compression compression = new Compression();
+        private Chunked chunked = new Chunked();
+        private Reconciler reconciler = new Reconciler();
 
         public String getDir() {
             return dir;
@@ -27,5 +37,234 @@ public class FileUploadConfig {
         public void setDir(String dir) {
             this.dir = dir;
         }
+
+        public int getShardLevels() {
+            return shardLevels;
+        }
+
+        public void setShardLevels(int shardLevels) {
+            this.shardLevels = shardLevels;
+        }
+
+        public int getShardWidth() {
+            return shardWidth;
+        }
+
+        public void setShardWidth(int shardWidth) {
+            this.shardWidth = shardWidth;
+        }
+
+        public ShardMigration getShardMigration() {
+            return shardMigration;
+        }
+
+        public void setShardMigration(ShardMigration shardMigration) {
+            this.shardMigration = shardMigration;
+        }
+
+        public Compression getCompression() {
+            return compression;
+        }
+
+        public void setCompression(Compression compression) {
+            this.compression = compression;
+        }
+
+        public Chunked getChunked() {
+            return chunked;
+        }
+
+        public void setChunked(Chunked chunked) {
+            this.chunked = chunked;
+        }
+
+        public Reconciler getReconciler() {
+            return reconciler;
+        }
+
+        public void setReconciler(Reconciler reconciler) {
+            this.reconciler = reconciler;
+        }
+    }
+
+    public static class ShardMigration {
+        private boolean enabled = true;
+        private int batchSize = 500;
+        private Duration interval = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    public static class Compression {
+        // NONE desliga a compressão de novos uploads; o conteúdo já gravado continua legível
+        private StorageCodec codec = StorageCodec.DEFLATE;
+        private int sampleSize = 64 * 1024;
+        // Fração mínima que a amostra precisa encolher para o arquivo ser gravado comprimido
+        private double minSaving = 0.2;
+
+        public StorageCodec getCodec() {
+            return codec;
+        }
+
+        public void setCodec(StorageCodec codec) {
+            this.codec = codec;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public void setSampleSize(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        public double getMinSaving() {
+            return minSaving;
+        }
+
+        public void setMinSaving(double minSaving) {
+            this.minSaving = minSaving;
+        }
+    }
+
+    public static class Chunked {
+        private DataSize maxFileSize = DataSize.ofGigabytes(2);
+        // Maior parte aceita por requisição; o cliente pode mandar partes menores
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+        // Contado a partir da última parte recebida
+        private Duration sessionTtl = Duration.ofHours(24);
+        private Duration cleanupInterval = Duration.ofMinutes(10);
+
+        public DataSize getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(DataSize maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public DataSize getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(DataSize chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Duration getSessionTtl() {
+            return sessionTtl;
+        }
+
+        public void setSessionTtl(Duration sessionTtl) {
+            this.sessionTtl = sessionTtl;
+        }
+
+        public Duration getCleanupInterval() {
+            return cleanupInterval;
+        }
+
+        public void setCleanupInterval(Duration cleanupInterval) {
+            this.cleanupInterval = cleanupInterval;
+        }
+    }
+
+    public static class Reconciler {
+        private boolean enabled = true;
+        private int batchSize = 500;
+        private Duration interval = Duration.ofSeconds(5);
+        // Arquivo mais novo que isso não é avaliado: o upload pode ter movido o conteúdo e ainda não ter comitado
+        private Duration minAge = Duration.ofHours(1);
+        // Depois de uma varredura completa, espera isso para começar a próxima
+        private Duration passInterval = Duration.ofHours(24);
+        private Duration quarantineRetention = Duration.ofDays(7);
+        private Duration quarantineReviewInterval = Duration.ofMinutes(10);
+        // Teto de I/O da conciliação (listagem, quarentena e remoção), para não disputar disco com os uploads
+        private DataSize maxBytesPerSecond = DataSize.ofMegabytes(4);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Duration minAge) {
+            this.minAge = minAge;
+        }
+
+        public Duration getPassInterval() {
+            return passInterval;
+        }
+
+        public void setPassInterval(Duration passInterval) {
+            this.passInterval = passInterval;
+        }
+
+        public Duration getQuarantineRetention() {
+            return quarantineRetention;
+        }
+
+        public void setQuarantineRetention(Duration quarantineRetention) {
+            this.quarantineRetention = quarantineRetention;
+        }
+
+        public Duration getQuarantineReviewInterval() {
+            return quarantineReviewInterval;
+        }
+
+        public void setQuarantineReviewInterval(Duration quarantineReviewInterval) {
+            this.quarantineReviewInterval = quarantineReviewInterval;
+        }
+
+        public DataSize getMaxBytesPerSecond() {
+            return maxBytesPerSecond;
+        }
+
+        public void setMaxBytesPerSecond(DataSize maxBytesPerSecond) {
+            this.maxBytesPerSecond = maxBytesPerSecond;
+        }
     }
 }
@@ -0,0 +1,125 @@
+package com.persou.prontosus.config.util;
+
+import com.persou.prontosus.gateway.database.ReadYourWritesWindow;
+import com.persou.prontosus.gateway.database.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// Só entra quando há réplica configurada (app.datasource.replicas[0].url); sem isso o DataSource continua
+// sendo o do auto-configure do Spring Boot, apontando apenas para o primário.
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas[0].url")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaDataSourceConfig.Replicas.class})
+public class ReplicaDataSourceConfig {
+
+    // Mesmas propriedades do auto-configure (spring.datasource.* e spring.datasource.hikari.*)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             Replicas replicas) {
+        List<DataSource> replicaDataSources = new ArrayList<>();
+        for (int i = 0; i < replicas.getReplicas().size(); i++) {
+            Replica replica = replicas.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize() > 0
+                ? replica.getMaximumPoolSize() : primaryDataSource.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicaDataSources.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSources,
+            new ReadYourWritesWindow(replicas.getReadYourWritesWindow()));
+    }
+
+    // O JpaTransactionManager pega a conexão antes de publicar o readOnly da transação; o proxy adia o
+    // getConnection até o primeiro statement, quando a decisão de rota já pode ser tomada.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @ConfigurationProperties(prefix = "app.datasource")
+    public static class Replicas {
+
+        private List<Replica> replicas = new ArrayList<>();
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.persou.prontosus.config.util;
+
+import com.persou.prontosus.gateway.database.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Modo virtual threads (spring.threads.virtual.enabled=true): o Spring Boot já troca o pool do Tomcat, o
+// executor de @Async e o scheduler. Aqui entram o limite de conexões simultâneas na frente do DataSource e o
+// monitor de pinning.
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                             Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)
+                    || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("app.db-concurrency.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = poolSize(dataSource);
+                }
+                Duration acquireTimeout = environment.getProperty("app.db-concurrency.acquire-timeout",
+                    Duration.class, Duration.ofSeconds(10));
+                log.info("Limitando trabalho concorrente no banco a {} conexões", maxConcurrent);
+                return new ConnectionLimitingDataSource(dataSource, maxConcurrent, acquireTimeout,
+                    meterRegistry.getObject());
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+        MeterRegistry meterRegistry, Environment environment) {
+        return new VirtualThreadPinningMonitor(meterRegistry, environment.getProperty(
+            "app.virtual-threads.pinning-threshold", Duration.class, Duration.ofMillis(20)));
+    }
+
+    // Com réplicas (ReplicaDataSourceConfig) o unwrap chega ao pool primário e o limite segue o tamanho dele
+    private static int poolSize(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariConfigMXBean.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            throw new IllegalStateException(
+                "Informe app.db-concurrency.max-concurrent: DataSource não é um pool Hikari", e);
+        }
+    }
+}
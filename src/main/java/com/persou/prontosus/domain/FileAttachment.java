@@ -14,6 +14,7 @@ public record FileAttachment(
     String contentType,
     Long fileSize,
     String fileType,
+    String storageCodec,
     String description,
     LocalDateTime uploadedAt,
     User uploadedBy
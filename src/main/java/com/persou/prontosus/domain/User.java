@@ -17,6 +17,7 @@ public record User(
     String role,
     String specialty,
     Boolean active,
+    Integer tokenVersion,
     List<MedicalRecord> medicalRecords,
     List<Appointment> appointments,
     LocalDateTime createdAt,
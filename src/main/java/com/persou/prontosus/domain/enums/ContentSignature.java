@@ -0,0 +1,124 @@
+package com.persou.prontosus.domain.enums;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Tipo real de um upload, reconhecido pelos bytes iniciais (magic bytes) em vez do Content-Type declarado
+// pelo cliente. compressed marca formatos que não encolhem com DEFLATE.
+public enum ContentSignature {
+    PNG("image/png", true, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A),
+    JPEG("image/jpeg", true, 0, 0xFF, 0xD8, 0xFF),
+    GIF("image/gif", true, 0, 'G', 'I', 'F', '8'),
+    WEBP("image/webp", true, 8, 'W', 'E', 'B', 'P', 'V', 'P', '8'),
+    TIFF_LITTLE_ENDIAN("image/tiff", false, 0, 'I', 'I', 0x2A, 0x00),
+    TIFF_BIG_ENDIAN("image/tiff", false, 0, 'M', 'M', 0x00, 0x2A),
+    JPEG_2000("image/jp2", true, 0, 0x00, 0x00, 0x00, 0x0C, 'j', 'P'),
+    // Preâmbulo de 128 bytes seguido de "DICM" (PS3.10)
+    DICOM("application/dicom", false, 128, 'D', 'I', 'C', 'M'),
+    PDF("application/pdf", false, 0, '%', 'P', 'D', 'F', '-'),
+    // docx/xlsx/odt também são zip; o tipo declarado vale quando é um desses (ver accepts)
+    ZIP("application/zip", true, 0, 'P', 'K', 0x03, 0x04),
+    GZIP("application/gzip", true, 0, 0x1F, 0x8B),
+    SEVEN_ZIP("application/x-7z-compressed", true, 0, '7', 'z', 0xBC, 0xAF, 0x27, 0x1C),
+    RAR("application/vnd.rar", true, 0, 'R', 'a', 'r', '!', 0x1A, 0x07),
+    // doc/xls antigos
+    OLE2("application/x-ole-storage", false, 0, 0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1),
+    // "MZ" sozinho aparece em texto comum (CSV com sigla MZ): só é executável com o cabeçalho PE (ver matches)
+    WINDOWS_EXECUTABLE("application/vnd.microsoft.portable-executable", false, 0, 'M', 'Z'),
+    ELF_EXECUTABLE("application/x-executable", false, 0, 0x7F, 'E', 'L', 'F');
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final List<String> ZIP_CONTAINERS = List.of("openxmlformats", "opendocument");
+    private static final List<String> OLE2_CONTAINERS = List.of("msword", "ms-excel", "ms-powerpoint");
+    // e_lfanew: posição do cabeçalho "PE\0\0", gravada em little-endian no fim do cabeçalho DOS de 64 bytes
+    private static final int PE_OFFSET_FIELD = 0x3C;
+    private static final int DOS_HEADER_SIZE = 0x40;
+    private static final byte[] PE_MAGIC = {'P', 'E', 0x00, 0x00};
+
+    private final String mediaType;
+    private final boolean compressed;
+    private final int offset;
+    private final byte[] magic;
+
+    ContentSignature(String mediaType, boolean compressed, int offset, int... magic) {
+        this.mediaType = mediaType;
+        this.compressed = compressed;
+        this.offset = offset;
+        this.magic = new byte[magic.length];
+        for (int i = 0; i < magic.length; i++) {
+            this.magic[i] = (byte) magic[i];
+        }
+    }
+
+    // null quando nenhuma assinatura confere (texto, CSV, formatos desconhecidos)
+    public static ContentSignature detect(byte[] head, int length) {
+        for (ContentSignature signature : values()) {
+            if (signature.matches(head, length)) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    // Tipo declarado que promete uma assinatura (image/png, application/pdf...): bytes sem ela não são desse tipo
+    public static boolean isSignedType(String mediaType) {
+        return mediaType != null && Arrays.stream(values())
+            .anyMatch(signature -> signature.mediaType.equalsIgnoreCase(mediaType));
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public boolean isExecutable() {
+        return this == WINDOWS_EXECUTABLE || this == ELF_EXECUTABLE;
+    }
+
+    // Tipo declarado compatível com os bytes: o mesmo tipo, um apelido, ou um formato que usa este contêiner.
+    // Para contêineres genéricos (zip, gzip...) application/octet-stream também é uma declaração honesta.
+    public boolean accepts(String declared) {
+        if (declared == null) {
+            return false;
+        }
+        String type = declared.toLowerCase();
+        if (type.equals(mediaType)) {
+            return true;
+        }
+        return switch (this) {
+            case JPEG -> type.equals("image/jpg") || type.equals("image/pjpeg");
+            case ZIP -> type.equals(OCTET_STREAM) || ZIP_CONTAINERS.stream().anyMatch(type::contains);
+            case OLE2 -> type.equals(OCTET_STREAM) || OLE2_CONTAINERS.stream().anyMatch(type::contains);
+            case GZIP, SEVEN_ZIP, RAR -> type.equals(OCTET_STREAM);
+            default -> false;
+        };
+    }
+
+    private boolean matches(byte[] head, int length) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        if (!Arrays.equals(head, offset, offset + magic.length, magic, 0, magic.length)) {
+            return false;
+        }
+        return this != WINDOWS_EXECUTABLE || hasPortableExecutableHeader(head, length);
+    }
+
+    private static boolean hasPortableExecutableHeader(byte[] head, int length) {
+        if (length < DOS_HEADER_SIZE) {
+            return false;
+        }
+        long peOffset = (head[PE_OFFSET_FIELD] & 0xFFL)
+            | (head[PE_OFFSET_FIELD + 1] & 0xFFL) << 8
+            | (head[PE_OFFSET_FIELD + 2] & 0xFFL) << 16
+            | (head[PE_OFFSET_FIELD + 3] & 0xFFL) << 24;
+        if (peOffset < DOS_HEADER_SIZE || peOffset + PE_MAGIC.length > length) {
+            return false;
+        }
+        int start = (int) peOffset;
+        return Arrays.equals(head, start, start + PE_MAGIC.length, PE_MAGIC, 0, PE_MAGIC.length);
+    }
+}
@@ -0,0 +1,75 @@
+package com.persou.prontosus.domain.enums;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Como o conteúdo de um anexo está gravado em disco. Só codecs da JDK: DEFLATE no nível mais rápido para
+// uploads grandes, GZIP no nível padrão para quem prefere economizar disco.
+public enum StorageCodec {
+    NONE {
+        @Override
+        public OutputStream encode(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream decode(InputStream in) {
+            return in;
+        }
+    },
+    DEFLATE {
+        @Override
+        public OutputStream encode(OutputStream out) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            return new DeflaterOutputStream(out, deflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decode(InputStream in) {
+            Inflater inflater = new Inflater();
+            return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    },
+    GZIP {
+        @Override
+        public OutputStream encode(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decode(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public abstract OutputStream encode(OutputStream out) throws IOException;
+
+    public abstract InputStream decode(InputStream in) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.persou.prontosus.domain.valueobject;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.nio.file.Path;
+
+public record AttachmentContent(
+    String fileName,
+    String contentType,
+    Path path,
+    long size,
+    String etag,
+    StorageCodec codec
+) {
+}
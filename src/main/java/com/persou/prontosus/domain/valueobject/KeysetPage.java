@@ -0,0 +1,12 @@
+package com.persou.prontosus.domain.valueobject;
+
+import java.util.List;
+
+public record KeysetPage<T>(
+    List<T> content,
+    PageCursor nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
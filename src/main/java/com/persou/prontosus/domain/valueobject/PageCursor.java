@@ -0,0 +1,43 @@
+package com.persou.prontosus.domain.valueobject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record PageCursor(
+    LocalDateTime createdAt,
+    String id
+) {
+    private static final String SEPARATOR = "|";
+
+    public PageCursor {
+        if (createdAt == null || id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Cursor de paginação inválido");
+            }
+            return new PageCursor(
+                LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                raw.substring(separatorIndex + 1)
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.persou.prontosus.domain.valueobject;
+
+import java.time.Duration;
+import java.util.List;
+
+public record PatientImportResult(
+    long totalRows,
+    long importedRows,
+    List<RowError> errors,
+    Duration elapsed
+) {
+    public long rejectedRows() {
+        return errors.size();
+    }
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : totalRows * 1_000_000_000.0 / nanos;
+    }
+
+    public record RowError(
+        long row,
+        String cpf,
+        String message
+    ) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.persou.prontosus.domain.valueobject;
+
+import com.persou.prontosus.domain.Patient;
+
+// Registro lido do arquivo de importação; row é a posição do registro no arquivo, a partir de 1
+public record PatientImportRow(
+    long row,
+    String cpf,
+    Patient patient,
+    String error
+) {
+    public static PatientImportRow valid(long row, Patient patient) {
+        return new PatientImportRow(row, patient.cpf(), patient, null);
+    }
+
+    public static PatientImportRow invalid(long row, String cpf, String error) {
+        return new PatientImportRow(row, cpf, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
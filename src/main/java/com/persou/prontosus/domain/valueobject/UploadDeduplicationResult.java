@@ -0,0 +1,14 @@
+package com.persou.prontosus.domain.valueobject;
+
+import java.time.Duration;
+
+public record UploadDeduplicationResult(
+    long attachmentsScanned,
+    long attachmentsMigrated,
+    long duplicatesRemoved,
+    long missingFiles,
+    long failures,
+    long bytesSaved,
+    Duration elapsed
+) {
+}
@@ -0,0 +1,25 @@
+package com.persou.prontosus.domain.valueobject;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.With;
+
+@With
+@Builder(toBuilder = true)
+public record UploadSession(
+    String id,
+    String medicalRecordId,
+    String uploadedBy,
+    String fileName,
+    String contentType,
+    String description,
+    long totalSize,
+    long receivedSize,
+    int nextChunk,
+    LocalDateTime createdAt,
+    LocalDateTime expiresAt
+) {
+    public boolean isComplete() {
+        return receivedSize == totalSize;
+    }
+}
@@ -0,0 +1,19 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.Appointment;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AppointmentQueryRepository {
+
+    List<Appointment> findByPatientId(String patientId);
+
+    List<Appointment> findByPatientIdAndStatus(String patientId, String status);
+
+    List<Appointment> findByProfessionalAndDateRange(String professionalId, LocalDateTime start, LocalDateTime end);
+
+    List<Appointment> findByProfessionalAndPeriod(String professionalId, LocalDate startDate, LocalDate endDateExclusive);
+
+    List<Appointment> findByStatusAndDateRange(String status, LocalDateTime start, LocalDateTime end);
+}
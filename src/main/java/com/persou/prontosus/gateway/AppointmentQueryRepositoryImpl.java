@@ -0,0 +1,81 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.Appointment;
+import com.persou.prontosus.gateway.database.Uuids;
+import com.persou.prontosus.gateway.database.jdbc.AppointmentRowMapper;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class AppointmentQueryRepositoryImpl implements AppointmentQueryRepository {
+
+    private static final AppointmentRowMapper APPOINTMENT_ROW_MAPPER = new AppointmentRowMapper();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByPatientId(String patientId) {
+        return jdbcTemplate.query(
+            AppointmentRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE a.patient_id = :patientId "
+                + "ORDER BY a.scheduled_date_time DESC",
+            new MapSqlParameterSource("patientId", Uuids.parseOrNull(patientId)),
+            APPOINTMENT_ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByPatientIdAndStatus(String patientId, String status) {
+        return jdbcTemplate.query(
+            AppointmentRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE a.patient_id = :patientId AND a.status = :status "
+                + "ORDER BY a.scheduled_date_time DESC",
+            new MapSqlParameterSource("patientId", Uuids.parseOrNull(patientId)).addValue("status", status),
+            APPOINTMENT_ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByProfessionalAndDateRange(String professionalId, LocalDateTime start,
+                                                            LocalDateTime end) {
+        return jdbcTemplate.query(
+            AppointmentRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE a.healthcare_professional_id = :professionalId "
+                + "AND a.scheduled_date_time BETWEEN :start AND :end ORDER BY a.scheduled_date_time",
+            new MapSqlParameterSource("professionalId", Uuids.parseOrNull(professionalId))
+                .addValue("start", start)
+                .addValue("end", end),
+            APPOINTMENT_ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByProfessionalAndPeriod(String professionalId, LocalDate startDate,
+                                                         LocalDate endDateExclusive) {
+        return jdbcTemplate.query(
+            AppointmentRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE a.healthcare_professional_id = :professionalId "
+                + "AND a.scheduled_date_time >= :start AND a.scheduled_date_time < :end "
+                + "ORDER BY a.scheduled_date_time",
+            new MapSqlParameterSource("professionalId", Uuids.parseOrNull(professionalId))
+                .addValue("start", startDate.atStartOfDay())
+                .addValue("end", endDateExclusive.atStartOfDay()),
+            APPOINTMENT_ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByStatusAndDateRange(String status, LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query(
+            AppointmentRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE a.status = :status "
+                + "AND a.scheduled_date_time BETWEEN :start AND :end",
+            new MapSqlParameterSource("status", status)
+                .addValue("start", start)
+                .addValue("end", end),
+            APPOINTMENT_ROW_MAPPER);
+    }
+}
@@ -4,6 +4,7 @@ import com.persou.prontosus.domain.Appointment;
 import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.AppointmentStatus;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,4 +25,6 @@ public interface AppointmentRepository {
     List<Appointment> findByPatientIdAndStatus(String patientId, AppointmentStatus status);
 
     List<Appointment> findByProfessionalAndDate(String professionalId, LocalDateTime date);
+
+    List<Appointment> findByProfessionalAndPeriod(String professionalId, LocalDate startDate, LocalDate endDateExclusive);
 }
@@ -8,11 +8,13 @@ import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.AppointmentStatus;
 import com.persou.prontosus.gateway.database.jpa.repository.AppointmentJpaRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -31,12 +33,14 @@ public class AppointmentRepositoryImpl implements AppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Appointment> findById(String id) {
         return appointmentJpaRepository.findById(id)
             .map(appointmentMapper::toDomain);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findByPatientOrderByScheduledDateTimeDesc(Patient patient) {
         var patientEntity = patientMapper.toEntity(patient);
         return appointmentJpaRepository.findByPatientOrderByScheduledDateTimeDesc(patientEntity)
@@ -46,6 +50,7 @@ public class AppointmentRepositoryImpl implements AppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findAppointmentsByProfessionalAndDateRange(
         User healthcareProfessional, LocalDateTime start, LocalDateTime end) {
         var userEntity = userMapper.toEntity(healthcareProfessional);
@@ -57,6 +62,7 @@ public class AppointmentRepositoryImpl implements AppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findAppointmentsByStatusAndDateRange(
         AppointmentStatus status, LocalDateTime start, LocalDateTime end) {
         return appointmentJpaRepository.findByStatusAndScheduledDateTimeBetween(status, start, end)
@@ -66,6 +72,7 @@ public class AppointmentRepositoryImpl implements AppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findByPatientIdAndStatus(String patientId, AppointmentStatus status) {
         return appointmentJpaRepository.findByPatientIdAndStatus(patientId, status)
             .stream()
@@ -74,8 +81,18 @@ public class AppointmentRepositoryImpl implements AppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findByProfessionalAndDate(String professionalId, LocalDateTime date) {
-        return appointmentJpaRepository.findByProfessionalAndDate(professionalId, date)
+        LocalDate day = date.toLocalDate();
+        return findByProfessionalAndPeriod(professionalId, day, day.plusDays(1));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByProfessionalAndPeriod(String professionalId, LocalDate startDate,
+                                                         LocalDate endDateExclusive) {
+        return appointmentJpaRepository.findByProfessionalAndScheduledRange(
+                professionalId, startDate.atStartOfDay(), endDateExclusive.atStartOfDay())
             .stream()
             .map(appointmentMapper::toDomain)
             .toList();
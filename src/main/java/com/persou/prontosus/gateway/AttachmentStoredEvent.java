@@ -0,0 +1,9 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
+
+// Publicado depois do commit de um upload; quem gera dados derivados do conteúdo (ex.: ThumbnailQueue)
+// trabalha fora da requisição.
+public record AttachmentStoredEvent(String attachmentId, String sha256, StorageCodec codec, FileType fileType) {
+}
@@ -9,6 +9,7 @@ import com.persou.prontosus.gateway.database.jpa.repository.FileAttachmentJpaRep
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -19,6 +20,7 @@ public class FileAttachmentRepositoryImpl implements FileAttachmentRepository {
     private final MedicalRecordMapper medicalRecordMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public List<FileAttachment> findByMedicalRecordOrderByUploadedAtDesc(MedicalRecord medicalRecord) {
         var medicalRecordEntity = medicalRecordMapper.toEntity(medicalRecord);
         return fileAttachmentJpaRepository.findByMedicalRecordOrderByUploadedAtDesc(medicalRecordEntity)
@@ -28,6 +30,7 @@ public class FileAttachmentRepositoryImpl implements FileAttachmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FileAttachment> findByFileType(FileType fileType) {
         return fileAttachmentJpaRepository.findByFileType(fileType)
             .stream()
@@ -36,6 +39,7 @@ public class FileAttachmentRepositoryImpl implements FileAttachmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FileAttachment> findByPatientId(String patientId) {
         return fileAttachmentJpaRepository.findByPatientId(patientId)
             .stream()
@@ -44,6 +48,7 @@ public class FileAttachmentRepositoryImpl implements FileAttachmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FileAttachment> findByPatientIdAndFileType(String patientId, FileType fileType) {
         return fileAttachmentJpaRepository.findByPatientIdAndFileType(patientId, fileType)
             .stream()
@@ -0,0 +1,29 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.util.List;
+
+public interface FileContentRepository {
+
+    // Registra o conteúdo, ou trava o registro existente até o fim da transação. created indica hash novo (o
+    // arquivo ainda precisa ir para o disco); codec é o do conteúdo registrado, que para um hash existente pode
+    // ser diferente do pedido
+    AcquiredContent acquire(String sha256, long size, StorageCodec codec, long storedSize);
+
+    // Para compensar um upload que falhou: trava o hash até o fim da transação, que deve ser desfeita. false
+    // quando outro upload registrou o conteúdo (o arquivo em disco é dele e não pode ser apagado)
+    boolean lockUnregistered(String sha256);
+
+    // Conteúdo registrado cujo arquivo sumiu e foi regravado: vale o codec da nova cópia, inclusive nos anexos
+    void replaceStoredContent(String sha256, StorageCodec codec, long storedSize);
+
+    List<LegacyAttachment> findLegacyAttachments(String afterId, int limit);
+
+    boolean repointAttachment(String attachmentId, String oldFilePath, String sha256, StorageCodec codec);
+
+    record AcquiredContent(boolean created, StorageCodec codec) {
+    }
+
+    record LegacyAttachment(String id, String filePath) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.database.Uuids;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class FileContentRepositoryImpl implements FileContentRepository {
+
+    // xmax = 0 só na linha recém-inserida; no conflito o UPDATE sem efeito só trava a linha existente até o
+    // commit, então dois uploads simultâneos do mesmo conteúdo novo não gravam o arquivo duas vezes
+    private static final String ACQUIRE = """
+        INSERT INTO file_contents (sha256, size, created_at, codec, stored_size)
+        VALUES (:sha256, :size, NOW(), :codec, :storedSize)
+        ON CONFLICT (sha256) DO UPDATE SET size = file_contents.size
+        RETURNING (xmax = 0) AS created, codec
+        """;
+    // Linha provisória que só existe na transação da compensação; o conflito espera o upload concorrente
+    // terminar e, se ele registrou o conteúdo, nada é inserido
+    private static final String LOCK_UNREGISTERED = """
+        INSERT INTO file_contents (sha256, size, created_at, codec, stored_size)
+        VALUES (:sha256, 0, NOW(), 'NONE', 0)
+        ON CONFLICT (sha256) DO NOTHING
+        """;
+    private static final String REPLACE_STORED_CONTENT = """
+        UPDATE file_contents SET codec = :codec, stored_size = :storedSize WHERE sha256 = :sha256
+        """;
+    private static final String UPDATE_ATTACHMENTS_CODEC = """
+        UPDATE file_attachments SET storage_codec = :codec WHERE file_path = :sha256 AND storage_codec <> :codec
+        """;
+    private static final String LEGACY_ATTACHMENTS = """
+        SELECT id, file_path FROM file_attachments
+        WHERE file_path !~ '^[0-9a-f]{64}$' AND (CAST(:afterId AS UUID) IS NULL OR id > CAST(:afterId AS UUID))
+        ORDER BY id LIMIT :limit
+        """;
+    private static final String REPOINT_ATTACHMENT = """
+        UPDATE file_attachments SET file_path = :sha256, storage_codec = :codec
+        WHERE id = :id AND file_path = :oldFilePath
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public AcquiredContent acquire(String sha256, long size, StorageCodec codec, long storedSize) {
+        return jdbcTemplate.queryForObject(ACQUIRE, new MapSqlParameterSource("sha256", sha256)
+                .addValue("size", size)
+                .addValue("codec", codec.name())
+                .addValue("storedSize", storedSize),
+            (rs, rowNum) -> new AcquiredContent(rs.getBoolean("created"), StorageCodec.valueOf(rs.getString("codec"))));
+    }
+
+    @Override
+    @Transactional
+    public boolean lockUnregistered(String sha256) {
+        return jdbcTemplate.update(LOCK_UNREGISTERED, new MapSqlParameterSource("sha256", sha256)) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void replaceStoredContent(String sha256, StorageCodec codec, long storedSize) {
+        var params = new MapSqlParameterSource("sha256", sha256)
+            .addValue("codec", codec.name())
+            .addValue("storedSize", storedSize);
+        jdbcTemplate.update(REPLACE_STORED_CONTENT, params);
+        jdbcTemplate.update(UPDATE_ATTACHMENTS_CODEC, params);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LegacyAttachment> findLegacyAttachments(String afterId, int limit) {
+        return jdbcTemplate.query(LEGACY_ATTACHMENTS,
+            new MapSqlParameterSource("afterId", Uuids.parseOrNull(afterId)).addValue("limit", limit),
+            (rs, rowNum) -> new LegacyAttachment(rs.getString("id"), rs.getString("file_path")));
+    }
+
+    @Override
+    @Transactional
+    public boolean repointAttachment(String attachmentId, String oldFilePath, String sha256, StorageCodec codec) {
+        return jdbcTemplate.update(REPOINT_ATTACHMENT, new MapSqlParameterSource("sha256", sha256)
+            .addValue("id", Uuids.parseOrNull(attachmentId))
+            .addValue("oldFilePath", oldFilePath)
+            .addValue("codec", codec.name())) == 1;
+    }
+}
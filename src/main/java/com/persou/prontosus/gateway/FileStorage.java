@@ -0,0 +1,230 @@
+package com.persou.prontosus.gateway;
+
+import static com.persou.prontosus.config.MessagesErrorException.FILE_SIZE_LIMIT_EXCEEDED;
+
+import com.persou.prontosus.config.exceptions.BusinessValidationException;
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.enums.ContentSignature;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Arquivos de anexos em disco, endereçados pelo SHA-256 do conteúdo: o mesmo PDF enviado por vários
+// profissionais fica gravado uma vez só. O upload é feito em duas fases: os bytes vão primeiro para um arquivo
+// de staging (sem transação aberta, calculando o hash no caminho) e só depois do INSERT o arquivo é movido para
+// o nome definitivo. O staging fica dentro do diretório de upload para que o move seja um rename atômico.
+// Conteúdo novo vai para o layout em subdiretórios (ShardedLayout); a leitura também procura no diretório raiz,
+// onde ficam os arquivos que o ShardedLayoutMigrator ainda não moveu.
+@Slf4j
+@Component
+public class FileStorage {
+
+    static final String STAGING_DIR = ".staging";
+    static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+    static final String THUMBNAIL_FAILED_SUFFIX = ".thumb.failed";
+    static final String SESSIONS_DIR = "sessions";
+    static final String QUARANTINE_DIR = ".quarantine";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path uploadDir;
+    private final Path stagingDir;
+    private final ShardedLayout layout;
+
+    @Autowired
+    public FileStorage(FileUploadConfig fileUploadConfig) {
+        this(Paths.get(fileUploadConfig.getUpload().getDir()), new ShardedLayout(
+            fileUploadConfig.getUpload().getShardLevels(), fileUploadConfig.getUpload().getShardWidth()));
+    }
+
+    public FileStorage(Path uploadDir, ShardedLayout layout) {
+        this.uploadDir = uploadDir;
+        this.stagingDir = uploadDir.resolve(STAGING_DIR);
+        this.layout = layout;
+    }
+
+    // Uma passada só pelo stream: o primeiro bloco lido é a amostra que revela o tipo real (assinatura) e decide
+    // o codec; depois cada bloco é contado, entra no hash e vai para o disco antes de o próximo ser lido. Nada é
+    // lido duas vezes nem fica inteiro em memória, e um conteúdo acima de maxSize é recusado no meio da cópia,
+    // sem confiar no tamanho declarado. O hash e o tamanho são do conteúdo original, não do gravado pelo codec.
+    public StagedContent stage(InputStream content, long maxSize, StorageCodecSelector codecSelector)
+        throws IOException {
+        return stage(content, maxSize, codecSelector.sampleSize(), codecSelector::select);
+    }
+
+    // Codec fixo, sem limite de tamanho: só para os testes de espaço e vazão de cada codec
+    StagedContent stage(InputStream content, StorageCodec codec) throws IOException {
+        return stage(content, Long.MAX_VALUE, BUFFER_SIZE, (sample, length, signature) -> codec);
+    }
+
+    private StagedContent stage(InputStream content, long maxSize, int sampleSize, CodecChoice codecChoice)
+        throws IOException {
+        Path staged = newStagingFile();
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[Math.max(BUFFER_SIZE, sampleSize)];
+        try {
+            int read = content.readNBytes(buffer, 0, buffer.length);
+            ContentSignature signature = ContentSignature.detect(buffer, read);
+            StorageCodec codec = codecChoice.choose(buffer, Math.min(read, sampleSize), signature);
+            long size = 0;
+            try (OutputStream out = codec.encode(Files.newOutputStream(staged))) {
+                while (read > 0) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BusinessValidationException(FILE_SIZE_LIMIT_EXCEEDED + ": " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    read = content.read(buffer);
+                }
+            }
+            return new StagedContent(staged, HexFormat.of().formatHex(digest.digest()), size, codec,
+                Files.size(staged), signature);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+    }
+
+    public Path newStagingFile() throws IOException {
+        Files.createDirectories(stagingDir);
+        return stagingDir.resolve(UUID.randomUUID() + ".part");
+    }
+
+    public Path stagingDir() {
+        return stagingDir;
+    }
+
+    // Arquivo parcial de um upload em partes: cresce a cada parte recebida e vira staging no commit
+    public Path uploadSessionPath(String uploadId) {
+        return uploadSessionsDir().resolve(uploadId + ".part");
+    }
+
+    public Path uploadSessionsDir() {
+        return stagingDir.resolve(SESSIONS_DIR);
+    }
+
+    // Arquivos sem anexo separados pelo OrphanFileReconciler, com o mesmo caminho relativo que tinham no upload
+    public Path quarantineDir() {
+        return uploadDir.resolve(QUARANTINE_DIR);
+    }
+
+    // filePath dos anexos: o hash do conteúdo, ou o caminho antigo para arquivos ainda não migrados
+    public Path resolve(String filePath) {
+        return isContentKey(filePath) ? locate(filePath).orElse(contentPath(filePath)) : Paths.get(filePath);
+    }
+
+    // Onde o conteúdo novo é gravado
+    public Path contentPath(String sha256) {
+        return layout.locate(uploadDir, sha256);
+    }
+
+    // Layout novo primeiro e, durante a migração, a posição antiga no diretório raiz
+    public Optional<Path> locate(String sha256) {
+        Path current = contentPath(sha256);
+        if (Files.exists(current)) {
+            return Optional.of(current);
+        }
+        Path previous = uploadDir.resolve(sha256);
+        if (Files.exists(previous)) {
+            return Optional.of(previous);
+        }
+        // O migrador pode ter movido o arquivo entre as duas verificações
+        return Files.exists(current) ? Optional.of(current) : Optional.empty();
+    }
+
+    // Miniatura ao lado do conteúdo, sempre no layout atual (mesmo com o original ainda no diretório raiz)
+    public Path thumbnailPath(String sha256) {
+        return contentPath(sha256).resolveSibling(sha256 + THUMBNAIL_SUFFIX);
+    }
+
+    // Marcador vazio de miniatura impossível (formato não suportado, imagem grande demais ou corrompida): o
+    // conteúdo não muda, então a geração não é tentada de novo
+    public Path thumbnailFailedPath(String sha256) {
+        return contentPath(sha256).resolveSibling(sha256 + THUMBNAIL_FAILED_SUFFIX);
+    }
+
+    public boolean hasContent(String sha256) {
+        return locate(sha256).isPresent();
+    }
+
+    // Conteúdo original, descomprimido enquanto é lido
+    public InputStream open(Path path, StorageCodec codec) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        try {
+            return codec.decode(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public Path uploadDir() {
+        return uploadDir;
+    }
+
+    public void promote(Path staged, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.warn("Move atômico não suportado em {}, usando move simples", target.getParent());
+            Files.move(staged, target);
+        }
+    }
+
+    // Limpeza de melhor esforço: falhar aqui não pode mascarar o erro original do upload
+    public void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}: {}", path, e.getMessage());
+        }
+    }
+
+    public static boolean isContentKey(String filePath) {
+        return filePath != null && CONTENT_KEY.matcher(filePath).matches();
+    }
+
+    public static String sha256Of(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    // signature: tipo reconhecido pelos bytes iniciais, null quando nenhuma assinatura confere
+    public record StagedContent(Path path, String sha256, long size, StorageCodec codec, long storedSize,
+                                ContentSignature signature) {
+    }
+
+    @FunctionalInterface
+    private interface CodecChoice {
+        StorageCodec choose(byte[] sample, int length, ContentSignature signature);
+    }
+}
@@ -0,0 +1,78 @@
+package com.persou.prontosus.gateway;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Último login registrado em memória e gravado em lote: o login não faz UPDATE em users. Vários logins do mesmo
+// usuário entre duas gravações viram um só valor (o mais recente). Perde no máximo um intervalo num crash;
+// no desligamento normal o mapa é esvaziado antes do DataSource fechar.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriter {
+
+    private final UserRepository userRepository;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    // Lock em vez de synchronized: a gravação faz JDBC e, em virtual thread, bloquear dentro de um monitor
+    // prende a carrier thread (pinning no Java 21)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void record(String userId, LocalDateTime lastLoginAt) {
+        pending.merge(userId, lastLoginAt, LastLoginWriter::latest);
+    }
+
+    @Scheduled(fixedDelayString = "${app.last-login.flush-interval:5s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove por chave: um login que chegar durante a gravação fica no mapa para a próxima rodada
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        pending.keySet().forEach(userId -> {
+            LocalDateTime lastLoginAt = pending.remove(userId);
+            if (lastLoginAt != null) {
+                batch.put(userId, lastLoginAt);
+            }
+        });
+
+        try {
+            int updated = userRepository.updateLastLogins(batch);
+            log.debug("Último login gravado para {} de {} usuários", updated, batch.size());
+        } catch (DataAccessException e) {
+            batch.forEach((userId, lastLoginAt) -> pending.merge(userId, lastLoginAt, LastLoginWriter::latest));
+            log.warn("Falha ao gravar último login de {} usuários, nova tentativa na próxima rodada: {}",
+                batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        return candidate.isAfter(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,14 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.MedicalRecord;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MedicalRecordQueryRepository {
+
+    List<MedicalRecord> findByPatientId(String patientId);
+
+    List<MedicalRecord> findByPatientIdAndDateRange(String patientId, LocalDateTime startDate, LocalDateTime endDate);
+
+    List<MedicalRecord> findByProfessionalId(String professionalId);
+}
@@ -0,0 +1,83 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.FileAttachment;
+import com.persou.prontosus.domain.MedicalRecord;
+import com.persou.prontosus.gateway.database.Uuids;
+import com.persou.prontosus.gateway.database.jdbc.FileAttachmentRowMapper;
+import com.persou.prontosus.gateway.database.jdbc.MedicalRecordRowMapper;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class MedicalRecordQueryRepositoryImpl implements MedicalRecordQueryRepository {
+
+    private static final String ORDER_BY_CONSULTATION_DATE = " ORDER BY mr.consultation_date DESC";
+    private static final String SELECT_ATTACHMENTS = "SELECT " + FileAttachmentRowMapper.columns("fa")
+        + " FROM file_attachments fa WHERE fa.medical_record_id IN (:recordIds) ORDER BY fa.uploaded_at";
+
+    private static final MedicalRecordRowMapper MEDICAL_RECORD_ROW_MAPPER = new MedicalRecordRowMapper();
+    private static final FileAttachmentRowMapper FILE_ATTACHMENT_ROW_MAPPER = new FileAttachmentRowMapper();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalRecord> findByPatientId(String patientId) {
+        return queryWithAttachments(
+            MedicalRecordRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE mr.patient_id = :patientId"
+                + ORDER_BY_CONSULTATION_DATE,
+            new MapSqlParameterSource("patientId", Uuids.parseOrNull(patientId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalRecord> findByPatientIdAndDateRange(String patientId, LocalDateTime startDate,
+                                                           LocalDateTime endDate) {
+        return queryWithAttachments(
+            MedicalRecordRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE mr.patient_id = :patientId "
+                + "AND mr.consultation_date BETWEEN :startDate AND :endDate" + ORDER_BY_CONSULTATION_DATE,
+            new MapSqlParameterSource("patientId", Uuids.parseOrNull(patientId))
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalRecord> findByProfessionalId(String professionalId) {
+        return queryWithAttachments(
+            MedicalRecordRowMapper.SELECT_WITH_PARTICIPANTS + "WHERE mr.healthcare_professional_id = :professionalId"
+                + ORDER_BY_CONSULTATION_DATE,
+            new MapSqlParameterSource("professionalId", Uuids.parseOrNull(professionalId)));
+    }
+
+    private List<MedicalRecord> queryWithAttachments(String sql, MapSqlParameterSource params) {
+        List<MedicalRecord> records = jdbcTemplate.query(sql, params, MEDICAL_RECORD_ROW_MAPPER);
+        if (records.isEmpty()) {
+            return records;
+        }
+
+        Map<String, List<FileAttachment>> attachmentsByRecord = new HashMap<>(records.size() * 2);
+        records.forEach(record -> attachmentsByRecord.put(record.id(), record.attachments()));
+        List<UUID> recordIds = records.stream()
+            .map(record -> UUID.fromString(record.id()))
+            .toList();
+
+        // Uma única consulta para os anexos de todos os registros retornados
+        jdbcTemplate.query(SELECT_ATTACHMENTS,
+            new MapSqlParameterSource("recordIds", recordIds),
+            rs -> {
+                attachmentsByRecord.get(rs.getString("medical_record_id"))
+                    .add(FILE_ATTACHMENT_ROW_MAPPER.mapRow(rs, rs.getRow()));
+            });
+        return records;
+    }
+}
@@ -6,6 +6,7 @@ import com.persou.prontosus.config.mapper.UserMapper;
 import com.persou.prontosus.domain.MedicalRecord;
 import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Repository
@@ -25,9 +27,10 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     private final UserMapper userMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByPatientOrderByConsultationDateDesc(Patient patient) {
         var patientEntity = patientMapper.toEntity(patient);
-        return medicalRecordJpaRepository.findByPatientOrderByConsultationDateDesc(patientEntity)
+        return withAttachments(medicalRecordJpaRepository.findByPatientOrderByConsultationDateDesc(patientEntity))
             .stream()
             .map(entity -> {
                 try {
@@ -41,9 +44,10 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByHealthcareProfessionalOrderByConsultationDateDesc(User healthcareProfessional) {
         var userEntity = userMapper.toEntity(healthcareProfessional);
-        return medicalRecordJpaRepository.findByHealthcareProfessionalOrderByConsultationDateDesc(userEntity)
+        return withAttachments(medicalRecordJpaRepository.findByHealthcareProfessionalOrderByConsultationDateDesc(userEntity))
             .stream()
             .map(entity -> {
                 try {
@@ -57,12 +61,13 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByPatientIdOrderByConsultationDateDesc(String patientId) {
         log.debug("Buscando registros médicos para paciente ID: {}", patientId);
 
         try {
             List<MedicalRecord> records =
-                medicalRecordJpaRepository.findByPatientIdOrderByConsultationDateDesc(patientId)
+                withAttachments(medicalRecordJpaRepository.findByPatientIdOrderByConsultationDateDesc(patientId))
                     .stream()
                     .map(entity -> {
                         log.debug("Mapeando entity com ID: {}", entity.getId());
@@ -86,10 +91,12 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByHealthcareProfessionalIdOrderByConsultationDateDesc(String professionalId) {
         log.debug("Buscando registros médicos para profissional ID: {}", professionalId);
         List<MedicalRecord> records =
-            medicalRecordJpaRepository.findByHealthcareProfessionalIdOrderByConsultationDateDesc(professionalId)
+            withAttachments(
+                medicalRecordJpaRepository.findByHealthcareProfessionalIdOrderByConsultationDateDesc(professionalId))
                 .stream()
                 .map(entity -> {
                     try {
@@ -105,23 +112,26 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByConsultationDateBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        return medicalRecordJpaRepository.findByConsultationDateBetween(startDate, endDate)
+        return withAttachments(medicalRecordJpaRepository.findByConsultationDateBetween(startDate, endDate))
             .stream()
             .map(medicalRecordMapper::toDomain)
             .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByPatientAndDateRange(String patientId, LocalDateTime startDate,
                                                          LocalDateTime endDate) {
-        return medicalRecordJpaRepository.findByPatientAndDateRange(patientId, startDate, endDate)
+        return withAttachments(medicalRecordJpaRepository.findByPatientAndDateRange(patientId, startDate, endDate))
             .stream()
             .map(medicalRecordMapper::toDomain)
             .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MedicalRecord> findById(String id) {
         return medicalRecordJpaRepository.findById(id)
             .map(medicalRecordMapper::toDomain);
@@ -133,4 +143,12 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
         var savedEntity = medicalRecordJpaRepository.save(entity);
         return medicalRecordMapper.toDomain(savedEntity);
     }
-}
\ No newline at end of file
+
+    private List<MedicalRecordEntity> withAttachments(List<MedicalRecordEntity> records) {
+        if (!records.isEmpty()) {
+            // Inicializa as coleções de anexos de todos os registros em uma única consulta
+            medicalRecordJpaRepository.fetchAttachments(records);
+        }
+        return records;
+    }
+}
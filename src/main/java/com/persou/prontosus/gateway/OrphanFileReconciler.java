@@ -0,0 +1,382 @@
+package com.persou.prontosus.gateway;
+
+import static com.persou.prontosus.gateway.FileStorage.THUMBNAIL_FAILED_SUFFIX;
+import static com.persou.prontosus.gateway.FileStorage.THUMBNAIL_SUFFIX;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.gateway.UploadReconciliationRepository.ReconciliationCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Procura no diretório de uploads arquivos que nenhum anexo referencia (upload que caiu entre o move e o commit,
+// compensação que falhou, sobras do layout antigo). A varredura anda em lotes, numa ordem fixa, e grava no banco
+// o último arquivo visto: um restart continua de onde parou. Cada lote é conferido com duas consultas IN, e o
+// órfão vai primeiro para a quarentena; só é apagado se continuar sem referência depois de quarantine-retention.
+// O staging (.staging/*.part) fica fora da varredura: o .part largado por um upload interrompido é apagado direto
+// depois de min-age, e as sessões de upload em partes (.staging/sessions) ficam com o ChunkedUploadUseCase.
+// Miniaturas valem pelo hash do conteúdo. O I/O de cada rodada é limitado por um saldo de bytes (IoBudget).
+@Slf4j
+@Component
+public class OrphanFileReconciler {
+
+    // Custo de listar e consultar um arquivo, aproximado por um bloco de metadados lido do disco
+    static final long ENTRY_COST = 4 * 1024;
+    private static final List<String> DERIVED_SUFFIXES = List.of(THUMBNAIL_SUFFIX, THUMBNAIL_FAILED_SUFFIX);
+
+    private final FileStorage fileStorage;
+    private final UploadReconciliationRepository reconciliationRepository;
+    private final FileUploadConfig.Reconciler config;
+    private final IoBudget budget;
+    private final Counter quarantined;
+    private final Counter restored;
+    private final Counter purged;
+    private final Counter stagingPurged;
+    private Instant nextQuarantineReview = Instant.MIN;
+
+    public OrphanFileReconciler(FileStorage fileStorage, UploadReconciliationRepository reconciliationRepository,
+                                FileUploadConfig fileUploadConfig, MeterRegistry meterRegistry) {
+        this.fileStorage = fileStorage;
+        this.reconciliationRepository = reconciliationRepository;
+        this.config = fileUploadConfig.getUpload().getReconciler();
+        this.budget = new IoBudget(config.getMaxBytesPerSecond().toBytes(), config.getInterval().toMillis());
+        this.quarantined = Counter.builder("uploads.reconciler.quarantined").register(meterRegistry);
+        this.restored = Counter.builder("uploads.reconciler.restored").register(meterRegistry);
+        this.purged = Counter.builder("uploads.reconciler.purged").register(meterRegistry);
+        this.stagingPurged = Counter.builder("uploads.reconciler.staging.purged").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.file.upload.reconciler.interval:5s}")
+    public void reconcile() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        budget.refill();
+        try {
+            if (!Instant.now().isBefore(nextQuarantineReview)) {
+                reviewQuarantine();
+                sweepStaging();
+                nextQuarantineReview = Instant.now().plus(config.getQuarantineReviewInterval());
+            }
+            scanNextBatch();
+        } catch (IOException | DataAccessException e) {
+            log.warn("Falha na conciliação do diretório de uploads, nova tentativa na próxima rodada: {}",
+                e.getMessage());
+        }
+    }
+
+    private void scanNextBatch() throws IOException {
+        ReconciliationCursor cursor = reconciliationRepository.findCursor()
+            .orElse(new ReconciliationCursor(null, null));
+        if (cursor.lastPath() == null && cursor.passCompletedAt() != null
+            && cursor.passCompletedAt().plus(config.getPassInterval()).isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        List<Path> batch = new ArrayList<>();
+        boolean exhausted = collect(fileStorage.uploadDir(), components(cursor.lastPath()), batch);
+        Set<String> referenced = referenced(batch);
+        String lastPath = cursor.lastPath();
+        int processed = 0;
+        int moved = 0;
+        for (Path file : batch) {
+            if (!budget.tryConsume(ENTRY_COST)) {
+                break;
+            }
+            if (isOrphan(file, referenced) && quarantine(file)) {
+                moved++;
+            }
+            lastPath = relative(fileStorage.uploadDir(), file);
+            processed++;
+        }
+
+        if (exhausted && processed == batch.size()) {
+            reconciliationRepository.saveCursor(null, LocalDateTime.now());
+            log.info("Conciliação do diretório de uploads concluída: {} arquivos no último lote, {} em quarentena",
+                processed, moved);
+        } else if (processed > 0) {
+            reconciliationRepository.saveCursor(lastPath, cursor.passCompletedAt());
+            if (moved > 0) {
+                log.info("Conciliação do diretório de uploads: {} de {} arquivos movidos para a quarentena", moved,
+                    processed);
+            }
+        }
+    }
+
+    // Busca em profundidade com cada diretório ordenado por nome: a ordem é a mesma em todas as rodadas, então o
+    // caminho do último arquivo visto basta para retomar. after são os componentes do cursor ainda não
+    // ultrapassados neste nível. Devolve false quando o lote encheu antes de a árvore acabar
+    private boolean collect(Path dir, List<String> after, List<Path> batch) throws IOException {
+        for (Path entry : sortedEntries(dir)) {
+            String name = entry.getFileName().toString();
+            // Staging e sessões (sweepStaging e ChunkedUploadUseCase) e a própria quarentena
+            if (dir.equals(fileStorage.uploadDir()) && name.startsWith(".")) {
+                continue;
+            }
+            int order = after.isEmpty() ? 1 : name.compareTo(after.get(0));
+            if (order < 0) {
+                continue;
+            }
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                if (!collect(entry, order == 0 ? after.subList(1, after.size()) : List.of(), batch)) {
+                    return false;
+                }
+            } else if (order > 0 && Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)) {
+                batch.add(entry);
+                if (batch.size() == config.getBatchSize()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<Path> sortedEntries(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.sorted(Comparator.comparing(entry -> entry.getFileName().toString())).toList();
+        }
+    }
+
+    // Quarentena: o que voltou a ter referência (um commit que chegou depois da verificação) volta para o lugar;
+    // o que continua órfão depois de quarantine-retention é apagado
+    private void reviewQuarantine() throws IOException {
+        Path quarantine = fileStorage.quarantineDir();
+        if (!Files.isDirectory(quarantine)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(quarantine)) {
+            files = walk.filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)).toList();
+        }
+        for (int from = 0; from < files.size(); from += config.getBatchSize()) {
+            List<Path> chunk = files.subList(from, Math.min(files.size(), from + config.getBatchSize()));
+            Set<String> referenced = referenced(chunk);
+            for (Path file : chunk) {
+                if (!budget.tryConsume(ENTRY_COST)) {
+                    return;
+                }
+                if (referenced.contains(referenceKey(file))) {
+                    restore(file);
+                } else if (isExpired(file)) {
+                    purge(file);
+                }
+            }
+        }
+    }
+
+    // .part do staging que ficou para trás quando a JVM caiu no meio de um upload: nenhum anexo aponta para ele e
+    // o finally que o apagaria não rodou. Só o primeiro nível; os de sessões têm o prazo do upload em partes
+    private void sweepStaging() throws IOException {
+        Path staging = fileStorage.stagingDir();
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(staging, "*.part")) {
+            for (Path part : parts) {
+                if (!budget.tryConsume(ENTRY_COST)) {
+                    return;
+                }
+                try {
+                    // Escrito no lugar e nunca renomeado para cá: o mtime é a última escrita do upload
+                    Instant written = Files.getLastModifiedTime(part, LinkOption.NOFOLLOW_LINKS).toInstant();
+                    if (Files.isRegularFile(part, LinkOption.NOFOLLOW_LINKS)
+                        && !written.plus(config.getMinAge()).isAfter(Instant.now()) && Files.deleteIfExists(part)) {
+                        stagingPurged.increment();
+                        log.info("Staging abandonado apagado: {}", part);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Promovido ou apagado pelo próprio upload desde a listagem
+                }
+            }
+        }
+    }
+
+    // Hash do conteúdo (também para a miniatura) ou, para arquivos do layout antigo, o nome do arquivo
+    private Set<String> referenced(List<Path> files) {
+        Set<String> contentKeys = new HashSet<>();
+        Set<String> legacyNames = new HashSet<>();
+        for (Path file : files) {
+            String key = referenceKey(file);
+            (FileStorage.isContentKey(key) ? contentKeys : legacyNames).add(key);
+        }
+        Set<String> referenced = new HashSet<>(reconciliationRepository.findReferencedContent(contentKeys));
+        referenced.addAll(reconciliationRepository.findReferencedLegacyNames(legacyNames));
+        return referenced;
+    }
+
+    // Miniatura e marcador de miniatura impossível seguem o conteúdo de que derivam
+    private static String referenceKey(Path file) {
+        String name = file.getFileName().toString();
+        for (String suffix : DERIVED_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name;
+    }
+
+    private boolean isOrphan(Path file, Set<String> referenced) {
+        if (referenced.contains(referenceKey(file))) {
+            return false;
+        }
+        try {
+            return isSettled(file);
+        } catch (IOException e) {
+            // Movido pelo ShardedLayoutMigrator ou removido desde a listagem
+            return false;
+        }
+    }
+
+    // O promote é um rename: mantém o mtime do staging, mas muda o ctime. Vale o mais recente dos dois, para um
+    // conteúdo recém-promovido, com o INSERT ainda sem commit, não parecer antigo
+    private boolean isSettled(Path file) throws IOException {
+        Instant changed = Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toInstant();
+        try {
+            Instant ctime = ((FileTime) Files.getAttribute(file, "unix:ctime", LinkOption.NOFOLLOW_LINKS))
+                .toInstant();
+            if (ctime.isAfter(changed)) {
+                changed = ctime;
+            }
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // Sistema de arquivos sem atributos unix: fica o mtime
+        }
+        return !changed.plus(config.getMinAge()).isAfter(Instant.now());
+    }
+
+    // O mtime é reiniciado na entrada da quarentena e marca o início da retenção
+    private boolean isExpired(Path file) throws IOException {
+        Instant quarantinedAt = Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toInstant();
+        return !quarantinedAt.plus(config.getQuarantineRetention()).isAfter(Instant.now());
+    }
+
+    private boolean quarantine(Path file) {
+        Path target = fileStorage.quarantineDir().resolve(fileStorage.uploadDir().relativize(file));
+        try {
+            budget.consume(Files.size(file));
+            fileStorage.promote(file, target);
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            quarantined.increment();
+            log.info("Arquivo sem anexo movido para a quarentena: {}", file);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Não foi possível mover {} para a quarentena: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private void restore(Path file) {
+        Path target = fileStorage.uploadDir().resolve(fileStorage.quarantineDir().relativize(file));
+        try {
+            if (Files.exists(target)) {
+                // Mesmo caminho, mesma chave: o conteúdo já foi gravado de novo
+                Files.deleteIfExists(file);
+            } else {
+                budget.consume(Files.size(file));
+                fileStorage.promote(file, target);
+            }
+            restored.increment();
+            log.warn("Arquivo em quarentena voltou a ter anexo e foi devolvido: {}", target);
+            pruneEmptyDirectories(file.getParent());
+        } catch (IOException e) {
+            log.warn("Não foi possível devolver {} da quarentena: {}", file, e.getMessage());
+        }
+    }
+
+    private void purge(Path file) {
+        try {
+            budget.consume(Files.size(file));
+            Files.deleteIfExists(file);
+            purged.increment();
+            log.info("Arquivo sem anexo removido depois da quarentena: {}", file);
+            pruneEmptyDirectories(file.getParent());
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {} da quarentena: {}", file, e.getMessage());
+        }
+    }
+
+    private void pruneEmptyDirectories(Path dir) throws IOException {
+        Path quarantine = fileStorage.quarantineDir();
+        for (Path current = dir; current != null && current.startsWith(quarantine) && !current.equals(quarantine);
+             current = current.getParent()) {
+            try {
+                Files.deleteIfExists(current);
+            } catch (DirectoryNotEmptyException e) {
+                return;
+            }
+        }
+    }
+
+    private static List<String> components(String relativePath) {
+        return relativePath == null ? List.of() : List.of(relativePath.split("/"));
+    }
+
+    // Sempre com '/', independente do sistema: é o formato gravado no cursor
+    private static String relative(Path root, Path file) {
+        StringJoiner joiner = new StringJoiner("/");
+        for (Path part : root.relativize(file)) {
+            joiner.add(part.toString());
+        }
+        return joiner.toString();
+    }
+
+    // Saldo de bytes que enche a max-bytes-per-second, até o equivalente a um intervalo entre rodadas. A rodada
+    // para quando o saldo acaba, em vez de dormir: a thread do @Scheduled é compartilhada com as outras tarefas.
+    // Um arquivo maior que o saldo ainda é processado e deixa o saldo negativo, adiando as rodadas seguintes
+    static final class IoBudget {
+
+        private final long bytesPerSecond;
+        private final long capacity;
+        private long available;
+        private long refilledAt = System.nanoTime();
+
+        IoBudget(long bytesPerSecond, long intervalMillis) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.capacity = Math.max(bytesPerSecond, bytesPerSecond * intervalMillis / 1000);
+            this.available = capacity;
+        }
+
+        void refill() {
+            long now = System.nanoTime();
+            double seconds = (now - refilledAt) / 1_000_000_000.0;
+            available = (long) Math.min(capacity, available + seconds * bytesPerSecond);
+            refilledAt = now;
+        }
+
+        boolean tryConsume(long bytes) {
+            if (available <= 0) {
+                return false;
+            }
+            available -= bytes;
+            return true;
+        }
+
+        void consume(long bytes) {
+            available -= bytes;
+        }
+    }
+}
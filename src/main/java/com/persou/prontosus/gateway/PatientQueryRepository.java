@@ -0,0 +1,13 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import java.util.List;
+
+public interface PatientQueryRepository {
+
+    KeysetPage<Patient> findPage(PageCursor after, int size);
+
+    List<Patient> searchByName(String name, int limit);
+}
@@ -0,0 +1,74 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import com.persou.prontosus.gateway.database.Uuids;
+import com.persou.prontosus.gateway.database.jdbc.PatientRowMapper;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class PatientQueryRepositoryImpl implements PatientQueryRepository {
+
+    private static final String SELECT_PATIENTS = "SELECT " + PatientRowMapper.columns("p", "") + " FROM patients p ";
+    private static final String FIRST_PAGE = SELECT_PATIENTS + "ORDER BY p.created_at, p.id LIMIT :limit";
+    private static final String PAGE_AFTER = SELECT_PATIENTS + "WHERE (p.created_at, p.id) > (:createdAt, :id) "
+        + "ORDER BY p.created_at, p.id LIMIT :limit";
+    private static final String SEARCH_BY_NAME = SELECT_PATIENTS
+        + "WHERE immutable_unaccent(lower(:name)) <% immutable_unaccent(lower(p.full_name)) "
+        + "OR immutable_unaccent(lower(p.full_name)) LIKE '%' || immutable_unaccent(lower(:pattern)) || '%' "
+        + "ESCAPE '\\' "
+        + "ORDER BY word_similarity(immutable_unaccent(lower(:name)), immutable_unaccent(lower(p.full_name))) DESC, "
+        + "p.full_name LIMIT :limit";
+
+    private static final String LIKE_ESCAPE = "\\";
+
+    private static final PatientRowMapper PATIENT_ROW_MAPPER = new PatientRowMapper();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Patient> findPage(PageCursor after, int size) {
+        // Busca um registro a mais para saber se existe próxima página sem precisar de COUNT
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", size + 1);
+        List<Patient> patients;
+        if (after == null) {
+            patients = jdbcTemplate.query(FIRST_PAGE, params, PATIENT_ROW_MAPPER);
+        } else {
+            params.addValue("createdAt", after.createdAt()).addValue("id", Uuids.parseOrNull(after.id()));
+            patients = jdbcTemplate.query(PAGE_AFTER, params, PATIENT_ROW_MAPPER);
+        }
+
+        if (patients.size() <= size) {
+            return new KeysetPage<>(patients, null);
+        }
+        List<Patient> content = patients.subList(0, size);
+        Patient last = content.get(size - 1);
+        return new KeysetPage<>(List.copyOf(content), new PageCursor(last.createdAt(), last.id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Patient> searchByName(String name, int limit) {
+        String trimmed = name.trim();
+        return jdbcTemplate.query(SEARCH_BY_NAME,
+            new MapSqlParameterSource("name", trimmed)
+                .addValue("pattern", escapeLike(trimmed))
+                .addValue("limit", limit),
+            PATIENT_ROW_MAPPER);
+    }
+
+    // % e _ digitados pelo usuário são literais no LIKE, não curingas
+    private static String escapeLike(String value) {
+        return value.replace(LIKE_ESCAPE, LIKE_ESCAPE + LIKE_ESCAPE)
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+    }
+}
@@ -1,8 +1,11 @@
 package com.persou.prontosus.gateway;
 
 import com.persou.prontosus.domain.Patient;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface PatientRepository {
@@ -19,12 +22,21 @@ public interface PatientRepository {
     @Transactional(readOnly = true)
     List<Patient> findAll();
 
+    @Transactional(readOnly = true)
+    void streamAll(Consumer<Patient> consumer);
+
     @Transactional(readOnly = true)
     boolean existsByCpf(String cpf);
 
+    @Transactional(readOnly = true)
+    Set<String> findExistingCpfs(Collection<String> cpfs);
+
     @Transactional(readOnly = true)
     List<Patient> findByPhoneNumber(String phone);
 
     @Transactional
     Patient save(Patient patient);
+
+    @Transactional
+    void saveAll(List<Patient> patients);
 }
@@ -5,9 +5,15 @@ import static com.persou.prontosus.config.MessagesErrorException.ID_CANNOT_BE_NU
 import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.gateway.database.jpa.PatientEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.PatientJpaRepository;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +24,7 @@ public class PatientRepositoryImpl implements PatientRepository {
 
     private final PatientJpaRepository patientJpaRepository;
     private final PatientMapper patientMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -54,12 +61,33 @@ public class PatientRepositoryImpl implements PatientRepository {
             .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Patient> consumer) {
+        try (Stream<PatientEntity> entities = patientJpaRepository.streamAllOrderByCreatedAt()) {
+            entities.forEach(entity -> {
+                consumer.accept(patientMapper.toDomain(entity));
+                // Libera a entidade do contexto de persistência para manter a memória constante
+                entityManager.detach(entity);
+            });
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean existsByCpf(String cpf) {
         return patientJpaRepository.existsByCpf(cpf);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingCpfs(Collection<String> cpfs) {
+        if (cpfs.isEmpty()) {
+            return Set.of();
+        }
+        return patientJpaRepository.findCpfsIn(cpfs);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Patient> findByPhoneNumber(String phone) {
@@ -78,4 +106,14 @@ public class PatientRepositoryImpl implements PatientRepository {
         var patientEntity = patientMapper.toEntity(patient);
         return patientMapper.toDomain(patientJpaRepository.save(patientEntity));
     }
+
+    @Override
+    @Transactional
+    public void saveAll(List<Patient> patients) {
+        // Inserções agrupadas pelo Hibernate conforme hibernate.jdbc.batch_size; o contexto de persistência
+        // termina junto com a transação, então cada lote não acumula entidades em memória
+        patientJpaRepository.saveAll(patients.stream()
+            .map(patientMapper::toEntity)
+            .toList());
+    }
 }
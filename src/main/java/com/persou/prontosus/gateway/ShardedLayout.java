@@ -0,0 +1,29 @@
+package com.persou.prontosus.gateway;
+
+import java.nio.file.Path;
+
+// Distribui os arquivos em subdiretórios pelos primeiros caracteres da chave (hash): com milhões de exames num
+// diretório só, lookup, backup e ls degradam no ext4/xfs. levels = 0 mantém o layout plano.
+public record ShardedLayout(int levels, int width) {
+
+    private static final int MAX_PREFIX = 8;
+
+    public ShardedLayout {
+        if (levels < 0 || width < 1 || levels * width > MAX_PREFIX) {
+            throw new IllegalArgumentException(
+                "Layout de diretórios inválido: " + levels + " níveis de " + width + " caracteres");
+        }
+    }
+
+    public static ShardedLayout flat() {
+        return new ShardedLayout(0, 1);
+    }
+
+    public Path locate(Path root, String key) {
+        Path dir = root;
+        for (int level = 0; level < levels; level++) {
+            dir = dir.resolve(key.substring(level * width, (level + 1) * width));
+        }
+        return dir.resolve(key);
+    }
+}
@@ -0,0 +1,105 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Move, em lotes e com a aplicação no ar, o conteúdo gravado no diretório raiz (layout plano) para o layout em
+// subdiretórios. O banco guarda só o hash, então nada muda nos anexos: enquanto a migração anda, o FileStorage
+// lê das duas posições. Quando uma rodada não encontra mais nada, o migrador para até o próximo restart.
+@Slf4j
+@Component
+public class ShardedLayoutMigrator {
+
+    private final FileStorage fileStorage;
+    private final FileUploadConfig.ShardMigration config;
+    private final Counter migrated;
+    private volatile boolean finished;
+
+    public ShardedLayoutMigrator(FileStorage fileStorage, FileUploadConfig fileUploadConfig,
+                                 MeterRegistry meterRegistry) {
+        this.fileStorage = fileStorage;
+        this.config = fileUploadConfig.getUpload().getShardMigration();
+        this.migrated = Counter.builder("uploads.layout.migrated").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.file.upload.shard-migration.interval:10s}")
+    public void migrateBatch() {
+        if (!config.isEnabled() || finished) {
+            return;
+        }
+        try {
+            List<Path> batch = nextBatch();
+            if (batch.isEmpty()) {
+                finished = true;
+                log.info("Migração do layout de uploads concluída");
+                return;
+            }
+            int moved = 0;
+            for (Path file : batch) {
+                if (migrate(file)) {
+                    moved++;
+                }
+            }
+            log.info("Migração do layout de uploads: {} arquivos movidos neste lote", moved);
+        } catch (IOException e) {
+            log.warn("Falha na migração do layout de uploads, nova tentativa na próxima rodada: {}", e.getMessage());
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    // Só arquivos soltos no diretório raiz com nome de hash; staging, subdiretórios e arquivos antigos
+    // (uuid.ext, tratados pelo DeduplicateUploadsUseCase) ficam de fora
+    private List<Path> nextBatch() throws IOException {
+        Path root = fileStorage.uploadDir();
+        List<Path> batch = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return batch;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, this::isOutsideLayout)) {
+            for (Path entry : entries) {
+                batch.add(entry);
+                if (batch.size() == config.getBatchSize()) {
+                    break;
+                }
+            }
+        }
+        return batch;
+    }
+
+    // Com layout plano (shard-levels = 0) a posição no raiz já é a definitiva
+    private boolean isOutsideLayout(Path entry) {
+        String name = entry.getFileName().toString();
+        return FileStorage.isContentKey(name) && Files.isRegularFile(entry)
+            && !fileStorage.contentPath(name).equals(entry);
+    }
+
+    private boolean migrate(Path file) {
+        Path target = fileStorage.contentPath(file.getFileName().toString());
+        try {
+            if (Files.exists(target)) {
+                // Mesmo hash, mesmo conteúdo: um upload já gravou a cópia no layout novo
+                Files.deleteIfExists(file);
+            } else {
+                fileStorage.promote(file, target);
+            }
+            migrated.increment();
+            return true;
+        } catch (IOException e) {
+            log.warn("Não foi possível mover {} para {}: {}", file, target, e.getMessage());
+            return false;
+        }
+    }
+}
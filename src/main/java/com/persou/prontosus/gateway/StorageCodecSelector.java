@@ -0,0 +1,56 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.enums.ContentSignature;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.util.zip.Deflater;
+import org.springframework.stereotype.Component;
+
+// Decide se um upload vale a pena ser comprimido olhando só o começo do conteúdo: formatos que já são
+// comprimidos (imagens, docx/xlsx, que são zip) são reconhecidos pela assinatura; o resto passa por uma
+// compressão de teste da amostra. A decisão depende só dos bytes, então o mesmo conteúdo (mesmo hash) sempre
+// recebe o mesmo codec.
+@Component
+public class StorageCodecSelector {
+
+    private final FileUploadConfig.Compression config;
+
+    public StorageCodecSelector(FileUploadConfig fileUploadConfig) {
+        this.config = fileUploadConfig.getUpload().getCompression();
+    }
+
+    // A amostra é o primeiro bloco da cópia feita pelo FileStorage.stage, não uma leitura a mais
+    public StorageCodec select(byte[] sample, int length, ContentSignature signature) {
+        if (config.getCodec() == StorageCodec.NONE || length == 0
+            || (signature != null && signature.isCompressed())) {
+            return StorageCodec.NONE;
+        }
+        return compressedSize(sample, length) <= length * (1 - config.getMinSaving())
+            ? config.getCodec()
+            : StorageCodec.NONE;
+    }
+
+    public int sampleSize() {
+        return config.getSampleSize();
+    }
+
+    StorageCodec select(byte[] sample) {
+        return select(sample, sample.length, ContentSignature.detect(sample, sample.length));
+    }
+
+    // Nível mais rápido: a amostra só precisa indicar se o conteúdo é compressível
+    private static long compressedSize(byte[] sample, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(sample, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                deflater.deflate(buffer);
+            }
+            return deflater.getBytesWritten();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.persou.prontosus.gateway;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Miniatura JPEG com o maior lado em max-size pixels. As dimensões são lidas do cabeçalho antes de decodificar:
+// imagem acima de max-pixels é recusada, e fotos grandes são decodificadas já subamostradas, sem carregar a
+// resolução inteira no heap.
+@Component
+public class ThumbnailGenerator {
+
+    private final int maxSize;
+    private final long maxPixels;
+
+    public ThumbnailGenerator(
+        @Value("${app.thumbnails.max-size:256}") int maxSize,
+        @Value("${app.thumbnails.max-pixels:50000000}") long maxPixels
+    ) {
+        if (maxSize <= 0 || maxPixels <= 0) {
+            throw new IllegalArgumentException("Tamanho da miniatura e limite de pixels devem ser positivos");
+        }
+        this.maxSize = maxSize;
+        this.maxPixels = maxPixels;
+    }
+
+    // false quando o ImageIO não lê o formato (ex.: webp, heic) ou a imagem passa do limite
+    public boolean generate(InputStream source, OutputStream target) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    return false;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Mantém pelo menos o dobro da resolução final para o redimensionamento suavizar
+                int step = Math.max(1, Math.max(width, height) / (maxSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return ImageIO.write(scale(reader.read(0, param)), "jpg", target);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG não tem canal alfa: o fundo transparente de PNGs vira branco
+    private BufferedImage scale(BufferedImage image) {
+        double factor = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
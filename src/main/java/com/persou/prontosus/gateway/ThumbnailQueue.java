@@ -0,0 +1,199 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipException;
+import javax.imageio.IIOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Gera as miniaturas das imagens enviadas fora da requisição de upload, num pool pequeno com fila limitada e
+// prioridade baixa. Fila cheia descarta o pedido (o endpoint de miniatura pede de novo quando ela faltar);
+// imagem que não dá miniatura ganha um marcador (FileStorage.thumbnailFailedPath) e não volta para a fila.
+// thumbnails.queue.lag mede quanto um pedido esperou na fila; thumbnails.queue.oldest, a idade do mais antigo.
+@Slf4j
+@Component
+public class ThumbnailQueue {
+
+    private final FileStorage fileStorage;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final boolean enabled;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    // Um pedido por conteúdo: várias cópias da mesma imagem não geram a miniatura várias vezes
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final Timer lag;
+    private final Timer generation;
+    private final Counter generated;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public ThumbnailQueue(
+        FileStorage fileStorage,
+        ThumbnailGenerator thumbnailGenerator,
+        MeterRegistry meterRegistry,
+        @Value("${app.thumbnails.enabled:true}") boolean enabled,
+        @Value("${app.thumbnails.workers:1}") int workers,
+        @Value("${app.thumbnails.queue-capacity:500}") int queueCapacity
+    ) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fileStorage = fileStorage;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.lag = Timer.builder("thumbnails.queue.lag").register(meterRegistry);
+        this.generation = Timer.builder("thumbnails.generation").register(meterRegistry);
+        this.generated = Counter.builder("thumbnails.processed").tag("result", "generated").register(meterRegistry);
+        this.skipped = Counter.builder("thumbnails.processed").tag("result", "skipped").register(meterRegistry);
+        this.failed = Counter.builder("thumbnails.processed").tag("result", "failed").register(meterRegistry);
+        this.rejected = Counter.builder("thumbnails.rejected").register(meterRegistry);
+        Gauge.builder("thumbnails.queue.size", queue, BlockingQueue::size)
+            .register(meterRegistry);
+        Gauge.builder("thumbnails.queue.oldest", this, ThumbnailQueue::oldestPendingSeconds)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onAttachmentStored(AttachmentStoredEvent event) {
+        if (event.fileType() == FileType.IMAGE) {
+            submit(event.sha256(), event.codec());
+        }
+    }
+
+    public boolean submit(String sha256, StorageCodec codec) {
+        if (!enabled || !FileStorage.isContentKey(sha256) || Files.exists(fileStorage.thumbnailPath(sha256))
+            || Files.exists(fileStorage.thumbnailFailedPath(sha256)) || !pending.add(sha256)) {
+            return false;
+        }
+        try {
+            executor.execute(new Task(sha256, codec, System.nanoTime()));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(sha256);
+            rejected.increment();
+            log.warn("Fila de miniaturas cheia, pedido descartado: {}", sha256);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    int queueSize() {
+        return queue.size();
+    }
+
+    private double oldestPendingSeconds() {
+        return queue.peek() instanceof Task oldest
+            ? (System.nanoTime() - oldest.enqueuedAt) / 1_000_000_000.0
+            : 0.0;
+    }
+
+    private void generate(String sha256, StorageCodec codec) {
+        Optional<Path> source = fileStorage.locate(sha256);
+        if (source.isEmpty()) {
+            log.warn("Conteúdo {} não encontrado para gerar a miniatura", sha256);
+            skipped.increment();
+            return;
+        }
+        Path staged = null;
+        try {
+            staged = fileStorage.newStagingFile();
+            boolean written;
+            try (InputStream in = fileStorage.open(source.get(), codec);
+                 OutputStream out = Files.newOutputStream(staged)) {
+                written = thumbnailGenerator.generate(in, out);
+            }
+            if (written) {
+                fileStorage.promote(staged, fileStorage.thumbnailPath(sha256));
+                generated.increment();
+            } else {
+                log.info("Miniatura não gerada para {}: formato não suportado ou imagem grande demais", sha256);
+                markFailed(sha256);
+                skipped.increment();
+            }
+        } catch (IIOException | ZipException | RuntimeException e) {
+            // Imagem ou compressão corrompida: o mesmo conteúdo falharia de novo
+            log.warn("Miniatura impossível para {}: {}", sha256, e.getMessage());
+            markFailed(sha256);
+            failed.increment();
+        } catch (IOException e) {
+            // Erro de disco pode ser passageiro: o próximo GET da miniatura tenta de novo
+            log.warn("Falha ao gerar a miniatura de {}: {}", sha256, e.getMessage());
+            failed.increment();
+        } finally {
+            if (staged != null) {
+                fileStorage.deleteQuietly(staged);
+            }
+        }
+    }
+
+    private void markFailed(String sha256) {
+        Path marker = fileStorage.thumbnailFailedPath(sha256);
+        try {
+            Files.createDirectories(marker.getParent());
+            Files.createFile(marker);
+        } catch (FileAlreadyExistsException e) {
+            // Outro worker já marcou
+        } catch (IOException e) {
+            log.warn("Não foi possível marcar a miniatura de {} como impossível: {}", sha256, e.getMessage());
+        }
+    }
+
+    private final class Task implements Runnable {
+
+        private final String sha256;
+        private final StorageCodec codec;
+        private final long enqueuedAt;
+
+        private Task(String sha256, StorageCodec codec, long enqueuedAt) {
+            this.sha256 = sha256;
+            this.codec = codec;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            lag.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                generation.record(() -> generate(sha256, codec));
+            } finally {
+                pending.remove(sha256);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.persou.prontosus.gateway;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UploadReconciliationRepository {
+
+    // Vazio antes da primeira rodada
+    Optional<ReconciliationCursor> findCursor();
+
+    void saveCursor(String lastPath, LocalDateTime passCompletedAt);
+
+    // Dos hashes informados, os que têm anexo ou conteúdo registrado
+    Set<String> findReferencedContent(Collection<String> sha256s);
+
+    // Dos nomes de arquivo informados, os usados por anexos anteriores ao armazenamento por conteúdo
+    // (file_path uploads/<uuid>.<ext>)
+    Set<String> findReferencedLegacyNames(Collection<String> fileNames);
+
+    record ReconciliationCursor(String lastPath, LocalDateTime passCompletedAt) {
+    }
+}
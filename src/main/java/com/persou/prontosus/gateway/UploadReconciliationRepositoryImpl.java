@@ -0,0 +1,79 @@
+package com.persou.prontosus.gateway;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class UploadReconciliationRepositoryImpl implements UploadReconciliationRepository {
+
+    private static final String NAME = "uploads";
+    private static final String FIND_CURSOR = """
+        SELECT last_path, pass_completed_at FROM upload_reconciliation WHERE name = :name
+        """;
+    private static final String SAVE_CURSOR = """
+        INSERT INTO upload_reconciliation (name, last_path, pass_completed_at, updated_at)
+        VALUES (:name, :lastPath, :passCompletedAt, NOW())
+        ON CONFLICT (name) DO UPDATE SET last_path = EXCLUDED.last_path,
+                                         pass_completed_at = EXCLUDED.pass_completed_at, updated_at = NOW()
+        """;
+    // file_contents cobre conteúdo registrado cujo anexo ainda não apareceu; os dois lados usam a chave primária
+    // e o índice de file_path
+    private static final String REFERENCED_CONTENT = """
+        SELECT sha256 AS reference FROM file_contents WHERE sha256 IN (:keys)
+        UNION
+        SELECT file_path FROM file_attachments WHERE file_path IN (:keys)
+        """;
+    // Caminhos antigos foram gravados como <dir>/<uuid>.<ext>, com o dir configurado na época: compara só o nome.
+    // Expressão e filtro iguais aos do índice IDX_FILE_ATTACHMENTS_LEGACY_NAME (V13), senão ele não é usado
+    private static final String REFERENCED_LEGACY_NAMES = """
+        SELECT DISTINCT substring(file_path FROM '[^/]+$') AS reference FROM file_attachments
+        WHERE file_path !~ '^[0-9a-f]{64}$' AND substring(file_path FROM '[^/]+$') IN (:names)
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ReconciliationCursor> findCursor() {
+        return jdbcTemplate.query(FIND_CURSOR, new MapSqlParameterSource("name", NAME),
+            (rs, rowNum) -> new ReconciliationCursor(rs.getString("last_path"),
+                rs.getObject("pass_completed_at", LocalDateTime.class))).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public void saveCursor(String lastPath, LocalDateTime passCompletedAt) {
+        jdbcTemplate.update(SAVE_CURSOR, new MapSqlParameterSource("name", NAME)
+            .addValue("lastPath", lastPath)
+            .addValue("passCompletedAt", passCompletedAt));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findReferencedContent(Collection<String> sha256s) {
+        if (sha256s.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(REFERENCED_CONTENT,
+            new MapSqlParameterSource("keys", sha256s), String.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findReferencedLegacyNames(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(REFERENCED_LEGACY_NAMES,
+            new MapSqlParameterSource("names", fileNames), String.class));
+    }
+}
@@ -0,0 +1,21 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository {
+
+    UploadSession create(UploadSession session);
+
+    Optional<UploadSession> findById(String id);
+
+    // Só avança se a sessão ainda estiver no offset esperado: duas gravações da mesma parte não somam duas vezes
+    boolean advance(String id, long expectedOffset, long newOffset, LocalDateTime expiresAt);
+
+    boolean delete(String id);
+
+    // Remove as sessões vencidas e devolve os ids, para o chamador apagar os arquivos
+    List<String> deleteExpired(LocalDateTime now);
+}
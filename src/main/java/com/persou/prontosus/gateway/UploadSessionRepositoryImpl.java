@@ -0,0 +1,106 @@
+package com.persou.prontosus.gateway;
+
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import com.persou.prontosus.gateway.database.Uuids;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class UploadSessionRepositoryImpl implements UploadSessionRepository {
+
+    private static final String INSERT = """
+        INSERT INTO upload_sessions (id, medical_record_id, uploaded_by, file_name, content_type, description,
+                                     total_size, received_size, next_chunk, created_at, expires_at)
+        VALUES (:id, :medicalRecordId, :uploadedBy, :fileName, :contentType, :description, :totalSize, 0, 0,
+                :createdAt, :expiresAt)
+        """;
+    private static final String FIND_BY_ID = """
+        SELECT id, medical_record_id, uploaded_by, file_name, content_type, description, total_size,
+               received_size, next_chunk, created_at, expires_at
+        FROM upload_sessions WHERE id = :id
+        """;
+    private static final String ADVANCE = """
+        UPDATE upload_sessions
+        SET received_size = :newOffset, next_chunk = next_chunk + 1, expires_at = :expiresAt
+        WHERE id = :id AND received_size = :expectedOffset
+        """;
+    private static final String DELETE = "DELETE FROM upload_sessions WHERE id = :id";
+    private static final String DELETE_EXPIRED = "DELETE FROM upload_sessions WHERE expires_at < :now RETURNING id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public UploadSession create(UploadSession session) {
+        UUID id = Uuids.v7();
+        jdbcTemplate.update(INSERT, new MapSqlParameterSource("id", id)
+            .addValue("medicalRecordId", Uuids.parseOrNull(session.medicalRecordId()))
+            .addValue("uploadedBy", Uuids.parseOrNull(session.uploadedBy()))
+            .addValue("fileName", session.fileName())
+            .addValue("contentType", session.contentType())
+            .addValue("description", session.description())
+            .addValue("totalSize", session.totalSize())
+            .addValue("createdAt", session.createdAt())
+            .addValue("expiresAt", session.expiresAt()));
+        return session.withId(id.toString()).withReceivedSize(0).withNextChunk(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UploadSession> findById(String id) {
+        UUID uuid = Uuids.parseOrNull(id);
+        if (uuid == null) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(FIND_BY_ID, new MapSqlParameterSource("id", uuid), this::toSession)
+            .stream()
+            .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public boolean advance(String id, long expectedOffset, long newOffset, LocalDateTime expiresAt) {
+        return jdbcTemplate.update(ADVANCE, new MapSqlParameterSource("id", Uuids.parseOrNull(id))
+            .addValue("expectedOffset", expectedOffset)
+            .addValue("newOffset", newOffset)
+            .addValue("expiresAt", expiresAt)) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(String id) {
+        return jdbcTemplate.update(DELETE, new MapSqlParameterSource("id", Uuids.parseOrNull(id))) == 1;
+    }
+
+    @Override
+    @Transactional
+    public List<String> deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.queryForList(DELETE_EXPIRED, new MapSqlParameterSource("now", now), String.class);
+    }
+
+    private UploadSession toSession(ResultSet rs, int rowNum) throws SQLException {
+        return UploadSession.builder()
+            .id(rs.getString("id"))
+            .medicalRecordId(rs.getString("medical_record_id"))
+            .uploadedBy(rs.getString("uploaded_by"))
+            .fileName(rs.getString("file_name"))
+            .contentType(rs.getString("content_type"))
+            .description(rs.getString("description"))
+            .totalSize(rs.getLong("total_size"))
+            .receivedSize(rs.getLong("received_size"))
+            .nextChunk(rs.getInt("next_chunk"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+            .build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.persou.prontosus.gateway;
+
+// Publicado a cada gravação de usuário; quem mantém dados derivados do usuário (ex.: UserDetailsCache)
+// descarta a cópia local.
+public record UserChangedEvent(String userId, String username) {
+}
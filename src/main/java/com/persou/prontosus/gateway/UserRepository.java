@@ -2,7 +2,9 @@ package com.persou.prontosus.gateway;
 
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.ProfessionalRole;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -27,4 +29,13 @@ public interface UserRepository {
     User save(User user);
 
     Optional<User> findById(String id);
+
+    Optional<Integer> findTokenVersionById(String id);
+
+    Map<String, Integer> findTokenVersions();
+
+    int updateLastLogins(Map<String, LocalDateTime> lastLoginByUserId);
+
+    // Troca só o hash da senha, e só se ainda for o lido em user: false quando a senha mudou nesse meio tempo
+    boolean updatePassword(User user, String newPassword);
 }
@@ -3,18 +3,37 @@ package com.persou.prontosus.gateway;
 import com.persou.prontosus.config.mapper.UserMapper;
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.ProfessionalRole;
+import com.persou.prontosus.gateway.database.Uuids;
 import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository.TokenVersionView;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
 public class UserRepositoryImpl implements UserRepository {
 
+    private static final String UPDATE_LAST_LOGIN = "UPDATE users SET last_login_at = :lastLoginAt "
+        + "WHERE id = :id AND (last_login_at IS NULL OR last_login_at < :lastLoginAt)";
+    // Sem merge da linha inteira: active, role e last_login_at alterados depois da leitura continuam valendo
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = :newPassword "
+        + "WHERE id = :id AND password = :currentPassword";
+
     private final UserJpaRepository userJpaRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
     public Optional<User> findByUsername(String username) {
@@ -77,9 +96,54 @@ public class UserRepositoryImpl implements UserRepository {
     public User save(User user) {
         var entity = userMapper.toEntity(user);
         var savedEntity = userJpaRepository.save(entity);
+        eventPublisher.publishEvent(new UserChangedEvent(savedEntity.getId(), savedEntity.getUsername()));
         return userMapper.toDomain(savedEntity);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Integer> findTokenVersionById(String id) {
+        return userJpaRepository.findTokenVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> findTokenVersions() {
+        return userJpaRepository.findAllTokenVersions()
+            .stream()
+            .collect(Collectors.toMap(TokenVersionView::getId, TokenVersionView::getTokenVersion));
+    }
+
+    // Um único batch JDBC para todos os usuários; nunca regride um valor mais novo já gravado
+    @Override
+    @Transactional
+    public int updateLastLogins(Map<String, LocalDateTime> lastLoginByUserId) {
+        if (lastLoginByUserId.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] batch = lastLoginByUserId.entrySet()
+            .stream()
+            .map(entry -> new MapSqlParameterSource("id", Uuids.parseOrNull(entry.getKey()))
+                .addValue("lastLoginAt", entry.getValue()))
+            .toArray(SqlParameterSource[]::new);
+        return Arrays.stream(jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch))
+            .map(updated -> Math.max(updated, 0))
+            .sum();
+    }
+
+    @Override
+    @Transactional
+    public boolean updatePassword(User user, String newPassword) {
+        int updated = jdbcTemplate.update(UPDATE_PASSWORD, new MapSqlParameterSource("id", Uuids.parseOrNull(user.id()))
+            .addValue("currentPassword", user.password())
+            .addValue("newPassword", newPassword));
+        if (updated == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(user.id(), user.username()));
+        return true;
+    }
+
     @Override
     public Optional<User> findById(String id) {
         return userJpaRepository.findById(id)
@@ -0,0 +1,54 @@
+package com.persou.prontosus.gateway.database;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Depois que um usuário grava, as leituras dele vão para o primário durante a janela: a réplica pode ainda não
+// ter recebido a alteração e a tela recarregada mostraria o dado antigo. Janela zero desliga.
+public class ReadYourWritesWindow {
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadYourWritesWindow(Duration window) {
+        this(window, System::currentTimeMillis);
+    }
+
+    ReadYourWritesWindow(Duration window, LongSupplier clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    public void recordWrite() {
+        String user = currentUser();
+        if (windowMillis > 0 && user != null) {
+            lastWriteByUser.put(user, clock.getAsLong());
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        String user = currentUser();
+        if (windowMillis <= 0 || user == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.getAsLong() - lastWrite < windowMillis) {
+            return true;
+        }
+        lastWriteByUser.remove(user, lastWrite);
+        return false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
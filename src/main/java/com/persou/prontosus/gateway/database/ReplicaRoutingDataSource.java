@@ -0,0 +1,83 @@
+package com.persou.prontosus.gateway.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Transações readOnly vão para as réplicas (round robin); todo o resto, inclusive código sem transação, vai
+// para o primário. A decisão depende do flag readOnly da transação, que o Spring só publica depois de pedir a
+// conexão: este DataSource precisa ficar atrás de um LazyConnectionDataSourceProxy.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesWindow readYourWritesWindow) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma réplica");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesWindow = readYourWritesWindow;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicaKeys = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWrite();
+            return PRIMARY;
+        }
+        if (readYourWritesWindow.mustReadFromPrimary()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    // O primário é um bean próprio e fecha junto com o contexto; as réplicas só existem aqui
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // A janela conta a partir do commit, que é quando a réplica começa a receber a alteração
+    private void markWrite() {
+        readYourWritesWindow.recordWrite();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWritesWindow.recordWrite();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.persou.prontosus.gateway.database;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+public final class Uuids {
+
+    private static final Pattern CANONICAL_UUID =
+        Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Timestamp em ms (48 bits) seguido de uma sequência de 12 bits (rand_a, método 1 da RFC 9562): ids gerados
+    // no mesmo milissegundo continuam crescentes e, se a sequência estourar, avançam para o milissegundo seguinte
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+
+    private Uuids() {
+    }
+
+    // UUIDv7: ordenado pelo tempo de criação, então novas chaves entram sempre no fim do índice B-tree
+    public static UUID v7() {
+        return v7(System.currentTimeMillis());
+    }
+
+    static UUID v7(long epochMillis) {
+        long timestampAndSequence = LAST_TIMESTAMP_AND_SEQUENCE
+            .updateAndGet(last -> Math.max(epochMillis << SEQUENCE_BITS, last + 1));
+
+        long mostSigBits = (timestampAndSequence >>> SEQUENCE_BITS) << 16
+            | VERSION_7
+            | (timestampAndSequence & SEQUENCE_MASK);
+        long leastSigBits = RANDOM.nextLong() & RAND_B_MASK | VARIANT_RFC_4122;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // Texto que não é um UUID canônico não pode ser chave de nenhum registro: devolve null para que a consulta
+    // simplesmente não encontre nada (404), como acontecia com as chaves VARCHAR
+    public static UUID parseOrNull(String value) {
+        if (value == null || !CANONICAL_UUID.matcher(value).matches()) {
+            return null;
+        }
+        return UUID.fromString(value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import com.persou.prontosus.domain.Appointment;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+public class AppointmentRowMapper implements RowMapper<Appointment> {
+
+    private static final String PATIENT_PREFIX = "patient_";
+    private static final String PROFESSIONAL_PREFIX = "professional_";
+    private static final List<String> COLUMNS = List.of(
+        "id", "scheduled_date_time", "status", "type", "reason", "notes", "created_at", "updated_at"
+    );
+
+    public static final String SELECT_WITH_PARTICIPANTS = "SELECT "
+        + JdbcColumns.select("a", "", COLUMNS) + ", "
+        + PatientRowMapper.columns("p", PATIENT_PREFIX) + ", "
+        + UserRowMapper.columns("u", PROFESSIONAL_PREFIX) + " "
+        + "FROM appointments a "
+        + "JOIN patients p ON p.id = a.patient_id "
+        + "JOIN users u ON u.id = a.healthcare_professional_id ";
+
+    private final PatientRowMapper patientRowMapper = new PatientRowMapper(PATIENT_PREFIX);
+    private final UserRowMapper userRowMapper = new UserRowMapper(PROFESSIONAL_PREFIX);
+
+    @Override
+    public Appointment mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Appointment.builder()
+            .id(rs.getString("id"))
+            .patient(patientRowMapper.mapRow(rs, rowNum))
+            .healthcareProfessional(userRowMapper.mapRow(rs, rowNum))
+            .scheduledDateTime(rs.getObject("scheduled_date_time", LocalDateTime.class))
+            .status(rs.getString("status"))
+            .type(rs.getString("type"))
+            .reason(rs.getString("reason"))
+            .notes(rs.getString("notes"))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .build();
+    }
+}
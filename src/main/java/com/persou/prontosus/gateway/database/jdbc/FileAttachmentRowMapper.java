@@ -0,0 +1,35 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import com.persou.prontosus.domain.FileAttachment;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+public class FileAttachmentRowMapper implements RowMapper<FileAttachment> {
+
+    private static final List<String> COLUMNS = List.of(
+        "id", "medical_record_id", "file_name", "file_path", "content_type", "file_size", "file_type",
+        "storage_codec", "description", "uploaded_at"
+    );
+
+    public static String columns(String tableAlias) {
+        return JdbcColumns.select(tableAlias, "", COLUMNS);
+    }
+
+    @Override
+    public FileAttachment mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return FileAttachment.builder()
+            .id(rs.getString("id"))
+            .fileName(rs.getString("file_name"))
+            .filePath(rs.getString("file_path"))
+            .contentType(rs.getString("content_type"))
+            .fileSize(rs.getObject("file_size", Long.class))
+            .fileType(rs.getString("file_type"))
+            .storageCodec(rs.getString("storage_codec"))
+            .description(rs.getString("description"))
+            .uploadedAt(rs.getObject("uploaded_at", LocalDateTime.class))
+            .build();
+    }
+}
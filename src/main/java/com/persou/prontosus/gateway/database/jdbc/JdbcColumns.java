@@ -0,0 +1,16 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+final class JdbcColumns {
+
+    private JdbcColumns() {
+    }
+
+    static String select(String tableAlias, String prefix, List<String> columns) {
+        return columns.stream()
+            .map(column -> tableAlias + "." + column + " AS " + prefix + column)
+            .collect(Collectors.joining(", "));
+    }
+}
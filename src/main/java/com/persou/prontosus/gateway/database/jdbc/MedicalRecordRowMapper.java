@@ -0,0 +1,73 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import com.persou.prontosus.domain.MedicalRecord;
+import com.persou.prontosus.domain.valueobject.VitalSigns;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+public class MedicalRecordRowMapper implements RowMapper<MedicalRecord> {
+
+    private static final String PATIENT_PREFIX = "patient_";
+    private static final String PROFESSIONAL_PREFIX = "professional_";
+    private static final List<String> COLUMNS = List.of(
+        "id", "consultation_date", "chief_complaint", "history_of_present_illness", "physical_examination",
+        "systolic_pressure", "diastolic_pressure", "heart_rate", "temperature", "respiratory_rate", "weight",
+        "height", "oxygen_saturation", "diagnosis", "treatment", "prescriptions", "observations",
+        "created_at", "updated_at"
+    );
+
+    public static final String SELECT_WITH_PARTICIPANTS = "SELECT "
+        + JdbcColumns.select("mr", "", COLUMNS) + ", "
+        + PatientRowMapper.columns("p", PATIENT_PREFIX) + ", "
+        + UserRowMapper.columns("u", PROFESSIONAL_PREFIX) + " "
+        + "FROM medical_records mr "
+        + "JOIN patients p ON p.id = mr.patient_id "
+        + "JOIN users u ON u.id = mr.healthcare_professional_id ";
+
+    private final PatientRowMapper patientRowMapper = new PatientRowMapper(PATIENT_PREFIX);
+    private final UserRowMapper userRowMapper = new UserRowMapper(PROFESSIONAL_PREFIX);
+
+    @Override
+    public MedicalRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return MedicalRecord.builder()
+            .id(rs.getString("id"))
+            .patient(patientRowMapper.mapRow(rs, rowNum))
+            .healthcareProfessional(userRowMapper.mapRow(rs, rowNum))
+            .consultationDate(rs.getObject("consultation_date", LocalDateTime.class))
+            .chiefComplaint(rs.getString("chief_complaint"))
+            .historyOfPresentIllness(rs.getString("history_of_present_illness"))
+            .physicalExamination(rs.getString("physical_examination"))
+            .vitalSigns(mapVitalSigns(rs))
+            .diagnosis(rs.getString("diagnosis"))
+            .treatment(rs.getString("treatment"))
+            .prescriptions(rs.getString("prescriptions"))
+            .observations(rs.getString("observations"))
+            // Preenchida depois pela consulta de anexos em lote
+            .attachments(new ArrayList<>())
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .build();
+    }
+
+    private VitalSigns mapVitalSigns(ResultSet rs) throws SQLException {
+        Integer systolicPressure = rs.getObject("systolic_pressure", Integer.class);
+        Integer diastolicPressure = rs.getObject("diastolic_pressure", Integer.class);
+        Integer heartRate = rs.getObject("heart_rate", Integer.class);
+        Double temperature = rs.getObject("temperature", Double.class);
+        Integer respiratoryRate = rs.getObject("respiratory_rate", Integer.class);
+        Double weight = rs.getObject("weight", Double.class);
+        Double height = rs.getObject("height", Double.class);
+        Double oxygenSaturation = rs.getObject("oxygen_saturation", Double.class);
+
+        if (systolicPressure == null && diastolicPressure == null && heartRate == null && temperature == null
+            && respiratoryRate == null && weight == null && height == null && oxygenSaturation == null) {
+            return null;
+        }
+        return new VitalSigns(systolicPressure, diastolicPressure, heartRate, temperature, respiratoryRate, weight,
+            height, oxygenSaturation);
+    }
+}
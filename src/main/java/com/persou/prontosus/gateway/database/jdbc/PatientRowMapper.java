@@ -0,0 +1,72 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.Address;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+public class PatientRowMapper implements RowMapper<Patient> {
+
+    private static final List<String> COLUMNS = List.of(
+        "id", "cpf", "full_name", "birth_date", "gender", "phone_number", "email",
+        "zip_code", "street", "number", "complement", "neighborhood", "city", "state",
+        "emergency_contact_name", "emergency_contact_phone", "known_allergies", "current_medications",
+        "chronic_conditions", "created_at", "updated_at"
+    );
+
+    private final String prefix;
+
+    public PatientRowMapper() {
+        this("");
+    }
+
+    public PatientRowMapper(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public static String columns(String tableAlias, String prefix) {
+        return JdbcColumns.select(tableAlias, prefix, COLUMNS);
+    }
+
+    @Override
+    public Patient mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Patient.builder()
+            .id(rs.getString(prefix + "id"))
+            .cpf(rs.getString(prefix + "cpf"))
+            .fullName(rs.getString(prefix + "full_name"))
+            .birthDate(rs.getObject(prefix + "birth_date", LocalDate.class))
+            .gender(rs.getString(prefix + "gender"))
+            .phoneNumber(rs.getString(prefix + "phone_number"))
+            .email(rs.getString(prefix + "email"))
+            .address(mapAddress(rs))
+            .emergencyContactName(rs.getString(prefix + "emergency_contact_name"))
+            .emergencyContactPhone(rs.getString(prefix + "emergency_contact_phone"))
+            .knownAllergies(rs.getString(prefix + "known_allergies"))
+            .currentMedications(rs.getString(prefix + "current_medications"))
+            .chronicConditions(rs.getString(prefix + "chronic_conditions"))
+            .createdAt(rs.getObject(prefix + "created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject(prefix + "updated_at", LocalDateTime.class))
+            .build();
+    }
+
+    private Address mapAddress(ResultSet rs) throws SQLException {
+        String zipCode = rs.getString(prefix + "zip_code");
+        String street = rs.getString(prefix + "street");
+        String number = rs.getString(prefix + "number");
+        String complement = rs.getString(prefix + "complement");
+        String neighborhood = rs.getString(prefix + "neighborhood");
+        String city = rs.getString(prefix + "city");
+        String state = rs.getString(prefix + "state");
+
+        // Mesmo comportamento do @Embedded do Hibernate: endereço nulo quando todas as colunas são nulas
+        if (zipCode == null && street == null && number == null && complement == null
+            && neighborhood == null && city == null && state == null) {
+            return null;
+        }
+        return new Address(zipCode, street, number, complement, neighborhood, city, state);
+    }
+}
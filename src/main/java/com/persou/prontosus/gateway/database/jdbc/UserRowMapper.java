@@ -0,0 +1,48 @@
+package com.persou.prontosus.gateway.database.jdbc;
+
+import com.persou.prontosus.domain.User;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.RowMapper;
+
+public class UserRowMapper implements RowMapper<User> {
+
+    // A senha nunca é selecionada nas projeções de leitura
+    private static final List<String> COLUMNS = List.of(
+        "id", "username", "full_name", "email", "professional_document", "role", "specialty", "active",
+        "created_at", "updated_at", "last_login_at"
+    );
+
+    private final String prefix;
+
+    public UserRowMapper() {
+        this("");
+    }
+
+    public UserRowMapper(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public static String columns(String tableAlias, String prefix) {
+        return JdbcColumns.select(tableAlias, prefix, COLUMNS);
+    }
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return User.builder()
+            .id(rs.getString(prefix + "id"))
+            .username(rs.getString(prefix + "username"))
+            .fullName(rs.getString(prefix + "full_name"))
+            .email(rs.getString(prefix + "email"))
+            .professionalDocument(rs.getString(prefix + "professional_document"))
+            .role(rs.getString(prefix + "role"))
+            .specialty(rs.getString(prefix + "specialty"))
+            .active(rs.getObject(prefix + "active", Boolean.class))
+            .createdAt(rs.getObject(prefix + "created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject(prefix + "updated_at", LocalDateTime.class))
+            .lastLoginAt(rs.getObject(prefix + "last_login_at", LocalDateTime.class))
+            .build();
+    }
+}
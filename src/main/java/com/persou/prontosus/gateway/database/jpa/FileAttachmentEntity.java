@@ -1,13 +1,12 @@
 package com.persou.prontosus.gateway.database.jpa;
 
 import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -20,6 +19,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
 
 @Entity
 @Table(name = "file_attachments")
@@ -30,7 +30,8 @@ import lombok.NoArgsConstructor;
 public class FileAttachmentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @Type(UuidStringType.class)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -56,6 +57,12 @@ public class FileAttachmentEntity {
     @Column(nullable = false)
     private FileType fileType;
 
+    // Formato do conteúdo em disco; fileSize continua sendo o tamanho original
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private StorageCodec storageCodec = StorageCodec.NONE;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
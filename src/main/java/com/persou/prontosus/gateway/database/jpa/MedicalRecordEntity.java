@@ -5,11 +5,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
@@ -23,17 +23,28 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
 
 @Entity
 @Table(name = "medical_records")
+@NamedEntityGraph(
+    name = MedicalRecordEntity.WITH_PARTICIPANTS_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode("patient"),
+        @NamedAttributeNode("healthcareProfessional")
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class MedicalRecordEntity {
 
+    public static final String WITH_PARTICIPANTS_GRAPH = "MedicalRecordEntity.withParticipants";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @Type(UuidStringType.class)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -6,8 +6,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
@@ -22,6 +20,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.Type;
+import org.hibernate.generator.EventType;
 
 @Entity
 @Table(name = "users")
@@ -32,7 +33,8 @@ import lombok.NoArgsConstructor;
 public class UserEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @Type(UuidStringType.class)
     private String id;
 
     @Column(unique = true, nullable = false, length = 50)
@@ -67,6 +69,12 @@ public class UserEntity {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Mantido pelo trigger USERS_TOKEN_VERSION (V7): incrementa quando role ou active mudam, invalidando os
+    // tokens emitidos antes. Somente leitura para o Hibernate, relido após cada gravação.
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer tokenVersion;
+
     @OneToMany(mappedBy = "healthcareProfessional", fetch = FetchType.LAZY)
     private List<MedicalRecordEntity> medicalRecords;
 
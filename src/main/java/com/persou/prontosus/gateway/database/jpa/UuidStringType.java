@@ -0,0 +1,76 @@
+package com.persou.prontosus.gateway.database.jpa;
+
+import com.persou.prontosus.gateway.database.Uuids;
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+
+// Chaves continuam String no domínio e na API, mas são gravadas como uuid nativo (16 bytes) no Postgres.
+// Aplicado no @Id; as FKs das associações herdam o mesmo mapeamento da chave referenciada.
+public class UuidStringType implements UserType<String> {
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.UUID;
+    }
+
+    @Override
+    public Class<String> returnedClass() {
+        return String.class;
+    }
+
+    @Override
+    public boolean equals(String x, String y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(String x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+        throws SQLException {
+        UUID value = rs.getObject(position, UUID.class);
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, String value, int index, SharedSessionContractImplementor session)
+        throws SQLException {
+        UUID uuid = Uuids.parseOrNull(value);
+        if (uuid == null) {
+            st.setNull(index, Types.OTHER);
+        } else {
+            st.setObject(index, uuid);
+        }
+    }
+
+    @Override
+    public String deepCopy(String value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(String value) {
+        return value;
+    }
+
+    @Override
+    public String assemble(Serializable cached, Object owner) {
+        return (String) cached;
+    }
+}
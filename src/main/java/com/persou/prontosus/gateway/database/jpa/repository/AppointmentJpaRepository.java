@@ -23,7 +23,9 @@ public interface AppointmentJpaRepository extends JpaRepository<AppointmentEntit
     List<AppointmentEntity> findByPatientIdAndStatus(@Param("patientId") String patientId, @Param("status")
     AppointmentStatus status);
 
-    @Query("SELECT a FROM AppointmentEntity a WHERE a.healthcareProfessional.id = :professionalId AND DATE(a.scheduledDateTime) = DATE(:date) ORDER BY a.scheduledDateTime")
-    List<AppointmentEntity> findByProfessionalAndDate(@Param("professionalId") String professionalId,
-                                                      @Param("date") LocalDateTime date);
+    @Query("SELECT a FROM AppointmentEntity a WHERE a.healthcareProfessional.id = :professionalId "
+        + "AND a.scheduledDateTime >= :start AND a.scheduledDateTime < :end ORDER BY a.scheduledDateTime")
+    List<AppointmentEntity> findByProfessionalAndScheduledRange(@Param("professionalId") String professionalId,
+                                                                @Param("start") LocalDateTime start,
+                                                                @Param("end") LocalDateTime end);
 }
\ No newline at end of file
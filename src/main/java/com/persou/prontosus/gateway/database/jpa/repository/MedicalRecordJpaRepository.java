@@ -1,33 +1,45 @@
 package com.persou.prontosus.gateway.database.jpa.repository;
 
+import static com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity.WITH_PARTICIPANTS_GRAPH;
+
 import com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity;
 import com.persou.prontosus.gateway.database.jpa.PatientEntity;
 import com.persou.prontosus.gateway.database.jpa.UserEntity;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface MedicalRecordJpaRepository extends JpaRepository<MedicalRecordEntity, String> {
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     List<MedicalRecordEntity> findByPatientOrderByConsultationDateDesc(PatientEntity patient);
 
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     List<MedicalRecordEntity> findByHealthcareProfessionalOrderByConsultationDateDesc(
         UserEntity healthcareProfessional);
 
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     @Query("SELECT mr FROM MedicalRecordEntity mr WHERE mr.patient.id = :patientId ORDER BY mr.consultationDate DESC")
     List<MedicalRecordEntity> findByPatientIdOrderByConsultationDateDesc(@Param("patientId") String patientId);
 
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     @Query("SELECT mr FROM MedicalRecordEntity mr WHERE mr.consultationDate BETWEEN :startDate AND :endDate ORDER BY mr.consultationDate DESC")
     List<MedicalRecordEntity> findByConsultationDateBetween(@Param("startDate") LocalDateTime startDate,
                                                             @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     @Query("SELECT mr FROM MedicalRecordEntity mr WHERE mr.healthcareProfessional.id = :professionalId ORDER BY mr.consultationDate DESC")
     List<MedicalRecordEntity> findByHealthcareProfessionalIdOrderByConsultationDateDesc(
         @Param("professionalId") String professionalId);
 
+    @EntityGraph(WITH_PARTICIPANTS_GRAPH)
     @Query("SELECT mr FROM MedicalRecordEntity mr WHERE mr.patient.id = :patientId AND mr.consultationDate BETWEEN :startDate AND :endDate ORDER BY mr.consultationDate DESC")
     List<MedicalRecordEntity> findByPatientAndDateRange(@Param("patientId") String patientId,
                                                         @Param("startDate") LocalDateTime startDate,
                                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT mr FROM MedicalRecordEntity mr LEFT JOIN FETCH mr.attachments WHERE mr IN :records")
+    List<MedicalRecordEntity> fetchAttachments(@Param("records") List<MedicalRecordEntity> records);
 }
@@ -1,10 +1,18 @@
 package com.persou.prontosus.gateway.database.jpa.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.persou.prontosus.gateway.database.jpa.PatientEntity;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface PatientJpaRepository extends JpaRepository<PatientEntity, String> {
@@ -15,6 +23,16 @@ public interface PatientJpaRepository extends JpaRepository<PatientEntity, Strin
 
     boolean existsByCpf(String cpf);
 
+    @Query("SELECT p.cpf FROM PatientEntity p WHERE p.cpf IN :cpfs")
+    Set<String> findCpfsIn(@Param("cpfs") Collection<String> cpfs);
+
     @Query("SELECT p FROM PatientEntity p WHERE p.phoneNumber = :phone OR p.emergencyContactPhone = :phone")
     List<PatientEntity> findByPhoneNumber(@Param("phone") String phone);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PatientEntity p ORDER BY p.createdAt, p.id")
+    Stream<PatientEntity> streamAllOrderByCreatedAt();
 }
@@ -27,4 +27,17 @@ public interface UserJpaRepository extends JpaRepository<UserEntity, String> {
 
     @Query("SELECT u FROM UserEntity u WHERE u.role = :role AND u.active = true AND LOWER(u.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<UserEntity> findByRoleAndNameContaining(@Param("role") ProfessionalRole role, @Param("name") String name);
-}
\ No newline at end of file
+
+    @Query("SELECT u.tokenVersion FROM UserEntity u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") String id);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM UserEntity u")
+    List<TokenVersionView> findAllTokenVersions();
+
+    interface TokenVersionView {
+
+        String getId();
+
+        Integer getTokenVersion();
+    }
+}
@@ -0,0 +1,18 @@
+-- Uploads em partes (retomáveis): a sessão guarda quanto do arquivo já chegou. Os bytes ficam em
+-- <upload>/.staging/sessions/<ID>.part até o commit; sessões sem atividade expiram em EXPIRES_AT.
+CREATE TABLE UPLOAD_SESSIONS
+(
+    ID                UUID PRIMARY KEY NOT NULL,
+    MEDICAL_RECORD_ID UUID             NOT NULL REFERENCES MEDICAL_RECORDS (ID) ON DELETE CASCADE,
+    UPLOADED_BY       UUID             NOT NULL REFERENCES USERS (ID) ON DELETE CASCADE,
+    FILE_NAME         VARCHAR(255)     NOT NULL,
+    CONTENT_TYPE      VARCHAR(100)     NOT NULL,
+    DESCRIPTION       TEXT,
+    TOTAL_SIZE        BIGINT           NOT NULL,
+    RECEIVED_SIZE     BIGINT           NOT NULL DEFAULT 0,
+    NEXT_CHUNK        INTEGER          NOT NULL DEFAULT 0,
+    CREATED_AT        TIMESTAMP        NOT NULL,
+    EXPIRES_AT        TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX IDX_UPLOAD_SESSIONS_EXPIRES_AT ON UPLOAD_SESSIONS (EXPIRES_AT);
@@ -0,0 +1,13 @@
+-- Cursor da conciliação entre o diretório de uploads e os anexos (OrphanFileReconciler): LAST_PATH é o último
+-- arquivo verificado, para a varredura continuar de onde parou depois de um restart; NULL com
+-- PASS_COMPLETED_AT preenchido indica varredura concluída.
+CREATE TABLE UPLOAD_RECONCILIATION
+(
+    NAME              VARCHAR(64) PRIMARY KEY NOT NULL,
+    LAST_PATH         VARCHAR(1024),
+    PASS_COMPLETED_AT TIMESTAMP,
+    UPDATED_AT        TIMESTAMP               NOT NULL
+);
+
+-- A conciliação consulta os anexos por lotes de FILE_PATH
+CREATE INDEX IF NOT EXISTS IDX_FILE_ATTACHMENTS_FILE_PATH ON FILE_ATTACHMENTS (FILE_PATH);
@@ -0,0 +1,4 @@
+-- REF_COUNT só era incrementado (nenhum fluxo remove anexo) e o rollback de um upload já o desfazia; as
+-- referências reais são os FILE_ATTACHMENTS com FILE_PATH = SHA256, que a conciliação já consulta.
+ALTER TABLE FILE_CONTENTS
+    DROP COLUMN REF_COUNT;
@@ -0,0 +1,5 @@
+-- A conciliação procura anexos antigos pelo nome do arquivo (<dir>/<uuid>.<ext>, com o dir da época): índice na
+-- mesma expressão e com o mesmo filtro de UploadReconciliationRepositoryImpl, só sobre os caminhos antigos
+CREATE INDEX IF NOT EXISTS IDX_FILE_ATTACHMENTS_LEGACY_NAME
+    ON FILE_ATTACHMENTS ((substring(FILE_PATH FROM '[^/]+$')))
+    WHERE FILE_PATH !~ '^[0-9a-f]{64}$';
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS IDX_PATIENTS_CREATED_AT_ID ON PATIENTS (CREATED_AT, ID);
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; o wrapper IMMUTABLE permite usá-lo em índice de expressão
+CREATE OR REPLACE FUNCTION IMMUTABLE_UNACCENT(TEXT) RETURNS TEXT AS
+$$
+SELECT public.unaccent('public.unaccent', $1)
+$$ LANGUAGE SQL IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE INDEX IF NOT EXISTS IDX_PATIENTS_FULL_NAME_TRGM
+    ON PATIENTS USING GIN (IMMUTABLE_UNACCENT(LOWER(FULL_NAME)) gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- Índices alinhados aos formatos das consultas de MedicalRecordJpaRepository, AppointmentJpaRepository,
+-- FileAttachmentJpaRepository e PatientJpaRepository (filtro de igualdade primeiro, ordenação/intervalo depois)
+
+CREATE INDEX IF NOT EXISTS IDX_MEDICAL_RECORDS_PATIENT_CONSULTATION
+    ON MEDICAL_RECORDS (PATIENT_ID, CONSULTATION_DATE DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_MEDICAL_RECORDS_PROFESSIONAL_CONSULTATION
+    ON MEDICAL_RECORDS (HEALTHCARE_PROFESSIONAL_ID, CONSULTATION_DATE DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_MEDICAL_RECORDS_CONSULTATION_DATE
+    ON MEDICAL_RECORDS (CONSULTATION_DATE);
+
+CREATE INDEX IF NOT EXISTS IDX_APPOINTMENTS_PROFESSIONAL_SCHEDULED
+    ON APPOINTMENTS (HEALTHCARE_PROFESSIONAL_ID, SCHEDULED_DATE_TIME);
+
+CREATE INDEX IF NOT EXISTS IDX_APPOINTMENTS_STATUS_SCHEDULED
+    ON APPOINTMENTS (STATUS, SCHEDULED_DATE_TIME);
+
+CREATE INDEX IF NOT EXISTS IDX_APPOINTMENTS_PATIENT_SCHEDULED
+    ON APPOINTMENTS (PATIENT_ID, SCHEDULED_DATE_TIME DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_FILE_ATTACHMENTS_MEDICAL_RECORD_UPLOADED
+    ON FILE_ATTACHMENTS (MEDICAL_RECORD_ID, UPLOADED_AT DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_FILE_ATTACHMENTS_FILE_TYPE
+    ON FILE_ATTACHMENTS (FILE_TYPE);
+
+CREATE INDEX IF NOT EXISTS IDX_PATIENTS_PHONE_NUMBER
+    ON PATIENTS (PHONE_NUMBER);
+
+CREATE INDEX IF NOT EXISTS IDX_PATIENTS_EMERGENCY_CONTACT_PHONE
+    ON PATIENTS (EMERGENCY_CONTACT_PHONE);
@@ -0,0 +1,74 @@
+-- Chaves primárias e estrangeiras de VARCHAR(36) para UUID nativo (16 bytes): índices de PK/FK menores e
+-- comparação binária em vez de texto. A API continua expondo as chaves como string.
+
+-- Os IDs do seed da V2 não são UUIDs válidos (contêm letras fora de 0-f); eles recebem um UUID derivado do
+-- md5 do valor original. A função é determinística, então PKs e FKs convertidas apontam para o mesmo registro.
+CREATE FUNCTION LEGACY_ID_TO_UUID(ID TEXT) RETURNS UUID AS
+$$
+SELECT CASE
+           WHEN ID ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$' THEN ID::UUID
+           ELSE MD5(ID)::UUID
+           END
+$$ LANGUAGE SQL IMMUTABLE STRICT;
+
+-- As FKs precisam sair antes da troca de tipo. Busca pelo catálogo porque, além das criadas na V1, o
+-- ddl-auto=update do Hibernate pode ter criado constraints com nomes gerados.
+DO
+$$
+    DECLARE
+        FK RECORD;
+    BEGIN
+        FOR FK IN SELECT CONRELID::REGCLASS AS TABLE_NAME, CONNAME
+                  FROM PG_CONSTRAINT
+                  WHERE CONTYPE = 'f'
+                    AND CONRELID IN ('APPOINTMENTS'::REGCLASS, 'MEDICAL_RECORDS'::REGCLASS,
+                                     'FILE_ATTACHMENTS'::REGCLASS)
+            LOOP
+                EXECUTE FORMAT('ALTER TABLE %s DROP CONSTRAINT %I', FK.TABLE_NAME, FK.CONNAME);
+            END LOOP;
+    END
+$$;
+
+ALTER TABLE PATIENTS
+    ALTER COLUMN ID TYPE UUID USING LEGACY_ID_TO_UUID(ID);
+
+ALTER TABLE USERS
+    ALTER COLUMN ID TYPE UUID USING LEGACY_ID_TO_UUID(ID);
+
+ALTER TABLE APPOINTMENTS
+    ALTER COLUMN ID TYPE UUID USING LEGACY_ID_TO_UUID(ID),
+    ALTER COLUMN PATIENT_ID TYPE UUID USING LEGACY_ID_TO_UUID(PATIENT_ID),
+    ALTER COLUMN HEALTHCARE_PROFESSIONAL_ID TYPE UUID USING LEGACY_ID_TO_UUID(HEALTHCARE_PROFESSIONAL_ID);
+
+ALTER TABLE MEDICAL_RECORDS
+    ALTER COLUMN ID TYPE UUID USING LEGACY_ID_TO_UUID(ID),
+    ALTER COLUMN PATIENT_ID TYPE UUID USING LEGACY_ID_TO_UUID(PATIENT_ID),
+    ALTER COLUMN HEALTHCARE_PROFESSIONAL_ID TYPE UUID USING LEGACY_ID_TO_UUID(HEALTHCARE_PROFESSIONAL_ID),
+    ALTER COLUMN APPOINTMENT_ID TYPE UUID USING LEGACY_ID_TO_UUID(APPOINTMENT_ID);
+
+ALTER TABLE FILE_ATTACHMENTS
+    ALTER COLUMN ID TYPE UUID USING LEGACY_ID_TO_UUID(ID),
+    ALTER COLUMN MEDICAL_RECORD_ID TYPE UUID USING LEGACY_ID_TO_UUID(MEDICAL_RECORD_ID),
+    ALTER COLUMN UPLOADED_BY TYPE UUID USING LEGACY_ID_TO_UUID(UPLOADED_BY);
+
+ALTER TABLE APPOINTMENTS
+    ADD CONSTRAINT APPOINTMENTS_PATIENT_ID_FKEY
+        FOREIGN KEY (PATIENT_ID) REFERENCES PATIENTS (ID),
+    ADD CONSTRAINT APPOINTMENTS_HEALTHCARE_PROFESSIONAL_ID_FKEY
+        FOREIGN KEY (HEALTHCARE_PROFESSIONAL_ID) REFERENCES USERS (ID);
+
+ALTER TABLE MEDICAL_RECORDS
+    ADD CONSTRAINT MEDICAL_RECORDS_PATIENT_ID_FKEY
+        FOREIGN KEY (PATIENT_ID) REFERENCES PATIENTS (ID),
+    ADD CONSTRAINT MEDICAL_RECORDS_HEALTHCARE_PROFESSIONAL_ID_FKEY
+        FOREIGN KEY (HEALTHCARE_PROFESSIONAL_ID) REFERENCES USERS (ID),
+    ADD CONSTRAINT MEDICAL_RECORDS_APPOINTMENT_ID_FKEY
+        FOREIGN KEY (APPOINTMENT_ID) REFERENCES APPOINTMENTS (ID);
+
+ALTER TABLE FILE_ATTACHMENTS
+    ADD CONSTRAINT FILE_ATTACHMENTS_MEDICAL_RECORD_ID_FKEY
+        FOREIGN KEY (MEDICAL_RECORD_ID) REFERENCES MEDICAL_RECORDS (ID),
+    ADD CONSTRAINT FILE_ATTACHMENTS_UPLOADED_BY_FKEY
+        FOREIGN KEY (UPLOADED_BY) REFERENCES USERS (ID);
+
+DROP FUNCTION LEGACY_ID_TO_UUID(TEXT);
@@ -0,0 +1,19 @@
+-- Versão dos tokens do usuário, levada como claim no JWT. Ao mudar role ou active a versão sobe e os tokens
+-- emitidos antes deixam de valer, inclusive quando a alteração é feita direto no banco.
+ALTER TABLE USERS
+    ADD COLUMN TOKEN_VERSION INTEGER NOT NULL DEFAULT 0;
+
+CREATE FUNCTION BUMP_USER_TOKEN_VERSION() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.TOKEN_VERSION := OLD.TOKEN_VERSION + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE PLPGSQL;
+
+CREATE TRIGGER USERS_TOKEN_VERSION
+    BEFORE UPDATE OF ROLE, ACTIVE
+    ON USERS
+    FOR EACH ROW
+    WHEN (OLD.ROLE IS DISTINCT FROM NEW.ROLE OR OLD.ACTIVE IS DISTINCT FROM NEW.ACTIVE)
+EXECUTE FUNCTION BUMP_USER_TOKEN_VERSION();
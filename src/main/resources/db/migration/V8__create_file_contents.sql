@@ -0,0 +1,9 @@
+-- Conteúdo dos anexos endereçado pelo SHA-256: cada arquivo distinto é gravado uma vez em disco e
+-- FILE_ATTACHMENTS.FILE_PATH guarda o hash. REF_COUNT conta quantos anexos apontam para o conteúdo.
+CREATE TABLE FILE_CONTENTS
+(
+    SHA256     CHAR(64) PRIMARY KEY NOT NULL,
+    SIZE       BIGINT               NOT NULL,
+    REF_COUNT  INTEGER              NOT NULL,
+    CREATED_AT TIMESTAMP            NOT NULL
+);
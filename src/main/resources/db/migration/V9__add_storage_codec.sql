@@ -0,0 +1,15 @@
+-- Codec do conteúdo gravado em disco (NONE, DEFLATE, GZIP). Tudo que já existe foi gravado sem compressão.
+-- STORED_SIZE é o tamanho ocupado em disco, para medir o quanto a compressão economiza.
+ALTER TABLE FILE_CONTENTS
+    ADD COLUMN CODEC       VARCHAR(16) NOT NULL DEFAULT 'NONE',
+    ADD COLUMN STORED_SIZE BIGINT;
+
+UPDATE FILE_CONTENTS
+SET STORED_SIZE = SIZE;
+
+ALTER TABLE FILE_CONTENTS
+    ALTER COLUMN STORED_SIZE SET NOT NULL;
+
+-- Cópia do codec do conteúdo, para o download não precisar de outra consulta
+ALTER TABLE FILE_ATTACHMENTS
+    ADD COLUMN STORAGE_CODEC VARCHAR(16) NOT NULL DEFAULT 'NONE';
@@ -20,6 +20,7 @@ import com.persou.prontosus.config.mapper.AppointmentMapper;
 import com.persou.prontosus.domain.Appointment;
 import com.persou.prontosus.domain.User;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -121,6 +122,25 @@ class AppointmentControllerTest {
             .andExpect(jsonPath("$[0].id").value(appointment.id()));
     }
 
+    @Test
+    void shouldReturnProfessionalAgendaGroupedByDay() throws Exception {
+        var professionalId = "doctor-id-456";
+        var start = java.time.LocalDate.of(2025, 7, 21);
+        var appointment = createAppointment();
+
+        Mockito.when(findAppointmentUseCase.findAgenda(professionalId, start, 2))
+            .thenReturn(Map.of(start, List.of(appointment), start.plusDays(1), List.of()));
+        Mockito.when(appointmentMapper.toResponse(any(Appointment.class)))
+            .thenReturn(createAppointmentResponse(appointment));
+
+        mockMvc.perform(get("/appointments/professional/" + professionalId + "/agenda")
+                .param("start", start.toString())
+                .param("days", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['2025-07-21'][0].id").value(appointment.id()))
+            .andExpect(jsonPath("$['2025-07-22']").isEmpty());
+    }
+
     @Test
     void shouldReturnPatientAppointmentsByStatus() throws Exception {
         var appointment = createAppointment();
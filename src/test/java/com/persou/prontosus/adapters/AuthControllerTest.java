@@ -1,7 +1,11 @@
 package com.persou.prontosus.adapters;
 
+import static com.persou.prontosus.config.MessagesErrorException.AUTHENTICATION_BUSY;
+import static com.persou.prontosus.config.MessagesErrorException.LOGIN_ATTEMPTS_EXCEEDED;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -10,18 +14,25 @@ import com.persou.prontosus.adapters.config.AuthControllerMockConfig;
 import com.persou.prontosus.adapters.config.TestSecurityConfig;
 import com.persou.prontosus.adapters.request.LoginRequest;
 import com.persou.prontosus.application.AuthenticateUserUseCase;
+import com.persou.prontosus.config.exceptions.ServiceUnavailableException;
+import com.persou.prontosus.config.exceptions.TooManyRequestsException;
 import com.persou.prontosus.config.mapper.UserMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.LoginThrottle;
 import com.persou.prontosus.domain.User;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 @WebMvcTest(AuthController.class)
 @Import({TestSecurityConfig.class, AuthControllerMockConfig.class})
@@ -42,6 +53,16 @@ class AuthControllerTest {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    // Os mocks vêm de um @TestConfiguration e são compartilhados pelo contexto: sem reset, stubs e invocações de
+    // um teste vazam para o próximo
+    @BeforeEach
+    void resetMocks() {
+        Mockito.reset(authenticateUserUseCase, jwtService, userMapper, loginThrottle);
+    }
+
     @Test
     void shouldLoginSuccessfully() throws Exception {
         LoginRequest request = new LoginRequest("testuser", "testpassword");
@@ -49,7 +70,7 @@ class AuthControllerTest {
         String token = "mocked-jwt-token";
 
         Mockito.when(authenticateUserUseCase.execute(anyString(), anyString())).thenReturn(Optional.of(user));
-        Mockito.when(jwtService.generateToken(user.username())).thenReturn(token);
+        Mockito.when(jwtService.generateToken(user)).thenReturn(token);
 
         mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -62,6 +83,68 @@ class AuthControllerTest {
             .andExpect(jsonPath("$.user.email").value(user.email()));
     }
 
+    @Test
+    void shouldRecordThrottleFailureOnFailedLogin() throws Exception {
+        LoginRequest request = new LoginRequest("testuser", "wrongpassword");
+        var reservation = new LoginThrottle.Reservation("testuser|10.0.0.7", "10.0.0.7", 1L);
+
+        Mockito.when(loginThrottle.reserve("testuser", "10.0.0.7")).thenReturn(reservation);
+        Mockito.when(authenticateUserUseCase.execute("testuser", "wrongpassword")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .with(remoteAddr("10.0.0.7")))
+            .andExpect(status().isNotFound());
+
+        Mockito.verify(loginThrottle).recordFailure(reservation);
+        Mockito.verify(loginThrottle, Mockito.never()).recordSuccess(any());
+        Mockito.verify(loginThrottle, Mockito.never()).release(any());
+    }
+
+    @Test
+    void shouldReleaseThrottleReservationWhenAuthenticationFailsForOtherReasons() throws Exception {
+        LoginRequest request = new LoginRequest("testuser", "testpassword");
+        var reservation = new LoginThrottle.Reservation("testuser|10.0.0.9", "10.0.0.9", 1L);
+
+        Mockito.when(loginThrottle.reserve("testuser", "10.0.0.9")).thenReturn(reservation);
+        Mockito.when(authenticateUserUseCase.execute("testuser", "testpassword"))
+            .thenThrow(new ServiceUnavailableException(AUTHENTICATION_BUSY));
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .with(remoteAddr("10.0.0.9")))
+            .andExpect(status().isServiceUnavailable());
+
+        Mockito.verify(loginThrottle).release(reservation);
+    }
+
+    @Test
+    void shouldRejectThrottledLoginBeforeAuthenticating() throws Exception {
+        LoginRequest request = new LoginRequest("testuser", "testpassword");
+
+        Mockito.doThrow(new TooManyRequestsException(LOGIN_ATTEMPTS_EXCEEDED, Duration.ofMillis(89_500)))
+            .when(loginThrottle).reserve("testuser", "10.0.0.8");
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .with(remoteAddr("10.0.0.8")))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "90"))
+            .andExpect(jsonPath("$.message").value(LOGIN_ATTEMPTS_EXCEEDED));
+
+        Mockito.verify(authenticateUserUseCase, Mockito.never()).execute("testuser", "testpassword");
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
     private User createUser() {
         return User.builder()
             .id("user-id-123")
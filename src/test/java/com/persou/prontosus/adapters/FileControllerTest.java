@@ -1,26 +1,54 @@
 package com.persou.prontosus.adapters;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.persou.prontosus.adapters.config.FileControllerMockConfig;
 import com.persou.prontosus.adapters.config.TestSecurityConfig;
 import com.persou.prontosus.adapters.response.FileAttachmentResponse;
+import com.persou.prontosus.application.ChunkedUploadUseCase;
+import com.persou.prontosus.application.DeduplicateUploadsUseCase;
+import com.persou.prontosus.application.DownloadAttachmentUseCase;
 import com.persou.prontosus.application.UploadExamFileUseCase;
+import com.persou.prontosus.config.exceptions.ConflictException;
+import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
 import com.persou.prontosus.config.mapper.FileAttachmentMapper;
 import com.persou.prontosus.config.security.JwtService;
 import com.persou.prontosus.domain.FileAttachment;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.domain.valueobject.AttachmentContent;
+import com.persou.prontosus.domain.valueobject.UploadDeduplicationResult;
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import com.persou.prontosus.gateway.UserRepository;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -28,6 +56,8 @@ import org.springframework.test.web.servlet.MockMvc;
 @Import({TestSecurityConfig.class, FileControllerMockConfig.class})
 class FileControllerTest {
 
+    private static final String ETAG = "\"6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72\"";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -37,9 +67,24 @@ class FileControllerTest {
     @Autowired
     private FileAttachmentMapper fileAttachmentMapper;
 
+    @Autowired
+    private DeduplicateUploadsUseCase deduplicateUploadsUseCase;
+
+    @Autowired
+    private DownloadAttachmentUseCase downloadAttachmentUseCase;
+
+    @Autowired
+    private ChunkedUploadUseCase chunkedUploadUseCase;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private JwtService jwtService;
 
+    @TempDir
+    private Path tempDir;
+
 
 
     @Test
@@ -56,6 +101,259 @@ class FileControllerTest {
             .andExpect(jsonPath("$[0].id").value("file-id-456"));
     }
 
+    @Test
+    void deduplicateUploads_deveRetornarEspacoLiberado() throws Exception {
+        Mockito.when(deduplicateUploadsUseCase.execute())
+            .thenReturn(new UploadDeduplicationResult(10, 9, 4, 1, 0, 4_194_304, Duration.ofMillis(250)));
+
+        mockMvc.perform(post("/files/maintenance/deduplicate"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.attachmentsMigrated").value(9))
+            .andExpect(jsonPath("$.duplicatesRemoved").value(4))
+            .andExpect(jsonPath("$.bytesSaved").value(4_194_304))
+            .andExpect(jsonPath("$.elapsedMillis").value(250));
+    }
+
+    @Test
+    void download_deveEnviarArquivoInteiroComEtag() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("inline")))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void download_deveEnviarSomenteOTrechoPedido() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("789"));
+    }
+
+    @Test
+    void download_deveIgnorarRangeQuandoIfRangeNaoConfere() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download")
+                .header(HttpHeaders.RANGE, "bytes=2-5")
+                .header(HttpHeaders.IF_RANGE, "\"outro\""))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void download_deveResponder416ParaTrechoForaDoArquivo() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.RANGE, "bytes=20-30"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void download_deveIgnorarRangeMalformado() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.RANGE, "bytes=abc"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void download_deveResponder304QuandoEtagConfere() throws Exception {
+        mockDownload("0123456789", "image/png");
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void download_deveForcarDownloadDeTipoNaoExibivel() throws Exception {
+        mockDownload("<script></script>", "text/html");
+
+        mockMvc.perform(get("/files/file-id-456/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("attachment")))
+            .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+            .andExpect(header().string("Content-Security-Policy", "sandbox"));
+    }
+
+    @Test
+    void download_deveForcarDownloadDeSvg() throws Exception {
+        mockDownload("<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>", "image/svg+xml");
+
+        mockMvc.perform(get("/files/file-id-456/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("attachment")))
+            .andExpect(header().string("Content-Security-Policy", "sandbox"));
+    }
+
+    @Test
+    void download_deveDescomprimirTrechoDeConteudoComprimido() throws Exception {
+        Path file = tempDir.resolve("comprimido");
+        try (OutputStream out = StorageCodec.DEFLATE.encode(Files.newOutputStream(file))) {
+            out.write("0123456789".getBytes(StandardCharsets.UTF_8));
+        }
+        var attachment = new AttachmentContent("exame.csv", "text/csv", file, 10, ETAG, StorageCodec.DEFLATE);
+        Mockito.when(downloadAttachmentUseCase.execute("file-id-456")).thenReturn(attachment);
+        Mockito.when(downloadAttachmentUseCase.open(attachment))
+            .thenAnswer(invocation -> StorageCodec.DEFLATE.decode(Files.newInputStream(file)));
+
+        mockMvc.perform(get("/files/file-id-456/download").header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void thumbnail_deveServirMiniaturaComEtag() throws Exception {
+        Path file = Files.write(tempDir.resolve("miniatura"), new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+        Mockito.when(downloadAttachmentUseCase.thumbnail("file-id-456")).thenReturn(new AttachmentContent(
+            "miniatura-raio-x.png.jpg", "image/jpeg", file, 3, "\"thumb\"", StorageCodec.NONE));
+
+        mockMvc.perform(get("/files/file-id-456/thumbnail"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"thumb\""))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("inline")));
+    }
+
+    @Test
+    void thumbnail_deveResponder404EnquantoNaoGerada() throws Exception {
+        Mockito.when(downloadAttachmentUseCase.thumbnail("file-id-456"))
+            .thenThrow(new ResourceNotFoundException("Miniatura ainda não gerada"));
+
+        mockMvc.perform(get("/files/file-id-456/thumbnail"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void startUpload_deveCriarSessao() throws Exception {
+        User user = mockCurrentUser();
+        Mockito.when(chunkedUploadUseCase.maxChunkSize()).thenReturn(8_388_608L);
+        Mockito.when(chunkedUploadUseCase.start("rec-1", "tomografia.dcm", "application/octet-stream",
+                300_000_000L, "TC de crânio", user))
+            .thenReturn(createUploadSession(0, 0));
+
+        mockMvc.perform(post("/files/medical-record/rec-1/uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"fileName":"tomografia.dcm","contentType":"application/octet-stream",
+                     "totalSize":300000000,"description":"TC de crânio"}
+                    """))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value("upload-1"))
+            .andExpect(jsonPath("$.receivedSize").value(0))
+            .andExpect(jsonPath("$.maxChunkSize").value(8_388_608));
+    }
+
+    @Test
+    void startUpload_deveValidarTamanho() throws Exception {
+        mockMvc.perform(post("/files/medical-record/rec-1/uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fileName\":\"tomografia.dcm\",\"contentType\":\"application/octet-stream\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void uploadChunk_deveRepassarCorpoCruComOffsetEChecksum() throws Exception {
+        User user = mockCurrentUser();
+        Mockito.when(chunkedUploadUseCase.appendChunk(eq("upload-1"), eq(2), eq(4096L), eq("abc123"), any(),
+                eq(user)))
+            .thenAnswer(invocation -> {
+                byte[] body = invocation.<InputStream>getArgument(4).readAllBytes();
+                return createUploadSession(4096 + body.length, 3);
+            });
+
+        mockMvc.perform(put("/files/uploads/upload-1/chunks/2")
+                .header("Upload-Offset", 4096)
+                .header("X-Chunk-Sha256", "abc123")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[1024]))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.receivedSize").value(5120))
+            .andExpect(jsonPath("$.nextChunk").value(3));
+    }
+
+    @Test
+    void uploadChunk_deveResponder409ForaDeOrdem() throws Exception {
+        User user = mockCurrentUser();
+        Mockito.when(chunkedUploadUseCase.appendChunk(eq("upload-1"), eq(5), eq(0L), eq("abc123"), any(),
+                eq(user)))
+            .thenThrow(new ConflictException("Parte fora de ordem: esperada parte 2 no offset 4096"));
+
+        mockMvc.perform(put("/files/uploads/upload-1/chunks/5")
+                .header("Upload-Offset", 0)
+                .header("X-Chunk-Sha256", "abc123")
+                .content(new byte[16]))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(containsString("esperada parte 2")));
+    }
+
+    @Test
+    void commitUpload_deveAnexarArquivo() throws Exception {
+        User user = mockCurrentUser();
+        FileAttachment attachment = createFileAttachment();
+        Mockito.when(chunkedUploadUseCase.commit("upload-1", "abc123", user)).thenReturn(attachment);
+        Mockito.when(fileAttachmentMapper.toResponse(attachment))
+            .thenReturn(createFileAttachmentResponse(attachment));
+
+        mockMvc.perform(post("/files/uploads/upload-1/commit").param("sha256", "abc123"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value("file-id-456"));
+    }
+
+    @Test
+    void cancelUpload_deveResponder204() throws Exception {
+        User user = mockCurrentUser();
+
+        mockMvc.perform(delete("/files/uploads/upload-1"))
+            .andExpect(status().isNoContent());
+
+        Mockito.verify(chunkedUploadUseCase).cancel("upload-1", user);
+    }
+
+    // Sem autenticação real (TestSecurityConfig libera tudo), a requisição chega como usuário anônimo
+    private User mockCurrentUser() {
+        User user = User.builder().id("user-1").username("anonymousUser").build();
+        Mockito.when(userRepository.findByUsername("anonymousUser")).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private UploadSession createUploadSession(long receivedSize, int nextChunk) {
+        return UploadSession.builder()
+            .id("upload-1")
+            .medicalRecordId("rec-1")
+            .uploadedBy("user-1")
+            .fileName("tomografia.dcm")
+            .contentType("application/octet-stream")
+            .totalSize(300_000_000L)
+            .receivedSize(receivedSize)
+            .nextChunk(nextChunk)
+            .expiresAt(LocalDateTime.now().plusHours(24))
+            .build();
+    }
+
+    private void mockDownload(String body, String contentType) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("conteudo"), body);
+        Mockito.when(downloadAttachmentUseCase.execute("file-id-456"))
+            .thenReturn(new AttachmentContent("exame", contentType, file, Files.size(file), ETAG, StorageCodec.NONE));
+    }
+
     private FileAttachment createFileAttachment() {
         return FileAttachment.builder()
             .id("file-id-456")
@@ -77,6 +375,7 @@ class FileControllerTest {
             attachment.fileType(),
             null,
             LocalDateTime.now(),
+            null,
             null);
     }
 }
@@ -1,28 +1,44 @@
 package com.persou.prontosus.adapters;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.persou.prontosus.adapters.config.PatientControllerMockConfig;
 import com.persou.prontosus.adapters.config.TestSecurityConfig;
+import com.persou.prontosus.adapters.importer.PatientImportReader;
 import com.persou.prontosus.adapters.request.PatientRequest;
 import com.persou.prontosus.adapters.response.PatientResponse;
 import com.persou.prontosus.application.FindPatientUseCase;
+import com.persou.prontosus.application.ImportPatientsUseCase;
 import com.persou.prontosus.application.RegisterPatientUseCase;
 import com.persou.prontosus.application.UpdatePatientUseCase;
 import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.config.security.JwtService;
 import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.domain.valueobject.Address;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import com.persou.prontosus.domain.valueobject.PatientImportResult;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,6 +69,12 @@ class PatientControllerTest {
     @Autowired
     private UpdatePatientUseCase updatePatientUseCase;
 
+    @Autowired
+    private ImportPatientsUseCase importPatientsUseCase;
+
+    @Autowired
+    private PatientImportReader patientImportReader;
+
     @Autowired
     private PatientMapper patientMapper;
 
@@ -83,12 +105,47 @@ class PatientControllerTest {
     @Test
     void shouldReturnAllPatients() throws Exception {
         var patient = createPatient();
-        Mockito.when(findPatientUseCase.findAll()).thenReturn(List.of(patient));
+        Mockito.when(findPatientUseCase.findPage(isNull(), isNull()))
+            .thenReturn(new KeysetPage<>(List.of(patient), null));
         Mockito.when(patientMapper.toResponse(any(Patient.class))).thenReturn(createPatientResponse(patient));
 
         mockMvc.perform(get("/patients"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].id").value(patient.id()));
+            .andExpect(jsonPath("$[0].id").value(patient.id()))
+            .andExpect(header().doesNotExist(PatientController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldReturnNextCursorHeaderWhenMorePatientsExist() throws Exception {
+        var patient = createPatient();
+        var nextCursor = new PageCursor(patient.createdAt(), patient.id());
+        Mockito.when(findPatientUseCase.findPage("abc", 1))
+            .thenReturn(new KeysetPage<>(List.of(patient), nextCursor));
+        Mockito.when(patientMapper.toResponse(any(Patient.class))).thenReturn(createPatientResponse(patient));
+
+        mockMvc.perform(get("/patients").param("cursor", "abc").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(patient.id()))
+            .andExpect(header().string(PatientController.NEXT_CURSOR_HEADER, nextCursor.encode()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamPatientsAsNdjson() throws Exception {
+        var patient = createPatient();
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<Patient>>getArgument(0).accept(patient);
+            return null;
+        }).when(findPatientUseCase).streamAll(any(Consumer.class));
+        Mockito.when(patientMapper.toResponse(any(Patient.class))).thenReturn(createPatientResponse(patient));
+
+        var result = mockMvc.perform(get("/patients/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"id\":\"" + patient.id() + "\"")));
     }
 
     @Test
@@ -116,10 +173,10 @@ class PatientControllerTest {
     @Test
     void shouldReturnPatientsByName() throws Exception {
         var patient = createPatient();
-        Mockito.when(findPatientUseCase.findByName(patient.fullName())).thenReturn(List.of(patient));
+        Mockito.when(findPatientUseCase.searchByName(patient.fullName(), 5)).thenReturn(List.of(patient));
         Mockito.when(patientMapper.toResponse(any(Patient.class))).thenReturn(createPatientResponse(patient));
 
-        mockMvc.perform(get("/patients/search").param("name", patient.fullName()))
+        mockMvc.perform(get("/patients/search").param("name", patient.fullName()).param("limit", "5"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].fullName").value(patient.fullName()));
     }
@@ -142,6 +199,31 @@ class PatientControllerTest {
             .andExpect(jsonPath("$.id").value(patient.id()));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportPatientsFromCsv() throws Exception {
+        Iterator<PatientImportRow> rows = Mockito.mock(Iterator.class);
+        // O MockMvc acrescenta ;charset=UTF-8 ao Content-Type
+        Mockito.when(patientImportReader.read(any(InputStream.class),
+                Mockito.argThat(PatientImportReader.TEXT_CSV::isCompatibleWith)))
+            .thenReturn(rows);
+        Mockito.when(importPatientsUseCase.execute(rows)).thenReturn(new PatientImportResult(3, 2,
+            List.of(new PatientImportResult.RowError(2, "123", "cpf: CPF deve conter 11 dígitos")),
+            Duration.ofMillis(1500)));
+
+        mockMvc.perform(post("/patients/import")
+                .contentType(PatientImportReader.TEXT_CSV)
+                .content("cpf,fullName,birthDate,gender\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalRows").value(3))
+            .andExpect(jsonPath("$.importedRows").value(2))
+            .andExpect(jsonPath("$.rejectedRows").value(1))
+            .andExpect(jsonPath("$.elapsedMillis").value(1500))
+            .andExpect(jsonPath("$.rowsPerSecond").value(2.0))
+            .andExpect(jsonPath("$.errors[0].row").value(2))
+            .andExpect(jsonPath("$.errors[0].cpf").value("123"));
+    }
+
     private PatientRequest createValidPatientRequest() {
         return new PatientRequest(
             "12345678901",
@@ -5,6 +5,8 @@ import com.persou.prontosus.application.FindAppointmentUseCase;
 import com.persou.prontosus.application.UpdateAppointmentUseCase;
 import com.persou.prontosus.config.mapper.AppointmentMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.TokenVersionRegistry;
+import com.persou.prontosus.config.security.UserDetailsCache;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -37,4 +39,14 @@ public class AppointmentControllerMockConfig {
         return Mockito.mock(JwtService.class);
     }
 
+    @Bean
+    public UserDetailsCache userDetailsCache() {
+        return Mockito.mock(UserDetailsCache.class);
+    }
+
+    @Bean
+    public TokenVersionRegistry tokenVersionRegistry() {
+        return Mockito.mock(TokenVersionRegistry.class);
+    }
+
 }
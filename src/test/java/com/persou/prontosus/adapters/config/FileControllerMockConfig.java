@@ -1,8 +1,13 @@
 package com.persou.prontosus.adapters.config;
 
+import com.persou.prontosus.application.ChunkedUploadUseCase;
+import com.persou.prontosus.application.DeduplicateUploadsUseCase;
+import com.persou.prontosus.application.DownloadAttachmentUseCase;
 import com.persou.prontosus.application.UploadExamFileUseCase;
 import com.persou.prontosus.config.mapper.FileAttachmentMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.TokenVersionRegistry;
+import com.persou.prontosus.config.security.UserDetailsCache;
 import com.persou.prontosus.gateway.UserRepository;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -16,10 +21,30 @@ public class FileControllerMockConfig {
         return Mockito.mock(JwtService.class);
     }
     @Bean
+    public UserDetailsCache userDetailsCache() {
+        return Mockito.mock(UserDetailsCache.class);
+    }
+    @Bean
+    public TokenVersionRegistry tokenVersionRegistry() {
+        return Mockito.mock(TokenVersionRegistry.class);
+    }
+    @Bean
     public UploadExamFileUseCase uploadExamFileUseCase() {
         return Mockito.mock(UploadExamFileUseCase.class);
     }
     @Bean
+    public ChunkedUploadUseCase chunkedUploadUseCase() {
+        return Mockito.mock(ChunkedUploadUseCase.class);
+    }
+    @Bean
+    public DeduplicateUploadsUseCase deduplicateUploadsUseCase() {
+        return Mockito.mock(DeduplicateUploadsUseCase.class);
+    }
+    @Bean
+    public DownloadAttachmentUseCase downloadAttachmentUseCase() {
+        return Mockito.mock(DownloadAttachmentUseCase.class);
+    }
+    @Bean
     public FileAttachmentMapper fileAttachmentMapper() {
         return Mockito.mock(FileAttachmentMapper.class);
     }
@@ -5,6 +5,8 @@ import com.persou.prontosus.application.UpdateMedicalRecordUseCase;
 import com.persou.prontosus.application.ViewMedicalHistoryUseCase;
 import com.persou.prontosus.config.mapper.MedicalRecordMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.TokenVersionRegistry;
+import com.persou.prontosus.config.security.UserDetailsCache;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -17,6 +19,16 @@ public class MedicalRecordControllerMockConfig {
         return Mockito.mock(JwtService.class);
     }
 
+    @Bean
+    public UserDetailsCache userDetailsCache() {
+        return Mockito.mock(UserDetailsCache.class);
+    }
+
+    @Bean
+    public TokenVersionRegistry tokenVersionRegistry() {
+        return Mockito.mock(TokenVersionRegistry.class);
+    }
+
     @Bean
     public MedicalRecordMapper medicalRecordMapper() {
         return Mockito.mock(MedicalRecordMapper.class);
@@ -1,10 +1,14 @@
 package com.persou.prontosus.adapters.config;
 
+import com.persou.prontosus.adapters.importer.PatientImportReader;
 import com.persou.prontosus.application.FindPatientUseCase;
+import com.persou.prontosus.application.ImportPatientsUseCase;
 import com.persou.prontosus.application.RegisterPatientUseCase;
 import com.persou.prontosus.application.UpdatePatientUseCase;
 import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.TokenVersionRegistry;
+import com.persou.prontosus.config.security.UserDetailsCache;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +22,16 @@ public class PatientControllerMockConfig {
         return Mockito.mock(JwtService.class);
     }
 
+    @Bean
+    public UserDetailsCache userDetailsCache() {
+        return Mockito.mock(UserDetailsCache.class);
+    }
+
+    @Bean
+    public TokenVersionRegistry tokenVersionRegistry() {
+        return Mockito.mock(TokenVersionRegistry.class);
+    }
+
     @Bean
     public FindPatientUseCase findPatientUseCase() {
         return Mockito.mock(FindPatientUseCase.class);
@@ -33,6 +47,16 @@ public class PatientControllerMockConfig {
         return Mockito.mock(UpdatePatientUseCase.class);
     }
 
+    @Bean
+    public ImportPatientsUseCase importPatientsUseCase() {
+        return Mockito.mock(ImportPatientsUseCase.class);
+    }
+
+    @Bean
+    public PatientImportReader patientImportReader() {
+        return Mockito.mock(PatientImportReader.class);
+    }
+
     @Bean
     public PatientMapper patientMapper() {
         return Mockito.mock(PatientMapper.class);
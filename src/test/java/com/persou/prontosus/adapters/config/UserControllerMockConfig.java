@@ -3,6 +3,8 @@ package com.persou.prontosus.adapters.config;
 import com.persou.prontosus.application.RegisterUserUseCase;
 import com.persou.prontosus.config.mapper.UserMapper;
 import com.persou.prontosus.config.security.JwtService;
+import com.persou.prontosus.config.security.TokenVersionRegistry;
+import com.persou.prontosus.config.security.UserDetailsCache;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -15,6 +17,16 @@ public class UserControllerMockConfig {
         return Mockito.mock(JwtService.class);
     }
 
+    @Bean
+    public UserDetailsCache userDetailsCache() {
+        return Mockito.mock(UserDetailsCache.class);
+    }
+
+    @Bean
+    public TokenVersionRegistry tokenVersionRegistry() {
+        return Mockito.mock(TokenVersionRegistry.class);
+    }
+
     @Bean
     public RegisterUserUseCase registerUserUseCase() {
         return Mockito.mock(RegisterUserUseCase.class);
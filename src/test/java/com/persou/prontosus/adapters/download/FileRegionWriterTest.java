@@ -0,0 +1,125 @@
+package com.persou.prontosus.adapters.download;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileRegionWriterTest {
+
+    private static final int BENCHMARK_FILE_SIZE = 64 * 1024 * 1024;
+    private static final int BENCHMARK_ROUNDS = 8;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldTransferOnlyTheRequestedRegion() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("exame"), "0123456789");
+        var out = new ByteArrayOutputStream();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long sent = FileRegionWriter.transfer(channel, 3, 4, Channels.newChannel(out));
+
+            assertThat(sent).isEqualTo(4);
+        }
+        assertThat(out.toString()).isEqualTo("3456");
+    }
+
+    @Test
+    void shouldHandOffToTomcatSendfileWhenAvailable() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("exame"), "0123456789");
+        var request = new MockHttpServletRequest();
+        request.setAttribute(FileRegionWriter.SENDFILE_SUPPORT, Boolean.TRUE);
+        var response = new MockHttpServletResponse();
+
+        FileRegionWriter.write(request, response, file, 2, 5);
+
+        assertThat(request.getAttribute(FileRegionWriter.SENDFILE_FILENAME))
+            .isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute(FileRegionWriter.SENDFILE_START)).isEqualTo(2L);
+        assertThat(request.getAttribute(FileRegionWriter.SENDFILE_END)).isEqualTo(7L);
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    // MB/s servidos de um arquivo de 64 MB: transferTo contra a cópia por InputStream (buffer no heap) que o
+    // ResourceHttpMessageConverter faria. O destino descarta os bytes, então o número mede só o caminho de envio.
+    // Tempo de parede: roda só com -Pbenchmark.
+    @Tag("benchmark")
+    @Test
+    void shouldMeasureDownloadThroughput() throws IOException {
+        Path file = tempDir.resolve("imagem.dcm");
+        byte[] block = new byte[1024 * 1024];
+        new Random(42).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < BENCHMARK_FILE_SIZE / block.length; i++) {
+                out.write(block);
+            }
+        }
+
+        double transferTo = megabytesPerSecond(() -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return FileRegionWriter.transfer(channel, 0, BENCHMARK_FILE_SIZE, new DiscardingChannel());
+            }
+        });
+        double heapCopy = megabytesPerSecond(() -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                return in.transferTo(OutputStream.nullOutputStream());
+            }
+        });
+
+        assertThat(transferTo)
+            .as("MB/s com transferTo; a cópia pelo heap fez %.0f MB/s", heapCopy)
+            .isPositive();
+    }
+
+    private static double megabytesPerSecond(Transfer transfer) throws IOException {
+        transfer.run();
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+            bytes += transfer.run();
+        }
+        return bytes / (1024.0 * 1024.0) / ((System.nanoTime() - start) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface Transfer {
+        long run() throws IOException;
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
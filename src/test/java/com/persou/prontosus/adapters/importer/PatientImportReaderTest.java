@@ -0,0 +1,106 @@
+package com.persou.prontosus.adapters.importer;
+
+import static com.persou.prontosus.config.MessagesErrorException.INVALID_BIRTH_DATE;
+import static com.persou.prontosus.config.MessagesErrorException.INVALID_GENDER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class PatientImportReaderTest {
+
+    private PatientImportReader patientImportReader;
+
+    @BeforeEach
+    void setUp() {
+        patientImportReader = new PatientImportReader(new ObjectMapper().findAndRegisterModules(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void shouldReadCsvRowsByHeader() throws IOException {
+        String csv = """
+            cpf,fullName,birthDate,gender,phoneNumber,city,state
+            12345678901,Maria da Silva,1985-03-10,female,11987654321,São Paulo,SP
+            98765432100,"Souza, João",1990-07-01,MALE,,,
+            """;
+
+        List<PatientImportRow> rows = read(csv, PatientImportReader.TEXT_CSV);
+
+        assertThat(rows).hasSize(2).allMatch(PatientImportRow::isValid);
+        var maria = rows.get(0).patient();
+        assertThat(maria.cpf()).isEqualTo("12345678901");
+        assertThat(maria.birthDate()).isEqualTo(LocalDate.of(1985, 3, 10));
+        assertThat(maria.gender()).isEqualTo("FEMALE");
+        assertThat(maria.address().city()).isEqualTo("São Paulo");
+        var joao = rows.get(1).patient();
+        assertThat(joao.fullName()).isEqualTo("Souza, João");
+        assertThat(joao.phoneNumber()).isNull();
+        assertThat(joao.address()).isNull();
+    }
+
+    @Test
+    void shouldReportInvalidCsvRowsWithoutStoppingTheFile() throws IOException {
+        String csv = """
+            cpf,fullName,birthDate,gender
+            123,Maria da Silva,1985-03-10,FEMALE
+            12345678901,João Souza,10/03/1985,MALE
+            12345678902,Ana Lima,1985-03-10,X
+            12345678903,Paulo Reis,1970-01-01,MALE
+            """;
+
+        List<PatientImportRow> rows = read(csv, PatientImportReader.TEXT_CSV);
+
+        assertThat(rows).extracting(PatientImportRow::row).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(rows.get(0).error()).isEqualTo("cpf: CPF deve conter 11 dígitos");
+        assertThat(rows.get(1).error()).isEqualTo(INVALID_BIRTH_DATE + ": 10/03/1985");
+        assertThat(rows.get(1).cpf()).isEqualTo("12345678901");
+        assertThat(rows.get(2).error()).isEqualTo(INVALID_GENDER + ": X");
+        assertThat(rows.get(3).isValid()).isTrue();
+    }
+
+    @Test
+    void shouldReadNdjsonLinesAndSkipBlankOnes() throws IOException {
+        String ndjson = """
+            {"cpf":"12345678901","fullName":"Maria da Silva","birthDate":"1985-03-10","gender":"FEMALE",\
+            "address":{"zipCode":"01001000","city":"São Paulo","state":"SP"}}
+
+            {"cpf":"98765432100","fullName":"João Souza","birthDate":"1990-07-01"
+            {"cpf":"11122233344","fullName":"Ana Lima","birthDate":"1970-01-01","gender":"OTHER"}
+            """;
+
+        List<PatientImportRow> rows = read(ndjson, MediaType.APPLICATION_NDJSON);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).patient().address().zipCode()).isEqualTo("01001000");
+        assertThat(rows.get(1).isValid()).isFalse();
+        assertThat(rows.get(1).row()).isEqualTo(2);
+        assertThat(rows.get(2).patient().cpf()).isEqualTo("11122233344");
+    }
+
+    @Test
+    void shouldRejectUnsupportedContentType() {
+        assertThrows(IllegalArgumentException.class,
+            () -> patientImportReader.read(new ByteArrayInputStream(new byte[0]), MediaType.APPLICATION_XML));
+    }
+
+    private List<PatientImportRow> read(String content, MediaType contentType) throws IOException {
+        Iterator<PatientImportRow> iterator = patientImportReader.read(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), contentType);
+        List<PatientImportRow> rows = new ArrayList<>();
+        iterator.forEachRemaining(rows::add);
+        return rows;
+    }
+}
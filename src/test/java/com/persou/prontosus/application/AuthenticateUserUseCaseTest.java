@@ -10,16 +10,17 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.persou.prontosus.config.exceptions.ServiceUnavailableException;
+import com.persou.prontosus.config.security.PasswordHasher;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.LastLoginWriter;
 import com.persou.prontosus.gateway.UserRepository;
-import java.time.LocalDateTime;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
 class AuthenticateUserUseCaseTest {
@@ -28,13 +29,16 @@ class AuthenticateUserUseCaseTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private LastLoginWriter lastLoginWriter;
 
     private AuthenticateUserUseCase authenticateUserUseCase;
 
     @BeforeEach
     void setUp() {
-        authenticateUserUseCase = new AuthenticateUserUseCase(userRepository, passwordEncoder);
+        authenticateUserUseCase = new AuthenticateUserUseCase(userRepository, passwordHasher, lastLoginWriter);
     }
 
     @Test
@@ -52,11 +56,8 @@ class AuthenticateUserUseCaseTest {
             .active(true)
             .build();
 
-        User updatedUser = user.withLastLoginAt(LocalDateTime.now());
-
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(password, encodedPassword)).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(passwordHasher.matches(password, encodedPassword)).thenReturn(true);
 
         Optional<User> result = authenticateUserUseCase.execute(username, password);
 
@@ -65,8 +66,9 @@ class AuthenticateUserUseCaseTest {
         assertNotNull(result.get().lastLoginAt());
 
         verify(userRepository).findByUsername(username);
-        verify(passwordEncoder).matches(password, encodedPassword);
-        verify(userRepository).save(any(User.class));
+        verify(passwordHasher).matches(password, encodedPassword);
+        verify(lastLoginWriter).record("1", result.get().lastLoginAt());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -81,7 +83,7 @@ class AuthenticateUserUseCaseTest {
         assertFalse(result.isPresent());
 
         verify(userRepository).findByUsername(username);
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordHasher, never()).matches(anyString(), anyString());
         verify(userRepository, never()).save(any());
     }
 
@@ -99,15 +101,84 @@ class AuthenticateUserUseCaseTest {
             .build();
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(password, encodedPassword)).thenReturn(false);
+        when(passwordHasher.matches(password, encodedPassword)).thenReturn(false);
 
         Optional<User> result = authenticateUserUseCase.execute(username, password);
 
         assertFalse(result.isPresent());
 
         verify(userRepository).findByUsername(username);
-        verify(passwordEncoder).matches(password, encodedPassword);
+        verify(passwordHasher).matches(password, encodedPassword);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRehashPasswordStoredWithLowerCost() {
+        String password = "password123";
+        User user = User.builder()
+            .id("1")
+            .username("testuser")
+            .password("$2a$08$legacy")
+            .active(true)
+            .build();
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(password, "$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.needsRehash("$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.encode(password)).thenReturn("$2a$12$rehashed");
+        when(userRepository.updatePassword(user, "$2a$12$rehashed")).thenReturn(true);
+
+        Optional<User> result = authenticateUserUseCase.execute("testuser", password);
+
+        assertTrue(result.isPresent());
+        assertEquals("$2a$12$rehashed", result.get().password());
+        // O User lido antes do BCrypt nunca é gravado inteiro: active, role e last_login_at ficam como estão
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldKeepStoredPasswordWhenItChangedDuringRehash() {
+        String password = "password123";
+        User user = User.builder()
+            .id("1")
+            .username("testuser")
+            .password("$2a$08$legacy")
+            .active(true)
+            .build();
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(password, "$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.needsRehash("$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.encode(password)).thenReturn("$2a$12$rehashed");
+        when(userRepository.updatePassword(user, "$2a$12$rehashed")).thenReturn(false);
+
+        Optional<User> result = authenticateUserUseCase.execute("testuser", password);
+
+        assertTrue(result.isPresent());
+        assertEquals("$2a$08$legacy", result.get().password());
         verify(userRepository, never()).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldKeepLoginWhenRehashIsRejected() {
+        String password = "password123";
+        User user = User.builder()
+            .id("1")
+            .username("testuser")
+            .password("$2a$08$legacy")
+            .active(true)
+            .build();
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(password, "$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.needsRehash("$2a$08$legacy")).thenReturn(true);
+        when(passwordHasher.encode(password)).thenThrow(new ServiceUnavailableException("ocupado"));
+
+        Optional<User> result = authenticateUserUseCase.execute("testuser", password);
+
+        assertTrue(result.isPresent());
+        assertEquals("$2a$08$legacy", result.get().password());
+        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).updatePassword(any(), anyString());
+    }
+}
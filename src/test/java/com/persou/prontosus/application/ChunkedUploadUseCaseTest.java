@@ -0,0 +1,253 @@
+package com.persou.prontosus.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.config.exceptions.BusinessValidationException;
+import com.persou.prontosus.config.exceptions.ConflictException;
+import com.persou.prontosus.config.exceptions.ResourceNotFoundException;
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.FileAttachment;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.ShardedLayout;
+import com.persou.prontosus.gateway.StorageCodecSelector;
+import com.persou.prontosus.gateway.UploadSessionRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepository;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadUseCaseTest {
+
+    private static final String UPLOAD_ID = "0190a3c2-0000-7000-8000-000000000001";
+    private static final User USER = User.builder().id("user-1").username("medico").build();
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private MedicalRecordJpaRepository medicalRecordJpaRepository;
+
+    @Mock
+    private UploadExamFileUseCase uploadExamFileUseCase;
+
+    @TempDir
+    private Path uploadDir;
+
+    private FileStorage fileStorage;
+    private ChunkedUploadUseCase chunkedUploadUseCase;
+
+    @BeforeEach
+    void setUp() {
+        FileUploadConfig config = new FileUploadConfig();
+        config.getUpload().getChunked().setMaxFileSize(DataSize.ofMegabytes(1));
+        config.getUpload().getChunked().setChunkSize(DataSize.ofBytes(8));
+        fileStorage = new FileStorage(uploadDir, new ShardedLayout(2, 2));
+        chunkedUploadUseCase = new ChunkedUploadUseCase(uploadSessionRepository, medicalRecordJpaRepository,
+            uploadExamFileUseCase, fileStorage, new StorageCodecSelector(config), config);
+    }
+
+    @Test
+    void shouldStartSessionForExistingRecord() {
+        when(medicalRecordJpaRepository.existsById("record-1")).thenReturn(true);
+        when(uploadSessionRepository.create(any())).thenAnswer(invocation ->
+            invocation.<UploadSession>getArgument(0).withId(UPLOAD_ID));
+
+        UploadSession session = chunkedUploadUseCase.start("record-1", "tomografia.dcm",
+            "application/octet-stream", 500_000, "TC", USER);
+
+        assertThat(session.id()).isEqualTo(UPLOAD_ID);
+        assertThat(session.uploadedBy()).isEqualTo("user-1");
+        assertThat(session.expiresAt()).isAfter(LocalDateTime.now().plusHours(23));
+    }
+
+    @Test
+    void shouldRejectSessionAboveLimitOrWithUnsupportedType() {
+        assertThrows(BusinessValidationException.class, () -> chunkedUploadUseCase.start("record-1",
+            "tomografia.dcm", "application/octet-stream", DataSize.ofMegabytes(2).toBytes(), null, USER));
+        assertThrows(BusinessValidationException.class, () -> chunkedUploadUseCase.start("record-1",
+            "script.js", "application/javascript", 100, null, USER));
+
+        verify(uploadSessionRepository, never()).create(any());
+    }
+
+    @Test
+    void shouldAppendChunksInOrderAndAdvanceSession() throws IOException {
+        mockSession(session(0, 0));
+        when(uploadSessionRepository.advance(eq(UPLOAD_ID), eq(0L), eq(8L), any())).thenReturn(true);
+
+        UploadSession after = append(0, 0, "exame de");
+
+        assertThat(after.receivedSize()).isEqualTo(8);
+        assertThat(after.nextChunk()).isEqualTo(1);
+
+        mockSession(session(8, 1));
+        when(uploadSessionRepository.advance(eq(UPLOAD_ID), eq(8L), eq(15L), any())).thenReturn(true);
+
+        append(1, 8, " sangue");
+
+        assertThat(Files.readString(fileStorage.uploadSessionPath(UPLOAD_ID))).isEqualTo("exame de sangue");
+    }
+
+    @Test
+    void shouldRollBackChunkWithWrongChecksum() throws IOException {
+        mockSession(session(0, 0));
+        when(uploadSessionRepository.advance(eq(UPLOAD_ID), eq(0L), eq(8L), any())).thenReturn(true);
+        append(0, 0, "exame de");
+        mockSession(session(8, 1));
+
+        assertThrows(BusinessValidationException.class, () -> chunkedUploadUseCase.appendChunk(UPLOAD_ID, 1, 8,
+            sha256(" sangue"), stream(" sanguX"), USER));
+
+        assertThat(Files.readString(fileStorage.uploadSessionPath(UPLOAD_ID))).isEqualTo("exame de");
+        verify(uploadSessionRepository, never()).advance(eq(UPLOAD_ID), eq(8L), anyLong(), any());
+    }
+
+    @Test
+    void shouldRejectChunkLargerThanConfigured() {
+        mockSession(session(0, 0));
+
+        assertThrows(BusinessValidationException.class, () -> append(0, 0, "parte grande demais"));
+
+        assertThat(fileStorage.uploadSessionPath(UPLOAD_ID)).isEmptyFile();
+        verify(uploadSessionRepository, never()).advance(anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void shouldRejectChunkOutOfOrder() {
+        mockSession(session(8, 1));
+
+        assertThrows(ConflictException.class, () -> append(1, 0, "exame de"));
+        assertThrows(ConflictException.class, () -> append(2, 8, " sangue"));
+    }
+
+    @Test
+    void shouldHideSessionOfAnotherUser() {
+        mockSession(session(0, 0).withUploadedBy("user-2"));
+
+        assertThrows(ResourceNotFoundException.class, () -> chunkedUploadUseCase.status(UPLOAD_ID, USER));
+    }
+
+    @Test
+    void shouldCommitCompleteUploadThroughAttach() throws IOException {
+        Path part = fileStorage.uploadSessionPath(UPLOAD_ID);
+        Files.createDirectories(part.getParent());
+        Files.writeString(part, "exame de sangue");
+        mockSession(session(15, 2));
+        FileAttachment attachment = FileAttachment.builder().id("file-1").build();
+        when(uploadExamFileUseCase.attach(eq("record-1"), eq("hemograma.pdf"), eq("application/pdf"), eq("Exame"),
+            eq(USER), argThat(staged -> staged.size() == 15 && Files.exists(staged.path()))))
+            .thenReturn(attachment);
+        when(uploadSessionRepository.delete(UPLOAD_ID)).thenReturn(true);
+
+        FileAttachment result = chunkedUploadUseCase.commit(UPLOAD_ID, sha256("exame de sangue"), USER);
+
+        assertThat(result).isSameAs(attachment);
+        assertThat(part).doesNotExist();
+        assertThat(uploadDir.resolve(".staging")).isDirectoryNotContaining(path -> path.toString().endsWith(".part"));
+    }
+
+    @Test
+    void shouldRejectCommitOfIncompleteUploadOrWrongHash() throws IOException {
+        Path part = fileStorage.uploadSessionPath(UPLOAD_ID);
+        Files.createDirectories(part.getParent());
+        Files.writeString(part, "exame de");
+        mockSession(session(8, 1));
+
+        assertThrows(ConflictException.class, () -> chunkedUploadUseCase.commit(UPLOAD_ID, null, USER));
+
+        Files.writeString(part, "exame de sangue");
+        mockSession(session(15, 2));
+
+        assertThrows(BusinessValidationException.class,
+            () -> chunkedUploadUseCase.commit(UPLOAD_ID, sha256("outro arquivo"), USER));
+        assertThat(part).exists();
+        verify(uploadSessionRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void shouldRemoveExpiredSessionsAndStaleParts() throws IOException {
+        Path expired = fileStorage.uploadSessionPath(UPLOAD_ID);
+        Path stale = fileStorage.uploadSessionPath("0190a3c2-0000-7000-8000-000000000002");
+        Path active = fileStorage.uploadSessionPath("0190a3c2-0000-7000-8000-000000000003");
+        Files.createDirectories(expired.getParent());
+        for (Path part : List.of(expired, stale, active)) {
+            Files.writeString(part, "parcial");
+        }
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(25))));
+        when(uploadSessionRepository.deleteExpired(any())).thenReturn(List.of(UPLOAD_ID));
+
+        chunkedUploadUseCase.expireAbandonedSessions();
+
+        assertThat(expired).doesNotExist();
+        assertThat(stale).doesNotExist();
+        assertThat(active).exists();
+    }
+
+    private UploadSession append(int index, long offset, String body) throws IOException {
+        return chunkedUploadUseCase.appendChunk(UPLOAD_ID, index, offset, sha256(body), stream(body), USER);
+    }
+
+    private void mockSession(UploadSession session) {
+        when(uploadSessionRepository.findById(UPLOAD_ID)).thenReturn(Optional.of(session));
+    }
+
+    private static UploadSession session(long receivedSize, int nextChunk) {
+        return UploadSession.builder()
+            .id(UPLOAD_ID)
+            .medicalRecordId("record-1")
+            .uploadedBy("user-1")
+            .fileName("hemograma.pdf")
+            .contentType("application/pdf")
+            .description("Exame")
+            .totalSize(15)
+            .receivedSize(receivedSize)
+            .nextChunk(nextChunk)
+            .createdAt(LocalDateTime.now())
+            .expiresAt(LocalDateTime.now().plusHours(24))
+            .build();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
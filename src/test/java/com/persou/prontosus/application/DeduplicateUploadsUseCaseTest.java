@@ -0,0 +1,139 @@
+package com.persou.prontosus.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.domain.valueobject.UploadDeduplicationResult;
+import com.persou.prontosus.gateway.FileContentRepository;
+import com.persou.prontosus.gateway.FileContentRepository.AcquiredContent;
+import com.persou.prontosus.gateway.FileContentRepository.LegacyAttachment;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.ShardedLayout;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class DeduplicateUploadsUseCaseTest {
+
+    @Mock
+    private FileContentRepository fileContentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path uploadDir;
+
+    private FileStorage fileStorage;
+    private DeduplicateUploadsUseCase deduplicateUploadsUseCase;
+
+    @BeforeEach
+    void setUp() {
+        fileStorage = new FileStorage(uploadDir, new ShardedLayout(2, 2));
+        deduplicateUploadsUseCase = new DeduplicateUploadsUseCase(fileContentRepository, fileStorage,
+            transactionManager);
+    }
+
+    @Test
+    void shouldStoreIdenticalFilesOnceAndReportSavedBytes() throws IOException {
+        Path first = Files.writeString(uploadDir.resolve("a1.pdf"), "hemograma");
+        Path second = Files.writeString(uploadDir.resolve("b2.pdf"), "hemograma");
+        Path other = Files.writeString(uploadDir.resolve("c3.png"), "raio-x");
+        String sha256 = FileStorage.sha256Of(first);
+
+        when(fileContentRepository.findLegacyAttachments(isNull(), anyInt())).thenReturn(List.of(
+            new LegacyAttachment("id-1", first.toString()),
+            new LegacyAttachment("id-2", second.toString()),
+            new LegacyAttachment("id-3", other.toString())));
+        when(fileContentRepository.repointAttachment(anyString(), anyString(), anyString(), any()))
+            .thenReturn(true);
+        // O conteúdo duplicado já estava gravado comprimido: o anexo passa a usar o codec da cópia existente
+        when(fileContentRepository.acquire(anyString(), anyLong(), eq(StorageCodec.NONE), anyLong())).thenReturn(
+            new AcquiredContent(true, StorageCodec.NONE),
+            new AcquiredContent(false, StorageCodec.DEFLATE),
+            new AcquiredContent(true, StorageCodec.NONE));
+
+        UploadDeduplicationResult result = deduplicateUploadsUseCase.execute();
+
+        assertThat(result.attachmentsScanned()).isEqualTo(3);
+        assertThat(result.attachmentsMigrated()).isEqualTo(3);
+        assertThat(result.duplicatesRemoved()).isEqualTo(1);
+        assertThat(result.bytesSaved()).isEqualTo("hemograma".length());
+        assertThat(Files.readString(fileStorage.contentPath(sha256))).isEqualTo("hemograma");
+        assertThat(first).doesNotExist();
+        assertThat(second).doesNotExist();
+        verify(fileContentRepository).repointAttachment("id-1", first.toString(), sha256, StorageCodec.NONE);
+        verify(fileContentRepository).repointAttachment("id-2", second.toString(), sha256, StorageCodec.DEFLATE);
+    }
+
+    @Test
+    void shouldCountMissingFilesWithoutTouchingDatabase() {
+        when(fileContentRepository.findLegacyAttachments(isNull(), anyInt())).thenReturn(List.of(
+            new LegacyAttachment("id-1", uploadDir.resolve("sumiu.pdf").toString())));
+
+        UploadDeduplicationResult result = deduplicateUploadsUseCase.execute();
+
+        assertThat(result.missingFiles()).isEqualTo(1);
+        assertThat(result.attachmentsMigrated()).isZero();
+        verify(fileContentRepository, never()).repointAttachment(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldPutFileBackWhenCommitFails() throws IOException {
+        Path legacy = Files.writeString(uploadDir.resolve("a1.pdf"), "hemograma");
+        when(fileContentRepository.findLegacyAttachments(isNull(), anyInt())).thenReturn(List.of(
+            new LegacyAttachment("id-1", legacy.toString())));
+        when(fileContentRepository.repointAttachment(eq("id-1"), anyString(), anyString(), any())).thenReturn(true);
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+        when(fileContentRepository.lockUnregistered(anyString())).thenReturn(true);
+
+        UploadDeduplicationResult result = deduplicateUploadsUseCase.execute();
+
+        assertThat(result.failures()).isEqualTo(1);
+        assertThat(Files.readString(legacy)).isEqualTo("hemograma");
+        assertThat(fileStorage.contentPath(FileStorage.sha256Of(legacy))).doesNotExist();
+    }
+
+    @Test
+    void shouldKeepPromotedFileWhenAnotherUploadRegisteredItAfterRollback() throws IOException {
+        Path legacy = Files.writeString(uploadDir.resolve("a1.pdf"), "hemograma");
+        when(fileContentRepository.findLegacyAttachments(isNull(), anyInt())).thenReturn(List.of(
+            new LegacyAttachment("id-1", legacy.toString())));
+        when(fileContentRepository.repointAttachment(eq("id-1"), anyString(), anyString(), any())).thenReturn(true);
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+        when(fileContentRepository.lockUnregistered(anyString())).thenReturn(false);
+
+        UploadDeduplicationResult result = deduplicateUploadsUseCase.execute();
+
+        assertThat(result.failures()).isEqualTo(1);
+        assertThat(Files.readString(legacy)).isEqualTo("hemograma");
+        assertThat(Files.readString(fileStorage.contentPath(FileStorage.sha256Of(legacy)))).isEqualTo("hemograma");
+    }
+}
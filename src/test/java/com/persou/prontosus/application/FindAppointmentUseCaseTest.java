@@ -12,12 +12,13 @@ import static org.mockito.Mockito.when;
 import com.persou.prontosus.domain.Appointment;
 import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.domain.User;
-import com.persou.prontosus.domain.enums.AppointmentStatus;
-import com.persou.prontosus.gateway.AppointmentRepository;
+import com.persou.prontosus.gateway.AppointmentQueryRepository;
 import com.persou.prontosus.gateway.PatientRepository;
 import com.persou.prontosus.gateway.UserRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,7 +30,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class FindAppointmentUseCaseTest {
 
     @Mock
-    private AppointmentRepository appointmentRepository;
+    private AppointmentQueryRepository appointmentQueryRepository;
 
     @Mock
     private PatientRepository patientRepository;
@@ -42,7 +43,7 @@ class FindAppointmentUseCaseTest {
     @BeforeEach
     void setUp() {
         findAppointmentUseCase = new FindAppointmentUseCase(
-            appointmentRepository, patientRepository, userRepository);
+            appointmentQueryRepository, patientRepository, userRepository);
     }
 
     @Test
@@ -68,7 +69,7 @@ class FindAppointmentUseCaseTest {
         );
 
         when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(appointmentRepository.findByPatientOrderByScheduledDateTimeDesc(patient))
+        when(appointmentQueryRepository.findByPatientId(patientId))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByPatientId(patientId);
@@ -79,7 +80,7 @@ class FindAppointmentUseCaseTest {
         assertEquals("app2", result.get(1).id());
 
         verify(patientRepository).findById(patientId);
-        verify(appointmentRepository).findByPatientOrderByScheduledDateTimeDesc(patient);
+        verify(appointmentQueryRepository).findByPatientId(patientId);
     }
 
     @Test
@@ -92,7 +93,7 @@ class FindAppointmentUseCaseTest {
             () -> findAppointmentUseCase.findByPatientId(patientId));
 
         verify(patientRepository).findById(patientId);
-        verify(appointmentRepository, never()).findByPatientOrderByScheduledDateTimeDesc(any());
+        verify(appointmentQueryRepository, never()).findByPatientId(any());
     }
 
     @Test
@@ -112,8 +113,8 @@ class FindAppointmentUseCaseTest {
         );
 
         when(userRepository.findById(professionalId)).thenReturn(Optional.of(professional));
-        when(appointmentRepository.findAppointmentsByProfessionalAndDateRange(
-            eq(professional), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(appointmentQueryRepository.findByProfessionalAndDateRange(
+            eq(professionalId), any(LocalDateTime.class), any(LocalDateTime.class)))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByProfessionalId(professionalId);
@@ -123,8 +124,8 @@ class FindAppointmentUseCaseTest {
         assertEquals("app1", result.get(0).id());
 
         verify(userRepository).findById(professionalId);
-        verify(appointmentRepository).findAppointmentsByProfessionalAndDateRange(
-            eq(professional), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(appointmentQueryRepository).findByProfessionalAndDateRange(
+            eq(professionalId), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -137,7 +138,7 @@ class FindAppointmentUseCaseTest {
             () -> findAppointmentUseCase.findByProfessionalId(professionalId));
 
         verify(userRepository).findById(professionalId);
-        verify(appointmentRepository, never()).findAppointmentsByProfessionalAndDateRange(any(), any(), any());
+        verify(appointmentQueryRepository, never()).findByProfessionalAndDateRange(any(), any(), any());
     }
 
     @Test
@@ -160,7 +161,7 @@ class FindAppointmentUseCaseTest {
         );
 
         when(userRepository.findById(professionalId)).thenReturn(Optional.of(professional));
-        when(appointmentRepository.findAppointmentsByProfessionalAndDateRange(professional, start, end))
+        when(appointmentQueryRepository.findByProfessionalAndDateRange(professionalId, start, end))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByProfessionalAndDateRange(professionalId, start, end);
@@ -169,7 +170,7 @@ class FindAppointmentUseCaseTest {
         assertEquals(1, result.size());
 
         verify(userRepository).findById(professionalId);
-        verify(appointmentRepository).findAppointmentsByProfessionalAndDateRange(professional, start, end);
+        verify(appointmentQueryRepository).findByProfessionalAndDateRange(professionalId, start, end);
     }
 
     @Test
@@ -186,7 +187,7 @@ class FindAppointmentUseCaseTest {
                 .build()
         );
 
-        when(appointmentRepository.findAppointmentsByStatusAndDateRange(AppointmentStatus.SCHEDULED, start, end))
+        when(appointmentQueryRepository.findByStatusAndDateRange("SCHEDULED", start, end))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByStatusAndDateRange(status, start, end);
@@ -194,7 +195,7 @@ class FindAppointmentUseCaseTest {
         assertNotNull(result);
         assertEquals(1, result.size());
 
-        verify(appointmentRepository).findAppointmentsByStatusAndDateRange(AppointmentStatus.SCHEDULED, start, end);
+        verify(appointmentQueryRepository).findByStatusAndDateRange("SCHEDULED", start, end);
     }
 
     @Test
@@ -206,7 +207,7 @@ class FindAppointmentUseCaseTest {
         assertThrows(IllegalArgumentException.class,
             () -> findAppointmentUseCase.findByStatusAndDateRange(invalidStatus, start, end));
 
-        verify(appointmentRepository, never()).findAppointmentsByStatusAndDateRange(any(), any(), any());
+        verify(appointmentQueryRepository, never()).findByStatusAndDateRange(any(), any(), any());
     }
 
     @Test
@@ -221,7 +222,7 @@ class FindAppointmentUseCaseTest {
                 .build()
         );
 
-        when(appointmentRepository.findByPatientIdAndStatus(patientId, AppointmentStatus.SCHEDULED))
+        when(appointmentQueryRepository.findByPatientIdAndStatus(patientId, "SCHEDULED"))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByPatientIdAndStatus(patientId, status);
@@ -229,7 +230,7 @@ class FindAppointmentUseCaseTest {
         assertNotNull(result);
         assertEquals(1, result.size());
 
-        verify(appointmentRepository).findByPatientIdAndStatus(patientId, AppointmentStatus.SCHEDULED);
+        verify(appointmentQueryRepository).findByPatientIdAndStatus(patientId, "SCHEDULED");
     }
 
     @Test
@@ -244,7 +245,8 @@ class FindAppointmentUseCaseTest {
                 .build()
         );
 
-        when(appointmentRepository.findByProfessionalAndDate(professionalId, date))
+        when(appointmentQueryRepository.findByProfessionalAndPeriod(
+            professionalId, date.toLocalDate(), date.toLocalDate().plusDays(1)))
             .thenReturn(appointments);
 
         List<Appointment> result = findAppointmentUseCase.findByProfessionalAndDate(professionalId, date);
@@ -252,6 +254,43 @@ class FindAppointmentUseCaseTest {
         assertNotNull(result);
         assertEquals(1, result.size());
 
-        verify(appointmentRepository).findByProfessionalAndDate(professionalId, date);
+        verify(appointmentQueryRepository).findByProfessionalAndPeriod(
+            professionalId, date.toLocalDate(), date.toLocalDate().plusDays(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGroupAgendaByDayIncludingEmptyDays() {
+        String professionalId = "prof1";
+        LocalDate start = LocalDate.of(2025, 7, 21);
+
+        Appointment monday = Appointment.builder()
+            .id("app1")
+            .scheduledDateTime(LocalDateTime.of(2025, 7, 21, 8, 0))
+            .build();
+        Appointment wednesday = Appointment.builder()
+            .id("app2")
+            .scheduledDateTime(LocalDateTime.of(2025, 7, 23, 15, 0))
+            .build();
+
+        when(appointmentQueryRepository.findByProfessionalAndPeriod(professionalId, start, start.plusDays(7)))
+            .thenReturn(List.of(monday, wednesday));
+
+        Map<LocalDate, List<Appointment>> agenda = findAppointmentUseCase.findAgenda(professionalId, start, null);
+
+        assertEquals(FindAppointmentUseCase.DEFAULT_AGENDA_DAYS, agenda.size());
+        assertEquals(List.of(monday), agenda.get(start));
+        assertEquals(List.of(), agenda.get(start.plusDays(1)));
+        assertEquals(List.of(wednesday), agenda.get(start.plusDays(2)));
+        verify(appointmentQueryRepository).findByProfessionalAndPeriod(professionalId, start, start.plusDays(7));
+    }
+
+    @Test
+    void shouldRejectAgendaLongerThanMaximum() {
+        LocalDate start = LocalDate.of(2025, 7, 21);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> findAppointmentUseCase.findAgenda("prof1", start, FindAppointmentUseCase.MAX_AGENDA_DAYS + 1));
+
+        verify(appointmentQueryRepository, never()).findByProfessionalAndPeriod(any(), any(), any());
+    }
+}
@@ -1,22 +1,33 @@
 package com.persou.prontosus.application;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.persou.prontosus.config.mapper.PatientMapper;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import com.persou.prontosus.gateway.PatientQueryRepository;
 import com.persou.prontosus.gateway.PatientRepository;
 import com.persou.prontosus.mocks.PatientMock;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 class FindPatientUseCaseTest {
 
     private final PatientRepository patientRepository = mock();
+    private final PatientQueryRepository patientQueryRepository = mock();
     private final PatientMapper patientMapper = mock();
-    private final FindPatientUseCase findPatientUseCase = new FindPatientUseCase(patientRepository, patientMapper);
+    private final FindPatientUseCase findPatientUseCase =
+        new FindPatientUseCase(patientRepository, patientQueryRepository, patientMapper);
 
     @Test
     void shouldFindPatientById() {
@@ -57,4 +68,50 @@ class FindPatientUseCaseTest {
 
         verify(patientRepository, times(1)).findByFullNameContainingIgnoreCase(name);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldUseDefaultPageSizeWhenSizeIsMissing() {
+        var page = new KeysetPage<>(PatientMock.mockDomainList(), null);
+        when(patientQueryRepository.findPage(null, FindPatientUseCase.DEFAULT_PAGE_SIZE)).thenReturn(page);
+
+        var result = findPatientUseCase.findPage(null, null);
+
+        assertThat(result).isEqualTo(page);
+        verify(patientQueryRepository, times(1)).findPage(null, FindPatientUseCase.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldCapPageSizeAndDecodeCursor() {
+        var cursor = new PageCursor(LocalDateTime.of(2024, 1, 10, 8, 0), "patient1");
+        when(patientQueryRepository.findPage(any(), anyInt())).thenReturn(new KeysetPage<>(List.of(), null));
+
+        findPatientUseCase.findPage(cursor.encode(), 10_000);
+
+        verify(patientQueryRepository, times(1)).findPage(cursor, FindPatientUseCase.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> findPatientUseCase.findPage("nao-e-um-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldCapSearchLimit() {
+        var patients = PatientMock.mockDomainList();
+        when(patientQueryRepository.searchByName("John", FindPatientUseCase.MAX_SEARCH_LIMIT)).thenReturn(patients);
+
+        var result = findPatientUseCase.searchByName("John", 1_000);
+
+        assertThat(result).isEqualTo(patients);
+        verify(patientQueryRepository, times(1)).searchByName("John", FindPatientUseCase.MAX_SEARCH_LIMIT);
+    }
+
+    @Test
+    void shouldNotQueryRepositoryForBlankSearch() {
+        var result = findPatientUseCase.searchByName("  ", null);
+
+        assertThat(result).isEmpty();
+        verify(patientQueryRepository, never()).searchByName(any(), anyInt());
+    }
+}
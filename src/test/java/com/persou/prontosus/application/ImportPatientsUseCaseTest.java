@@ -0,0 +1,154 @@
+package com.persou.prontosus.application;
+
+import static com.persou.prontosus.config.MessagesErrorException.DOCUMENT_ALREADY_EXISTS;
+import static com.persou.prontosus.config.MessagesErrorException.DOCUMENT_DUPLICATED_IN_FILE;
+import static com.persou.prontosus.config.MessagesErrorException.IMPORT_ROW_REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.PatientImportResult;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import com.persou.prontosus.gateway.PatientRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class ImportPatientsUseCaseTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private ImportPatientsUseCase importPatientsUseCase;
+
+    @BeforeEach
+    void setUp() {
+        importPatientsUseCase = new ImportPatientsUseCase(patientRepository);
+    }
+
+    @Test
+    void shouldImportValidRowsAndReportInvalidOnes() {
+        when(patientRepository.findExistingCpfs(List.of("00000000001", "00000000003")))
+            .thenReturn(Set.of("00000000003"));
+
+        var rows = List.of(
+            PatientImportRow.valid(1, patient("00000000001")),
+            PatientImportRow.invalid(2, "00000000002", "fullName: Nome completo é obrigatório"),
+            PatientImportRow.valid(3, patient("00000000003")),
+            PatientImportRow.valid(4, patient("00000000001"))
+        );
+
+        PatientImportResult result = importPatientsUseCase.execute(rows.iterator());
+
+        assertThat(result.totalRows()).isEqualTo(4);
+        assertThat(result.importedRows()).isEqualTo(1);
+        assertThat(result.rejectedRows()).isEqualTo(3);
+        assertThat(result.errors()).containsExactly(
+            new PatientImportResult.RowError(2, "00000000002", "fullName: Nome completo é obrigatório"),
+            new PatientImportResult.RowError(3, "00000000003", DOCUMENT_ALREADY_EXISTS),
+            new PatientImportResult.RowError(4, "00000000001", DOCUMENT_DUPLICATED_IN_FILE));
+        assertThat(result.rowsPerSecond()).isPositive();
+
+        verify(patientRepository).saveAll(List.of(rows.get(0).patient()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteInBatchesWithOneCpfLookupPerBatch() {
+        int rowCount = ImportPatientsUseCase.BATCH_SIZE * 2 + 10;
+        when(patientRepository.findExistingCpfs(anyCollection())).thenReturn(Set.of());
+
+        var rows = LongStream.rangeClosed(1, rowCount)
+            .mapToObj(row -> PatientImportRow.valid(row, patient("%011d".formatted(row))))
+            .iterator();
+
+        PatientImportResult result = importPatientsUseCase.execute(rows);
+
+        assertThat(result.importedRows()).isEqualTo(rowCount);
+        assertThat(result.errors()).isEmpty();
+
+        ArgumentCaptor<List<Patient>> batches = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository, times(3)).findExistingCpfs(anyCollection());
+        verify(patientRepository, times(3)).saveAll(batches.capture());
+        assertThat(batches.getAllValues())
+            .extracting(List::size)
+            .containsExactly(ImportPatientsUseCase.BATCH_SIZE, ImportPatientsUseCase.BATCH_SIZE, 10);
+    }
+
+    @Test
+    void shouldRetryRowByRowWhenBatchViolatesConstraint() {
+        Patient first = patient("00000000001");
+        Patient second = patient("00000000002");
+        when(patientRepository.findExistingCpfs(anyCollection())).thenReturn(Set.of());
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(patientRepository).saveAll(anyList());
+        when(patientRepository.save(first)).thenReturn(first.withId("patient1"));
+        when(patientRepository.save(second)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(patientRepository.existsByCpf("00000000002")).thenReturn(true);
+
+        PatientImportResult result = importPatientsUseCase.execute(List.of(
+            PatientImportRow.valid(1, first),
+            PatientImportRow.valid(2, second)
+        ).iterator());
+
+        assertThat(result.importedRows()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly(
+            new PatientImportResult.RowError(2, "00000000002", DOCUMENT_ALREADY_EXISTS));
+    }
+
+    @Test
+    void shouldNotExposeDatabaseMessageWhenRowViolatesOtherConstraint() {
+        Patient patient = patient("00000000001");
+        when(patientRepository.findExistingCpfs(anyCollection())).thenReturn(Set.of());
+        doThrow(new DataIntegrityViolationException("violates check constraint")).when(patientRepository)
+            .saveAll(anyList());
+        when(patientRepository.save(patient))
+            .thenThrow(new DataIntegrityViolationException("value too long for type character varying(11)"));
+        when(patientRepository.existsByCpf("00000000001")).thenReturn(false);
+
+        PatientImportResult result = importPatientsUseCase.execute(List.of(
+            PatientImportRow.valid(1, patient)
+        ).iterator());
+
+        assertThat(result.importedRows()).isZero();
+        assertThat(result.errors()).containsExactly(
+            new PatientImportResult.RowError(1, "00000000001", IMPORT_ROW_REJECTED));
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenAllRowsAreInvalid() {
+        PatientImportResult result = importPatientsUseCase.execute(List.of(
+            PatientImportRow.invalid(1, null, "Registro inválido")
+        ).iterator());
+
+        assertThat(result.totalRows()).isEqualTo(1);
+        assertThat(result.importedRows()).isZero();
+
+        verify(patientRepository, never()).findExistingCpfs(any());
+        verify(patientRepository, never()).saveAll(any());
+    }
+
+    private static Patient patient(String cpf) {
+        return Patient.builder()
+            .cpf(cpf)
+            .fullName("Paciente " + cpf)
+            .birthDate(LocalDate.of(1980, 1, 1))
+            .gender("OTHER")
+            .build();
+    }
+}
@@ -11,6 +11,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.persou.prontosus.config.exceptions.ResourceAlreadyExistsException;
+import com.persou.prontosus.config.security.PasswordHasher;
 import com.persou.prontosus.domain.User;
 import com.persou.prontosus.gateway.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,7 +19,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
 class RegisterUserUseCaseTest {
@@ -27,13 +27,13 @@ class RegisterUserUseCaseTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     private RegisterUserUseCase registerUserUseCase;
 
     @BeforeEach
     void setUp() {
-        registerUserUseCase = new RegisterUserUseCase(userRepository, passwordEncoder);
+        registerUserUseCase = new RegisterUserUseCase(userRepository, passwordHasher);
     }
 
 
@@ -56,7 +56,7 @@ class RegisterUserUseCaseTest {
 
         verify(userRepository).existsByUsername(user.username());
         verify(userRepository, never()).save(any());
-        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordHasher, never()).encode(anyString());
     }
 
     @Test
@@ -80,7 +80,7 @@ class RegisterUserUseCaseTest {
         verify(userRepository).existsByUsername(user.username());
         verify(userRepository).existsByEmail(user.email());
         verify(userRepository, never()).save(any());
-        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordHasher, never()).encode(anyString());
     }
 
     @Test
@@ -106,7 +106,7 @@ class RegisterUserUseCaseTest {
         verify(userRepository).existsByEmail(user.email());
         verify(userRepository).existsByProfessionalDocument(user.professionalDocument());
         verify(userRepository, never()).save(any());
-        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordHasher, never()).encode(anyString());
     }
 
     @Test
@@ -147,7 +147,7 @@ class RegisterUserUseCaseTest {
         when(userRepository.existsByUsername(user.username())).thenReturn(false);
         when(userRepository.existsByEmail(user.email())).thenReturn(false);
         when(userRepository.existsByProfessionalDocument(user.professionalDocument())).thenReturn(false);
-        when(passwordEncoder.encode(user.password())).thenReturn(encodedPassword);
+        when(passwordHasher.encode(user.password())).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
         User result = registerUserUseCase.execute(user);
@@ -174,7 +174,7 @@ class RegisterUserUseCaseTest {
         when(userRepository.existsByUsername(user.username())).thenReturn(false);
         when(userRepository.existsByEmail(user.email())).thenReturn(false);
         when(userRepository.existsByProfessionalDocument(user.professionalDocument())).thenReturn(false);
-        when(passwordEncoder.encode(user.password())).thenReturn(encodedPassword);
+        when(passwordHasher.encode(user.password())).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
         User result = registerUserUseCase.execute(user);
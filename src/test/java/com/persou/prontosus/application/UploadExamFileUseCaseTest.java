@@ -1,20 +1,34 @@
 package com.persou.prontosus.application;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.persou.prontosus.config.exceptions.BusinessValidationException;
+import com.persou.prontosus.config.util.FileUploadConfig;
 import com.persou.prontosus.domain.FileAttachment;
 import com.persou.prontosus.domain.User;
+import com.persou.prontosus.domain.enums.ContentSignature;
 import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.AttachmentStoredEvent;
+import com.persou.prontosus.gateway.FileContentRepository;
+import com.persou.prontosus.gateway.FileContentRepository.AcquiredContent;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.ShardedLayout;
+import com.persou.prontosus.gateway.StorageCodecSelector;
 import com.persou.prontosus.gateway.database.jpa.FileAttachmentEntity;
 import com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity;
 import com.persou.prontosus.gateway.database.jpa.PatientEntity;
@@ -24,20 +38,31 @@ import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepo
 import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
 class UploadExamFileUseCaseTest {
 
+    private static final String TEST_CONTENT_SHA256 =
+        "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
     @Mock
     private FileAttachmentJpaRepository fileAttachmentJpaRepository;
 
@@ -50,13 +75,27 @@ class UploadExamFileUseCaseTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private FileContentRepository fileContentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path uploadDir;
+
+    private FileStorage fileStorage;
     private UploadExamFileUseCase uploadExamFileUseCase;
 
     @BeforeEach
     void setUp() {
-        uploadExamFileUseCase = new UploadExamFileUseCase(
-            fileAttachmentJpaRepository, medicalRecordJpaRepository, userJpaRepository);
-        ReflectionTestUtils.setField(uploadExamFileUseCase, "uploadDir", "test-uploads");
+        fileStorage = new FileStorage(uploadDir, new ShardedLayout(2, 2));
+        uploadExamFileUseCase = new UploadExamFileUseCase(fileAttachmentJpaRepository, medicalRecordJpaRepository,
+            userJpaRepository, fileContentRepository, fileStorage, new StorageCodecSelector(new FileUploadConfig()),
+            eventPublisher, transactionManager);
     }
 
     @Test
@@ -105,7 +144,9 @@ class UploadExamFileUseCaseTest {
 
         when(medicalRecordJpaRepository.findById(medicalRecordId)).thenReturn(Optional.of(medicalRecordEntity));
         when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
-        when(fileAttachmentJpaRepository.save(any(FileAttachmentEntity.class))).thenReturn(savedEntity);
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class))).thenReturn(savedEntity);
 
         FileAttachment result = uploadExamFileUseCase.execute(medicalRecordId, multipartFile, description, uploadedBy);
 
@@ -119,7 +160,262 @@ class UploadExamFileUseCaseTest {
 
         verify(medicalRecordJpaRepository).findById(medicalRecordId);
         verify(userJpaRepository).findByUsername("testuser");
-        verify(fileAttachmentJpaRepository).save(any(FileAttachmentEntity.class));
+        verify(fileAttachmentJpaRepository).saveAndFlush(any(FileAttachmentEntity.class));
+        verify(transactionManager).commit(any());
+        assertEquals(1, storedFiles().size());
+        assertEquals("test content", Files.readString(storedFiles().get(0)));
+        assertEquals(TEST_CONTENT_SHA256, storedFiles().get(0).getFileName().toString());
+        verify(fileAttachmentJpaRepository).saveAndFlush(argThat(entity ->
+            TEST_CONTENT_SHA256.equals(entity.getFilePath())));
+        // 12 bytes não encolhem com compressão: gravado como veio
+        verify(fileContentRepository).acquire(TEST_CONTENT_SHA256, 12L, StorageCodec.NONE, 12L);
+        assertTrue(stagedFiles().isEmpty());
+        verify(eventPublisher).publishEvent(any(AttachmentStoredEvent.class));
+    }
+
+    @Test
+    void shouldKeepExistingContentWhenUploadIsDuplicate() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+        MedicalRecordEntity medicalRecordEntity = MedicalRecordEntity.builder()
+            .id("record1")
+            .patient(PatientEntity.builder().fullName("Test Patient").build())
+            .build();
+        Path existing = Files.writeString(uploadDir.resolve(TEST_CONTENT_SHA256), "test content");
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("laudo.pdf");
+        when(multipartFile.getSize()).thenReturn(12L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test content".getBytes()));
+        when(medicalRecordJpaRepository.findById("record1")).thenReturn(Optional.of(medicalRecordEntity));
+        when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(new UserEntity()));
+        when(fileContentRepository.acquire(eq(TEST_CONTENT_SHA256), eq(12L), any(), anyLong()))
+            .thenReturn(new AcquiredContent(false, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+
+        assertThrows(RuntimeException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        // Falha no commit não pode apagar um conteúdo que outros anexos já usam
+        assertEquals(List.of(existing), storedFiles());
+        assertTrue(stagedFiles().isEmpty());
+    }
+
+    @Test
+    void shouldCompressTextContentAndRecordCodec() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+        MedicalRecordEntity medicalRecordEntity = MedicalRecordEntity.builder()
+            .id("record1")
+            .patient(PatientEntity.builder().fullName("Test Patient").build())
+            .build();
+        StringBuilder csv = new StringBuilder("exame,valor,unidade,referencia\n");
+        for (int i = 0; i < 2_000; i++) {
+            csv.append("hemoglobina,").append(12 + i % 5).append(",g/dL,12-16\n");
+        }
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("hemograma.csv");
+        when(multipartFile.getSize()).thenReturn((long) content.length);
+        when(multipartFile.getContentType()).thenReturn("text/csv");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(content));
+        when(medicalRecordJpaRepository.findById("record1")).thenReturn(Optional.of(medicalRecordEntity));
+        when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(new UserEntity()));
+        when(fileContentRepository.acquire(anyString(), eq((long) content.length), eq(StorageCodec.DEFLATE),
+            anyLong())).thenReturn(new AcquiredContent(true, StorageCodec.DEFLATE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        FileAttachment result = uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy);
+
+        assertEquals("DEFLATE", result.storageCodec());
+        Path stored = storedFiles().get(0);
+        assertTrue(Files.size(stored) < content.length / 5);
+        try (var decoded = fileStorage.open(stored, StorageCodec.DEFLATE)) {
+            assertArrayEquals(content, decoded.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldTrustContentBytesOverDeclaredType() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+        MedicalRecordEntity medicalRecordEntity = MedicalRecordEntity.builder()
+            .id("record1")
+            .patient(PatientEntity.builder().fullName("Test Patient").build())
+            .build();
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0x00, 0x00, 0x00, 0x0D, 'I', 'H', 'D', 'R'};
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("raio-x.pdf");
+        when(multipartFile.getSize()).thenReturn((long) png.length);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(png));
+        when(medicalRecordJpaRepository.findById("record1")).thenReturn(Optional.of(medicalRecordEntity));
+        when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(new UserEntity()));
+        when(fileContentRepository.acquire(anyString(), eq((long) png.length), eq(StorageCodec.NONE), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        FileAttachment result = uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy);
+
+        assertEquals("image/png", result.contentType());
+        assertEquals("IMAGE", result.fileType());
+    }
+
+    @Test
+    void shouldResolveContentTypeFromSignature() {
+        String docx = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+        assertEquals("image/jpg", UploadExamFileUseCase.resolveContentType("image/jpg", ContentSignature.JPEG));
+        assertEquals(docx, UploadExamFileUseCase.resolveContentType(docx, ContentSignature.ZIP));
+        assertEquals("application/octet-stream",
+            UploadExamFileUseCase.resolveContentType("application/octet-stream", ContentSignature.ZIP));
+        assertEquals("application/dicom",
+            UploadExamFileUseCase.resolveContentType("application/octet-stream", ContentSignature.DICOM));
+        // Tipo que promete assinatura, mas os bytes não têm: não vira PDF/imagem só pela declaração
+        assertEquals("application/octet-stream", UploadExamFileUseCase.resolveContentType("application/pdf", null));
+        assertEquals("text/csv", UploadExamFileUseCase.resolveContentType("text/csv", null));
+        assertThrows(BusinessValidationException.class,
+            () -> UploadExamFileUseCase.resolveContentType("image/png", ContentSignature.ZIP));
+    }
+
+    @Test
+    void shouldStoreSvgAsOctetStream() {
+        assertEquals("application/octet-stream", UploadExamFileUseCase.resolveContentType("image/svg+xml", null));
+        assertEquals("application/octet-stream",
+            UploadExamFileUseCase.resolveContentType("IMAGE/SVG+XML; charset=utf-8", null));
+    }
+
+    @Test
+    void shouldTreatMzPrefixAsExecutableOnlyWithPortableExecutableHeader() {
+        byte[] csv = "MZ;Moçambique;2024-03-01\n".repeat(8).getBytes(StandardCharsets.UTF_8);
+        byte[] executable = portableExecutable();
+        byte[] outOfRange = portableExecutable();
+        outOfRange[0x3C] = 0x7F;
+
+        assertNull(ContentSignature.detect(csv, csv.length));
+        assertEquals("text/csv", UploadExamFileUseCase.resolveContentType("text/csv",
+            ContentSignature.detect(csv, csv.length)));
+        assertEquals(ContentSignature.WINDOWS_EXECUTABLE, ContentSignature.detect(executable, executable.length));
+        assertNull(ContentSignature.detect(outOfRange, outOfRange.length));
+    }
+
+    @Test
+    void shouldRejectExecutableDeclaredAsPdf() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("laudo.pdf");
+        when(multipartFile.getSize()).thenReturn(64L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(portableExecutable()));
+
+        assertThrows(BusinessValidationException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        verify(medicalRecordJpaRepository, never()).findById(anyString());
+        assertTrue(storedFiles().isEmpty());
+        assertTrue(stagedFiles().isEmpty());
+    }
+
+    @Test
+    void shouldEnforceSizeLimitWhileCopyingInsteadOfTrustingDeclaredSize() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("laudo.txt");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getContentType()).thenReturn("text/plain");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[10 * 1024 * 1024 + 1]));
+
+        assertThrows(BusinessValidationException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        verify(fileContentRepository, never()).acquire(anyString(), anyLong(), any(), anyLong());
+        assertTrue(stagedFiles().isEmpty());
+    }
+
+    @Test
+    void shouldRemoveStoredFileWhenCommitFails() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+        MedicalRecordEntity medicalRecordEntity = MedicalRecordEntity.builder()
+            .id("record1")
+            .patient(PatientEntity.builder().fullName("Test Patient").build())
+            .build();
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+        when(medicalRecordJpaRepository.findById("record1")).thenReturn(Optional.of(medicalRecordEntity));
+        when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(new UserEntity()));
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+        when(fileContentRepository.lockUnregistered(anyString())).thenReturn(true);
+
+        assertThrows(RuntimeException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        verify(eventPublisher, never()).publishEvent(any());
+        assertTrue(storedFiles().isEmpty());
+        assertTrue(stagedFiles().isEmpty());
+    }
+
+    @Test
+    void shouldKeepStoredFileWhenAnotherUploadRegisteredContentAfterRollback() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+        MedicalRecordEntity medicalRecordEntity = MedicalRecordEntity.builder()
+            .id("record1")
+            .patient(PatientEntity.builder().fullName("Test Patient").build())
+            .build();
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+        when(medicalRecordJpaRepository.findById("record1")).thenReturn(Optional.of(medicalRecordEntity));
+        when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(new UserEntity()));
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+        when(fileContentRepository.lockUnregistered(anyString())).thenReturn(false);
+
+        assertThrows(RuntimeException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        verify(eventPublisher, never()).publishEvent(any());
+        // O arquivo no endereço do conteúdo agora é do outro upload
+        assertEquals(1, storedFiles().size());
+        assertTrue(stagedFiles().isEmpty());
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWhenStagingFails() throws IOException {
+        User uploadedBy = User.builder().username("testuser").build();
+
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getInputStream()).thenThrow(new IOException("conexão do cliente caiu"));
+
+        assertThrows(IOException.class,
+            () -> uploadExamFileUseCase.execute("record1", multipartFile, null, uploadedBy));
+
+        verify(transactionManager, never()).getTransaction(any());
+        verify(medicalRecordJpaRepository, never()).findById(anyString());
     }
 
     @Test
@@ -133,7 +429,7 @@ class UploadExamFileUseCaseTest {
             () -> uploadExamFileUseCase.execute(medicalRecordId, multipartFile, null, uploadedBy));
 
         verify(medicalRecordJpaRepository, never()).findById(anyString());
-        verify(fileAttachmentJpaRepository, never()).save(any());
+        verify(fileAttachmentJpaRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -167,15 +463,46 @@ class UploadExamFileUseCaseTest {
 
         when(medicalRecordJpaRepository.findById(medicalRecordId)).thenReturn(Optional.of(medicalRecordEntity));
         when(userJpaRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
-        when(fileAttachmentJpaRepository.save(any(FileAttachmentEntity.class))).thenReturn(savedEntity);
+        when(fileContentRepository.acquire(anyString(), anyLong(), any(), anyLong()))
+            .thenReturn(new AcquiredContent(true, StorageCodec.NONE));
+        when(fileAttachmentJpaRepository.saveAndFlush(any(FileAttachmentEntity.class))).thenReturn(savedEntity);
 
         FileAttachment result = uploadExamFileUseCase.execute(medicalRecordId, multipartFile, null, uploadedBy);
 
         assertNotNull(result);
-        verify(fileAttachmentJpaRepository).save(argThat(entity ->
+        verify(fileAttachmentJpaRepository).saveAndFlush(argThat(entity ->
             "arquivo_sem_nome".equals(entity.getFileName())));
     }
 
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile)
+                .filter(path -> !path.getParent().endsWith(".staging"))
+                .toList();
+        }
+    }
+
+    private List<Path> stagedFiles() throws IOException {
+        Path staging = uploadDir.resolve(".staging");
+        if (!Files.exists(staging)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(staging)) {
+            return files.toList();
+        }
+    }
+
+    // Cabeçalho DOS com e_lfanew apontando para "PE\0\0" logo depois dele
+    private static byte[] portableExecutable() {
+        byte[] executable = new byte[0x80];
+        executable[0] = 'M';
+        executable[1] = 'Z';
+        executable[0x3C] = 0x40;
+        executable[0x40] = 'P';
+        executable[0x41] = 'E';
+        return executable;
+    }
+
     @Test
     void shouldGetPatientFiles() {
         String patientId = "patient1";
@@ -7,7 +7,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.persou.prontosus.domain.MedicalRecord;
-import com.persou.prontosus.gateway.MedicalRecordRepository;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,13 +20,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class ViewMedicalHistoryUseCaseTest {
 
     @Mock
-    private MedicalRecordRepository medicalRecordRepository;
+    private MedicalRecordQueryRepository medicalRecordQueryRepository;
 
     private ViewMedicalHistoryUseCase viewMedicalHistoryUseCase;
 
     @BeforeEach
     void setUp() {
-        viewMedicalHistoryUseCase = new ViewMedicalHistoryUseCase(medicalRecordRepository);
+        viewMedicalHistoryUseCase = new ViewMedicalHistoryUseCase(medicalRecordQueryRepository);
     }
 
     @Test
@@ -49,7 +49,7 @@ class ViewMedicalHistoryUseCaseTest {
                 .build()
         );
 
-        when(medicalRecordRepository.findByPatientIdOrderByConsultationDateDesc(patientId))
+        when(medicalRecordQueryRepository.findByPatientId(patientId))
             .thenReturn(records);
 
         List<MedicalRecord> result = viewMedicalHistoryUseCase.getPatientHistory(patientId);
@@ -61,14 +61,14 @@ class ViewMedicalHistoryUseCaseTest {
         assertEquals("Test complaint 1", result.get(0).chiefComplaint());
         assertEquals("Test complaint 2", result.get(1).chiefComplaint());
 
-        verify(medicalRecordRepository).findByPatientIdOrderByConsultationDateDesc(patientId);
+        verify(medicalRecordQueryRepository).findByPatientId(patientId);
     }
 
     @Test
     void shouldReturnEmptyListWhenNoRecordsFound() {
         String patientId = "patient1";
 
-        when(medicalRecordRepository.findByPatientIdOrderByConsultationDateDesc(patientId))
+        when(medicalRecordQueryRepository.findByPatientId(patientId))
             .thenReturn(List.of());
 
         List<MedicalRecord> result = viewMedicalHistoryUseCase.getPatientHistory(patientId);
@@ -76,7 +76,7 @@ class ViewMedicalHistoryUseCaseTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(medicalRecordRepository).findByPatientIdOrderByConsultationDateDesc(patientId);
+        verify(medicalRecordQueryRepository).findByPatientId(patientId);
     }
 
     @Test
@@ -93,7 +93,7 @@ class ViewMedicalHistoryUseCaseTest {
                 .build()
         );
 
-        when(medicalRecordRepository.findByPatientAndDateRange(patientId, startDate, endDate))
+        when(medicalRecordQueryRepository.findByPatientIdAndDateRange(patientId, startDate, endDate))
             .thenReturn(records);
 
         List<MedicalRecord> result = viewMedicalHistoryUseCase.getPatientHistoryByDateRange(
@@ -104,6 +104,6 @@ class ViewMedicalHistoryUseCaseTest {
         assertEquals("record1", result.get(0).id());
         assertEquals("Recent complaint", result.get(0).chiefComplaint());
 
-        verify(medicalRecordRepository).findByPatientAndDateRange(patientId, startDate, endDate);
+        verify(medicalRecordQueryRepository).findByPatientIdAndDateRange(patientId, startDate, endDate);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.User;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String USER_ID = "0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b";
+
+    private final JwtService jwtService = new JwtService("mySecretKey123456789012345678901234567890", 60_000, 100);
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsCache, tokenVersionRegistry);
+        ReflectionTestUtils.setField(filter, "claimsOnly", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws ServletException, IOException {
+        when(tokenVersionRegistry.isCurrent(USER_ID, 2)).thenReturn(true);
+
+        Authentication authentication = filter(jwtService.generateToken(user(2)));
+
+        assertThat(authentication.getName()).isEqualTo("drmaria");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_DOCTOR");
+        verify(userDetailsCache, never()).get(anyString());
+    }
+
+    @Test
+    void shouldRejectTokenWithStaleVersion() throws ServletException, IOException {
+        when(tokenVersionRegistry.isCurrent(USER_ID, 1)).thenReturn(false);
+
+        assertThat(filter(jwtService.generateToken(user(1)))).isNull();
+        verify(userDetailsCache, never()).get(anyString());
+    }
+
+    @Test
+    void shouldFallBackToUserLookupForTokensWithoutUserClaims() throws ServletException, IOException {
+        when(userDetailsCache.get("drmaria")).thenReturn(org.springframework.security.core.userdetails.User
+            .withUsername("drmaria").password("").roles("NURSE").build());
+
+        Authentication authentication = filter(jwtService.generateToken("drmaria"));
+
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_NURSE");
+        verify(tokenVersionRegistry, never()).isCurrent(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldIgnoreInvalidToken() throws ServletException, IOException {
+        assertThat(filter("invalid.token.value")).isNull();
+    }
+
+    private Authentication filter(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(int tokenVersion) {
+        return User.builder()
+            .id(USER_ID)
+            .username("drmaria")
+            .role("DOCTOR")
+            .active(true)
+            .tokenVersion(tokenVersion)
+            .build();
+    }
+}
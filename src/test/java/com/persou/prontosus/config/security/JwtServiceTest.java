@@ -0,0 +1,97 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.persou.prontosus.domain.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+
+    @Test
+    void shouldVerifyIssuedTokenInOneCall() {
+        String token = jwtService.generateToken(Map.of("role", "DOCTOR"), "drmaria");
+
+        VerifiedToken verified = jwtService.verify(token).orElseThrow();
+
+        assertThat(verified.username()).isEqualTo("drmaria");
+        assertThat(verified.claims().get("role", String.class)).isEqualTo("DOCTOR");
+        assertThat(jwtService.isTokenValid(token, "drmaria")).isTrue();
+        assertThat(jwtService.isTokenValid(token, "admin")).isFalse();
+        assertThat(jwtService.extractUsername(token)).isEqualTo("drmaria");
+    }
+
+    @Test
+    void shouldIssueSelfContainedTokenForUser() {
+        User user = User.builder()
+            .id("0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b")
+            .username("drmaria")
+            .role("DOCTOR")
+            .tokenVersion(3)
+            .build();
+
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(user)).orElseThrow();
+
+        assertThat(verified.hasUserClaims()).isTrue();
+        assertThat(verified.userId()).isEqualTo(user.id());
+        assertThat(verified.role()).isEqualTo("DOCTOR");
+        assertThat(verified.tokenVersion()).isEqualTo(3);
+        assertThat(jwtService.verify(jwtService.generateToken("drmaria")).orElseThrow().hasUserClaims()).isFalse();
+    }
+
+    @Test
+    void shouldReturnSameVerificationForRepeatedToken() {
+        String token = jwtService.generateToken("drmaria");
+
+        assertThat(jwtService.verify(token).orElseThrow()).isSameAs(jwtService.verify(token).orElseThrow());
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        String token = jwtService.generateToken("drmaria");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtService.verify(tampered)).isEmpty();
+        assertThat(jwtService.verify("not-a-jwt")).isEmpty();
+        assertThat(jwtService.verify(null)).isEmpty();
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(tampered));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        String foreign = new JwtService("anotherSecretKey12345678901234567890123456", 60_000, 100)
+            .generateToken("drmaria");
+
+        assertThat(jwtService.verify(foreign)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        JwtService expiring = new JwtService(SECRET, -1_000, 100);
+        String token = expiring.generateToken("drmaria");
+
+        assertThat(expiring.verify(token)).isEmpty();
+        assertThat(expiring.isTokenValid(token, "drmaria")).isFalse();
+        assertThrows(ExpiredJwtException.class, () -> expiring.extractUsername(token));
+    }
+
+    @Test
+    void shouldKeepVerifiedCacheBounded() {
+        JwtService small = new JwtService(SECRET, 60_000, 2);
+
+        for (int i = 0; i < 10; i++) {
+            String token = small.generateToken("usuario" + i);
+            assertThat(small.verify(token)).isPresent();
+        }
+
+        String token = small.generateToken("usuario0");
+        assertThat(small.verify(token).orElseThrow().username()).isEqualTo("usuario0");
+    }
+}
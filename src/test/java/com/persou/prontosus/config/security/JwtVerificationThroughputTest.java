@@ -0,0 +1,59 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// Vazão de verificação em uma thread (tokens/s por núcleo): parse completo a cada chamada (cache desligado)
+// vs. token repetido servido pelo cache de digests. A comparação de tempo não é asserida; as taxas aparecem na
+// descrição da asserção. Roda só com -Pbenchmark.
+@Tag("benchmark")
+class JwtVerificationThroughputTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final int DISTINCT_TOKENS = 200;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Test
+    void shouldReportVerificationsPerSecondPerCore() {
+        JwtService uncached = new JwtService(SECRET, 3_600_000, 0);
+        JwtService cached = new JwtService(SECRET, 3_600_000, DISTINCT_TOKENS);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens.add(uncached.generateToken(Map.of("role", "DOCTOR"), "usuario" + i));
+        }
+
+        double uncachedRate = measure(uncached, tokens);
+        double cachedRate = measure(cached, tokens);
+
+        assertThat(uncachedRate).isPositive();
+        assertThat(cachedRate)
+            .as("Tokens/s com cache de digests; parse completo fez %.0f tokens/s", uncachedRate)
+            .isPositive();
+    }
+
+    private static double measure(JwtService jwtService, List<String> tokens) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            verifyAll(jwtService, tokens);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            verifyAll(jwtService, tokens);
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) MEASURED_ROUNDS * tokens.size() / elapsed * 1_000_000_000L;
+    }
+
+    private static void verifyAll(JwtService jwtService, List<String> tokens) {
+        for (String token : tokens) {
+            if (jwtService.verify(token).isEmpty()) {
+                throw new AssertionError("Token válido rejeitado");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.exceptions.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Caminho de login sem banco (throttle -> BCrypt no pool -> registro de falha/sucesso) sob ataque de password
+// spraying de vários IPs. Depois que os atacantes são barrados, a latência do login legítimo deve voltar à de
+// antes do ataque: o BCrypt deixa de ser consumido pelas tentativas rejeitadas. Compara latências de parede:
+// roda só com -Pbenchmark.
+@Tag("benchmark")
+class LoginThrottleLoadTest {
+
+    private static final int ATTACKERS = 8;
+    private static final int LEGIT_LOGINS = 20;
+    private static final String PASSWORD = "senha-correta";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottle loginThrottle = new LoginThrottle(meterRegistry, Duration.ofMinutes(5), 10, 5, 10,
+        System::currentTimeMillis);
+    private final PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(8), meterRegistry, 2,
+        16, Duration.ofSeconds(10));
+    private final String storedHash = passwordHasher.encode(PASSWORD);
+
+    @Test
+    void shouldKeepLegitimateLoginLatencyFlatUnderAttack() throws InterruptedException {
+        long baseline = medianLoginMillis();
+
+        AtomicBoolean attacking = new AtomicBoolean(true);
+        ExecutorService attackers = Executors.newFixedThreadPool(ATTACKERS);
+        for (int i = 0; i < ATTACKERS; i++) {
+            String ip = "203.0.113." + i;
+            attackers.submit(() -> {
+                int attempt = 0;
+                while (attacking.get()) {
+                    login("alvo" + attempt++, ip, "chute");
+                    // ~1 ms de ida e volta de rede por tentativa; sem isso o teste mede threads girando na CPU
+                    TimeUnit.MILLISECONDS.sleep(1);
+                }
+                return null;
+            });
+        }
+        waitUntilAllAttackersAreThrottled();
+
+        long underAttack = medianLoginMillis();
+        attacking.set(false);
+        attackers.shutdown();
+        assertThat(attackers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        double rejected = meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count();
+        assertThat(rejected).isGreaterThan(ATTACKERS);
+        assertThat(underAttack)
+            .as("Mediana do login legítimo sob ataque (ms); antes do ataque: %d ms", baseline)
+            .isLessThanOrEqualTo(baseline * 3 + 20);
+    }
+
+    private long medianLoginMillis() {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < LEGIT_LOGINS; i++) {
+            long start = System.nanoTime();
+            assertThat(login("drmaria", "10.0.0.1", PASSWORD)).isTrue();
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        Long[] sorted = latencies.toArray(Long[]::new);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private void waitUntilAllAttackersAreThrottled() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline
+            && meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count() < ATTACKERS * 10) {
+            Thread.sleep(10);
+        }
+    }
+
+    // Mesma sequência do AuthController, sem HTTP nem banco
+    private boolean login(String username, String ip, String password) {
+        try {
+            LoginThrottle.Reservation reservation = loginThrottle.reserve(username, ip);
+            if (passwordHasher.matches(password, storedHash)) {
+                loginThrottle.recordSuccess(reservation);
+                return true;
+            }
+            loginThrottle.recordFailure(reservation);
+            return false;
+        } catch (ApiException e) {
+            return false;
+        }
+    }
+}
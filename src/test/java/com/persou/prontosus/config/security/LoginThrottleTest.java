@@ -0,0 +1,150 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.persou.prontosus.config.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(meterRegistry, WINDOW, 10, 3, 10, clock::get);
+    }
+
+    @Test
+    void shouldBlockUserFromSameIpAfterMaxFailures() {
+        failures("drmaria", "10.0.0.1", 3);
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.reserve("DrMaria", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottle.reserve("drmaria", "10.0.0.2"));
+        assertThat(throttled("user")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBlockIpSprayingManyUsers() {
+        IntStream.range(0, 10).forEach(i -> loginThrottle.recordFailure(loginThrottle.reserve("usuario" + i,
+            "10.0.0.9")));
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.reserve("outro", "10.0.0.9"));
+        assertThat(throttled("ip")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotLetParallelBurstPassTheLimit() {
+        long reserved = IntStream.range(0, 200).parallel()
+            .filter(i -> {
+                try {
+                    loginThrottle.reserve("drmaria", "10.0.0.1");
+                    return true;
+                } catch (TooManyRequestsException e) {
+                    return false;
+                }
+            })
+            .count();
+
+        assertThat(reserved).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotChargeConcurrentSuccessfulLoginsFromOneIpToItsFailureLimit() {
+        // Mais logins em andamento do mesmo NAT do que o limite de falhas do IP (10), todos com a senha certa
+        List<LoginThrottle.Reservation> inFlight = IntStream.range(0, 100).parallel()
+            .mapToObj(i -> loginThrottle.reserve("usuario" + i, "10.0.0.5"))
+            .toList();
+
+        assertThat(inFlight).hasSize(100);
+        assertDoesNotThrow(() -> loginThrottle.reserve("outro", "10.0.0.5"));
+        inFlight.parallelStream().forEach(loginThrottle::recordSuccess);
+        assertDoesNotThrow(() -> loginThrottle.reserve("mais.um", "10.0.0.5"));
+        assertThat(throttled("ip")).isZero();
+    }
+
+    @Test
+    void shouldTellWhenTheOldestFailureLeavesTheWindow() {
+        failures("drmaria", "10.0.0.1", 1);
+        clock.addAndGet(WINDOW.toMillis() / 2);
+        failures("drmaria", "10.0.0.1", 2);
+
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+            () -> loginThrottle.reserve("drmaria", "10.0.0.1"));
+
+        // Buckets de 30 s e o relógio 10 s dentro do bucket: a primeira falha sai quando o bucket dela sai da janela
+        assertThat(rejected.getRetryAfter()).isEqualTo(Duration.ofSeconds(140));
+    }
+
+    @Test
+    void shouldReturnReservedSlotsWhenAttemptIsReleased() {
+        IntStream.range(0, 3).forEach(i -> loginThrottle.release(loginThrottle.reserve("drmaria", "10.0.0.1")));
+
+        assertDoesNotThrow(() -> loginThrottle.reserve("drmaria", "10.0.0.1"));
+    }
+
+    @Test
+    void shouldForgetFailuresOnceTheySlideOutOfTheWindow() {
+        failures("drmaria", "10.0.0.1", 2);
+        clock.addAndGet(WINDOW.toMillis() / 2);
+        failures("drmaria", "10.0.0.1", 1);
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.reserve("drmaria", "10.0.0.1"));
+
+        clock.addAndGet(WINDOW.toMillis() / 2 + WINDOW.toMillis() / 10);
+
+        assertDoesNotThrow(() -> loginThrottle.reserve("drmaria", "10.0.0.1"));
+    }
+
+    @Test
+    void shouldResetUserKeyOnSuccessButKeepIpFailures() {
+        failures("drmaria", "10.0.0.1", 2);
+
+        loginThrottle.recordSuccess(loginThrottle.reserve("drmaria", "10.0.0.1"));
+
+        assertDoesNotThrow(() -> loginThrottle.reserve("drmaria", "10.0.0.1"));
+        assertThat(loginThrottle.trackedKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSweepIdleKeys() {
+        failures("drmaria", "10.0.0.1", 1);
+        assertThat(loginThrottle.trackedKeys()).isEqualTo(2);
+
+        clock.addAndGet(WINDOW.toMillis());
+        loginThrottle.sweep();
+
+        assertThat(loginThrottle.trackedKeys()).isZero();
+    }
+
+    @Test
+    void shouldCountConcurrentIncrementsWithoutLosingAny() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10);
+
+        IntStream.range(0, 80_000).parallel().forEach(i -> counter.increment(7));
+
+        assertThat(counter.sum(7)).isEqualTo(80_000);
+        assertThat(counter.sum(17)).isZero();
+    }
+
+    private void failures(String username, String ip, int count) {
+        for (int i = 0; i < count; i++) {
+            loginThrottle.recordFailure(loginThrottle.reserve(username, ip));
+        }
+    }
+
+    private double throttled(String key) {
+        return meterRegistry.get("auth.login.throttled").tag("key", key).counter().count();
+    }
+}
@@ -0,0 +1,95 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.persou.prontosus.config.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void shouldHashAndVerifyOnDedicatedPool() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 2, 4, Duration.ofSeconds(5));
+
+        String encoded = passwordHasher.encode("senha123");
+
+        assertThat(passwordHasher.matches("senha123", encoded)).isTrue();
+        assertThat(passwordHasher.matches("outra", encoded)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void shouldFlagHashesWithLowerCostForRehash() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(6), meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        assertThat(passwordHasher.needsRehash(new BCryptPasswordEncoder(4).encode("senha123"))).isTrue();
+        assertThat(passwordHasher.needsRehash(passwordHasher.encode("senha123"))).isFalse();
+    }
+
+    @Test
+    void shouldRejectImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        passwordHasher = new PasswordHasher(blockingEncoder(started, release), meterRegistry, 1, 1,
+            Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHasher.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordHasher.encode("b"));
+        waitForQueueSize(1);
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordHasher.encode("c"));
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hashing.queue.size").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash-a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash-b");
+    }
+
+    private void waitForQueueSize(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (passwordHasher.queueSize() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(passwordHasher.queueSize()).isEqualTo(expected);
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.gateway.UserChangedEvent;
+import com.persou.prontosus.gateway.UserRepository;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository);
+    }
+
+    @Test
+    void shouldAnswerFromRefreshedMapWithoutQueryingPerUser() {
+        when(userRepository.findTokenVersions()).thenReturn(Map.of("user-1", 0, "user-2", 2));
+
+        tokenVersionRegistry.refresh();
+
+        assertThat(tokenVersionRegistry.isCurrent("user-1", 0)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent("user-2", 1)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent("user-2", 2)).isTrue();
+        verify(userRepository, times(0)).findTokenVersionById("user-1");
+    }
+
+    @Test
+    void shouldLoadUnknownUserOnceAndRejectMissingOnes() {
+        when(userRepository.findTokenVersionById("new-user")).thenReturn(Optional.of(0));
+        when(userRepository.findTokenVersionById("ghost")).thenReturn(Optional.empty());
+
+        assertThat(tokenVersionRegistry.isCurrent("new-user", 0)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent("new-user", 0)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent("ghost", 0)).isFalse();
+
+        verify(userRepository, times(1)).findTokenVersionById("new-user");
+    }
+
+    @Test
+    void shouldDropEntryWhenUserChanges() {
+        when(userRepository.findTokenVersions()).thenReturn(Map.of("user-1", 0));
+        when(userRepository.findTokenVersionById("user-1")).thenReturn(Optional.of(1));
+        tokenVersionRegistry.refresh();
+
+        tokenVersionRegistry.onUserChanged(new UserChangedEvent("user-1", "drmaria"));
+
+        assertThat(tokenVersionRegistry.isCurrent("user-1", 0)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent("user-1", 1)).isTrue();
+    }
+
+    @Test
+    void shouldRemoveDeletedUsersAndKeepLastStateOnFailure() {
+        when(userRepository.findTokenVersions())
+            .thenReturn(Map.of("user-1", 0, "user-2", 0))
+            .thenReturn(Map.of("user-1", 0))
+            .thenThrow(new QueryTimeoutException("timeout"));
+
+        tokenVersionRegistry.refresh();
+        assertThat(tokenVersionRegistry.size()).isEqualTo(2);
+        tokenVersionRegistry.refresh();
+        assertThat(tokenVersionRegistry.size()).isEqualTo(1);
+        tokenVersionRegistry.refresh();
+        assertThat(tokenVersionRegistry.size()).isEqualTo(1);
+    }
+}
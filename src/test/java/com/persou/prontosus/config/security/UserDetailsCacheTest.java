@@ -0,0 +1,122 @@
+package com.persou.prontosus.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.gateway.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCache = new UserDetailsCache(userDetailsService, meterRegistry, TTL, 2, clock::get);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeFromCacheWithoutPassword() {
+        when(userDetailsService.loadUserByUsername("drmaria")).thenReturn(userDetails("drmaria", "DOCTOR", true));
+
+        UserDetails first = userDetailsCache.get("drmaria");
+        UserDetails second = userDetailsCache.get("drmaria");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_DOCTOR");
+        assertThat(first.getPassword()).isEmpty();
+        verify(userDetailsService, times(1)).loadUserByUsername("drmaria");
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReloadAfterTtl() {
+        when(userDetailsService.loadUserByUsername("drmaria")).thenReturn(userDetails("drmaria", "DOCTOR", true));
+
+        userDetailsCache.get("drmaria");
+        clock.addAndGet(TTL.toNanos());
+        userDetailsCache.get("drmaria");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("drmaria");
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictWhenUserChanges() {
+        when(userDetailsService.loadUserByUsername("drmaria"))
+            .thenReturn(userDetails("drmaria", "DOCTOR", true))
+            .thenReturn(userDetails("drmaria", "DOCTOR", false));
+
+        assertThat(userDetailsCache.get("drmaria").isEnabled()).isTrue();
+        userDetailsCache.onUserChanged(new UserChangedEvent("user-1", "drmaria"));
+
+        assertThat(userDetailsCache.get("drmaria").isEnabled()).isFalse();
+        assertThat(meterRegistry.get("cache.evictions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStayWithinMaxSizeDroppingTheOldestEntry() {
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails("admin", "ADMIN", true));
+        when(userDetailsService.loadUserByUsername("drmaria")).thenReturn(userDetails("drmaria", "DOCTOR", true));
+        when(userDetailsService.loadUserByUsername("enfana")).thenReturn(userDetails("enfana", "NURSE", true));
+
+        userDetailsCache.get("admin");
+        clock.addAndGet(1);
+        userDetailsCache.get("drmaria");
+        clock.addAndGet(1);
+        userDetailsCache.get("enfana");
+
+        assertThat(userDetailsCache.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(2);
+        userDetailsCache.get("drmaria");
+        userDetailsCache.get("admin");
+        verify(userDetailsService, times(1)).loadUserByUsername("drmaria");
+        verify(userDetailsService, times(2)).loadUserByUsername("admin");
+    }
+
+    @Test
+    void shouldNotCacheUnknownUsers() {
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.get("ghost"));
+
+        assertThat(userDetailsCache.size()).isZero();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+
+    private static UserDetails userDetails(String username, String role, boolean active) {
+        return User.builder()
+            .username(username)
+            .password("$2a$10$hash")
+            .roles(role)
+            .disabled(!active)
+            .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.Appointment;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentQueryRepositoryImplTest {
+
+    private static final String PATIENT_ID = "00000000-0000-0000-0000-000000000001";
+    private static final UUID PATIENT_UUID = UUID.fromString(PATIENT_ID);
+    private static final String PROFESSIONAL_ID = "00000000-0000-0000-0000-000000000002";
+    private static final UUID PROFESSIONAL_UUID = UUID.fromString(PROFESSIONAL_ID);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private AppointmentQueryRepositoryImpl appointmentQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        appointmentQueryRepository = new AppointmentQueryRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldFindAppointmentsByPatientId() {
+        List<Appointment> appointments = List.of(Appointment.builder().id("app1").build());
+        when(jdbcTemplate.query(contains("WHERE a.patient_id = :patientId ORDER BY a.scheduled_date_time DESC"),
+            argThat((MapSqlParameterSource params) -> PATIENT_UUID.equals(params.getValue("patientId"))),
+            any(RowMapper.class)))
+            .thenReturn(appointments);
+
+        assertThat(appointmentQueryRepository.findByPatientId(PATIENT_ID)).isEqualTo(appointments);
+    }
+
+    @Test
+    void shouldUseHalfOpenRangeForProfessionalPeriod() {
+        List<Appointment> appointments = List.of(Appointment.builder().id("app1").build());
+        when(jdbcTemplate.query(contains("a.scheduled_date_time >= :start AND a.scheduled_date_time < :end"),
+            argThat((MapSqlParameterSource params) -> PROFESSIONAL_UUID.equals(params.getValue("professionalId"))
+                && LocalDateTime.of(2025, 7, 21, 0, 0).equals(params.getValue("start"))
+                && LocalDateTime.of(2025, 7, 28, 0, 0).equals(params.getValue("end"))),
+            any(RowMapper.class)))
+            .thenReturn(appointments);
+
+        List<Appointment> result = appointmentQueryRepository.findByProfessionalAndPeriod(
+            PROFESSIONAL_ID, LocalDate.of(2025, 7, 21), LocalDate.of(2025, 7, 28));
+
+        assertThat(result).isEqualTo(appointments);
+    }
+
+    @Test
+    void shouldBindStatusAsEnumName() {
+        LocalDateTime start = LocalDateTime.of(2025, 7, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 7, 31, 23, 59);
+        when(jdbcTemplate.query(contains("WHERE a.status = :status"),
+            argThat((MapSqlParameterSource params) -> "SCHEDULED".equals(params.getValue("status"))
+                && start.equals(params.getValue("start"))
+                && end.equals(params.getValue("end"))),
+            any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        assertThat(appointmentQueryRepository.findByStatusAndDateRange("SCHEDULED", start, end)).isEmpty();
+    }
+
+    @Test
+    void shouldFindAppointmentsByPatientIdAndStatus() {
+        when(jdbcTemplate.query(contains("a.patient_id = :patientId AND a.status = :status"),
+            argThat((MapSqlParameterSource params) -> PATIENT_UUID.equals(params.getValue("patientId"))
+                && "COMPLETED".equals(params.getValue("status"))),
+            any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        assertThat(appointmentQueryRepository.findByPatientIdAndStatus(PATIENT_ID, "COMPLETED")).isEmpty();
+    }
+}
@@ -21,6 +21,7 @@ import com.persou.prontosus.gateway.database.jpa.AppointmentEntity;
 import com.persou.prontosus.gateway.database.jpa.PatientEntity;
 import com.persou.prontosus.gateway.database.jpa.UserEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.AppointmentJpaRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -279,7 +280,9 @@ class AppointmentRepositoryImplTest {
     @Test
     void shouldFindAppointmentsByProfessionalAndDate() {
         String professionalId = "prof1";
-        LocalDateTime date = LocalDateTime.now();
+        LocalDateTime date = LocalDateTime.of(2025, 7, 20, 14, 30);
+        LocalDateTime dayStart = LocalDateTime.of(2025, 7, 20, 0, 0);
+        LocalDateTime nextDayStart = LocalDateTime.of(2025, 7, 21, 0, 0);
 
         List<AppointmentEntity> entities = List.of(
             AppointmentEntity.builder()
@@ -292,7 +295,7 @@ class AppointmentRepositoryImplTest {
             Appointment.builder().id("app1").scheduledDateTime(date).build()
         );
 
-        when(appointmentJpaRepository.findByProfessionalAndDate(professionalId, date))
+        when(appointmentJpaRepository.findByProfessionalAndScheduledRange(professionalId, dayStart, nextDayStart))
             .thenReturn(entities);
         when(appointmentMapper.toDomain(entities.get(0))).thenReturn(appointments.get(0));
 
@@ -302,10 +305,37 @@ class AppointmentRepositoryImplTest {
         assertEquals(1, result.size());
         assertEquals(date, result.get(0).scheduledDateTime());
 
-        verify(appointmentJpaRepository).findByProfessionalAndDate(professionalId, date);
+        verify(appointmentJpaRepository).findByProfessionalAndScheduledRange(professionalId, dayStart, nextDayStart);
         verify(appointmentMapper).toDomain(entities.get(0));
     }
 
+    @Test
+    void shouldFindAppointmentsByProfessionalAndPeriodUsingHalfOpenRange() {
+        String professionalId = "prof1";
+        LocalDate startDate = LocalDate.of(2025, 7, 21);
+        LocalDate endDate = LocalDate.of(2025, 7, 28);
+
+        AppointmentEntity entity = AppointmentEntity.builder()
+            .id("app1")
+            .scheduledDateTime(LocalDateTime.of(2025, 7, 23, 9, 0))
+            .build();
+        Appointment appointment = Appointment.builder()
+            .id("app1")
+            .scheduledDateTime(entity.getScheduledDateTime())
+            .build();
+
+        when(appointmentJpaRepository.findByProfessionalAndScheduledRange(
+            professionalId, startDate.atStartOfDay(), endDate.atStartOfDay()))
+            .thenReturn(List.of(entity));
+        when(appointmentMapper.toDomain(entity)).thenReturn(appointment);
+
+        List<Appointment> result = appointmentRepository.findByProfessionalAndPeriod(professionalId, startDate, endDate);
+
+        assertEquals(List.of(appointment), result);
+        verify(appointmentJpaRepository).findByProfessionalAndScheduledRange(
+            professionalId, LocalDateTime.of(2025, 7, 21, 0, 0), LocalDateTime.of(2025, 7, 28, 0, 0));
+    }
+
     @Test
     void shouldReturnEmptyListWhenNoAppointmentsFound() {
         Patient patient = Patient.builder().id("patient1").build();
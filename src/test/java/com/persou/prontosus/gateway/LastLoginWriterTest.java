@@ -0,0 +1,75 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginWriterTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 1, 7, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LastLoginWriter lastLoginWriter;
+
+    @BeforeEach
+    void setUp() {
+        lastLoginWriter = new LastLoginWriter(userRepository);
+    }
+
+    @Test
+    void shouldKeepOnlyLatestLoginPerUserAndFlushInOneCall() {
+        lastLoginWriter.record("user-1", MORNING.plusMinutes(5));
+        lastLoginWriter.record("user-1", MORNING);
+        lastLoginWriter.record("user-2", MORNING.plusMinutes(1));
+        when(userRepository.updateLastLogins(anyMap())).thenReturn(2);
+
+        lastLoginWriter.flush();
+
+        verify(userRepository).updateLastLogins(Map.of(
+            "user-1", MORNING.plusMinutes(5),
+            "user-2", MORNING.plusMinutes(1)));
+        assertThat(lastLoginWriter.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldNotTouchDatabaseWithoutLogins() {
+        lastLoginWriter.flush();
+
+        verify(userRepository, never()).updateLastLogins(anyMap());
+    }
+
+    @Test
+    void shouldKeepEntriesForRetryWhenFlushFails() {
+        lastLoginWriter.record("user-1", MORNING);
+        when(userRepository.updateLastLogins(anyMap())).thenThrow(new QueryTimeoutException("timeout"));
+
+        lastLoginWriter.flush();
+        lastLoginWriter.record("user-1", MORNING.minusHours(1));
+
+        assertThat(lastLoginWriter.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrainPendingLoginsOnShutdown() {
+        lastLoginWriter.record("user-1", MORNING);
+        when(userRepository.updateLastLogins(anyMap())).thenReturn(1);
+
+        lastLoginWriter.drain();
+
+        verify(userRepository).updateLastLogins(Map.of("user-1", MORNING));
+    }
+}
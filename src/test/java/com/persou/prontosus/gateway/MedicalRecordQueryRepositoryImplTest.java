@@ -0,0 +1,131 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.persou.prontosus.domain.MedicalRecord;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class MedicalRecordQueryRepositoryImplTest {
+
+    private static final String PATIENT_ID = "00000000-0000-0000-0000-000000000001";
+    private static final UUID PATIENT_UUID = UUID.fromString(PATIENT_ID);
+    private static final String FIRST_RECORD_ID = "00000000-0000-0000-0000-000000000011";
+    private static final String SECOND_RECORD_ID = "00000000-0000-0000-0000-000000000012";
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private MedicalRecordQueryRepositoryImpl medicalRecordQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        medicalRecordQueryRepository = new MedicalRecordQueryRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldLoadPatientHistoryAndAttachAttachmentsWithSingleQuery() throws Exception {
+        List<MedicalRecord> records = List.of(record(FIRST_RECORD_ID), record(SECOND_RECORD_ID));
+        when(jdbcTemplate.query(contains("WHERE mr.patient_id = :patientId"),
+            argThat((MapSqlParameterSource params) -> PATIENT_UUID.equals(params.getValue("patientId"))),
+            any(RowMapper.class)))
+            .thenReturn(records);
+
+        // Só as colunas que importam são stubadas; as demais devolvem null
+        ResultSet attachmentRow = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(attachmentRow.getString("medical_record_id")).thenReturn(SECOND_RECORD_ID);
+        when(attachmentRow.getString("id")).thenReturn("attachment1");
+        when(attachmentRow.getString("file_type")).thenReturn("EXAM_RESULT");
+        when(attachmentRow.getString("storage_codec")).thenReturn("GZIP");
+        doAnswer(invocation -> {
+            MapSqlParameterSource params = invocation.getArgument(1);
+            assertThat(params.getValue("recordIds"))
+                .asInstanceOf(InstanceOfAssertFactories.collection(UUID.class))
+                .containsExactlyInAnyOrder(UUID.fromString(FIRST_RECORD_ID), UUID.fromString(SECOND_RECORD_ID));
+            invocation.<RowCallbackHandler>getArgument(2).processRow(attachmentRow);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM file_attachments"), any(MapSqlParameterSource.class),
+            any(RowCallbackHandler.class));
+
+        List<MedicalRecord> result = medicalRecordQueryRepository.findByPatientId(PATIENT_ID);
+
+        assertThat(result).extracting(MedicalRecord::id).containsExactly(FIRST_RECORD_ID, SECOND_RECORD_ID);
+        assertThat(result.get(0).attachments()).isEmpty();
+        assertThat(result.get(1).attachments()).singleElement()
+            .satisfies(attachment -> {
+                assertThat(attachment.id()).isEqualTo("attachment1");
+                assertThat(attachment.fileType()).isEqualTo("EXAM_RESULT");
+                assertThat(attachment.storageCodec()).isEqualTo("GZIP");
+            });
+    }
+
+    @Test
+    void shouldSkipAttachmentQueryWhenNoRecordsFound() {
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        List<MedicalRecord> result = medicalRecordQueryRepository.findByProfessionalId("prof1");
+
+        assertThat(result).isEmpty();
+        verify(jdbcTemplate, never()).query(anyString(), any(MapSqlParameterSource.class),
+            any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void shouldBindNullForIdThatIsNotAnUuid() {
+        when(jdbcTemplate.query(anyString(),
+            argThat((MapSqlParameterSource params) -> params.hasValue("patientId")
+                && params.getValue("patientId") == null),
+            any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        assertThat(medicalRecordQueryRepository.findByPatientId("patient1")).isEmpty();
+    }
+
+    @Test
+    void shouldBindDateRangeForPatientHistory() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 12, 31, 23, 59);
+        when(jdbcTemplate.query(contains("mr.consultation_date BETWEEN :startDate AND :endDate"),
+            argThat((MapSqlParameterSource params) -> start.equals(params.getValue("startDate"))
+                && end.equals(params.getValue("endDate"))),
+            any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        List<MedicalRecord> result = medicalRecordQueryRepository.findByPatientIdAndDateRange("patient1", start, end);
+
+        assertThat(result).isEmpty();
+    }
+
+    private MedicalRecord record(String id) {
+        return MedicalRecord.builder()
+            .id(id)
+            .attachments(new ArrayList<>())
+            .build();
+    }
+}
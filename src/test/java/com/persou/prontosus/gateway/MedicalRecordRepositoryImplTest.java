@@ -3,6 +3,7 @@ package com.persou.prontosus.gateway;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -84,9 +85,25 @@ class MedicalRecordRepositoryImplTest {
         assertThat(result).isEqualTo(domains);
         verify(patientMapper, times(1)).toEntity(patientDomain);
         verify(medicalRecordJpaRepository, times(1)).findByPatientOrderByConsultationDateDesc(patientEntity);
+        verify(medicalRecordJpaRepository, times(1)).fetchAttachments(entities);
         verify(medicalRecordMapper, times(1)).toDomain(medicalRecordEntity);
     }
 
+    @Test
+    void shouldNotFetchAttachmentsWhenNoRecordsFound() {
+
+        when(medicalRecordJpaRepository.findByPatientIdOrderByConsultationDateDesc("patient-without-records"))
+            .thenReturn(List.of());
+
+
+        List<MedicalRecord> result =
+            medicalRecordRepository.findByPatientIdOrderByConsultationDateDesc("patient-without-records");
+
+
+        assertThat(result).isEmpty();
+        verify(medicalRecordJpaRepository, never()).fetchAttachments(any());
+    }
+
     @Test
     void shouldThrowExceptionWhenMappingFailsInFindByPatient() {
 
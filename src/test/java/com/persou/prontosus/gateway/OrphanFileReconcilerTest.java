@@ -0,0 +1,186 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.gateway.UploadReconciliationRepository.ReconciliationCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanFileReconcilerTest {
+
+    private static final String SHA_REFERENCED = "a1" + "0".repeat(62);
+    private static final String SHA_ORPHAN = "b2" + "0".repeat(62);
+    private static final String LEGACY_REFERENCED = "0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf";
+    private static final String LEGACY_ORPHAN = "6d06a78f-cefc-4553-9726-f6df98fa9f95.txt";
+
+    @Mock
+    private UploadReconciliationRepository reconciliationRepository;
+
+    @TempDir
+    Path uploadDir;
+
+    private FileUploadConfig config;
+    private FileStorage fileStorage;
+
+    @BeforeEach
+    void setUp() {
+        config = new FileUploadConfig();
+        config.getUpload().getReconciler().setMinAge(Duration.ZERO);
+        fileStorage = new FileStorage(uploadDir, new ShardedLayout(2, 2));
+        lenient().when(reconciliationRepository.findReferencedContent(anyCollection()))
+            .thenReturn(Set.of(SHA_REFERENCED));
+        lenient().when(reconciliationRepository.findReferencedLegacyNames(anyCollection()))
+            .thenReturn(Set.of(LEGACY_REFERENCED));
+    }
+
+    @Test
+    void shouldQuarantineOnlyFilesWithoutAttachment() throws IOException {
+        Path referenced = write(fileStorage.contentPath(SHA_REFERENCED));
+        Path referencedThumbnail = write(fileStorage.thumbnailPath(SHA_REFERENCED));
+        Path referencedThumbnailMarker = write(fileStorage.thumbnailFailedPath(SHA_REFERENCED));
+        Path orphan = write(fileStorage.contentPath(SHA_ORPHAN));
+        Path orphanThumbnail = write(fileStorage.thumbnailPath(SHA_ORPHAN));
+        Path legacy = write(uploadDir.resolve(LEGACY_REFERENCED));
+        Path legacyOrphan = write(uploadDir.resolve(LEGACY_ORPHAN));
+        Path session = write(fileStorage.uploadSessionPath("0190a3c2-0000-7000-8000-000000000001"));
+        when(reconciliationRepository.findCursor()).thenReturn(Optional.empty());
+
+        reconciler().reconcile();
+
+        assertThat(referenced).exists();
+        assertThat(referencedThumbnail).exists();
+        assertThat(referencedThumbnailMarker).exists();
+        assertThat(legacy).exists();
+        assertThat(session).exists();
+        assertThat(orphan).doesNotExist();
+        assertThat(orphanThumbnail).doesNotExist();
+        assertThat(legacyOrphan).doesNotExist();
+        assertThat(fileStorage.quarantineDir().resolve(uploadDir.relativize(orphan))).hasContent("conteúdo");
+        assertThat(fileStorage.quarantineDir().resolve(LEGACY_ORPHAN)).exists();
+        // Árvore inteira num lote só: varredura concluída
+        verify(reconciliationRepository).saveCursor(isNull(), notNull());
+    }
+
+    @Test
+    void shouldDeleteAbandonedStagingFilesOlderThanMinAge() throws IOException {
+        config.getUpload().getReconciler().setMinAge(Duration.ofHours(1));
+        Path abandoned = write(fileStorage.newStagingFile());
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path inFlight = write(fileStorage.newStagingFile());
+        Path session = write(fileStorage.uploadSessionPath("0190a3c2-0000-7000-8000-000000000001"));
+        Files.setLastModifiedTime(session, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        when(reconciliationRepository.findCursor()).thenReturn(Optional.empty());
+
+        reconciler().reconcile();
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(inFlight).exists();
+        assertThat(session).exists();
+        assertThat(fileStorage.quarantineDir()).doesNotExist();
+    }
+
+    @Test
+    void shouldResumeFromPersistedCursorInBatches() throws IOException {
+        config.getUpload().getReconciler().setBatchSize(2);
+        Path first = write(uploadDir.resolve("a.txt"));
+        Path second = write(uploadDir.resolve("b1/00/b.txt"));
+        Path third = write(uploadDir.resolve("c.txt"));
+        Path fourth = write(uploadDir.resolve("d.txt"));
+        when(reconciliationRepository.findCursor()).thenReturn(Optional.of(new ReconciliationCursor("a.txt", null)));
+
+        reconciler().reconcile();
+
+        assertThat(first).exists();
+        assertThat(second).doesNotExist();
+        assertThat(third).doesNotExist();
+        assertThat(fourth).exists();
+        verify(reconciliationRepository).saveCursor("c.txt", null);
+    }
+
+    @Test
+    void shouldStopWhenIoBudgetIsSpent() throws IOException {
+        config.getUpload().getReconciler().setMaxBytesPerSecond(DataSize.ofBytes(OrphanFileReconciler.ENTRY_COST));
+        config.getUpload().getReconciler().setInterval(Duration.ofSeconds(1));
+        Path first = write(uploadDir.resolve("a.txt"));
+        Path second = write(uploadDir.resolve("b.txt"));
+        when(reconciliationRepository.findCursor()).thenReturn(Optional.empty());
+
+        reconciler().reconcile();
+
+        assertThat(first).doesNotExist();
+        assertThat(second).exists();
+        verify(reconciliationRepository).saveCursor("a.txt", null);
+    }
+
+    @Test
+    void shouldWaitForUncommittedUploadsAndCompletedPasses() throws IOException {
+        config.getUpload().getReconciler().setMinAge(Duration.ofHours(1));
+        Path recent = write(fileStorage.contentPath(SHA_ORPHAN));
+        when(reconciliationRepository.findCursor()).thenReturn(Optional.empty());
+
+        reconciler().reconcile();
+
+        assertThat(recent).exists();
+
+        when(reconciliationRepository.findCursor())
+            .thenReturn(Optional.of(new ReconciliationCursor(null, LocalDateTime.now().minusHours(1))));
+        config.getUpload().getReconciler().setMinAge(Duration.ZERO);
+
+        reconciler().reconcile();
+
+        assertThat(recent).exists();
+        // Só a primeira rodada gravou o cursor: a segunda respeitou o pass-interval
+        verify(reconciliationRepository).saveCursor(isNull(), notNull());
+    }
+
+    @Test
+    void shouldRestoreReferencedAndPurgeExpiredQuarantine() throws IOException {
+        Path quarantine = fileStorage.quarantineDir();
+        Path backInUse = write(quarantine.resolve(uploadDir.relativize(fileStorage.contentPath(SHA_REFERENCED))));
+        Path expired = write(quarantine.resolve(uploadDir.relativize(fileStorage.contentPath(SHA_ORPHAN))));
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofDays(8))));
+        Path recent = write(quarantine.resolve(LEGACY_ORPHAN));
+        when(reconciliationRepository.findCursor())
+            .thenReturn(Optional.of(new ReconciliationCursor(null, LocalDateTime.now())));
+
+        reconciler().reconcile();
+
+        assertThat(backInUse).doesNotExist();
+        assertThat(fileStorage.contentPath(SHA_REFERENCED)).hasContent("conteúdo");
+        assertThat(expired).doesNotExist();
+        assertThat(expired.getParent()).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    private OrphanFileReconciler reconciler() {
+        return new OrphanFileReconciler(fileStorage, reconciliationRepository, config, new SimpleMeterRegistry());
+    }
+
+    private static Path write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, "conteúdo");
+    }
+}
@@ -0,0 +1,99 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.KeysetPage;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PatientQueryRepositoryImplTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private PatientQueryRepositoryImpl patientQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        patientQueryRepository = new PatientQueryRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldReturnFirstPageWithNextCursorWhenMoreRowsExist() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 8, 0);
+        List<Patient> patients = List.of(
+            Patient.builder().id("patient1").createdAt(createdAt).build(),
+            Patient.builder().id("patient2").createdAt(createdAt).build(),
+            Patient.builder().id("patient3").createdAt(createdAt.plusMinutes(1)).build()
+        );
+        when(jdbcTemplate.query(contains("ORDER BY p.created_at, p.id LIMIT :limit"),
+            argThat((MapSqlParameterSource params) -> Integer.valueOf(3).equals(params.getValue("limit"))
+                && !params.hasValue("id")),
+            any(RowMapper.class)))
+            .thenReturn(patients);
+
+        KeysetPage<Patient> result = patientQueryRepository.findPage(null, 2);
+
+        assertThat(result.content()).extracting(Patient::id).containsExactly("patient1", "patient2");
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.nextCursor()).isEqualTo(new PageCursor(createdAt, "patient2"));
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutNextCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 10, 8, 0);
+        String afterId = "00000000-0000-0000-0000-000000000002";
+        PageCursor after = new PageCursor(createdAt, afterId);
+        List<Patient> patients = List.of(Patient.builder().id("patient3").createdAt(createdAt.plusMinutes(1)).build());
+        when(jdbcTemplate.query(contains("WHERE (p.created_at, p.id) > (:createdAt, :id)"),
+            argThat((MapSqlParameterSource params) -> createdAt.equals(params.getValue("createdAt"))
+                && UUID.fromString(afterId).equals(params.getValue("id"))),
+            any(RowMapper.class)))
+            .thenReturn(patients);
+
+        KeysetPage<Patient> result = patientQueryRepository.findPage(after, 2);
+
+        assertThat(result.content()).isEqualTo(patients);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldSearchPatientsByNameSimilarityWithTrimmedName() {
+        List<Patient> patients = List.of(Patient.builder().id("patient1").fullName("João da Silva").build());
+        when(jdbcTemplate.query(contains("word_similarity"),
+            argThat((MapSqlParameterSource params) -> "joao silva".equals(params.getValue("name"))
+                && "joao silva".equals(params.getValue("pattern"))
+                && Integer.valueOf(10).equals(params.getValue("limit"))),
+            any(RowMapper.class)))
+            .thenReturn(patients);
+
+        assertThat(patientQueryRepository.searchByName("  joao silva ", 10)).isEqualTo(patients);
+    }
+
+    @Test
+    void shouldEscapeLikeWildcardsInSearchPattern() {
+        when(jdbcTemplate.query(contains("ESCAPE '\\'"),
+            argThat((MapSqlParameterSource params) -> "100%_a\\b".equals(params.getValue("name"))
+                && "100\\%\\_a\\\\b".equals(params.getValue("pattern"))),
+            any(RowMapper.class)))
+            .thenReturn(List.of());
+
+        assertThat(patientQueryRepository.searchByName("100%_a\\b", 10)).isEmpty();
+    }
+}
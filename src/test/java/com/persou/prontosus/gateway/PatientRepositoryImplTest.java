@@ -16,10 +16,13 @@ import com.persou.prontosus.config.mapper.PatientMapper;
 import com.persou.prontosus.domain.Patient;
 import com.persou.prontosus.gateway.database.jpa.PatientEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.PatientJpaRepository;
+import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,11 +38,14 @@ class PatientRepositoryImplTest {
     @Mock
     private PatientMapper patientMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
     private PatientRepositoryImpl patientRepository;
 
     @BeforeEach
     void setUp() {
-        patientRepository = new PatientRepositoryImpl(patientJpaRepository, patientMapper);
+        patientRepository = new PatientRepositoryImpl(patientJpaRepository, patientMapper, entityManager);
     }
 
     @Test
@@ -294,6 +300,27 @@ class PatientRepositoryImplTest {
         verify(patientMapper, never()).toDomain(any());
     }
 
+    @Test
+    void shouldStreamPatientsAndDetachEachEntity() {
+        List<PatientEntity> entities = List.of(
+            PatientEntity.builder().id("patient1").build(),
+            PatientEntity.builder().id("patient2").build()
+        );
+
+        when(patientJpaRepository.streamAllOrderByCreatedAt()).thenReturn(entities.stream());
+        when(patientMapper.toDomain(any(PatientEntity.class)))
+            .thenAnswer(invocation -> Patient.builder()
+                .id(invocation.<PatientEntity>getArgument(0).getId())
+                .build());
+
+        List<String> streamedIds = new ArrayList<>();
+        patientRepository.streamAll(patient -> streamedIds.add(patient.id()));
+
+        assertEquals(List.of("patient1", "patient2"), streamedIds);
+        verify(entityManager).detach(entities.get(0));
+        verify(entityManager).detach(entities.get(1));
+    }
+
     @Test
     void shouldCheckIfPatientExistsByCpf() {
         String cpf = "12345678901";
@@ -363,4 +390,42 @@ class PatientRepositoryImplTest {
         verify(patientJpaRepository).findByPhoneNumber(phoneNumber);
         verify(patientMapper, never()).toDomain(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindExistingCpfsInOneQuery() {
+        List<String> cpfs = List.of("12345678901", "98765432100");
+
+        when(patientJpaRepository.findCpfsIn(cpfs)).thenReturn(Set.of("12345678901"));
+
+        Set<String> result = patientRepository.findExistingCpfs(cpfs);
+
+        assertEquals(Set.of("12345678901"), result);
+
+        verify(patientJpaRepository).findCpfsIn(cpfs);
+    }
+
+    @Test
+    void shouldNotQueryExistingCpfsForEmptyBatch() {
+        Set<String> result = patientRepository.findExistingCpfs(List.of());
+
+        assertTrue(result.isEmpty());
+
+        verify(patientJpaRepository, never()).findCpfsIn(any());
+    }
+
+    @Test
+    void shouldSaveAllPatientsInOneCall() {
+        Patient first = Patient.builder().cpf("12345678901").fullName("Primeiro Paciente").build();
+        Patient second = Patient.builder().cpf("98765432100").fullName("Segundo Paciente").build();
+        PatientEntity firstEntity = PatientEntity.builder().cpf("12345678901").fullName("Primeiro Paciente").build();
+        PatientEntity secondEntity = PatientEntity.builder().cpf("98765432100").fullName("Segundo Paciente").build();
+
+        when(patientMapper.toEntity(first)).thenReturn(firstEntity);
+        when(patientMapper.toEntity(second)).thenReturn(secondEntity);
+
+        patientRepository.saveAll(List.of(first, second));
+
+        verify(patientJpaRepository).saveAll(List.of(firstEntity, secondEntity));
+        verify(patientJpaRepository, never()).save(any());
+    }
+}
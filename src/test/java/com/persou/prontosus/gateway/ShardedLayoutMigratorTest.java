@@ -0,0 +1,99 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ShardedLayoutMigratorTest {
+
+    private static final String SHA_A = "a".repeat(64);
+    private static final String SHA_B = "b1" + "0".repeat(62);
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorage fileStorage;
+    private SimpleMeterRegistry meterRegistry;
+    private ShardedLayoutMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        FileUploadConfig config = new FileUploadConfig();
+        config.getUpload().setDir(uploadDir.toString());
+        config.getUpload().getShardMigration().setBatchSize(1);
+        fileStorage = new FileStorage(config);
+        meterRegistry = new SimpleMeterRegistry();
+        migrator = new ShardedLayoutMigrator(fileStorage, config, meterRegistry);
+    }
+
+    @Test
+    void shouldLocateContentInBothLayouts() throws IOException {
+        Path flat = Files.writeString(uploadDir.resolve(SHA_A), "antigo");
+
+        assertThat(fileStorage.contentPath(SHA_B)).isEqualTo(uploadDir.resolve("b1/00").resolve(SHA_B));
+        assertThat(fileStorage.locate(SHA_A)).contains(flat);
+        assertThat(fileStorage.resolve(SHA_A)).isEqualTo(flat);
+        assertThat(fileStorage.hasContent(SHA_B)).isFalse();
+
+        Path sharded = fileStorage.contentPath(SHA_B);
+        Files.createDirectories(sharded.getParent());
+        Files.writeString(sharded, "novo");
+        assertThat(fileStorage.resolve(SHA_B)).isEqualTo(sharded);
+    }
+
+    @Test
+    void shouldMoveFlatFilesIntoShardsInBatches() throws IOException {
+        Files.writeString(uploadDir.resolve(SHA_A), "conteúdo a");
+        Files.writeString(uploadDir.resolve(SHA_B), "conteúdo b");
+        Path legacy = Files.writeString(uploadDir.resolve("0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf"), "antigo");
+
+        migrator.migrateBatch();
+        migrator.migrateBatch();
+        assertThat(migrator.isFinished()).isFalse();
+        migrator.migrateBatch();
+
+        assertThat(migrator.isFinished()).isTrue();
+        assertThat(fileStorage.contentPath(SHA_A)).hasContent("conteúdo a");
+        assertThat(fileStorage.contentPath(SHA_B)).hasContent("conteúdo b");
+        assertThat(uploadDir.resolve(SHA_A)).doesNotExist();
+        assertThat(uploadDir.resolve(SHA_B)).doesNotExist();
+        assertThat(legacy).exists();
+        assertThat(meterRegistry.counter("uploads.layout.migrated").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDropFlatCopyWhenShardAlreadyHasTheContent() throws IOException {
+        Path sharded = fileStorage.contentPath(SHA_A);
+        Files.createDirectories(sharded.getParent());
+        Files.writeString(sharded, "conteúdo");
+        Files.writeString(uploadDir.resolve(SHA_A), "conteúdo");
+
+        migrator.migrateBatch();
+
+        assertThat(uploadDir.resolve(SHA_A)).doesNotExist();
+        assertThat(sharded).hasContent("conteúdo");
+    }
+
+    @Test
+    void shouldKeepFlatLayoutUntouched() throws IOException {
+        FileUploadConfig config = new FileUploadConfig();
+        config.getUpload().setDir(uploadDir.toString());
+        config.getUpload().setShardLevels(0);
+        FileStorage flatStorage = new FileStorage(config);
+        Path flat = Files.writeString(uploadDir.resolve(SHA_A), "conteúdo");
+
+        ShardedLayoutMigrator flatMigrator = new ShardedLayoutMigrator(flatStorage, config, meterRegistry);
+        flatMigrator.migrateBatch();
+
+        assertThat(flatMigrator.isFinished()).isTrue();
+        assertThat(flat).exists();
+        assertThat(flatStorage.resolve(SHA_A)).isEqualTo(flat);
+    }
+}
@@ -0,0 +1,172 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.FileStorage.StagedContent;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Staging antigo (BufferedInputStream com mark/reset para a amostra do codec, DigestInputStream e transferTo)
+// contra a passada única do FileStorage.stage, com arquivos de 1 MB e 10 MB: aquecimento e melhor de várias
+// rodadas. Depende da JIT e da máquina: roda só com -Pbenchmark.
+@Tag("benchmark")
+class StagingPipelineBenchmarkTest {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 7;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void shouldStageInSinglePassAtLeastAsFastAsLegacyPipeline() throws IOException {
+        FileStorage fileStorage = new FileStorage(uploadDir, ShardedLayout.flat());
+        StorageCodecSelector selector = new StorageCodecSelector(new FileUploadConfig());
+
+        for (int size : new int[] {1024 * 1024, 10 * 1024 * 1024}) {
+            byte[] labExport = labExport(size);
+            byte[] incompressible = new byte[size];
+            new Random(11).nextBytes(incompressible);
+
+            for (byte[] content : new byte[][] {labExport, incompressible}) {
+                String label = (size / (1024 * 1024)) + " MB " + (content == labExport ? "CSV" : "aleatório");
+                Result legacy = measure(content, () -> legacyStage(fileStorage, selector, content), fileStorage);
+                Result singlePass = measure(content, () -> {
+                    CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(content));
+                    StagedContent staged = fileStorage.stage(source, content.length, selector);
+                    // Cada byte sai da origem uma vez só, inclusive os da amostra do codec
+                    assertThat(source.count).isEqualTo(content.length);
+                    return staged;
+                }, fileStorage);
+
+                assertThat(singlePass.allocatedBytes())
+                    .as("%s: antigo %.1f MB/s, passada única %.1f MB/s", label, legacy.mbPerSecond(),
+                        singlePass.mbPerSecond())
+                    .isLessThanOrEqualTo(legacy.allocatedBytes());
+            }
+        }
+    }
+
+    private static Result measure(byte[] content, Stage stage, FileStorage fileStorage) throws IOException {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String expectedSha256 = sha256(content);
+        long best = Long.MAX_VALUE;
+        long leastAllocated = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            StagedContent staged = stage.run();
+            long elapsed = System.nanoTime() - start;
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            assertThat(staged.sha256()).isEqualTo(expectedSha256);
+            assertThat(staged.size()).isEqualTo(content.length);
+            fileStorage.deleteQuietly(staged.path());
+
+            if (round >= WARMUP) {
+                best = Math.min(best, elapsed);
+                leastAllocated = Math.min(leastAllocated, allocated);
+            }
+        }
+        return new Result(content.length / (1024.0 * 1024.0) / (best / 1_000_000_000.0), leastAllocated);
+    }
+
+    // Cópia fiel do caminho anterior do UploadExamFileUseCase + FileStorage
+    private static StagedContent legacyStage(FileStorage fileStorage, StorageCodecSelector selector, byte[] content)
+        throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(new ByteArrayInputStream(content),
+            selector.sampleSize());
+        buffered.mark(selector.sampleSize());
+        StorageCodec codec = selector.select(buffered.readNBytes(selector.sampleSize()));
+        buffered.reset();
+
+        Path staged = fileStorage.newStagingFile();
+        MessageDigest digest = newSha256();
+        long size;
+        try (InputStream in = new DigestInputStream(buffered, digest);
+             OutputStream out = codec.encode(Files.newOutputStream(staged))) {
+            size = in.transferTo(out);
+        }
+        return new StagedContent(staged, HexFormat.of().formatHex(digest.digest()), size, codec,
+            Files.size(staged), null);
+    }
+
+    private static byte[] labExport(int size) {
+        StringBuilder csv = new StringBuilder("data_coleta,cpf,exame,resultado,unidade\n");
+        Random random = new Random(5);
+        String[] exams = {"hemoglobina", "glicose", "creatinina", "colesterol_total", "tsh"};
+        while (csv.length() < size) {
+            csv.append("2024-0").append(1 + random.nextInt(9)).append('-').append(10 + random.nextInt(18))
+                .append(',').append(10_000_000_000L + random.nextInt(1_000_000))
+                .append(',').append(exams[random.nextInt(exams.length)])
+                .append(',').append(random.nextInt(300)).append('.').append(random.nextInt(10))
+                .append(",mg/dL\n");
+        }
+        return csv.substring(0, size).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String sha256(byte[] content) {
+        return HexFormat.of().formatHex(newSha256().digest(content));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        StagedContent run() throws IOException;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    private record Result(double mbPerSecond, long allocatedBytes) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.FileStorage.StagedContent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Espaço em disco e vazão de escrita (staging com hash) e leitura (descompressão) de cada codec, com um export
+// de laboratório em CSV e com conteúdo que não comprime (imagem/zip): aquecimento e melhor de várias rodadas,
+// com os números na descrição das asserções. Depende da JIT e da máquina: roda só com -Pbenchmark.
+@Tag("benchmark")
+class StorageCodecBenchmarkTest {
+
+    private static final int SIZE = 8 * 1024 * 1024;
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void shouldMeasureDiskSavedAndThroughputPerCodec() throws IOException {
+        FileStorage fileStorage = new FileStorage(uploadDir, ShardedLayout.flat());
+        byte[] labExport = labExport();
+        byte[] incompressible = new byte[SIZE];
+        new Random(7).nextBytes(incompressible);
+
+        for (StorageCodec codec : StorageCodec.values()) {
+            Result csv = measure(fileStorage, codec, labExport);
+            Result random = measure(fileStorage, codec, incompressible);
+
+            // Texto de laboratório precisa encolher de verdade, senão a compressão não se paga
+            assertThat(csv.ratio())
+                .as("%s CSV: %.1f%% em disco, escrita %.1f MB/s, leitura %.1f MB/s", codec, csv.ratio() * 100,
+                    csv.writeMbPerSecond(), csv.readMbPerSecond())
+                .isLessThanOrEqualTo(codec == StorageCodec.NONE ? 1.0 : 0.3);
+            assertThat(random.ratio())
+                .as("%s aleatório: %.1f%% em disco, escrita %.1f MB/s, leitura %.1f MB/s", codec,
+                    random.ratio() * 100, random.writeMbPerSecond(), random.readMbPerSecond())
+                .isLessThanOrEqualTo(1.01);
+        }
+    }
+
+    private static Result measure(FileStorage fileStorage, StorageCodec codec, byte[] content) throws IOException {
+        long bestWrite = Long.MAX_VALUE;
+        long bestRead = Long.MAX_VALUE;
+        long stored = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long start = System.nanoTime();
+            StagedContent staged = fileStorage.stage(new ByteArrayInputStream(content), codec);
+            long written = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (InputStream in = fileStorage.open(staged.path(), codec)) {
+                assertThat(in.transferTo(OutputStream.nullOutputStream())).isEqualTo(content.length);
+            }
+            long read = System.nanoTime() - start;
+            fileStorage.deleteQuietly(staged.path());
+
+            stored = staged.storedSize();
+            if (round >= WARMUP) {
+                bestWrite = Math.min(bestWrite, written);
+                bestRead = Math.min(bestRead, read);
+            }
+        }
+        return new Result((double) stored / content.length, mbPerSecond(content.length, bestWrite),
+            mbPerSecond(content.length, bestRead));
+    }
+
+    private static byte[] labExport() {
+        StringBuilder csv = new StringBuilder("data_coleta,cpf,exame,resultado,unidade,referencia,laboratorio\n");
+        Random random = new Random(3);
+        String[] exams = {"hemoglobina", "glicose", "creatinina", "colesterol_total", "tsh", "leucocitos"};
+        String[] units = {"g/dL", "mg/dL", "mg/dL", "mg/dL", "mUI/L", "mil/mm3"};
+        while (csv.length() < SIZE) {
+            int exam = random.nextInt(exams.length);
+            csv.append("2024-0").append(1 + random.nextInt(9)).append('-').append(10 + random.nextInt(18))
+                .append(',').append(10_000_000_000L + random.nextInt(1_000_000))
+                .append(',').append(exams[exam])
+                .append(',').append(random.nextInt(300)).append('.').append(random.nextInt(10))
+                .append(',').append(units[exam])
+                .append(",valores de referência conforme idade e sexo,Laboratório Municipal\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double mbPerSecond(long bytes, long nanos) {
+        return bytes / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+    }
+
+    private record Result(double ratio, double writeMbPerSecond, double readMbPerSecond) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.FileStorage.StagedContent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Espaço em disco de cada codec com um export de laboratório em CSV e com conteúdo que não comprime
+// (imagem/zip), e a volta pelo open() devolvendo os bytes originais. Só tamanhos e conteúdo: a vazão fica no
+// StorageCodecBenchmarkTest.
+class StorageCodecRoundTripTest {
+
+    private static final int SIZE = 8 * 1024 * 1024;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void shouldShrinkLabExportAndRestoreContentForEveryCodec() throws IOException {
+        FileStorage fileStorage = new FileStorage(uploadDir, ShardedLayout.flat());
+        byte[] labExport = labExport();
+        byte[] incompressible = new byte[SIZE];
+        new Random(7).nextBytes(incompressible);
+
+        Map<StorageCodec, Double> csvRatio = new EnumMap<>(StorageCodec.class);
+        Map<StorageCodec, Double> incompressibleRatio = new EnumMap<>(StorageCodec.class);
+        for (StorageCodec codec : StorageCodec.values()) {
+            csvRatio.put(codec, storedRatio(fileStorage, codec, labExport));
+            incompressibleRatio.put(codec, storedRatio(fileStorage, codec, incompressible));
+        }
+
+        // Texto de laboratório precisa encolher de verdade, senão a compressão não se paga
+        assertThat(csvRatio.get(StorageCodec.DEFLATE)).isLessThan(0.3);
+        assertThat(csvRatio.get(StorageCodec.GZIP)).isLessThan(0.3);
+        assertThat(csvRatio.get(StorageCodec.NONE)).isEqualTo(1.0);
+        // O que não comprime sai do deflate em blocos armazenados: só cabeçalhos a mais, nunca crescimento real
+        assertThat(incompressibleRatio.get(StorageCodec.DEFLATE)).isLessThanOrEqualTo(1.01);
+        assertThat(incompressibleRatio.get(StorageCodec.GZIP)).isLessThanOrEqualTo(1.01);
+        assertThat(incompressibleRatio.get(StorageCodec.NONE)).isEqualTo(1.0);
+    }
+
+    private static double storedRatio(FileStorage fileStorage, StorageCodec codec, byte[] content)
+        throws IOException {
+        StagedContent staged = fileStorage.stage(new ByteArrayInputStream(content), codec);
+        try (InputStream in = fileStorage.open(staged.path(), codec)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        } finally {
+            fileStorage.deleteQuietly(staged.path());
+        }
+        return (double) staged.storedSize() / content.length;
+    }
+
+    private static byte[] labExport() {
+        StringBuilder csv = new StringBuilder("data_coleta,cpf,exame,resultado,unidade,referencia,laboratorio\n");
+        Random random = new Random(3);
+        String[] exams = {"hemoglobina", "glicose", "creatinina", "colesterol_total", "tsh", "leucocitos"};
+        String[] units = {"g/dL", "mg/dL", "mg/dL", "mg/dL", "mUI/L", "mil/mm3"};
+        while (csv.length() < SIZE) {
+            int exam = random.nextInt(exams.length);
+            csv.append("2024-0").append(1 + random.nextInt(9)).append('-').append(10 + random.nextInt(18))
+                .append(',').append(10_000_000_000L + random.nextInt(1_000_000))
+                .append(',').append(exams[exam])
+                .append(',').append(random.nextInt(300)).append('.').append(random.nextInt(10))
+                .append(',').append(units[exam])
+                .append(",valores de referência conforme idade e sexo,Laboratório Municipal\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
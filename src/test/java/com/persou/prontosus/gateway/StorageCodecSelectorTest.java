@@ -0,0 +1,69 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.enums.ContentSignature;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StorageCodecSelectorTest {
+
+    private FileUploadConfig config;
+    private StorageCodecSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        config = new FileUploadConfig();
+        selector = new StorageCodecSelector(config);
+    }
+
+    @Test
+    void shouldCompressTextLookingOnlyAtTheSampledLength() {
+        byte[] block = new byte[64 * 1024];
+        new Random(42).nextBytes(block);
+        byte[] csv = "paciente,exame,valor\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(csv, 0, block, 0, csv.length);
+
+        // O resto do bloco (ruído) não entra na decisão
+        assertThat(selector.select(block, csv.length, null)).isEqualTo(StorageCodec.DEFLATE);
+        assertThat(selector.select(block, block.length, null)).isEqualTo(StorageCodec.NONE);
+    }
+
+    @Test
+    void shouldSkipFormatsThatAreAlreadyCompressed() {
+        byte[] docx = new byte[4096];
+        docx[0] = 'P';
+        docx[1] = 'K';
+        docx[2] = 0x03;
+        docx[3] = 0x04;
+
+        assertThat(selector.select(docx)).isEqualTo(StorageCodec.NONE);
+        assertThat(selector.select(docx, docx.length, ContentSignature.ZIP)).isEqualTo(StorageCodec.NONE);
+        // Sem assinatura de formato comprimido, o zero-fill comprime
+        assertThat(selector.select(docx, docx.length, ContentSignature.PDF)).isEqualTo(StorageCodec.DEFLATE);
+    }
+
+    @Test
+    void shouldSkipContentThatDoesNotShrink() {
+        byte[] noise = new byte[64 * 1024];
+        new Random(42).nextBytes(noise);
+
+        assertThat(selector.select(noise)).isEqualTo(StorageCodec.NONE);
+        assertThat(selector.select(new byte[0])).isEqualTo(StorageCodec.NONE);
+    }
+
+    @Test
+    void shouldUseConfiguredCodecOrNoneWhenDisabled() {
+        byte[] text = "resultado normal ".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+        config.getUpload().getCompression().setCodec(StorageCodec.GZIP);
+        assertThat(selector.select(text)).isEqualTo(StorageCodec.GZIP);
+
+        config.getUpload().getCompression().setCodec(StorageCodec.NONE);
+        assertThat(selector.select(text)).isEqualTo(StorageCodec.NONE);
+    }
+}
@@ -0,0 +1,184 @@
+package com.persou.prontosus.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.StorageCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailQueueTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorage fileStorage;
+    private SimpleMeterRegistry meterRegistry;
+    private ThumbnailQueue thumbnailQueue;
+
+    @BeforeEach
+    void setUp() {
+        fileStorage = new FileStorage(uploadDir, new ShardedLayout(2, 2));
+        meterRegistry = new SimpleMeterRegistry();
+        thumbnailQueue = new ThumbnailQueue(fileStorage, new ThumbnailGenerator(256, 50_000_000), meterRegistry,
+            true, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailQueue.shutdown();
+    }
+
+    @Test
+    void shouldGenerateDownscaledThumbnailAfterImageIsStored() throws Exception {
+        String sha256 = store(image(2000, 1000), StorageCodec.NONE);
+
+        thumbnailQueue.onAttachmentStored(new AttachmentStoredEvent("id-1", sha256, StorageCodec.NONE,
+            FileType.IMAGE));
+
+        BufferedImage thumbnail = ImageIO.read(awaitThumbnail(sha256).toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(256);
+        assertThat(thumbnail.getHeight()).isEqualTo(128);
+        assertThat(fileStorage.thumbnailPath(sha256)).hasParentRaw(fileStorage.contentPath(sha256).getParent());
+        assertThat(meterRegistry.counter("thumbnails.processed", "result", "generated").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("thumbnails.queue.lag").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadCompressedContent() throws Exception {
+        String sha256 = store(image(300, 600), StorageCodec.DEFLATE);
+
+        assertThat(thumbnailQueue.submit(sha256, StorageCodec.DEFLATE)).isTrue();
+
+        BufferedImage thumbnail = ImageIO.read(awaitThumbnail(sha256).toFile());
+        assertThat(thumbnail.getHeight()).isEqualTo(256);
+    }
+
+    @Test
+    void shouldIgnoreNonImagesAndSkipUnreadableContent() throws Exception {
+        String sha256 = "c".repeat(64);
+        Path content = fileStorage.contentPath(sha256);
+        Files.createDirectories(content.getParent());
+        Files.writeString(content, "não é imagem");
+
+        thumbnailQueue.onAttachmentStored(new AttachmentStoredEvent("id-1", sha256, StorageCodec.NONE,
+            FileType.EXAM_RESULT));
+        assertThat(thumbnailQueue.queueSize()).isZero();
+
+        assertThat(thumbnailQueue.submit(sha256, StorageCodec.NONE)).isTrue();
+        awaitProcessed("skipped");
+        assertThat(fileStorage.thumbnailPath(sha256)).doesNotExist();
+        // Formato sem miniatura fica marcado e não volta para a fila
+        assertThat(fileStorage.thumbnailFailedPath(sha256)).exists();
+        assertThat(thumbnailQueue.submit(sha256, StorageCodec.NONE)).isFalse();
+    }
+
+    @Test
+    void shouldMarkCorruptImageSoItIsNotRequeued() throws Exception {
+        String valid = store(image(400, 400), StorageCodec.NONE);
+        byte[] png = Files.readAllBytes(fileStorage.contentPath(valid));
+        String sha256 = "d".repeat(64);
+        Path content = fileStorage.contentPath(sha256);
+        Files.createDirectories(content.getParent());
+        // Cabeçalho e dimensões legíveis, dados da imagem cortados no meio
+        Files.write(content, Arrays.copyOf(png, png.length / 2));
+
+        assertThat(thumbnailQueue.submit(sha256, StorageCodec.NONE)).isTrue();
+        awaitProcessed("failed");
+
+        assertThat(fileStorage.thumbnailPath(sha256)).doesNotExist();
+        assertThat(fileStorage.thumbnailFailedPath(sha256)).exists();
+        assertThat(thumbnailQueue.submit(sha256, StorageCodec.NONE)).isFalse();
+    }
+
+    @Test
+    void shouldDropRequestsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ThumbnailGenerator slowGenerator = mock(ThumbnailGenerator.class);
+        when(slowGenerator.generate(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+        thumbnailQueue.shutdown();
+        thumbnailQueue = new ThumbnailQueue(fileStorage, slowGenerator, meterRegistry, true, 1, 1);
+
+        String running = store(image(10, 10), StorageCodec.NONE);
+        String queued = "a".repeat(64);
+        String dropped = "b".repeat(64);
+        assertThat(thumbnailQueue.submit(running, StorageCodec.NONE)).isTrue();
+        awaitEmptyQueue();
+        assertThat(thumbnailQueue.submit(queued, StorageCodec.NONE)).isTrue();
+        // Mesmo conteúdo já na fila não entra de novo
+        assertThat(thumbnailQueue.submit(queued, StorageCodec.NONE)).isFalse();
+        assertThat(thumbnailQueue.submit(dropped, StorageCodec.NONE)).isFalse();
+        release.countDown();
+
+        assertThat(meterRegistry.counter("thumbnails.rejected").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("thumbnails.queue.oldest").gauge().value()).isGreaterThanOrEqualTo(0.0);
+    }
+
+    private String store(BufferedImage image, StorageCodec codec) throws IOException {
+        Path png = Files.createTempFile(uploadDir, "imagem", ".png");
+        ImageIO.write(image, "png", png.toFile());
+        String sha256 = FileStorage.sha256Of(png);
+        Path content = fileStorage.contentPath(sha256);
+        Files.createDirectories(content.getParent());
+        try (OutputStream out = codec.encode(Files.newOutputStream(content))) {
+            Files.copy(png, out);
+        }
+        Files.delete(png);
+        return sha256;
+    }
+
+    private static BufferedImage image(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x += 7) {
+            for (int y = 0; y < height; y += 5) {
+                image.setRGB(x, y, 0xFF000000 | (x * 31 + y * 17));
+            }
+        }
+        return image;
+    }
+
+    private Path awaitThumbnail(String sha256) throws InterruptedException {
+        Path thumbnail = fileStorage.thumbnailPath(sha256);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!Files.exists(thumbnail) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(thumbnail).exists();
+        return thumbnail;
+    }
+
+    private void awaitProcessed(String result) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.counter("thumbnails.processed", "result", result).count() == 0
+            && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(meterRegistry.counter("thumbnails.processed", "result", result).count()).isEqualTo(1);
+    }
+
+    private void awaitEmptyQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (thumbnailQueue.queueSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.persou.prontosus.gateway;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,15 +12,23 @@ import com.persou.prontosus.domain.User;
 import com.persou.prontosus.domain.enums.ProfessionalRole;
 import com.persou.prontosus.gateway.database.jpa.UserEntity;
 import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository.TokenVersionView;
 import com.persou.prontosus.mocks.UserMock;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 @ExtendWith(MockitoExtension.class)
 class UserRepositoryImplTest {
@@ -30,6 +39,12 @@ class UserRepositoryImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private UserRepositoryImpl userRepository;
 
@@ -282,6 +297,7 @@ class UserRepositoryImplTest {
         verify(userMapper, times(1)).toEntity(userDomain);
         verify(userJpaRepository, times(1)).save(userEntity);
         verify(userMapper, times(1)).toDomain(userEntity);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(userEntity.getId(), userEntity.getUsername()));
     }
 
     @Test
@@ -315,4 +331,98 @@ class UserRepositoryImplTest {
         verify(userJpaRepository, times(1)).findById(id);
         verify(userMapper, times(0)).toDomain(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindTokenVersionById() {
+
+        when(userJpaRepository.findTokenVersionById("user-id")).thenReturn(Optional.of(3));
+
+
+        Optional<Integer> result = userRepository.findTokenVersionById("user-id");
+
+
+        assertThat(result).contains(3);
+    }
+
+    @Test
+    void shouldFindAllTokenVersionsByUserId() {
+
+        when(userJpaRepository.findAllTokenVersions()).thenReturn(List.of(
+            tokenVersionView("user-1", 0),
+            tokenVersionView("user-2", 4)
+        ));
+
+
+        Map<String, Integer> result = userRepository.findTokenVersions();
+
+
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of("user-1", 0, "user-2", 4));
+        verify(userMapper, times(0)).toDomain(any());
+    }
+
+    @Test
+    void shouldUpdateLastLoginsInSingleBatch() {
+
+        String userId = "0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b";
+        LocalDateTime lastLoginAt = LocalDateTime.of(2030, 1, 1, 7, 0);
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[] {1});
+
+
+        int updated = userRepository.updateLastLogins(Map.of(userId, lastLoginAt));
+
+
+        assertThat(updated).isEqualTo(1);
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertThat(batch.getValue()).singleElement().satisfies(params -> {
+            assertThat(params.getValue("id")).isEqualTo(UUID.fromString(userId));
+            assertThat(params.getValue("lastLoginAt")).isEqualTo(lastLoginAt);
+        });
+    }
+
+    @Test
+    void shouldUpdateOnlyPasswordAndPublishChangeWhenHashIsUnchanged() {
+
+        User user = userDomain.withId("0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b").withPassword("$2a$08$legacy");
+        when(jdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenReturn(1, 0);
+
+
+        boolean updated = userRepository.updatePassword(user, "$2a$12$rehashed");
+        boolean stale = userRepository.updatePassword(user, "$2a$12$rehashed");
+
+
+        assertThat(updated).isTrue();
+        assertThat(stale).isFalse();
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), params.capture());
+        assertThat(sql.getValue()).startsWith("UPDATE users SET password = :newPassword WHERE")
+            .doesNotContain("active", "role", "last_login_at");
+        assertThat(params.getValue().getValue("currentPassword")).isEqualTo("$2a$08$legacy");
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+        verify(userJpaRepository, times(0)).save(any());
+    }
+
+    @Test
+    void shouldSkipEmptyLastLoginBatch() {
+
+        assertThat(userRepository.updateLastLogins(Map.of())).isZero();
+
+
+        verify(jdbcTemplate, times(0)).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    private static TokenVersionView tokenVersionView(String id, int tokenVersion) {
+        return new TokenVersionView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getTokenVersion() {
+                return tokenVersion;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        target = mock(DataSource.class);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnceWhenConnectionIsClosed() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection limited = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+
+        limited.close();
+        limited.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        assertThat(((ConnectionProxy) limited).getTargetConnection()).isSameAs(connection);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldRejectAfterTimeoutWhenAllPermitsAreTaken() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertThat(meterRegistry.get("db.connections.limiter.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveBackPermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool esgotado"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
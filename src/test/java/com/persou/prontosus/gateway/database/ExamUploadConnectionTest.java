@@ -0,0 +1,165 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.application.UploadExamFileUseCase;
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.FileContentRepositoryImpl;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.StorageCodecSelector;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Pool de uma conexão só e um upload parado no meio da cópia: se a cópia ainda rodasse dentro da transação, a
+// consulta feita enquanto o upload espera ficaria sem conexão e estouraria o connection-timeout. Em duas fases a
+// conexão só é usada no INSERT, então a consulta passa.
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "spring.datasource.hikari.maximum-pool-size=1",
+    "spring.datasource.hikari.connection-timeout=2000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UploadExamFileUseCase.class, FileStorage.class, FileContentRepositoryImpl.class,
+    FileUploadConfig.class, StorageCodecSelector.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ExamUploadConnectionTest {
+
+    private static final String MEDICAL_RECORD_ID = "00000000-0000-0000-0000-0000000000c3";
+    private static final Path UPLOAD_DIR = createUploadDir();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("app.file.upload.dir", UPLOAD_DIR::toString);
+    }
+
+    @Autowired
+    private UploadExamFileUseCase uploadExamFileUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldNotHoldConnectionWhileCopyingUpload() throws Exception {
+        seed();
+        User uploadedBy = User.builder().username("upload.bench").build();
+        var file = new BlockingMultipartFile("exame.pdf", new byte[256 * 1024]);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> upload = executor.submit(() -> uploadExamFileUseCase.execute(MEDICAL_RECORD_ID, file, null,
+                uploadedBy));
+            assertThat(file.copying.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_attachments", Long.class)).isZero();
+
+            file.release.countDown();
+            upload.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_attachments", Long.class)).isEqualTo(1);
+        try (Stream<Path> staged = Files.list(UPLOAD_DIR.resolve(".staging"))) {
+            assertThat(staged.count()).isZero();
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000c1', 'upload.bench', '', 'Upload Bench',
+                    'upload.bench@prontosus.test', 'CRM-UPLOAD', 'DOCTOR', TRUE, NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000c2', '90000000001', 'Paciente Upload', DATE '1980-01-01',
+                    'OTHER', NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            VALUES (?::uuid, '00000000-0000-0000-0000-0000000000c2', '00000000-0000-0000-0000-0000000000c1',
+                    NOW(), 'Exames de rotina', NOW(), NOW())
+            """, MEDICAL_RECORD_ID);
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("prontosus-uploads");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Cliente que para depois do primeiro bloco até o teste liberar
+    private static final class BlockingMultipartFile extends MockMultipartFile {
+
+        private final CountDownLatch copying = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingMultipartFile(String name, byte[] content) {
+            super("file", name, "application/pdf", content);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                private boolean firstChunk = true;
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    if (!firstChunk) {
+                        awaitRelease();
+                    }
+                    firstChunk = false;
+                    return super.read(buffer, offset, Math.min(length, 8 * 1024));
+                }
+            };
+        }
+
+        private void awaitRelease() throws IOException {
+            copying.countDown();
+            try {
+                if (!release.await(30, TimeUnit.SECONDS)) {
+                    throw new IOException("Upload não foi liberado pelo teste");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.application.UploadExamFileUseCase;
+import com.persou.prontosus.config.util.FileUploadConfig;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.FileContentRepositoryImpl;
+import com.persou.prontosus.gateway.FileStorage;
+import com.persou.prontosus.gateway.StorageCodecSelector;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Uploads simultâneos com cliente/disco lento e pool de 4 conexões, primeiro com a cópia dentro de uma transação
+// aberta antes do upload (o desenho antigo) e depois em duas fases. Na transação cada upload segura uma conexão
+// durante toda a escrita e a vazão fica presa em POOL_SIZE / tempo de escrita; em duas fases a conexão só é usada
+// no INSERT e a vazão acompanha o número de uploads em paralelo. Depende do relógio e da máquina: roda só com
+// -Pbenchmark.
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "spring.datasource.hikari.maximum-pool-size=4"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UploadExamFileUseCase.class, FileStorage.class, FileContentRepositoryImpl.class,
+    FileUploadConfig.class, StorageCodecSelector.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("benchmark")
+class ExamUploadThroughputTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int CONCURRENT_UPLOADS = 16;
+    private static final int UPLOADS = 64;
+    private static final int FILE_SIZE = 512 * 1024;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long CHUNK_DELAY_MILLIS = 10;
+    private static final String MEDICAL_RECORD_ID = "00000000-0000-0000-0000-0000000000c3";
+    private static final Path UPLOAD_DIR = createUploadDir();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("app.file.upload.dir", UPLOAD_DIR::toString);
+    }
+
+    @Autowired
+    private UploadExamFileUseCase uploadExamFileUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldNotBoundUploadThroughputByConnectionPool() throws Exception {
+        seed();
+        User uploadedBy = User.builder().username("upload.bench").build();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        double transactional = uploadsPerSecond(0, (name, content) -> transaction.executeWithoutResult(status -> {
+            try {
+                uploadExamFileUseCase.execute(MEDICAL_RECORD_ID, new SlowMultipartFile(name, content), null,
+                    uploadedBy);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        double twoPhase = uploadsPerSecond(1, (name, content) ->
+            uploadExamFileUseCase.execute(MEDICAL_RECORD_ID, new SlowMultipartFile(name, content), null,
+                uploadedBy));
+        double writeSeconds = (double) FILE_SIZE / CHUNK_SIZE * CHUNK_DELAY_MILLIS / 1000;
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_attachments", Long.class))
+            .isEqualTo(2 * UPLOADS);
+        try (Stream<Path> files = Files.walk(UPLOAD_DIR)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(2 * UPLOADS);
+        }
+        try (Stream<Path> staged = Files.list(UPLOAD_DIR.resolve(".staging"))) {
+            assertThat(staged.count()).isZero();
+        }
+        assertThat(twoPhase)
+            .as("%d uploads de %d KB, %d em paralelo, pool de %d: cópia na transação %.1f uploads/s (limite %.1f), "
+                    + "duas fases %.1f uploads/s", UPLOADS, FILE_SIZE / 1024, CONCURRENT_UPLOADS, POOL_SIZE,
+                transactional, POOL_SIZE / writeSeconds, twoPhase)
+            .isGreaterThan(POOL_SIZE / writeSeconds)
+            .isGreaterThan(transactional);
+    }
+
+    // round separa o conteúdo das duas medições: arquivos iguais seriam deduplicados e gravados uma vez só
+    private static double uploadsPerSecond(int round, Upload upload) throws Exception {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_UPLOADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                String name = "exame-" + round + "-" + i + ".pdf";
+                byte[] content = new byte[FILE_SIZE];
+                content[0] = (byte) i;
+                content[1] = (byte) round;
+                futures.add(executor.submit(() -> {
+                    upload.run(name, content);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return UPLOADS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000c1', 'upload.bench', '', 'Upload Bench',
+                    'upload.bench@prontosus.test', 'CRM-UPLOAD', 'DOCTOR', TRUE, NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000c2', '90000000001', 'Paciente Upload', DATE '1980-01-01',
+                    'OTHER', NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            VALUES (?::uuid, '00000000-0000-0000-0000-0000000000c2', '00000000-0000-0000-0000-0000000000c1',
+                    NOW(), 'Exames de rotina', NOW(), NOW())
+            """, MEDICAL_RECORD_ID);
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("prontosus-uploads");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        void run(String name, byte[] content) throws Exception;
+    }
+
+    // Cliente (ou disco) lento: cada bloco de 64 KB leva CHUNK_DELAY_MILLIS para chegar
+    private static final class SlowMultipartFile extends MockMultipartFile {
+
+        SlowMultipartFile(String name, byte[] content) {
+            super("file", name, "application/pdf", content);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    sleep();
+                    return super.read(buffer, offset, Math.min(length, CHUNK_SIZE));
+                }
+            };
+        }
+
+        private static void sleep() throws IOException {
+            try {
+                Thread.sleep(CHUNK_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
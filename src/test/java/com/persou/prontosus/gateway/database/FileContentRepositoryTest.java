@@ -0,0 +1,131 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.domain.enums.StorageCodec;
+import com.persou.prontosus.gateway.FileContentRepository;
+import com.persou.prontosus.gateway.FileContentRepository.AcquiredContent;
+import com.persou.prontosus.gateway.FileContentRepository.LegacyAttachment;
+import com.persou.prontosus.gateway.FileContentRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FileContentRepositoryImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+class FileContentRepositoryTest {
+
+    private static final String SHA256 = "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+    private static final String OTHER_SHA256 = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+    private static final String USER_ID = "00000000-0000-0000-0000-0000000000d1";
+    private static final String RECORD_ID = "00000000-0000-0000-0000-0000000000d3";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private FileContentRepository fileContentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldReportNewContentOnlyOnFirstReference() {
+        assertThat(fileContentRepository.acquire(SHA256, 12, StorageCodec.DEFLATE, 8))
+            .isEqualTo(new AcquiredContent(true, StorageCodec.DEFLATE));
+        // Referências seguintes recebem o codec da cópia gravada, não o pedido
+        assertThat(fileContentRepository.acquire(SHA256, 12, StorageCodec.NONE, 12))
+            .isEqualTo(new AcquiredContent(false, StorageCodec.DEFLATE));
+        assertThat(fileContentRepository.acquire(SHA256, 12, StorageCodec.GZIP, 9).created()).isFalse();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT stored_size FROM file_contents WHERE sha256 = ?",
+            Long.class, SHA256)).isEqualTo(8);
+    }
+
+    @Test
+    void shouldLockOnlyUnregisteredContent() {
+        fileContentRepository.acquire(SHA256, 12, StorageCodec.NONE, 12);
+
+        assertThat(fileContentRepository.lockUnregistered(SHA256)).isFalse();
+        assertThat(fileContentRepository.lockUnregistered(OTHER_SHA256)).isTrue();
+    }
+
+    @Test
+    void shouldReplaceCodecOfContentAndItsAttachments() {
+        seedRecord();
+        fileContentRepository.acquire(SHA256, 12, StorageCodec.NONE, 12);
+        attachment("00000000-0000-0000-0000-0000000000e1", SHA256);
+
+        fileContentRepository.replaceStoredContent(SHA256, StorageCodec.GZIP, 7);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT codec FROM file_contents WHERE sha256 = ?",
+            String.class, SHA256)).isEqualTo("GZIP");
+        assertThat(jdbcTemplate.queryForObject("SELECT storage_codec FROM file_attachments WHERE file_path = ?",
+            String.class, SHA256)).isEqualTo("GZIP");
+    }
+
+    @Test
+    void shouldListOnlyAttachmentsNotYetContentAddressed() {
+        seedRecord();
+        attachment("00000000-0000-0000-0000-0000000000e1", "uploads/antigo-1.pdf");
+        attachment("00000000-0000-0000-0000-0000000000e2", SHA256);
+        attachment("00000000-0000-0000-0000-0000000000e3", "uploads/antigo-2.pdf");
+
+        assertThat(fileContentRepository.findLegacyAttachments(null, 10))
+            .extracting(LegacyAttachment::filePath)
+            .containsExactly("uploads/antigo-1.pdf", "uploads/antigo-2.pdf");
+        assertThat(fileContentRepository.findLegacyAttachments("00000000-0000-0000-0000-0000000000e1", 10))
+            .extracting(LegacyAttachment::id)
+            .containsExactly("00000000-0000-0000-0000-0000000000e3");
+
+        assertThat(fileContentRepository.repointAttachment("00000000-0000-0000-0000-0000000000e1",
+            "uploads/outro.pdf", SHA256, StorageCodec.NONE)).isFalse();
+        assertThat(fileContentRepository.repointAttachment("00000000-0000-0000-0000-0000000000e1",
+            "uploads/antigo-1.pdf", SHA256, StorageCodec.NONE)).isTrue();
+        assertThat(fileContentRepository.findLegacyAttachments(null, 10)).hasSize(1);
+    }
+
+    private void seedRecord() {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES (?::uuid, 'conteudo', '', 'Conteúdo', 'conteudo@prontosus.test', 'CRM-CONTEUDO', 'DOCTOR',
+                    TRUE, NOW(), NOW())
+            """, USER_ID);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000d2', '90000000002', 'Paciente Conteúdo', DATE '1980-01-01',
+                    'OTHER', NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            VALUES (?::uuid, '00000000-0000-0000-0000-0000000000d2', ?::uuid, NOW(), 'Exames', NOW(), NOW())
+            """, RECORD_ID, USER_ID);
+    }
+
+    private void attachment(String id, String filePath) {
+        jdbcTemplate.update("""
+            INSERT INTO file_attachments (id, medical_record_id, file_name, file_path, content_type, file_size,
+                                          file_type, uploaded_at, uploaded_by)
+            VALUES (?::uuid, ?::uuid, 'exame.pdf', ?, 'application/pdf', 12, 'EXAM_RESULT', NOW(), ?::uuid)
+            """, id, RECORD_ID, filePath, USER_ID);
+    }
+}
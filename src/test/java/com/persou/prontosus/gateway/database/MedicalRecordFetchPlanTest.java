@@ -0,0 +1,179 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.mapper.MedicalRecordMapperImpl;
+import com.persou.prontosus.config.mapper.PatientMapperImpl;
+import com.persou.prontosus.config.mapper.UserMapperImpl;
+import com.persou.prontosus.domain.MedicalRecord;
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.enums.Gender;
+import com.persou.prontosus.domain.enums.ProfessionalRole;
+import com.persou.prontosus.gateway.MedicalRecordRepository;
+import com.persou.prontosus.gateway.MedicalRecordRepositoryImpl;
+import com.persou.prontosus.gateway.database.jpa.FileAttachmentEntity;
+import com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity;
+import com.persou.prontosus.gateway.database.jpa.PatientEntity;
+import com.persou.prontosus.gateway.database.jpa.UserEntity;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MedicalRecordRepositoryImpl.class, MedicalRecordMapperImpl.class, PatientMapperImpl.class,
+    UserMapperImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class MedicalRecordFetchPlanTest {
+
+    private static final long EXPECTED_STATEMENTS = 2;
+    private static final LocalDateTime FIRST_CONSULTATION = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @ParameterizedTest(name = "{0} registros")
+    @ValueSource(ints = {1, 25, 120})
+    void shouldLoadPatientHistoryWithConstantStatementCount(int recordCount) {
+        var seed = seed(recordCount);
+
+        List<MedicalRecord> records = countStatements(
+            () -> medicalRecordRepository.findByPatientIdOrderByConsultationDateDesc(seed.patient().getId()));
+
+        assertThat(records).hasSize(recordCount);
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.patient().fullName()).isEqualTo(seed.patient().getFullName());
+            assertThat(record.healthcareProfessional().username()).isEqualTo(seed.professional().getUsername());
+            assertThat(record.attachments()).hasSize(2);
+        });
+    }
+
+    @Test
+    void shouldLoadProfessionalRecordsWithConstantStatementCount() {
+        var seed = seed(40);
+
+        List<MedicalRecord> records = countStatements(
+            () -> medicalRecordRepository.findByHealthcareProfessionalIdOrderByConsultationDateDesc(
+                seed.professional().getId()));
+
+        assertThat(records).hasSize(40);
+        assertThat(records).allSatisfy(record -> assertThat(record.attachments()).hasSize(2));
+    }
+
+    @Test
+    void shouldLoadPatientDateRangeWithConstantStatementCount() {
+        var seed = seed(40);
+
+        List<MedicalRecord> records = countStatements(
+            () -> medicalRecordRepository.findByPatientAndDateRange(seed.patient().getId(),
+                FIRST_CONSULTATION, FIRST_CONSULTATION.plusDays(19)));
+
+        assertThat(records).hasSize(20);
+        assertThat(records).allSatisfy(record -> assertThat(record.attachments()).hasSize(2));
+    }
+
+    @Test
+    void shouldLoadConsultationDateRangeWithConstantStatementCount() {
+        seed(40);
+
+        List<MedicalRecord> records = countStatements(
+            () -> medicalRecordRepository.findByConsultationDateBetween(
+                FIRST_CONSULTATION, FIRST_CONSULTATION.plusDays(39)));
+
+        assertThat(records).hasSize(40);
+        assertThat(records).allSatisfy(record -> assertThat(record.attachments()).hasSize(2));
+    }
+
+    private <T> T countStatements(Supplier<T> query) {
+        Statistics statistics = entityManager.getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+
+        T result = query.get();
+
+        assertThat(statistics.getPrepareStatementCount())
+            .as("Quantidade de statements executados")
+            .isEqualTo(EXPECTED_STATEMENTS);
+        return result;
+    }
+
+    private Seed seed(int recordCount) {
+        UserEntity professional = entityManager.persist(UserEntity.builder()
+            .username("medico.fetch")
+            .password("senha")
+            .fullName("Dra. Fetch Plan")
+            .email("fetch@prontosus.com")
+            .professionalDocument("CRM-FETCH")
+            .role(ProfessionalRole.DOCTOR)
+            .active(true)
+            .build());
+        PatientEntity patient = entityManager.persist(PatientEntity.builder()
+            .cpf("99988877766")
+            .fullName("Paciente Fetch Plan")
+            .birthDate(LocalDate.of(1985, 3, 10))
+            .gender(Gender.FEMALE)
+            .build());
+
+        for (int i = 0; i < recordCount; i++) {
+            MedicalRecordEntity record = MedicalRecordEntity.builder()
+                .patient(patient)
+                .healthcareProfessional(professional)
+                .consultationDate(FIRST_CONSULTATION.plusDays(i))
+                .chiefComplaint("Consulta " + i)
+                .build();
+            entityManager.persist(record);
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(FileAttachmentEntity.builder()
+                    .medicalRecord(record)
+                    .fileName("exame-" + i + "-" + j + ".pdf")
+                    .filePath("uploads/exame-" + i + "-" + j + ".pdf")
+                    .contentType("application/pdf")
+                    .fileSize(1024L)
+                    .fileType(FileType.EXAM_RESULT)
+                    .uploadedBy(professional)
+                    .build());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return new Seed(patient, professional);
+    }
+
+    private record Seed(PatientEntity patient, UserEntity professional) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.application.ImportPatientsUseCase;
+import com.persou.prontosus.config.mapper.PatientMapperImpl;
+import com.persou.prontosus.domain.Patient;
+import com.persou.prontosus.domain.valueobject.PatientImportResult;
+import com.persou.prontosus.domain.valueobject.PatientImportRow;
+import com.persou.prontosus.gateway.PatientRepositoryImpl;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Importa um registro grande pelo caminho real (lotes com consulta de CPFs + saveAll) e confere que o
+// Hibernate agrupou os inserts em batches JDBC. Sem transação de teste: cada lote comita como em produção.
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ImportPatientsUseCase.class, PatientRepositoryImpl.class, PatientMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PatientBulkImportTest {
+
+    private static final int ROWS = 5_000;
+    private static final String CPF_PREFIX = "7";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private ImportPatientsUseCase importPatientsUseCase;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldImportInJdbcBatchesAndRejectExistingCpfs() {
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000b1', ?, 'Paciente Existente', DATE '1970-01-01', 'OTHER',
+                    NOW(), NOW())
+            """, cpf(1));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PatientImportResult result = importPatientsUseCase.execute(LongStream.rangeClosed(1, ROWS)
+            .mapToObj(row -> PatientImportRow.valid(row, patient(row)))
+            .iterator());
+
+        assertThat(result.importedRows()).isEqualTo(ROWS - 1);
+        assertThat(result.errors()).singleElement()
+            .satisfies(error -> assertThat(error.row()).isEqualTo(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients WHERE cpf LIKE ?", Long.class,
+            CPF_PREFIX + "%")).isEqualTo(ROWS);
+        // Um statement por lote JDBC (hibernate.jdbc.batch_size) e por consulta de CPFs, nunca um por linha
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    }
+
+    private static Patient patient(long row) {
+        return Patient.builder()
+            .cpf(cpf(row))
+            .fullName("Paciente Importado " + row)
+            .birthDate(LocalDate.of(1950, 1, 1).plusDays(row))
+            .gender("FEMALE")
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static String cpf(long row) {
+        return CPF_PREFIX + "%010d".formatted(row);
+    }
+}
@@ -0,0 +1,386 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.domain.enums.AppointmentStatus;
+import com.persou.prontosus.domain.enums.FileType;
+import com.persou.prontosus.domain.valueobject.PageCursor;
+import com.persou.prontosus.gateway.AppointmentQueryRepository;
+import com.persou.prontosus.gateway.AppointmentQueryRepositoryImpl;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepository;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepositoryImpl;
+import com.persou.prontosus.gateway.PatientQueryRepository;
+import com.persou.prontosus.gateway.PatientQueryRepositoryImpl;
+import com.persou.prontosus.gateway.UploadReconciliationRepository;
+import com.persou.prontosus.gateway.UploadReconciliationRepositoryImpl;
+import com.persou.prontosus.gateway.database.jpa.MedicalRecordEntity;
+import com.persou.prontosus.gateway.database.jpa.PatientEntity;
+import com.persou.prontosus.gateway.database.jpa.UserEntity;
+import com.persou.prontosus.gateway.database.jpa.repository.AppointmentJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.FileAttachmentJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.MedicalRecordJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.PatientJpaRepository;
+import com.persou.prontosus.gateway.database.jpa.repository.UserJpaRepository;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Cada caso chama o repositório de verdade e faz EXPLAIN do SQL que o Hibernate ou o NamedParameterJdbcTemplate
+// mandaram ao banco, com os mesmos parâmetros: uma mudança na consulta não passa despercebida por uma cópia do SQL
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PatientQueryRepositoryImpl.class, MedicalRecordQueryRepositoryImpl.class,
+    AppointmentQueryRepositoryImpl.class, UploadReconciliationRepositoryImpl.class,
+    QueryPlanRegressionTest.RecordingDataSourceConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    private static final String PATIENT_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String PROFESSIONAL_ID = "00000000-0000-0000-0000-000000000002";
+    private static final String MEDICAL_RECORD_ID = "00000000-0000-0000-0000-000000000003";
+    private static final LocalDateTime JANUARY_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime JANUARY_END = LocalDateTime.of(2024, 1, 31, 0, 0);
+    private static final LocalDateTime YEAR_END = LocalDateTime.of(2024, 12, 31, 0, 0);
+
+    private static final List<RecordedStatement> RECORDED = new ArrayList<>();
+    private static boolean recording;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MedicalRecordJpaRepository medicalRecordJpaRepository;
+
+    @Autowired
+    private AppointmentJpaRepository appointmentJpaRepository;
+
+    @Autowired
+    private FileAttachmentJpaRepository fileAttachmentJpaRepository;
+
+    @Autowired
+    private PatientJpaRepository patientJpaRepository;
+
+    @Autowired
+    private UserJpaRepository userJpaRepository;
+
+    @Autowired
+    private PatientQueryRepository patientQueryRepository;
+
+    @Autowired
+    private MedicalRecordQueryRepository medicalRecordQueryRepository;
+
+    @Autowired
+    private AppointmentQueryRepository appointmentQueryRepository;
+
+    @Autowired
+    private UploadReconciliationRepository reconciliationRepository;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        seedRows(jdbcTemplate);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // O seed tem poucos milhares de linhas: nesse volume o planner prefere Seq Scan mesmo com o índice certo, e o
+    // teste quebraria pela estatística, não pela falta de índice. Desligado, o Seq Scan fica caro mas não proibido:
+    // ele só continua no plano quando nenhum índice atende ao predicado, que é a regressão que o teste procura.
+    @BeforeEach
+    void disableSequentialScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+            query("MedicalRecordJpaRepository.findByPatientIdOrderByConsultationDateDesc",
+                test -> test.medicalRecordJpaRepository.findByPatientIdOrderByConsultationDateDesc(PATIENT_ID)),
+            query("MedicalRecordJpaRepository.findByHealthcareProfessionalIdOrderByConsultationDateDesc",
+                test -> test.medicalRecordJpaRepository
+                    .findByHealthcareProfessionalIdOrderByConsultationDateDesc(PROFESSIONAL_ID)),
+            query("MedicalRecordJpaRepository.findByConsultationDateBetween",
+                test -> test.medicalRecordJpaRepository.findByConsultationDateBetween(JANUARY_START, JANUARY_END)),
+            query("MedicalRecordJpaRepository.findByPatientAndDateRange",
+                test -> test.medicalRecordJpaRepository.findByPatientAndDateRange(PATIENT_ID, JANUARY_START,
+                    YEAR_END)),
+            query("AppointmentJpaRepository.findByPatientOrderByScheduledDateTimeDesc",
+                test -> test.appointmentJpaRepository.findByPatientOrderByScheduledDateTimeDesc(
+                    test.reference(PatientEntity.class, PATIENT_ID))),
+            query("AppointmentJpaRepository.findByHealthcareProfessionalAndScheduledDateTimeBetween",
+                test -> test.appointmentJpaRepository
+                    .findByHealthcareProfessionalAndScheduledDateTimeBetweenOrderByScheduledDateTime(
+                        test.reference(UserEntity.class, PROFESSIONAL_ID), JANUARY_START, JANUARY_END)),
+            query("AppointmentJpaRepository.findByStatusAndScheduledDateTimeBetween",
+                test -> test.appointmentJpaRepository.findByStatusAndScheduledDateTimeBetween(
+                    AppointmentStatus.SCHEDULED, JANUARY_START, JANUARY_END)),
+            query("AppointmentJpaRepository.findByPatientIdAndStatus",
+                test -> test.appointmentJpaRepository.findByPatientIdAndStatus(PATIENT_ID,
+                    AppointmentStatus.SCHEDULED)),
+            query("AppointmentJpaRepository.findByProfessionalAndScheduledRange",
+                test -> test.appointmentJpaRepository.findByProfessionalAndScheduledRange(PROFESSIONAL_ID,
+                    LocalDateTime.of(2024, 1, 15, 0, 0), LocalDateTime.of(2024, 1, 22, 0, 0))),
+            query("FileAttachmentJpaRepository.findByMedicalRecordOrderByUploadedAtDesc",
+                test -> test.fileAttachmentJpaRepository.findByMedicalRecordOrderByUploadedAtDesc(
+                    test.reference(MedicalRecordEntity.class, MEDICAL_RECORD_ID))),
+            query("FileAttachmentJpaRepository.findByFileType",
+                test -> test.fileAttachmentJpaRepository.findByFileType(FileType.IMAGE)),
+            query("FileAttachmentJpaRepository.findByPatientId",
+                test -> test.fileAttachmentJpaRepository.findByPatientId(PATIENT_ID)),
+            query("PatientJpaRepository.findByCpf",
+                test -> test.patientJpaRepository.findByCpf("12345678901")),
+            query("PatientJpaRepository.findByPhoneNumber",
+                test -> test.patientJpaRepository.findByPhoneNumber("11987654321")),
+            query("UserJpaRepository.findByUsername",
+                test -> test.userJpaRepository.findByUsername("admin")),
+            query("UserJpaRepository.findByEmail",
+                test -> test.userJpaRepository.findByEmail("admin@prontosus.com")),
+            query("UserJpaRepository.findByProfessionalDocument",
+                test -> test.userJpaRepository.findByProfessionalDocument("CRM123456")),
+            query("PatientQueryRepositoryImpl.findPage",
+                test -> test.patientQueryRepository.findPage(new PageCursor(JANUARY_START, PATIENT_ID), 20)),
+            query("PatientQueryRepositoryImpl.searchByName",
+                test -> test.patientQueryRepository.searchByName("joao", 20)),
+            query("MedicalRecordQueryRepositoryImpl.findByPatientId",
+                test -> test.medicalRecordQueryRepository.findByPatientId(PATIENT_ID)),
+            query("MedicalRecordQueryRepositoryImpl.findByPatientIdAndDateRange",
+                test -> test.medicalRecordQueryRepository.findByPatientIdAndDateRange(PATIENT_ID, JANUARY_START,
+                    YEAR_END)),
+            query("MedicalRecordQueryRepositoryImpl.findByProfessionalId",
+                test -> test.medicalRecordQueryRepository.findByProfessionalId(PROFESSIONAL_ID)),
+            query("AppointmentQueryRepositoryImpl.findByPatientId",
+                test -> test.appointmentQueryRepository.findByPatientId(PATIENT_ID)),
+            query("AppointmentQueryRepositoryImpl.findByPatientIdAndStatus",
+                test -> test.appointmentQueryRepository.findByPatientIdAndStatus(PATIENT_ID, "SCHEDULED")),
+            query("AppointmentQueryRepositoryImpl.findByProfessionalAndDateRange",
+                test -> test.appointmentQueryRepository.findByProfessionalAndDateRange(PROFESSIONAL_ID,
+                    JANUARY_START, JANUARY_END)),
+            query("AppointmentQueryRepositoryImpl.findByProfessionalAndPeriod",
+                test -> test.appointmentQueryRepository.findByProfessionalAndPeriod(PROFESSIONAL_ID,
+                    LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 22))),
+            query("AppointmentQueryRepositoryImpl.findByStatusAndDateRange",
+                test -> test.appointmentQueryRepository.findByStatusAndDateRange("SCHEDULED", JANUARY_START,
+                    JANUARY_END)),
+            query("UploadReconciliationRepositoryImpl.findReferencedContent",
+                test -> test.reconciliationRepository.findReferencedContent(List.of("a".repeat(64)))),
+            query("UploadReconciliationRepositoryImpl.findReferencedLegacyNames",
+                test -> test.reconciliationRepository.findReferencedLegacyNames(
+                    List.of("0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf")))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void shouldNotFallBackToSequentialScan(String query, Consumer<QueryPlanRegressionTest> call) {
+        List<RecordedStatement> statements = record(call);
+
+        assertThat(statements).as("SQL gerado por %s", query).isNotEmpty();
+        for (RecordedStatement statement : statements) {
+            List<String> plan = explain(statement);
+            assertThat(plan)
+                .as("Plano de %s:%n%s%n%s", query, statement.sql(), String.join(System.lineSeparator(), plan))
+                .noneMatch(line -> line.contains("Seq Scan"));
+        }
+    }
+
+    private static Arguments query(String name, Consumer<QueryPlanRegressionTest> call) {
+        return Arguments.of(name, call);
+    }
+
+    private <T> T reference(Class<T> entityType, String id) {
+        return entityManager.getEntityManager().getReference(entityType, id);
+    }
+
+    private List<RecordedStatement> record(Consumer<QueryPlanRegressionTest> call) {
+        RECORDED.clear();
+        recording = true;
+        try {
+            call.accept(this);
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(RECORDED);
+    }
+
+    // Mesma conexão da transação do teste, para valer o SET LOCAL; os parâmetros são reaplicados como no original
+    private List<String> explain(RecordedStatement recorded) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> plan = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + recorded.sql())) {
+                for (Binding binding : recorded.bindings()) {
+                    invoke(statement, binding.setter(), binding.args());
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+            }
+            return plan;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void seedRows(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            SELECT CASE WHEN g = 1 THEN '%s' ELSE gen_random_uuid() END,
+                   'user' || g, 'x', 'Profissional ' || g, 'user' || g || '@prontosus.com', 'DOC' || g,
+                   'DOCTOR', TRUE, NOW(), NOW()
+            FROM generate_series(1, 50) AS g
+            """.formatted(PROFESSIONAL_ID));
+        jdbcTemplate.execute("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, phone_number, created_at, updated_at)
+            SELECT CASE WHEN g = 1 THEN '%s' ELSE gen_random_uuid() END,
+                   LPAD(g::TEXT, 11, '0'), 'Paciente ' || g, DATE '1980-01-01' + g, 'OTHER',
+                   LPAD(g::TEXT, 11, '9'), NOW() - (g || ' minutes')::INTERVAL, NOW()
+            FROM generate_series(1, 5000) AS g
+            """.formatted(PATIENT_ID));
+        jdbcTemplate.execute("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            SELECT CASE WHEN g = 1 THEN '%s' ELSE gen_random_uuid() END,
+                   (SELECT id FROM patients ORDER BY id OFFSET g %% 5000 LIMIT 1),
+                   (SELECT id FROM users ORDER BY id OFFSET g %% 50 LIMIT 1),
+                   TIMESTAMP '2024-01-01' + (g || ' hours')::INTERVAL, 'Queixa ' || g, NOW(), NOW()
+            FROM generate_series(1, 5000) AS g
+            """.formatted(MEDICAL_RECORD_ID));
+        jdbcTemplate.execute("""
+            INSERT INTO appointments (id, patient_id, healthcare_professional_id, scheduled_date_time, status, type,
+                                      created_at, updated_at)
+            SELECT gen_random_uuid(),
+                   (SELECT id FROM patients ORDER BY id OFFSET g % 5000 LIMIT 1),
+                   (SELECT id FROM users ORDER BY id OFFSET g % 50 LIMIT 1),
+                   TIMESTAMP '2024-01-01' + (g || ' hours')::INTERVAL,
+                   (ARRAY ['SCHEDULED', 'COMPLETED', 'CANCELLED'])[1 + g % 3], 'CONSULTATION', NOW(), NOW()
+            FROM generate_series(1, 5000) AS g
+            """);
+        jdbcTemplate.execute("""
+            INSERT INTO file_attachments (id, medical_record_id, file_name, file_path, content_type, file_size,
+                                          file_type, uploaded_at, uploaded_by)
+            SELECT gen_random_uuid(), mr.id, 'exame.pdf', 'uploads/exame.pdf', 'application/pdf', 1024,
+                   'EXAM_RESULT', mr.consultation_date, mr.healthcare_professional_id
+            FROM medical_records mr
+            """);
+    }
+
+    private record RecordedStatement(String sql, List<Binding> bindings) {
+    }
+
+    private record Binding(Method setter, Object[] args) {
+    }
+
+    // Envolve o DataSource do contexto: enquanto grava, cada prepareStatement guarda o SQL e os setXxx(índice, ...)
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recordingConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recordingConnection(super.getConnection(username, password));
+        }
+
+        private static Connection recordingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (recording && method.getName().equals("prepareStatement")) {
+                        RecordedStatement recorded = new RecordedStatement((String) args[0], new ArrayList<>());
+                        RECORDED.add(recorded);
+                        return recordingStatement((PreparedStatement) result, recorded);
+                    }
+                    return result;
+                });
+        }
+
+        private static PreparedStatement recordingStatement(PreparedStatement statement, RecordedStatement recorded) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && method.getParameterTypes()[0] == int.class) {
+                        recorded.bindings().add(new Binding(method, args));
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+    }
+}
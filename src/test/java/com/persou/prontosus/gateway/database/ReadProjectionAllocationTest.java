@@ -0,0 +1,138 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.adapters.response.MedicalRecordResponse;
+import com.persou.prontosus.config.mapper.MedicalRecordMapper;
+import com.persou.prontosus.config.mapper.MedicalRecordMapperImpl;
+import com.persou.prontosus.config.mapper.PatientMapperImpl;
+import com.persou.prontosus.config.mapper.UserMapperImpl;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepository;
+import com.persou.prontosus.gateway.MedicalRecordQueryRepositoryImpl;
+import com.persou.prontosus.gateway.MedicalRecordRepository;
+import com.persou.prontosus.gateway.MedicalRecordRepositoryImpl;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Compara os bytes alocados por registro no histórico do paciente: entidade JPA -> domínio -> response
+// contra a projeção JDBC -> domínio -> response. Sem transação de teste para que cada leitura use a
+// própria transação read-only, como em produção. Depende do JIT e do perfil de alocação da JVM: roda só com
+// -Pbenchmark.
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MedicalRecordRepositoryImpl.class, MedicalRecordQueryRepositoryImpl.class, MedicalRecordMapperImpl.class,
+    PatientMapperImpl.class, UserMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ReadProjectionAllocationTest {
+
+    private static final String PATIENT_ID = "00000000-0000-0000-0000-0000000000a1";
+    private static final String PROFESSIONAL_ID = "00000000-0000-0000-0000-0000000000a2";
+    private static final UUID PATIENT_UUID = UUID.fromString(PATIENT_ID);
+    private static final UUID PROFESSIONAL_UUID = UUID.fromString(PROFESSIONAL_ID);
+    private static final int RECORDS = 200;
+    private static final int WARM_UP_ITERATIONS = 10;
+    private static final int MEASURED_ITERATIONS = 30;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private MedicalRecordQueryRepository medicalRecordQueryRepository;
+
+    @Autowired
+    private MedicalRecordMapper medicalRecordMapper;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES (?, 'medico.alocacao', 'x', 'Dr. Alocação', 'alocacao@prontosus.com', 'CRM-ALOC', 'DOCTOR',
+                    TRUE, NOW(), NOW())
+            """, PROFESSIONAL_UUID);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, phone_number, city, state,
+                                  created_at, updated_at)
+            VALUES (?, '55544433322', 'Paciente Alocação', DATE '1970-05-20', 'MALE', '11999990000',
+                    'São Paulo', 'SP', NOW(), NOW())
+            """, PATIENT_UUID);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, diagnosis, treatment, systolic_pressure,
+                                         diastolic_pressure, heart_rate, created_at, updated_at)
+            SELECT gen_random_uuid(), ?, ?, TIMESTAMP '2030-01-01' + (g || ' days')::INTERVAL,
+                   'Queixa ' || g, 'Diagnóstico ' || g, 'Tratamento ' || g, 120, 80, 70, NOW(), NOW()
+            FROM generate_series(1, ?) AS g
+            """, PATIENT_UUID, PROFESSIONAL_UUID, RECORDS);
+        jdbcTemplate.update("""
+            INSERT INTO file_attachments (id, medical_record_id, file_name, file_path, content_type, file_size,
+                                          file_type, uploaded_at, uploaded_by)
+            SELECT gen_random_uuid(), mr.id, 'exame-' || n || '.pdf', 'uploads/exame-' || n || '.pdf',
+                   'application/pdf', 2048, 'EXAM_RESULT', mr.consultation_date, mr.healthcare_professional_id
+            FROM medical_records mr CROSS JOIN generate_series(1, 2) AS n
+            WHERE mr.patient_id = ?
+            """, PATIENT_UUID);
+    }
+
+    @Test
+    void projectionShouldAllocateLessPerRecordThanEntityMapping() {
+        long entityPipeline = allocatedBytesPerRecord(() -> medicalRecordRepository
+            .findByPatientIdOrderByConsultationDateDesc(PATIENT_ID)
+            .stream()
+            .map(medicalRecordMapper::toResponse)
+            .toList());
+        long projectionPipeline = allocatedBytesPerRecord(() -> medicalRecordQueryRepository
+            .findByPatientId(PATIENT_ID)
+            .stream()
+            .map(medicalRecordMapper::toResponse)
+            .toList());
+
+        assertThat(projectionPipeline)
+            .as("Bytes alocados por registro na projeção JDBC; entidade JPA alocou %d", entityPipeline)
+            .isLessThan(entityPipeline);
+    }
+
+    private long allocatedBytesPerRecord(Supplier<List<MedicalRecordResponse>> pipeline) {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            assertThat(pipeline.get()).hasSize(RECORDS);
+        }
+
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            pipeline.get();
+        }
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+        return allocated / ((long) MEASURED_ITERATIONS * RECORDS);
+    }
+}
@@ -0,0 +1,108 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Um único Postgres com dois pools: o application_name da conexão diz para qual pool a consulta foi roteada
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingTest {
+
+    private static final String CURRENT_POOL = "SELECT current_setting('application_name')";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private final AtomicLong clock = new AtomicLong();
+    private HikariDataSource primary;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        routing = new ReplicaRoutingDataSource(primary, List.of(pool("replica")),
+            new ReadYourWritesWindow(Duration.ofSeconds(5), clock::get));
+        var dataSource = new LazyConnectionDataSourceProxy(routing);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        String readOnlyPool = readOnly.execute(status -> currentPool());
+        String readWritePool = readWrite.execute(status -> currentPool());
+
+        assertThat(readOnlyPool).isEqualTo("replica");
+        assertThat(readWritePool).isEqualTo("primary");
+        assertThat(currentPool()).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldReadFromPrimaryRightAfterTheUserWrites() {
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated("dr.silva", null, List.of()));
+
+        readWrite.executeWithoutResult(status -> currentPool());
+        clock.addAndGet(Duration.ofSeconds(4).toMillis());
+        String withinWindow = readOnly.execute(status -> currentPool());
+        assertThat(withinWindow).isEqualTo("primary");
+
+        clock.addAndGet(Duration.ofSeconds(2).toMillis());
+        String afterWindow = readOnly.execute(status -> currentPool());
+        assertThat(afterWindow).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldNotPinOtherUsersToPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated("dr.silva", null, List.of()));
+        readWrite.executeWithoutResult(status -> currentPool());
+
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated("enf.souza", null, List.of()));
+        String otherUserPool = readOnly.execute(status -> currentPool());
+        assertThat(otherUserPool).isEqualTo("replica");
+    }
+
+    private String currentPool() {
+        return jdbcTemplate.queryForObject(CURRENT_POOL, String.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(POSTGRES.getJdbcUrl() + "&ApplicationName=" + name);
+        dataSource.setUsername(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
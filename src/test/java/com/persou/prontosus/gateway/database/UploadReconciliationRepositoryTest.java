@@ -0,0 +1,112 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.gateway.UploadReconciliationRepository;
+import com.persou.prontosus.gateway.UploadReconciliationRepositoryImpl;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UploadReconciliationRepositoryImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+class UploadReconciliationRepositoryTest {
+
+    private static final String USER_ID = "00000000-0000-0000-0000-0000000000e1";
+    private static final String RECORD_ID = "00000000-0000-0000-0000-0000000000e3";
+    private static final String SHA_ATTACHED = "a".repeat(64);
+    private static final String SHA_REGISTERED = "b".repeat(64);
+    private static final String SHA_ORPHAN = "c".repeat(64);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private UploadReconciliationRepository reconciliationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedAttachments() {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES (?::uuid, 'conciliacao', '', 'Conciliação', 'conciliacao@prontosus.test', 'CRM-CONC', 'DOCTOR',
+                    TRUE, NOW(), NOW())
+            """, USER_ID);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000e2', '90000000004', 'Paciente Conciliação',
+                    DATE '1980-01-01', 'OTHER', NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            VALUES (?::uuid, '00000000-0000-0000-0000-0000000000e2', ?::uuid, NOW(), 'Exames', NOW(), NOW())
+            """, RECORD_ID, USER_ID);
+        attach("00000000-0000-0000-0000-0000000000e4", SHA_ATTACHED);
+        attach("00000000-0000-0000-0000-0000000000e5", "uploads/0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf");
+        jdbcTemplate.update("""
+            INSERT INTO file_contents (sha256, size, created_at, codec, stored_size)
+            VALUES (?, 10, NOW(), 'NONE', 10)
+            """, SHA_REGISTERED);
+    }
+
+    @Test
+    void shouldFindReferencedContentAndLegacyNamesInBatch() {
+        assertThat(reconciliationRepository.findReferencedContent(List.of(SHA_ATTACHED, SHA_REGISTERED, SHA_ORPHAN)))
+            .containsExactlyInAnyOrder(SHA_ATTACHED, SHA_REGISTERED);
+        assertThat(reconciliationRepository.findReferencedLegacyNames(
+            List.of("0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf", "6d06a78f-cefc-4553-9726-f6df98fa9f95.txt")))
+            .containsExactly("0b7c5f7e-1d2a-4c3b-9e8f-123456789abc.pdf");
+        assertThat(reconciliationRepository.findReferencedContent(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldPersistCursorAcrossSaves() {
+        assertThat(reconciliationRepository.findCursor()).isEmpty();
+
+        reconciliationRepository.saveCursor("ab/cd/" + SHA_ORPHAN, null);
+        assertThat(reconciliationRepository.findCursor()).hasValueSatisfying(cursor -> {
+            assertThat(cursor.lastPath()).isEqualTo("ab/cd/" + SHA_ORPHAN);
+            assertThat(cursor.passCompletedAt()).isNull();
+        });
+
+        LocalDateTime completedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        reconciliationRepository.saveCursor(null, completedAt);
+        assertThat(reconciliationRepository.findCursor()).hasValueSatisfying(cursor -> {
+            assertThat(cursor.lastPath()).isNull();
+            assertThat(cursor.passCompletedAt()).isEqualTo(completedAt);
+        });
+    }
+
+    private void attach(String id, String filePath) {
+        jdbcTemplate.update("""
+            INSERT INTO file_attachments (id, medical_record_id, file_name, file_path, content_type, file_size,
+                                          file_type, description, uploaded_at, uploaded_by)
+            VALUES (?::uuid, ?::uuid, 'exame.pdf', ?, 'application/pdf', 10, 'EXAM_RESULT', '', NOW(), ?::uuid)
+            """, id, RECORD_ID, filePath, USER_ID);
+    }
+}
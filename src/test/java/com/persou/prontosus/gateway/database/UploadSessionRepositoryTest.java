@@ -0,0 +1,112 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.domain.valueobject.UploadSession;
+import com.persou.prontosus.gateway.UploadSessionRepository;
+import com.persou.prontosus.gateway.UploadSessionRepositoryImpl;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UploadSessionRepositoryImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+class UploadSessionRepositoryTest {
+
+    private static final String USER_ID = "00000000-0000-0000-0000-0000000000f1";
+    private static final String RECORD_ID = "00000000-0000-0000-0000-0000000000f3";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedRecord() {
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, password, full_name, email, professional_document, role, active,
+                               created_at, updated_at)
+            VALUES (?::uuid, 'partes', '', 'Partes', 'partes@prontosus.test', 'CRM-PARTES', 'DOCTOR',
+                    TRUE, NOW(), NOW())
+            """, USER_ID);
+        jdbcTemplate.update("""
+            INSERT INTO patients (id, cpf, full_name, birth_date, gender, created_at, updated_at)
+            VALUES ('00000000-0000-0000-0000-0000000000f2', '90000000003', 'Paciente Partes', DATE '1980-01-01',
+                    'OTHER', NOW(), NOW())
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO medical_records (id, patient_id, healthcare_professional_id, consultation_date,
+                                         chief_complaint, created_at, updated_at)
+            VALUES (?::uuid, '00000000-0000-0000-0000-0000000000f2', ?::uuid, NOW(), 'Imagem', NOW(), NOW())
+            """, RECORD_ID, USER_ID);
+    }
+
+    @Test
+    void shouldCreateAndAdvanceOnlyFromExpectedOffset() {
+        UploadSession session = uploadSessionRepository.create(session(LocalDateTime.now().plusHours(24)));
+
+        assertThat(uploadSessionRepository.advance(session.id(), 0, 8_388_608, LocalDateTime.now().plusHours(24)))
+            .isTrue();
+        // Repetição da mesma parte (cliente que não recebeu a resposta) não avança de novo
+        assertThat(uploadSessionRepository.advance(session.id(), 0, 8_388_608, LocalDateTime.now().plusHours(24)))
+            .isFalse();
+
+        assertThat(uploadSessionRepository.findById(session.id())).hasValueSatisfying(found -> {
+            assertThat(found.medicalRecordId()).isEqualTo(RECORD_ID);
+            assertThat(found.uploadedBy()).isEqualTo(USER_ID);
+            assertThat(found.receivedSize()).isEqualTo(8_388_608);
+            assertThat(found.nextChunk()).isEqualTo(1);
+            assertThat(found.isComplete()).isFalse();
+        });
+        assertThat(uploadSessionRepository.findById("nao-e-uuid")).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteOnlyExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UploadSession expired = uploadSessionRepository.create(session(now.minusMinutes(1)));
+        UploadSession active = uploadSessionRepository.create(session(now.plusHours(1)));
+
+        assertThat(uploadSessionRepository.deleteExpired(now)).containsExactly(expired.id());
+
+        assertThat(uploadSessionRepository.findById(expired.id())).isEmpty();
+        assertThat(uploadSessionRepository.delete(active.id())).isTrue();
+        assertThat(uploadSessionRepository.delete(active.id())).isFalse();
+    }
+
+    private static UploadSession session(LocalDateTime expiresAt) {
+        return UploadSession.builder()
+            .medicalRecordId(RECORD_ID)
+            .uploadedBy(USER_ID)
+            .fileName("ressonancia.dcm")
+            .contentType("application/octet-stream")
+            .totalSize(300_000_000L)
+            .createdAt(LocalDateTime.now())
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
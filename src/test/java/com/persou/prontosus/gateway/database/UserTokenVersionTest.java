@@ -0,0 +1,100 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.persou.prontosus.config.mapper.UserMapperImpl;
+import com.persou.prontosus.domain.User;
+import com.persou.prontosus.gateway.UserRepository;
+import com.persou.prontosus.gateway.UserRepositoryImpl;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// A versão de token é mantida pelo trigger da V7: só sobe quando role ou active mudam, inclusive em UPDATE feito
+// fora da aplicação, e volta para a entidade após cada gravação (@Generated).
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserRepositoryImpl.class, UserMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class UserTokenVersionTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldBumpTokenVersionOnlyWhenRoleOrActiveChange() {
+        User created = userRepository.save(User.builder()
+            .username("versao.token")
+            .password("senha")
+            .fullName("Dra. Versão")
+            .email("versao@prontosus.com")
+            .professionalDocument("CRM-VERSAO")
+            .role("DOCTOR")
+            .active(true)
+            .build());
+        assertThat(created.tokenVersion()).isZero();
+
+        User loggedIn = userRepository.save(created.withLastLoginAt(LocalDateTime.now()));
+        assertThat(loggedIn.tokenVersion()).isZero();
+
+        User promoted = userRepository.save(loggedIn.withRole("ADMIN"));
+        assertThat(promoted.tokenVersion()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE users SET active = FALSE WHERE username = 'versao.token'");
+
+        assertThat(userRepository.findTokenVersionById(created.id())).contains(2);
+        assertThat(userRepository.findTokenVersions()).containsEntry(created.id(), 2);
+    }
+
+    @Test
+    void shouldRehashPasswordWithoutUndoingChangesMadeAfterTheRead() {
+        User read = userRepository.save(User.builder()
+            .username("rehash.token")
+            .password("$2a$08$legacy")
+            .fullName("Dr. Rehash")
+            .email("rehash@prontosus.com")
+            .professionalDocument("CRM-REHASH")
+            .role("DOCTOR")
+            .active(true)
+            .build());
+        // Enquanto o login esperava o BCrypt: admin desativa e promove, LastLoginWriter grava o último login
+        LocalDateTime flushedLogin = LocalDateTime.of(2030, 1, 1, 7, 0);
+        jdbcTemplate.update("UPDATE users SET active = FALSE, role = 'ADMIN', last_login_at = ? WHERE id = ?::uuid",
+            flushedLogin, read.id());
+
+        assertThat(userRepository.updatePassword(read, "$2a$12$rehashed")).isTrue();
+        assertThat(userRepository.updatePassword(read, "$2a$12$outro")).isFalse();
+
+        User stored = userRepository.findById(read.id()).orElseThrow();
+        assertThat(stored.password()).isEqualTo("$2a$12$rehashed");
+        assertThat(stored.active()).isFalse();
+        assertThat(stored.role()).isEqualTo("ADMIN");
+        assertThat(stored.lastLoginAt()).isEqualTo(flushedLogin);
+        assertThat(stored.tokenVersion()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Aplica todas as migrations sobre o seed da V2 (que tem IDs fora do formato UUID) e confere a V6
+@Testcontainers(disabledWithoutDocker = true)
+class UuidKeyMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        Flyway.configure()
+            .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void shouldStoreEveryKeyColumnAsNativeUuid() throws SQLException {
+        long varcharKeys = count("""
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE table_name IN ('patients', 'users', 'appointments', 'medical_records', 'file_attachments')
+              AND (column_name = 'id' OR column_name LIKE '%\\_id' OR column_name = 'uploaded_by')
+              AND data_type <> 'uuid'
+            """);
+
+        assertThat(varcharKeys).isZero();
+    }
+
+    @Test
+    void shouldKeepValidIdsAndRemapLegacyIdsDeterministically() throws SQLException {
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = 'e7ad215b-d7d2-4df3-873a-b5b292fcdcf3'"))
+            .isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = md5('f8bd326c-e8e3-5ef4-974b-c6c393ged4f4')::uuid"))
+            .isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM patients WHERE id = md5('p1a2b3c4-d5e6-7f8g-9h0i-j1k2l3m4n5o6')::uuid"))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepSeedRelationshipsAfterConversion() throws SQLException {
+        assertThat(count("""
+            SELECT COUNT(*) FROM medical_records mr
+            JOIN patients p ON p.id = mr.patient_id
+            JOIN users u ON u.id = mr.healthcare_professional_id
+            """)).isEqualTo(count("SELECT COUNT(*) FROM medical_records")).isPositive();
+        assertThat(count("""
+            SELECT COUNT(*) FROM file_attachments fa
+            JOIN medical_records mr ON mr.id = fa.medical_record_id
+            JOIN users u ON u.id = fa.uploaded_by
+            """)).isEqualTo(count("SELECT COUNT(*) FROM file_attachments")).isPositive();
+        assertThat(count("""
+            SELECT COUNT(*) FROM pg_constraint
+            WHERE contype = 'f'
+              AND conrelid IN ('appointments'::regclass, 'medical_records'::regclass, 'file_attachments'::regclass)
+            """)).isEqualTo(7);
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class UuidsTest {
+
+    private static final long EPOCH_MILLIS = 1_767_225_600_000L;
+
+    @Test
+    void shouldGenerateVersion7WithRfcVariantAndTimestampPrefix() {
+        UUID uuid = Uuids.v7(EPOCH_MILLIS + 1_000_000);
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(EPOCH_MILLIS + 1_000_000);
+    }
+
+    @Test
+    void shouldKeepIdsIncreasingWithinTheSameMillisecond() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(Uuids.v7(EPOCH_MILLIS).toString());
+        }
+
+        // Ordem de texto igual à ordem de geração: vale tanto para o uuid nativo quanto para a string da API
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldParseOnlyCanonicalUuids() {
+        String canonical = "0190f5a2-7c4e-7b1a-9c3d-5e6f7a8b9c0d";
+
+        assertThat(Uuids.parseOrNull(canonical)).isEqualTo(UUID.fromString(canonical));
+        assertThat(Uuids.parseOrNull(canonical.toUpperCase())).isEqualTo(UUID.fromString(canonical));
+        assertThat(Uuids.parseOrNull("patient1")).isNull();
+        assertThat(Uuids.parseOrNull("1-1-1-1-1")).isNull();
+        assertThat(Uuids.parseOrNull("f8bd326c-e8e3-5ef4-974b-c6c393ged4f4")).isNull();
+        assertThat(Uuids.parseOrNull(null)).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.persou.prontosus.gateway.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+// Comparação do modo de execução com 2.000 clientes simultâneos: cada requisição grava o arquivo em disco
+// (I/O bloqueante, fora do banco) e depois usa uma conexão por pouco tempo. Pool de 200 threads de plataforma
+// (padrão do Tomcat) contra uma virtual thread por requisição, as duas atrás do mesmo limite de 10 conexões.
+// Mede tempo de parede: roda só com -Pbenchmark.
+@Tag("benchmark")
+class VirtualThreadThroughputTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final int REQUESTS_PER_CLIENT = 3;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final long DISK_IO_MILLIS = 40;
+    private static final long QUERY_MILLIS = 1;
+
+    @Test
+    void shouldServeMoreRequestsPerSecondWithVirtualThreads() throws Exception {
+        double platform = requestsPerSecond(Executors.newFixedThreadPool(TOMCAT_THREADS));
+        double virtual = requestsPerSecond(Executors.newVirtualThreadPerTaskExecutor());
+
+        assertThat(virtual)
+            .as("req/s com virtual threads; %d threads de plataforma fizeram %.0f req/s", TOMCAT_THREADS, platform)
+            .isGreaterThan(platform);
+    }
+
+    private static double requestsPerSecond(ExecutorService executor) throws Exception {
+        DataSource pool = Mockito.mock(DataSource.class);
+        Mockito.when(pool.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        var dataSource = new ConnectionLimitingDataSource(pool, POOL_SIZE, Duration.ofSeconds(30),
+            new SimpleMeterRegistry());
+
+        int requests = CLIENTS * REQUESTS_PER_CLIENT;
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> handleRequest(dataSource)));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        }
+        return requests / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static Void handleRequest(DataSource dataSource) throws SQLException, InterruptedException {
+        Thread.sleep(DISK_IO_MILLIS);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(0);
+            Thread.sleep(QUERY_MILLIS);
+        }
+        return null;
+    }
+}
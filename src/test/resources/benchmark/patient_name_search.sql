@@ -0,0 +1,44 @@
+-- Benchmark da busca de pacientes por nome: LOWER(...) LIKE '%x%' vs. índice trigram (pg_trgm + unaccent).
+-- Requer as migrations V1..V4 aplicadas. Executar com:
+--   psql -h localhost -U root -d db -f src/test/resources/benchmark/patient_name_search.sql
+-- Usa uma tabela própria (BENCH_PATIENTS) para não poluir PATIENTS.
+
+\timing on
+
+DROP TABLE IF EXISTS BENCH_PATIENTS;
+CREATE TABLE BENCH_PATIENTS (LIKE PATIENTS INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+
+INSERT INTO BENCH_PATIENTS (ID, CPF, FULL_NAME, BIRTH_DATE, GENDER, CREATED_AT, UPDATED_AT)
+SELECT gen_random_uuid(),
+       LPAD(g::TEXT, 11, '0'),
+       (ARRAY ['João', 'José', 'Maria', 'Ana', 'Antônio', 'Francisca', 'Luís', 'Cecília', 'Paulo', 'Márcia'])[1 + g % 10]
+           || ' ' ||
+       (ARRAY ['da Silva', 'dos Santos', 'Oliveira', 'Souza', 'Conceição', 'Pereira', 'Araújo', 'Gonçalves'])[1 + (g / 10) % 8]
+           || ' ' || md5(g::TEXT),
+       DATE '1950-01-01' + (g % 25000),
+       (ARRAY ['MALE', 'FEMALE', 'OTHER'])[1 + g % 3],
+       NOW(),
+       NOW()
+FROM generate_series(1, 1000000) AS g;
+
+CREATE INDEX IDX_BENCH_PATIENTS_FULL_NAME_TRGM
+    ON BENCH_PATIENTS USING GIN (IMMUTABLE_UNACCENT(LOWER(FULL_NAME)) gin_trgm_ops);
+ANALYZE BENCH_PATIENTS;
+
+-- Consulta antiga (PatientJpaRepository.findByFullNameContainingIgnoreCase): sequential scan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM BENCH_PATIENTS
+WHERE LOWER(FULL_NAME) LIKE LOWER('%' || 'conceicao' || '%');
+
+-- Consulta nova (PatientQueryRepositoryImpl.searchByName): bitmap scan no índice GIN, sem acento e top-N
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT *
+FROM BENCH_PATIENTS
+WHERE IMMUTABLE_UNACCENT(LOWER('conceicao')) <% IMMUTABLE_UNACCENT(LOWER(FULL_NAME))
+   OR IMMUTABLE_UNACCENT(LOWER(FULL_NAME)) LIKE '%' || IMMUTABLE_UNACCENT(LOWER('conceicao')) || '%'
+ORDER BY WORD_SIMILARITY(IMMUTABLE_UNACCENT(LOWER('conceicao')), IMMUTABLE_UNACCENT(LOWER(FULL_NAME))) DESC,
+         FULL_NAME
+LIMIT 20;
+
+DROP TABLE BENCH_PATIENTS;
@@ -0,0 +1,81 @@
+-- Benchmark das chaves primárias: VARCHAR(36) com UUIDv4 (antigo) vs. UUID nativo com UUIDv4 vs. UUID nativo
+-- com UUIDv7 (novo, gerado por Uuids.v7() na aplicação). Mede o tempo de inserção com PK + índice de FK e o
+-- tamanho final dos índices. Executar com:
+--   psql -h localhost -U root -d db -f src/test/resources/benchmark/uuid_keys.sql
+-- Usa tabelas próprias (BENCH_KEYS_*) para não poluir o schema da aplicação.
+
+\timing on
+
+-- Mesmo layout de Uuids.v7(): 48 bits de timestamp em ms, versão 7, variante RFC 4122 e bits aleatórios.
+-- clock_timestamp() avança durante o INSERT, então as chaves saem ordenadas como na aplicação.
+CREATE OR REPLACE FUNCTION BENCH_UUID_V7() RETURNS UUID AS
+$$
+SELECT ENCODE(
+               SET_BIT(SET_BIT(
+                               OVERLAY(UUID_SEND(GEN_RANDOM_UUID())
+                                       PLACING SUBSTRING(INT8SEND(FLOOR(EXTRACT(EPOCH FROM CLOCK_TIMESTAMP()) * 1000)::BIGINT) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1), 53, 1),
+               'hex')::UUID
+$$ LANGUAGE SQL VOLATILE;
+
+DROP TABLE IF EXISTS BENCH_KEYS_VARCHAR_V4, BENCH_KEYS_UUID_V4, BENCH_KEYS_UUID_V7;
+
+CREATE TABLE BENCH_KEYS_VARCHAR_V4
+(
+    ID         VARCHAR(36) PRIMARY KEY,
+    PATIENT_ID VARCHAR(36) NOT NULL,
+    CREATED_AT TIMESTAMP   NOT NULL
+);
+CREATE INDEX IDX_BENCH_KEYS_VARCHAR_V4_PATIENT ON BENCH_KEYS_VARCHAR_V4 (PATIENT_ID);
+
+CREATE TABLE BENCH_KEYS_UUID_V4
+(
+    ID         UUID PRIMARY KEY,
+    PATIENT_ID UUID      NOT NULL,
+    CREATED_AT TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_BENCH_KEYS_UUID_V4_PATIENT ON BENCH_KEYS_UUID_V4 (PATIENT_ID);
+
+CREATE TABLE BENCH_KEYS_UUID_V7
+(
+    ID         UUID PRIMARY KEY,
+    PATIENT_ID UUID      NOT NULL,
+    CREATED_AT TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_BENCH_KEYS_UUID_V7_PATIENT ON BENCH_KEYS_UUID_V7 (PATIENT_ID);
+
+-- 1 milhão de linhas, 20 mil pacientes distintos na FK (mesma distribuição para as três tabelas)
+INSERT INTO BENCH_KEYS_VARCHAR_V4 (ID, PATIENT_ID, CREATED_AT)
+SELECT GEN_RANDOM_UUID()::TEXT, MD5((G % 20000)::TEXT)::UUID::TEXT, NOW()
+FROM GENERATE_SERIES(1, 1000000) AS G;
+
+INSERT INTO BENCH_KEYS_UUID_V4 (ID, PATIENT_ID, CREATED_AT)
+SELECT GEN_RANDOM_UUID(), MD5((G % 20000)::TEXT)::UUID, NOW()
+FROM GENERATE_SERIES(1, 1000000) AS G;
+
+INSERT INTO BENCH_KEYS_UUID_V7 (ID, PATIENT_ID, CREATED_AT)
+SELECT BENCH_UUID_V7(), MD5((G % 20000)::TEXT)::UUID, NOW()
+FROM GENERATE_SERIES(1, 1000000) AS G;
+
+ANALYZE BENCH_KEYS_VARCHAR_V4, BENCH_KEYS_UUID_V4, BENCH_KEYS_UUID_V7;
+
+-- Tamanho da tabela e dos índices de PK/FK
+SELECT C.RELNAME                                        AS RELATION,
+       PG_SIZE_PRETTY(PG_RELATION_SIZE(C.OID))          AS SIZE,
+       PG_RELATION_SIZE(C.OID)                          AS BYTES
+FROM PG_CLASS C
+WHERE C.RELNAME LIKE 'bench_keys_%'
+   OR C.RELNAME LIKE 'idx_bench_keys_%'
+ORDER BY C.RELNAME;
+
+-- Localidade da PK: com v7 as chaves vizinhas na ordem de inserção ficam nas mesmas páginas do índice
+-- (correlation próxima de 1); com v4 a inserção espalha as chaves pelo índice inteiro (correlation ~0)
+SELECT TABLENAME, ATTNAME, CORRELATION
+FROM PG_STATS
+WHERE TABLENAME LIKE 'bench_keys_%'
+  AND ATTNAME = 'id'
+ORDER BY TABLENAME;
+
+DROP TABLE BENCH_KEYS_VARCHAR_V4, BENCH_KEYS_UUID_V4, BENCH_KEYS_UUID_V7;
+DROP FUNCTION BENCH_UUID_V7();